@@ -24,7 +24,8 @@ CREATE TABLE Bid_list (
   source_list_id VARCHAR(125),
   side VARCHAR(125),
 
-  PRIMARY KEY (bid_list_id)
+  PRIMARY KEY (bid_list_id),
+  CONSTRAINT bid_list_source_list_id_uk UNIQUE (source_list_id)
 );
 
 CREATE TABLE Trade (
@@ -50,7 +51,74 @@ CREATE TABLE Trade (
   source_list_id VARCHAR(125),
   side VARCHAR(125),
 
-  PRIMARY KEY (trade_id)
+  PRIMARY KEY (trade_id),
+  CONSTRAINT trade_source_list_id_uk UNIQUE (source_list_id)
+);
+
+CREATE INDEX bid_list_account_status_idx ON Bid_list (account, status);
+CREATE INDEX bid_list_book_status_idx ON Bid_list (book, status);
+CREATE INDEX bid_list_trader_status_idx ON Bid_list (trader, status);
+CREATE INDEX bid_list_security_idx ON Bid_list (security);
+CREATE INDEX bid_list_bid_list_date_idx ON Bid_list (bid_list_date);
+
+CREATE INDEX trade_account_status_idx ON Trade (account, status);
+CREATE INDEX trade_book_status_idx ON Trade (book, status);
+CREATE INDEX trade_trader_status_idx ON Trade (trader, status);
+CREATE INDEX trade_security_idx ON Trade (security);
+CREATE INDEX trade_trade_date_idx ON Trade (trade_date);
+
+CREATE TABLE Trade_total (
+  Id int NOT NULL AUTO_INCREMENT,
+  status VARCHAR(10) NOT NULL,
+  trader VARCHAR(125) NOT NULL,
+  book VARCHAR(125) NOT NULL,
+  trade_count BIGINT NOT NULL,
+  buy_quantity DOUBLE NOT NULL,
+  sell_quantity DOUBLE NOT NULL,
+
+  PRIMARY KEY (Id),
+  CONSTRAINT trade_total_status_trader_book_uk UNIQUE (status, trader, book)
+);
+
+CREATE TABLE Trade_archive (
+  Id int NOT NULL,
+  account VARCHAR(30) NOT NULL,
+  type VARCHAR(30) NOT NULL,
+  buy_quantity DOUBLE,
+  sell_quantity DOUBLE,
+  buy_price DOUBLE ,
+  sell_price DOUBLE,
+  trade_date TIMESTAMP,
+  security VARCHAR(125),
+  status VARCHAR(10),
+  trader VARCHAR(125),
+  benchmark VARCHAR(125),
+  book VARCHAR(125),
+  creation_name VARCHAR(125),
+  creation_date TIMESTAMP ,
+  revision_name VARCHAR(125),
+  revision_date TIMESTAMP ,
+  deal_name VARCHAR(125),
+  deal_type VARCHAR(125),
+  source_list_id VARCHAR(125),
+  side VARCHAR(125),
+  archived_date TIMESTAMP,
+
+  PRIMARY KEY (Id)
+);
+
+CREATE INDEX trade_archive_account_status_idx ON Trade_archive (account, status);
+CREATE INDEX trade_archive_trade_date_idx ON Trade_archive (trade_date);
+CREATE INDEX trade_archive_source_list_id_idx ON Trade_archive (source_list_id);
+
+-- Id generator of the "bulk" profile (application-bulk.properties, META-INF/orm-bulk.xml).
+-- Ids are reserved by blocks of 50 and the stored value is the last id of the next block,
+-- so each row is seeded with the highest existing id plus 50.
+CREATE TABLE id_generator (
+  sequence_name VARCHAR(255) NOT NULL,
+  next_val BIGINT,
+
+  PRIMARY KEY (sequence_name)
 );
 
 CREATE TABLE Curve_point (
@@ -64,6 +132,21 @@ CREATE TABLE Curve_point (
   PRIMARY KEY (Id)
 );
 
+CREATE INDEX curve_point_curve_as_of_term_idx ON Curve_point (curve_id, as_of_date, term);
+
+CREATE TABLE Derived_curve_point (
+  Id int NOT NULL AUTO_INCREMENT,
+  curve_id tinyint,
+  as_of_date TIMESTAMP,
+  tenor DOUBLE ,
+  value DOUBLE ,
+  computed_date TIMESTAMP ,
+
+  PRIMARY KEY (Id)
+);
+
+CREATE INDEX derived_curve_point_curve_as_of_tenor_idx ON Derived_curve_point (curve_id, as_of_date, tenor);
+
 CREATE TABLE Rating (
   Id tinyint(4) NOT NULL AUTO_INCREMENT,
   moodys_rating VARCHAR(125),
@@ -96,6 +179,12 @@ CREATE TABLE Users (
   PRIMARY KEY (Id)
 );
 
+CREATE INDEX users_username_idx ON Users (username);
+
 insert into Users(fullname, username, password, role) values("Administrator", "admin", "$2a$10$pBV8ILO/s/nao4wVnGLrh.sa/rnr5pDpbeC4E.KNzQWoy8obFZdaa", "ADMIN");
 insert into Users(fullname, username, password, role) values("User", "user", "$2a$10$pBV8ILO/s/nao4wVnGLrh.sa/rnr5pDpbeC4E.KNzQWoy8obFZdaa", "USER");
 insert into Users(fullname, username, password, role) values("myAdministrator", "personalAdmin", "$2a$10$Eur9r7cZWY6Q3/LPO7HWROQSa1AxXAj2KSrLdANDqGNBVqN97zgna", "ADMIN");
+
+INSERT INTO id_generator(sequence_name, next_val) SELECT 'bid_list', COALESCE(MAX(bid_list_id), 0) + 50 FROM Bid_list;
+INSERT INTO id_generator(sequence_name, next_val) SELECT 'trade', COALESCE(MAX(trade_id), 0) + 50 FROM Trade;
+INSERT INTO id_generator(sequence_name, next_val) SELECT 'curve_point', COALESCE(MAX(Id), 0) + 50 FROM Curve_point;
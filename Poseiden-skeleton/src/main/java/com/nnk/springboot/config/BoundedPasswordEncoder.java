@@ -0,0 +1,177 @@
+package com.nnk.springboot.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class runs the password hashing of another PasswordEncoder on a dedicated, bounded pool of threads.
+ * BCrypt is CPU-heavy on purpose: the pool limits the number of hashes computed at once, so a burst of logins or
+ * of user updates can't take the CPU of every request thread. The calling thread waits for its hash.
+ *
+ * The hashes waiting for a thread are held in a bounded queue. When the queue is full, the hash is refused at once
+ * with a PasswordHashingRejectedException instead of piling up waiting request threads.
+ *
+ * The encoder records the queue depth, the number of refused hashes and the latency of the hashes (time spent in
+ * the queue and time spent hashing).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int queueCapacity;
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    private final LongAdder totalHashNanos = new LongAdder();
+
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param delegate Encoder computing the hashes
+     * @param threads Number of hashes computed at once
+     * @param queueCapacity Number of hashes waiting for a thread beyond which new hashes are refused
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long finished = System.nanoTime();
+                    totalWaitNanos.add(started - submitted);
+                    totalHashNanos.add(finished - started);
+                    maxLatencyNanos.accumulate(finished - submitted);
+                    completedCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw new PasswordHashingRejectedException("Too many passwords are being checked, please try again");
+        }
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * This method returns the number of hashes waiting for a thread.
+     *
+     * @return Current depth of the queue
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * This method returns the mean time the completed hashes spent in the queue, waiting for a thread.
+     *
+     * @return Mean wait, in milliseconds. 0 if no hash was completed
+     */
+    public double getMeanWaitMillis() {
+        long completed = completedCount.sum();
+        return completed == 0 ? 0 : totalWaitNanos.sum() / 1_000_000.0 / completed;
+    }
+
+    /**
+     * This method returns the mean time the completed hashes took to compute, once given a thread.
+     *
+     * @return Mean hashing time, in milliseconds. 0 if no hash was completed
+     */
+    public double getMeanHashMillis() {
+        long completed = completedCount.sum();
+        return completed == 0 ? 0 : totalHashNanos.sum() / 1_000_000.0 / completed;
+    }
+
+    /**
+     * This method returns the longest time a completed hash took, from its submission to its result.
+     *
+     * @return Maximum latency, in milliseconds
+     */
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
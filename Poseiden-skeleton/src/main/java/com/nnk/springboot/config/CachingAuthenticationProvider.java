@@ -0,0 +1,94 @@
+package com.nnk.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class remembers for a short time the credentials verified by another AuthenticationProvider, so that the
+ * clients sending their credentials with each request, such as those of the Trade capture, cost one BCrypt check per
+ * time to live rather than one per request, and leave the password hashing pool to the logins.
+ *
+ * The credentials are remembered by username and SHA-256 digest of the password, salted with a random key drawn at
+ * startup: the password itself is never kept, and a request is only answered from the cache when its password has
+ * the same digest. Concurrent requests with the same credentials wait for a single check. A remembered
+ * authentication expires after the time to live, so a changed password or a deleted user is refused at most that
+ * long after. A failed check is never remembered.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+
+    private final Cache<String, Authentication> verified;
+
+    private final byte[] salt = new byte[32];
+
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * @param delegate Provider checking the credentials unknown to the cache
+     * @param timeToLive Time during which verified credentials are accepted without being checked again
+     * @param maximumSize Number of usernames remembered
+     */
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration timeToLive, long maximumSize) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(maximumSize)
+                .build();
+        new SecureRandom().nextBytes(salt);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        Object credentials = authentication.getCredentials();
+        if (credentials == null) {
+            return delegate.authenticate(authentication);
+        }
+        // the digest has a fixed length, so the key can't be shared by two usernames
+        String key = authentication.getName() + ':'
+                + Base64.getEncoder().encodeToString(digest(credentials.toString()));
+        boolean[] checked = new boolean[1];
+        Authentication result = verified.get(key, k -> {
+            checked[0] = true;
+            Authentication checkedAuthentication = delegate.authenticate(authentication);
+            return checkedAuthentication != null && checkedAuthentication.isAuthenticated()
+                    ? checkedAuthentication : null;
+        });
+        if (!checked[0]) {
+            hitCount.increment();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    /**
+     * @return Number of authentications answered from the cache, without checking the password
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    private byte[] digest(String password) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(salt);
+            return sha256.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.nnk.springboot.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * This class enables the caching of the reference data (Ratings and RuleNames) and of the credentials read
+ * at login.
+ * The caches are created by Spring Boot from the spring.cache.* properties: their size, time to live and the
+ * recording of their statistics are set by spring.cache.caffeine.spec.
+ *
+ * The caching advice is ordered before the transaction advice, so that a cache is evicted once the write
+ * transaction is committed rather than before its commit.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CachingConfig {
+
+    /**
+     * Cache of the Rating pages and Ratings read by RatingService.
+     */
+    public static final String RATINGS = "ratings";
+
+    /**
+     * Cache of the RuleName pages and RuleNames read by RuleNameService.
+     */
+    public static final String RULE_NAMES = "ruleNames";
+
+    /**
+     * Cache of the credentials read by UserService when a User logs in, by username.
+     */
+    public static final String USERS = "users";
+}
@@ -0,0 +1,15 @@
+package com.nnk.springboot.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * This exception is thrown by BoundedPasswordEncoder when its queue is full.
+ * It is an AuthenticationServiceException, so a login refused for this reason is sent to the login failure page
+ * rather than to an error page.
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.nnk.springboot.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class completes the Hibernate configuration of the application.
+ */
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * This method registers the StatementCounter so that every SQL statement prepared by Hibernate is counted.
+     *
+     * @return Customizer adding the statement inspector to the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+}
@@ -1,16 +1,21 @@
 package com.nnk.springboot.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import javax.sql.DataSource;
+import java.time.Duration;
 
 /**
  * This class implements the security aspect of the application.
@@ -24,18 +29,113 @@ import javax.sql.DataSource;
  *      User management -> "/user/list", "user/add", "user/validate"
  *      Home page -> "/"
  *
+ * The cache and password hashing statistics ("/admin/cache/**", "/admin/hashing/**"), the reload of the curve history
+ * store and the recomputation of the derived curves ("/admin/curve/**"), the full revaluation of the Trades
+ * ("/admin/valuation/**") and the archival of the aged Trades ("/admin/trade/**") are restricted to the ADMIN users.
+ *
+ * The Trade capture ("/trade/capture") is called by other applications rather than by a browser: each request
+ * authenticates itself with HTTP Basic, with the credentials of a registered user, and has no session nor CSRF
+ * token. A request without valid credentials is answered 401 instead of being redirected to the login page. The
+ * credentials verified are remembered for a short time, so the capture doesn't check a BCrypt hash per request.
+ *
  * For the rest of the requests, the user must be logged in otherwise he will be redirected to the login page.
  */
 @Configuration
 @EnableWebSecurity
 public class SpringSecurityConfig extends WebSecurityConfigurerAdapter {
 
+    /**
+     * This class secures the Trade capture, before the form login of the other requests.
+     */
+    @Configuration
+    @Order(1)
+    public static class CaptureSecurityConfig extends WebSecurityConfigurerAdapter {
+
+        @Autowired
+        private UserDetailsService userDetailsService;
+
+        @Autowired
+        private BoundedPasswordEncoder passwordEncoder;
+
+        /**
+         * Time, in seconds, during which the credentials verified are accepted without checking their hash again.
+         */
+        @Value("${poseidon.trade.capture.credentials-ttl-seconds:300}")
+        private long credentialsTtlSeconds;
+
+        /**
+         * Number of users whose verified credentials are remembered.
+         */
+        @Value("${poseidon.trade.capture.credentials-cache-size:1000}")
+        private long credentialsCacheSize;
+
+        /**
+         * This method creates the provider of the capture requests: the credentials are checked against the database
+         * like at login, then remembered for a while.
+         *
+         * @return Caching provider around the provider of the login
+         */
+        @Bean
+        public CachingAuthenticationProvider captureAuthenticationProvider() {
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+            provider.setUserDetailsService(userDetailsService);
+            provider.setPasswordEncoder(passwordEncoder);
+            return new CachingAuthenticationProvider(provider, Duration.ofSeconds(credentialsTtlSeconds),
+                    credentialsCacheSize);
+        }
+
+        @Override
+        public void configure(AuthenticationManagerBuilder auth) throws Exception {
+            auth.authenticationProvider(captureAuthenticationProvider());
+        }
+
+        /**
+         * This method requires HTTP Basic credentials on every capture request, without session nor CSRF token.
+         *
+         * @param http HttpSecurity instance of the capture requests
+         * @throws Exception
+         */
+        @Override
+        public void configure(HttpSecurity http) throws Exception {
+            http.antMatcher("/trade/capture")
+                    .authorizeRequests()
+                        .anyRequest().authenticated()
+                        .and()
+                    .httpBasic()
+                        .and()
+                    .sessionManagement()
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                        .and()
+                    .csrf()
+                        .disable();
+        }
+    }
+
     @Autowired
-    private DataSource dataSource;
+    private UserDetailsService userDetailsService;
+
+    /**
+     * Log2 of the number of BCrypt rounds of the password hashes.
+     */
+    @Value("${poseidon.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    /**
+     * Number of password hashes computed at once.
+     */
+    @Value("${poseidon.security.hashing.threads:2}")
+    private int hashingThreads;
+
+    /**
+     * Number of password hashes waiting for a thread beyond which new ones are refused.
+     */
+    @Value("${poseidon.security.hashing.queue-capacity:50}")
+    private int hashingQueueCapacity;
 
     /**
      * This method configures the authentication method with the database.
      * In order to authenticate, you must enter your username and password that will be compared to the ones stored in the database.
+     * The username, password hash and role are loaded in one query by the UserDetailsService.
      *
      * @param auth AuthenticationManagerBuilder instance that will ensure the authentication configuration of the application
      * @throws Exception
@@ -43,10 +143,8 @@ public class SpringSecurityConfig extends WebSecurityConfigurerAdapter {
     @Override
     public void configure(AuthenticationManagerBuilder auth) throws Exception{
         auth
-            .jdbcAuthentication()
-                .dataSource(dataSource)
-                .usersByUsernameQuery("select username,password,1 as enabled from users where username = ?")
-                .authoritiesByUsernameQuery("select username, role from users where username = ?");
+            .userDetailsService(userDetailsService)
+                .passwordEncoder(passwordEncoder());
     }
 
     /**
@@ -64,6 +162,9 @@ public class SpringSecurityConfig extends WebSecurityConfigurerAdapter {
     public void configure(HttpSecurity http) throws Exception{
         http.authorizeRequests()
                 .antMatchers("/","/user/list", "/user/add", "/user/validate").permitAll()
+                .antMatchers("/admin/cache/**", "/admin/hashing/**", "/admin/curve/**", "/admin/valuation/**",
+                        "/admin/trade/**")
+                        .hasAuthority("ADMIN")
                 .anyRequest()
                     .authenticated()
                     .and()
@@ -78,8 +179,14 @@ public class SpringSecurityConfig extends WebSecurityConfigurerAdapter {
                     .permitAll();
     }
 
+    /**
+     * This method creates the encoder shared by the login and the user management pages.
+     * The BCrypt hashes are computed on a bounded pool of threads, so they can't take the CPU of every request thread.
+     *
+     * @return BCrypt encoder with the configured strength, run by a BoundedPasswordEncoder
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), hashingThreads, hashingQueueCapacity);
     }
 }
@@ -0,0 +1,35 @@
+package com.nnk.springboot.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * This class counts the SQL statements prepared by Hibernate on the current thread.
+ * It is registered as the Hibernate statement inspector by PersistenceConfig and lets the services report
+ * how many queries a write operation issued.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * This method is called by Hibernate before each statement is prepared. The statement is left unchanged.
+     *
+     * @param sql SQL statement about to be prepared
+     * @return The same SQL statement
+     */
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * This method returns the number of statements prepared on the current thread since it started.
+     * Callers measure an operation by the difference between two calls.
+     *
+     * @return Number of statements prepared on the current thread
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
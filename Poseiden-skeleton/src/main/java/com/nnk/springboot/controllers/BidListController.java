@@ -1,15 +1,29 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.BidList;
-import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.domain.BidListSummary;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.TradingFilter;
+import com.nnk.springboot.services.BidListService;
+import com.nnk.springboot.services.BidListUploadService;
+import com.nnk.springboot.services.DuplicateSourceListIdException;
+import com.nnk.springboot.services.ExportFormat;
+import com.nnk.springboot.services.ExportService;
+import com.nnk.springboot.services.UploadReport;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * This class serves as a controller layer for the BidList entity.
@@ -21,22 +35,88 @@ import javax.validation.Valid;
 public class BidListController {
     // TODO: Inject Bid service --> DONE
     @Autowired
-    private BidListRepository bidListRepository;
+    private BidListService bidListService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BidListUploadService bidListUploadService;
 
     /**
-     * This methods retrieves all BidLists from database and list them for the user.
+     * This methods retrieves one page of BidLists from database and list them for the user.
+     * The page is located with the id of the last (or first) BidList already displayed, so its cost doesn't
+     * depend on the number of BidLists stored in the database.
      *
-     * @param model Web UI container. Contains all the BidLists
-     * @return URI bidList/list. Show table with all BidLists
+     * @param model Web UI container. Contains the BidLists of the page and the page cursors
+     * @param filter Filters on account, type, status, trader, book, security and date range. Unset filters are ignored
+     * @param after Id of the last BidList of the previous page. Absent for the first page
+     * @param before Id of the first BidList of the next page. Used to go back to the previous page
+     * @param size Number of BidLists displayed in the page
+     * @return URI bidList/list. Show table with one page of BidLists
      */
     @RequestMapping("/bidList/list")
-    public String home(Model model)
+    public String home(Model model,
+                       @ModelAttribute("filter") TradingFilter filter,
+                       @RequestParam(value = "after", required = false) Integer after,
+                       @RequestParam(value = "before", required = false) Integer before,
+                       @RequestParam(value = "size", defaultValue = KeysetPage.DEFAULT_SIZE) int size)
     {
         // TODO: call service find all bids to show to the view --> DONE
-        model.addAttribute("bidLists", bidListRepository.findAll());
+        KeysetPage<BidListSummary> page = bidListService.findPage(filter, after, before, size);
+        model.addAttribute("bidLists", page.getContent());
+        model.addAttribute("page", page);
         return "bidList/list";
     }
 
+    /**
+     * This method exports all the BidLists as a CSV or JSON file.
+     * The BidLists are streamed from the database straight to the response, so the export starts at once and
+     * doesn't load the whole table in memory.
+     *
+     * @param format Format of the exported file : "csv" (default) or "json"
+     * @return Response streaming the file bidLists.csv or bidLists.json. 400 if the format is unknown
+     */
+    @GetMapping("/bidList/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromExtension(format);
+        StreamingResponseBody body = out -> exportService.exportBidLists(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bidLists." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * This method returns the form to upload a CSV file of BidLists.
+     *
+     * @return URI bidList/upload. Show the upload form
+     */
+    @GetMapping("/bidList/upload")
+    public String uploadForm() {
+        return "bidList/upload";
+    }
+
+    /**
+     * This method adds the BidLists of a CSV file to the database.
+     * The file is read as a stream and its valid rows are inserted by chunks, the invalid rows being skipped.
+     *
+     * @param file CSV file of BidLists, with a header line naming the columns
+     * @param model Web UI container. Contains the report of the upload, or the error message if the file can't be read
+     * @return URI bidList/upload. Show the upload form with the report listing the rejected rows
+     * @throws IOException if the uploaded file can't be read
+     */
+    @PostMapping("/bidList/upload")
+    public String upload(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            UploadReport report = bidListUploadService.upload(in);
+            model.addAttribute("report", report);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("errorMessage", e.getMessage());
+        }
+        return "bidList/upload";
+    }
+
     /**
      * This method returns a form to add a BidList.
      *
@@ -51,23 +131,25 @@ public class BidListController {
     /**
      * This method checks if the data from the form are consistent and valid for a new BidList.
      * If the checks pass then add the new BidList to the database.
-     *      It then retrieves all BidLists from database and list them in the UI for the user.
+     *      The user is then redirected to the list of BidLists.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
-     *      explaining why the request failed.
+     *      explaining why the request failed. So is he if the sourceListId of the BidList was already ingested.
      *
      * @param bid Entity constructed from the form. It will be added to the database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the BidLists
      * @return URI bidList/list. Show table with updated BidLists
      * @return In case of error : URI bidList/add. Returns to the form for a second attempt
      */
     @PostMapping(path = "/bidList/validate", consumes = {MediaType.APPLICATION_FORM_URLENCODED_VALUE})
-    public String validate(@Valid BidList bid, BindingResult result, Model model) {
+    public String validate(@Valid BidList bid, BindingResult result) {
         // TODO: check data valid and save to db, after saving return bid list --> DONE
         if (!result.hasErrors()) {
-            bidListRepository.save(bid);
-            model.addAttribute("bidLists", bidListRepository.findAll());
-            return "redirect:/bidList/list";
+            try {
+                bidListService.save(bid);
+                return "redirect:/bidList/list";
+            } catch (IllegalArgumentException e) {
+                result.rejectValue("sourceListId", "duplicate", e.getMessage());
+            }
         }
         return "bidList/add";
     }
@@ -83,7 +165,7 @@ public class BidListController {
     @GetMapping("/bidList/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
         // TODO: get Bid by Id and to model then show to the form --> DONE
-        BidList bidList = bidListRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid bidList Id:" + id));
+        BidList bidList = bidListService.findById(id);
         model.addAttribute("bidList", bidList);
         return "bidList/update";
     }
@@ -91,14 +173,14 @@ public class BidListController {
     /**
      * This method checks if the data from the form are consistent and valid to update the BidList.
      * If the checks pass then it updates the BidList into the Database using the updated data from the form.
-     *      It then retrieves all BidLists from database and list them in the UI for the user.
+     *      The user is then redirected to the list of BidLists.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
-     *      explaining why the request failed.
+     *      explaining why the request failed. So is he if the new sourceListId of the BidList is that of another one.
      *
      * @param id Id of the BidList the user wants to update
      * @param bidList Entity constructed from the form. It will update the existing BidList in the Database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the BidLists
+     * @param model Web UI container. Contains the BidList to correct when the form has errors
      * @return URI bidList/list. Show table with updated BidLists
      * @return In case of error : URI bidList/update. Returns to the form for a second attempt
      */
@@ -110,25 +192,27 @@ public class BidListController {
             model.addAttribute("bidList", bidList);
             return "bidList/update";
         }
-        bidListRepository.save(bidList);
-        model.addAttribute("bidLists", bidListRepository.findAll());
+        try {
+            bidListService.update(id, bidList);
+        } catch (DuplicateSourceListIdException e) {
+            result.rejectValue("sourceListId", "duplicate", e.getMessage());
+            model.addAttribute("bidList", bidList);
+            return "bidList/update";
+        }
         return "redirect:/bidList/list";
     }
 
     /**
      * This method deletes a BidList from the Database.
-     * It then retrieves all BidLists from database and list them in the UI for the user.
+     * The user is then redirected to the list of BidLists.
      *
      * @param id Id of the BidList the user wants to delete
-     * @param model Web UI container. Contains all the remaining BidLists
      * @return URI bidList/list. Show table with updated BidLists
      */
     @GetMapping("/bidList/delete/{id}")
-    public String deleteBid(@PathVariable("id") Integer id, Model model) {
+    public String deleteBid(@PathVariable("id") Integer id) {
         // TODO: Find Bid by Id and delete the bid, return to Bid list --> DONE
-        BidList bidList = bidListRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid bidList Id:" + id));
-        bidListRepository.delete(bidList);
-        model.addAttribute("bidLists", bidListRepository.findAll());
+        bidListService.delete(id);
         return "redirect:/bidList/list";
     }
 }
@@ -0,0 +1,51 @@
+package com.nnk.springboot.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * This class serves as a controller layer for the statistics of the application caches.
+ * It is restricted to the ADMIN users.
+ */
+@Controller
+public class CacheStatsController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * This method returns the statistics of each cache, as recorded since the application started.
+     * Caches that don't record statistics (when caching is disabled for instance) are not listed.
+     *
+     * @return Statistics of the caches, by cache name. Rendered as JSON
+     */
+    @GetMapping("/admin/cache/stats")
+    @ResponseBody
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String name : new TreeSet<>(cacheManager.getCacheNames())) {
+            org.springframework.cache.Cache cache = cacheManager.getCache(name);
+            if (cache != null && cache.getNativeCache() instanceof Cache) {
+                Cache<?, ?> caffeineCache = (Cache<?, ?>) cache.getNativeCache();
+                CacheStats cacheStats = caffeineCache.stats();
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("size", caffeineCache.estimatedSize());
+                values.put("hitCount", cacheStats.hitCount());
+                values.put("missCount", cacheStats.missCount());
+                values.put("hitRate", cacheStats.hitRate());
+                values.put("evictionCount", cacheStats.evictionCount());
+                stats.put(name, values);
+            }
+        }
+        return stats;
+    }
+}
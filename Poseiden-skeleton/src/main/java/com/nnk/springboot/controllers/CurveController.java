@@ -2,16 +2,33 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.CurvePoint;
 import com.nnk.springboot.domain.User;
-import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.services.CurveDiffService;
+import com.nnk.springboot.services.CurveInterpolation;
+import com.nnk.springboot.services.CurvePointService;
+import com.nnk.springboot.services.CurveService;
+import com.nnk.springboot.services.CurveUpsertResult;
+import com.nnk.springboot.services.ExportFormat;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * This class serves as a controller layer for the CurvePoint entity.
@@ -23,19 +40,35 @@ import javax.validation.Valid;
 public class CurveController {
     // TODO: Inject Curve Point service --> DONE
     @Autowired
-    private CurvePointRepository curvePointRepository;
+    private CurvePointService curvePointService;
+
+    @Autowired
+    private CurveService curveService;
+
+    @Autowired
+    private CurveDiffService curveDiffService;
 
     /**
-     * This methods retrieves all CurvePoints from database and list them for the user.
+     * This methods retrieves one page of CurvePoints from database and list them for the user.
+     * The page is located with the id of the last (or first) CurvePoint already displayed, so its cost doesn't
+     * depend on the number of CurvePoints stored in the database.
      *
-     * @param model Web UI container. Contains all the CurvePoints
-     * @return URI curvePoint/list. Show table with all CurvePoints
+     * @param model Web UI container. Contains the CurvePoints of the page and the page cursors
+     * @param after Id of the last CurvePoint of the previous page. Absent for the first page
+     * @param before Id of the first CurvePoint of the next page. Used to go back to the previous page
+     * @param size Number of CurvePoints displayed in the page
+     * @return URI curvePoint/list. Show table with one page of CurvePoints
      */
     @RequestMapping("/curvePoint/list")
-    public String home(Model model)
+    public String home(Model model,
+                       @RequestParam(value = "after", required = false) Integer after,
+                       @RequestParam(value = "before", required = false) Integer before,
+                       @RequestParam(value = "size", defaultValue = KeysetPage.DEFAULT_SIZE) int size)
     {
         // TODO: find all Curve Point, add to model --> DONE
-        model.addAttribute("curvePoints", curvePointRepository.findAll());
+        KeysetPage<CurvePoint> page = curvePointService.findPage(after, before, size);
+        model.addAttribute("curvePoints", page.getContent());
+        model.addAttribute("page", page);
         return "curvePoint/list";
     }
 
@@ -53,22 +86,20 @@ public class CurveController {
     /**
      * This method checks if the data from the form are consistent and valid for a new CurvePoint.
      * If the checks pass then add the new CurvePoint to the database.
-     *      It then retrieves all CurvePoints from database and list them in the UI for the user.
+     *      The user is then redirected to the list of CurvePoints.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
      *      explaining why the request failed.
      *
      * @param curvePoint Entity constructed from the form. It will be added to the database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the CurvePoints
      * @return URI curvePoint/list. Show table with updated CurvePoints
      * @return In case of error : URI curvePoint/add. Returns to the form for a second attempt
      */
     @PostMapping(path = "/curvePoint/validate", consumes = {MediaType.APPLICATION_FORM_URLENCODED_VALUE})
-    public String validate(@Valid CurvePoint curvePoint, BindingResult result, Model model) {
+    public String validate(@Valid CurvePoint curvePoint, BindingResult result) {
         // TODO: check data valid and save to db, after saving return Curve list -- > DONE
         if (!result.hasErrors()) {
-            curvePointRepository.save(curvePoint);
-            model.addAttribute("curvePoints", curvePointRepository.findAll());
+            curvePointService.save(curvePoint);
             return "redirect:/curvePoint/list";
         }
         return "curvePoint/add";
@@ -85,7 +116,7 @@ public class CurveController {
     @GetMapping("/curvePoint/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
         // TODO: get CurvePoint by Id and to model then show to the form
-        CurvePoint curvePoint = curvePointRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid curvePoint Id:" + id));
+        CurvePoint curvePoint = curvePointService.findById(id);
         model.addAttribute("curvePoint", curvePoint);
         return "curvePoint/update";
     }
@@ -93,14 +124,14 @@ public class CurveController {
     /**
      * This method checks if the data from the form are consistent and valid to update the CurvePoint.
      * If the checks pass then it updates the CurvePoint into the Database using the updated data from the form.
-     *      It then retrieves all CurvePoint from database and list them in the UI for the user.
+     *      The user is then redirected to the list of CurvePoints.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
      *      explaining why the request failed.
      *
      * @param id Id of the CurvePoint the user wants to update
      * @param curvePoint Entity constructed from the form. It will update the existing CurvePoint in the Database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the CurvePoints
+     * @param model Web UI container. Contains the CurvePoint to correct when the form has errors
      * @return URI curvePoint/list. Show table with updated CurvePoints
      * @return In case of error : URI curvePoint/update. Returns to the form for a second attempt
      */
@@ -112,25 +143,152 @@ public class CurveController {
             model.addAttribute("curvePoint", curvePoint);
             return "curvePoint/update";
         }
-        curvePointRepository.save(curvePoint);
-        model.addAttribute("curvePoints", curvePointRepository.findAll());
+        curvePointService.update(id, curvePoint);
         return "redirect:/curvePoint/list";
     }
 
     /**
      * This method deletes a CurvePoint from the Database.
-     * It then retrieves all CurvePoints from database and list them in the UI for the user.
+     * The user is then redirected to the list of CurvePoints.
      *
      * @param id Id of the CurvePoint the user wants to delete
-     * @param model Web UI container. Contains all the remaining CurvePoints
      * @return URI curvePoint/list. Show table with updated CurvePoints
      */
     @GetMapping("/curvePoint/delete/{id}")
-    public String deleteCurvePoint(@PathVariable("id") Integer id, Model model) {
+    public String deleteCurvePoint(@PathVariable("id") Integer id) {
         // TODO: Find Curve by Id and delete the Curve, return to Curve list
-        CurvePoint curvePoint = curvePointRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid curvePoint Id:" + id));
-        curvePointRepository.delete(curvePoint);
-        model.addAttribute("curvePoints", curvePointRepository.findAll());
+        curvePointService.delete(id);
         return "redirect:/curvePoint/list";
     }
+
+    /**
+     * This method computes the value of a curve at any term, from the snapshot of the curve held in memory.
+     * Between its points the curve is interpolated, beyond them it is extrapolated.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve (yyyy-MM-dd). Absent for the points entered without date
+     * @param term Term of the value
+     * @param method Interpolation method: "linear", "log-linear" or "cubic-spline"
+     * @return The curve id, as-of date, term, method and value. Rendered as JSON
+     * @throws IllegalArgumentException if the curve has no point, or if the method is unknown
+     */
+    @GetMapping("/curve/{curveId}/value")
+    @ResponseBody
+    public Map<String, Object> curveValue(@PathVariable("curveId") Integer curveId,
+                                          @RequestParam(value = "asOfDate", required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate,
+                                          @RequestParam("term") double term,
+                                          @RequestParam(value = "method", defaultValue = "linear") String method) {
+        CurveInterpolation interpolation = CurveInterpolation.fromName(method);
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("curveId", curveId);
+        value.put("asOfDate", asOfDate);
+        value.put("term", term);
+        value.put("method", interpolation.getName());
+        value.put("value", curveService.valueAt(curveId, startOf(asOfDate), term, interpolation));
+        return value;
+    }
+
+    /**
+     * This method replaces all the points of a curve with the points of a JSON array, in one request and one
+     * transaction. Only the changed points are written.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve (yyyy-MM-dd). Absent for the points entered without date
+     * @param points New points of the curve, as objects holding a term and a value
+     * @return Numbers of points inserted, updated, deleted and unchanged. Rendered as JSON
+     * @throws IllegalArgumentException if a point lacks its term or value, or if two points have the same term
+     */
+    @PostMapping(path = "/curve/{curveId}/points", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CurveUpsertResult replaceCurve(@PathVariable("curveId") Integer curveId,
+                                          @RequestParam(value = "asOfDate", required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate,
+                                          @RequestBody List<CurvePoint> points) {
+        return curvePointService.replaceCurve(curveId, startOf(asOfDate), points);
+    }
+
+    /**
+     * This method replaces all the points of a curve with the points of a CSV file, in one request and one
+     * transaction. Only the changed points are written.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve (yyyy-MM-dd). Absent for the points entered without date
+     * @param in CSV file holding a header line and one point per line, with at least the term and value columns
+     * @return Numbers of points inserted, updated, deleted and unchanged. Rendered as JSON
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file lacks a mandatory column or holds an invalid point
+     */
+    @PostMapping(path = "/curve/{curveId}/points", consumes = "text/csv")
+    @ResponseBody
+    public CurveUpsertResult replaceCurveCsv(@PathVariable("curveId") Integer curveId,
+                                             @RequestParam(value = "asOfDate", required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate,
+                                             InputStream in) throws IOException {
+        return curvePointService.replaceCurve(curveId, startOf(asOfDate), in);
+    }
+
+    /**
+     * This method returns the points of a curve as it was known at the given date: the points of its latest
+     * as-of date not after that date.
+     *
+     * @param curveId Id of the curve
+     * @param date Date of the curve (yyyy-MM-dd). The points dated during that day are included
+     * @return The CurvePoints of the curve at that date, by ascending term. Rendered as JSON
+     */
+    @GetMapping("/curve/{curveId}")
+    @ResponseBody
+    public List<CurvePoint> curveAsOf(@PathVariable("curveId") Integer curveId,
+                                      @RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return curvePointService.findCurveAsOf(curveId, startOf(date.plusDays(1)));
+    }
+
+    /**
+     * This method returns the successive values of one term of a curve between two dates.
+     *
+     * @param curveId Id of the curve
+     * @param term Term of the values
+     * @param from First as-of date (yyyy-MM-dd), included
+     * @param to Last as-of date (yyyy-MM-dd), included
+     * @return The CurvePoints of the term, by ascending as-of date. Rendered as JSON
+     */
+    @GetMapping("/curve/{curveId}/history")
+    @ResponseBody
+    public List<CurvePoint> termHistory(@PathVariable("curveId") Integer curveId,
+                                        @RequestParam("term") Double term,
+                                        @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return curvePointService.findTermHistory(curveId, term, startOf(from), startOf(to.plusDays(1)));
+    }
+
+    /**
+     * This method compares a curve at two as-of dates, as a CSV or JSON file with the values of both dates and the
+     * shift at each term of either date. Both curves are streamed from the database and merged in one pass.
+     *
+     * @param curveId Id of the curve
+     * @param from As-of date (yyyy-MM-dd) the curve is compared from
+     * @param to As-of date (yyyy-MM-dd) the curve is compared to
+     * @param format Format of the file : "csv" (default) or "json"
+     * @return Response streaming the file curve-{curveId}-diff.csv or curve-{curveId}-diff.json. 400 if the format
+     * is unknown
+     * @throws IllegalArgumentException if the curve has no point at one of the dates, before the response is started
+     */
+    @GetMapping("/curve/{curveId}/diff")
+    public ResponseEntity<StreamingResponseBody> diff(@PathVariable("curveId") Integer curveId,
+                                                      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                      @RequestParam(value = "format", defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromExtension(format);
+        curveDiffService.checkDiff(curveId, startOf(from), startOf(to));
+        StreamingResponseBody body = out -> curveDiffService.writeDiff(curveId, startOf(from), startOf(to), exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"curve-" + curveId + "-diff." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    private static Timestamp startOf(LocalDate date) {
+        return date == null ? null : Timestamp.valueOf(date.atStartOfDay());
+    }
 }
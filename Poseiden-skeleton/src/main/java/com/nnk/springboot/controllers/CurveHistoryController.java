@@ -0,0 +1,66 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.services.CurveHistoryStore;
+import com.nnk.springboot.services.TermStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class serves as a controller layer for the historical analytics of the curves, computed by the off-heap
+ * CurveHistoryStore. It exists only when the store is enabled; the reload of the store is restricted to the ADMIN
+ * users.
+ */
+@Controller
+@ConditionalOnProperty(name = "poseidon.curve.history-store.enabled", havingValue = "true")
+public class CurveHistoryController {
+
+    @Autowired
+    private CurveHistoryStore curveHistoryStore;
+
+    /**
+     * This method computes the statistics of the values of one term of a curve between two as-of dates.
+     *
+     * @param curveId Id of the curve
+     * @param term Term of the values
+     * @param from First as-of date (yyyy-MM-dd), included
+     * @param to Last as-of date (yyyy-MM-dd), included
+     * @return Count, min, max, mean and standard deviation of the values. Rendered as JSON
+     */
+    @GetMapping("/curve/{curveId}/history/statistics")
+    @ResponseBody
+    public TermStatistics termStatistics(@PathVariable("curveId") Integer curveId,
+                                         @RequestParam("term") double term,
+                                         @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return curveHistoryStore.termStatistics(curveId, term, Timestamp.valueOf(from.atStartOfDay()),
+                Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * This method reloads the store from the database, to take in the CurvePoints written since the last load.
+     *
+     * @return Number of points and curves loaded. Rendered as JSON
+     * @throws IOException if the file of the store can't be written
+     */
+    @PostMapping("/admin/curve/history/reload")
+    @ResponseBody
+    public Map<String, Object> reload() throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("points", curveHistoryStore.reload());
+        result.put("curves", curveHistoryStore.curveCount());
+        return result;
+    }
+}
@@ -0,0 +1,30 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.services.CurveRecomputeReport;
+import com.nnk.springboot.services.CurveRecomputeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * This class serves as a controller layer for the recomputation of the derived curve points.
+ * It is restricted to the ADMIN users.
+ */
+@Controller
+public class CurveRecomputeController {
+
+    @Autowired
+    private CurveRecomputeService curveRecomputeService;
+
+    /**
+     * This method recomputes the derived points of all the curves, as done at the end of the day.
+     *
+     * @return Report of the recomputation, with the timing of each curve. Rendered as JSON
+     */
+    @PostMapping("/admin/curve/recompute")
+    @ResponseBody
+    public CurveRecomputeReport recompute() {
+        return curveRecomputeService.recomputeAll();
+    }
+}
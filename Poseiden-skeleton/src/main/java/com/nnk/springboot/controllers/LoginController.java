@@ -1,6 +1,8 @@
 package com.nnk.springboot.controllers;
 
-import com.nnk.springboot.repositories.UserRepository;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -16,7 +18,7 @@ import org.springframework.web.servlet.ModelAndView;
 public class LoginController {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
 
     /**
      * This method sends the user to the Application login page.
@@ -45,14 +47,16 @@ public class LoginController {
     }
 
     /**
-     * This method retrieves all the User and shows them as a list to the user.
+     * This method retrieves the first page of Users and shows them as a list to the user.
      *
      * @return Web UI container with its view set to "user/list".
      */
     @GetMapping("/secure/article-details")
     public ModelAndView getAllUserArticles() {
         ModelAndView mav = new ModelAndView();
-        mav.addObject("users", userRepository.findAll());
+        KeysetPage<User> page = userService.findPage(null, null, Integer.parseInt(KeysetPage.DEFAULT_SIZE));
+        mav.addObject("users", page.getContent());
+        mav.addObject("page", page);
         mav.setViewName("user/list");
         return mav;
     }
@@ -0,0 +1,42 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.config.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class serves as a controller layer for the statistics of the password hashing pool.
+ * It is restricted to the ADMIN users.
+ */
+@Controller
+public class PasswordHashingStatsController {
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    /**
+     * This method returns the queue depth, the counts and the latencies of the password hashes, as recorded since
+     * the application started.
+     *
+     * @return Statistics of the password hashing pool. Rendered as JSON
+     */
+    @GetMapping("/admin/hashing/stats")
+    @ResponseBody
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", passwordEncoder.getQueueDepth());
+        stats.put("queueCapacity", passwordEncoder.getQueueCapacity());
+        stats.put("activeCount", passwordEncoder.getActiveCount());
+        stats.put("completedCount", passwordEncoder.getCompletedCount());
+        stats.put("rejectedCount", passwordEncoder.getRejectedCount());
+        stats.put("meanWaitMillis", passwordEncoder.getMeanWaitMillis());
+        stats.put("meanHashMillis", passwordEncoder.getMeanHashMillis());
+        stats.put("maxLatencyMillis", passwordEncoder.getMaxLatencyMillis());
+        return stats;
+    }
+}
@@ -0,0 +1,49 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.services.Position;
+import com.nnk.springboot.services.PositionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * This class serves as a controller layer for the net positions of the Trades.
+ * The positions are maintained in memory by PositionService, so they are read without scanning the Trades.
+ */
+@Controller
+public class PositionController {
+
+    @Autowired
+    private PositionService positionService;
+
+    /**
+     * This method retrieves the position of an account on a security in a book.
+     *
+     * @param account Account of the Trades. Absent for the Trades without account
+     * @param security Security of the Trades. Absent for the Trades without security
+     * @param book Book of the Trades. Absent for the Trades without book
+     * @return The position, with its buy, sell and net quantities. Rendered as JSON
+     */
+    @GetMapping("/position")
+    @ResponseBody
+    public Position position(@RequestParam(value = "account", required = false) String account,
+                             @RequestParam(value = "security", required = false) String security,
+                             @RequestParam(value = "book", required = false) String book) {
+        return positionService.getPosition(account, security, book);
+    }
+
+    /**
+     * This method lists all the positions having at least one Trade.
+     *
+     * @return The positions, by account, security and book. Rendered as JSON
+     */
+    @GetMapping("/position/list")
+    @ResponseBody
+    public List<Position> positions() {
+        return positionService.getPositions();
+    }
+}
@@ -1,7 +1,8 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.Rating;
-import com.nnk.springboot.repositories.RatingRepository;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.services.RatingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import javax.validation.Valid;
 
@@ -23,19 +25,29 @@ import javax.validation.Valid;
 public class RatingController {
     // TODO: Inject Rating service --> DONE
     @Autowired
-    private RatingRepository ratingRepository;
+    private RatingService ratingService;
 
     /**
-     * This methods retrieves all Ratings from database and list them for the user.
+     * This methods retrieves one page of Ratings from database and list them for the user.
+     * The page is located with the id of the last (or first) Rating already displayed, so its cost doesn't
+     * depend on the number of Ratings stored in the database.
      *
-     * @param model Web UI container. Contains all the Ratings
-     * @return URI rating/list. Show table with all Ratings
+     * @param model Web UI container. Contains the Ratings of the page and the page cursors
+     * @param after Id of the last Rating of the previous page. Absent for the first page
+     * @param before Id of the first Rating of the next page. Used to go back to the previous page
+     * @param size Number of Ratings displayed in the page
+     * @return URI rating/list. Show table with one page of Ratings
      */
     @RequestMapping("/rating/list")
-    public String home(Model model)
+    public String home(Model model,
+                       @RequestParam(value = "after", required = false) Integer after,
+                       @RequestParam(value = "before", required = false) Integer before,
+                       @RequestParam(value = "size", defaultValue = KeysetPage.DEFAULT_SIZE) int size)
     {
         // TODO: find all Rating, add to model --> DONE
-        model.addAttribute("ratings", ratingRepository.findAll());
+        KeysetPage<Rating> page = ratingService.findPage(after, before, size);
+        model.addAttribute("ratings", page.getContent());
+        model.addAttribute("page", page);
         return "rating/list";
     }
 
@@ -54,22 +66,20 @@ public class RatingController {
     /**
      * This method checks if the data from the form are consistent and valid for a new Rating.
      * If the checks pass then add the new Rating to the database.
-     *      It then retrieves all Ratings from database and list them in the UI for the user.
+     *      The user is then redirected to the list of Ratings.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
      *      explaining why the request failed.
      *
      * @param rating Entity constructed from the form. It will be added to the database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the Ratings
      * @return URI rating/list. Show table with updated Ratings
      * @return In case of error : URI rating/add. Returns to the form for a second attempt
      */
     @PostMapping("/rating/validate")
-    public String validate(@Valid Rating rating, BindingResult result, Model model) {
+    public String validate(@Valid Rating rating, BindingResult result) {
         // TODO: check data valid and save to db, after saving return Rating list --> DONE
         if (!result.hasErrors()) {
-            ratingRepository.save(rating);
-            model.addAttribute("ratings", ratingRepository.findAll());
+            ratingService.save(rating);
             return "redirect:/rating/list";
         }
         return "rating/add";
@@ -86,7 +96,7 @@ public class RatingController {
     @GetMapping("/rating/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
         // TODO: get Rating by Id and to model then show to the form --> DONE
-        Rating rating = ratingRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid rating Id:" + id));
+        Rating rating = ratingService.findById(id);
         model.addAttribute("rating", rating);
         return "rating/update";
     }
@@ -94,14 +104,14 @@ public class RatingController {
     /**
      * This method checks if the data from the form are consistent and valid to update the Rating.
      * If the checks pass then it updates the Rating into the Database using the updated data from the form.
-     *      It then retrieves all Ratings from database and list them in the UI for the user.
+     *      The user is then redirected to the list of Ratings.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
      *      explaining why the request failed.
      *
      * @param id Id of the Rating the user wants to update
      * @param rating Entity constructed from the form. It will update the existing Rating in the Database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the Ratings
+     * @param model Web UI container. Contains the Rating to correct when the form has errors
      * @return URI rating/list. Show table with updated Ratings
      * @return In case of error : URI rating/update. Returns to the form for a second attempt
      */
@@ -113,25 +123,21 @@ public class RatingController {
             model.addAttribute("rating", rating);
             return "rating/update";
         }
-        ratingRepository.save(rating);
-        model.addAttribute("ratings", ratingRepository.findAll());
+        ratingService.update(id, rating);
         return "redirect:/rating/list";
     }
 
     /**
      * This method deletes a Rating from the Database.
-     * It then retrieves all Ratings from database and list them in the UI for the user.
+     * The user is then redirected to the list of Ratings.
      *
      * @param id Id of the Rating the user wants to delete
-     * @param model Web UI container. Contains all the remaining Ratings
      * @return URI rating/list. Show table with updated Ratings
      */
     @GetMapping("/rating/delete/{id}")
-    public String deleteRating(@PathVariable("id") Integer id, Model model) {
+    public String deleteRating(@PathVariable("id") Integer id) {
         // TODO: Find Rating by Id and delete the Rating, return to Rating list --> DONE
-        Rating rating = ratingRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid rating Id:" + id));
-        ratingRepository.delete(rating);
-        model.addAttribute("ratings", ratingRepository.findAll());
+        ratingService.delete(id);
         return "redirect:/rating/list";
     }
 }
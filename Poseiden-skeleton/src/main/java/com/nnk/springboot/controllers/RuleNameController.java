@@ -2,7 +2,8 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.CurvePoint;
 import com.nnk.springboot.domain.RuleName;
-import com.nnk.springboot.repositories.RuleNameRepository;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.services.RuleNameService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -21,19 +22,29 @@ import javax.validation.Valid;
 public class RuleNameController {
     // TODO: Inject RuleName service --> DONE
     @Autowired
-    private RuleNameRepository ruleNameRepository;
+    private RuleNameService ruleNameService;
 
     /**
-     * This methods retrieves all RuleNames from database and list them for the user.
+     * This methods retrieves one page of RuleNames from database and list them for the user.
+     * The page is located with the id of the last (or first) RuleName already displayed, so its cost doesn't
+     * depend on the number of RuleNames stored in the database.
      *
-     * @param model Web UI container. Contains all the RuleNames
-     * @return URI ruleName/list. Show table with all RuleNames
+     * @param model Web UI container. Contains the RuleNames of the page and the page cursors
+     * @param after Id of the last RuleName of the previous page. Absent for the first page
+     * @param before Id of the first RuleName of the next page. Used to go back to the previous page
+     * @param size Number of RuleNames displayed in the page
+     * @return URI ruleName/list. Show table with one page of RuleNames
      */
     @RequestMapping("/ruleName/list")
-    public String home(Model model)
+    public String home(Model model,
+                       @RequestParam(value = "after", required = false) Integer after,
+                       @RequestParam(value = "before", required = false) Integer before,
+                       @RequestParam(value = "size", defaultValue = KeysetPage.DEFAULT_SIZE) int size)
     {
         // TODO: find all RuleName, add to model --> DONE
-        model.addAttribute("ruleNames", ruleNameRepository.findAll());
+        KeysetPage<RuleName> page = ruleNameService.findPage(after, before, size);
+        model.addAttribute("ruleNames", page.getContent());
+        model.addAttribute("page", page);
         return "ruleName/list";
     }
 
@@ -51,22 +62,20 @@ public class RuleNameController {
     /**
      * This method checks if the data from the form are consistent and valid for a new RuleName.
      * If the checks pass then add the new RuleName to the database.
-     *      It then retrieves all RuleNames from database and list them in the UI for the user.
+     *      The user is then redirected to the list of RuleNames.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
      *      explaining why the request failed.
      *
      * @param ruleName Entity constructed from the form. It will be added to the database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the RuleNames
      * @return URI bidList/list. Show table with updated RuleNames
      * @return In case of error : URI ruleName/add. Returns to the form for a second attempt
      */
     @PostMapping("/ruleName/validate")
-    public String validate(@Valid RuleName ruleName, BindingResult result, Model model) {
+    public String validate(@Valid RuleName ruleName, BindingResult result) {
         // TODO: check data valid and save to db, after saving return RuleName list --> DONE
         if (!result.hasErrors()) {
-            ruleNameRepository.save(ruleName);
-            model.addAttribute("ruleNames", ruleNameRepository.findAll());
+            ruleNameService.save(ruleName);
             return "redirect:/ruleName/list";
         }
         return "ruleName/add";
@@ -83,7 +92,7 @@ public class RuleNameController {
     @GetMapping("/ruleName/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
         // TODO: get RuleName by Id and to model then show to the form --> DONE
-        RuleName ruleName = ruleNameRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid ruleName Id:" + id));
+        RuleName ruleName = ruleNameService.findById(id);
         model.addAttribute("ruleName", ruleName);
         return "ruleName/update";
     }
@@ -91,14 +100,14 @@ public class RuleNameController {
     /**
      * This method checks if the data from the form are consistent and valid to update the RuleName.
      * If the checks pass then it updates the RuleName into the Database using the updated data from the form.
-     *      It then retrieves all RuleNames from database and list them in the UI for the user.
+     *      The user is then redirected to the list of RuleNames.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
      *      explaining why the request failed.
      *
      * @param id Id of the RuleName the user wants to update
      * @param ruleName Entity constructed from the form. It will update the existing RuleName in the Database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the RuleNames
+     * @param model Web UI container. Contains the RuleName to correct when the form has errors
      * @return URI ruleName/list. Show table with updated RuleName
      * @return In case of error : URI ruleName/update. Returns to the form for a second attempt
      */
@@ -110,25 +119,21 @@ public class RuleNameController {
             model.addAttribute("ruleName", ruleName);
             return "ruleName/update";
         }
-        ruleNameRepository.save(ruleName);
-        model.addAttribute("ruleNames", ruleNameRepository.findAll());
+        ruleNameService.update(id, ruleName);
         return "redirect:/ruleName/list";
     }
 
     /**
      * This method deletes a RuleName from the Database.
-     * It then retrieves all RuleNames from database and list them in the UI for the user.
+     * The user is then redirected to the list of RuleNames.
      *
      * @param id Id of the BidList the user wants to delete
-     * @param model Web UI container. Contains all the remaining RuleNames
      * @return URI ruleName/list. Show table with updated RuleNames
      */
     @GetMapping("/ruleName/delete/{id}")
-    public String deleteRuleName(@PathVariable("id") Integer id, Model model) {
+    public String deleteRuleName(@PathVariable("id") Integer id) {
         // TODO: Find RuleName by Id and delete the RuleName, return to Rule list --> DONE
-        RuleName ruleName = ruleNameRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid ruleName Id:" + id));
-        ruleNameRepository.delete(ruleName);
-        model.addAttribute("ruleNames", ruleNameRepository.findAll());
+        ruleNameService.delete(id);
         return "redirect:/ruleName/list";
     }
 }
@@ -0,0 +1,37 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.services.SearchHit;
+import com.nnk.springboot.services.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * This class serves as a controller layer for the full-text search of the Trades and BidLists.
+ * The search reads the in-memory index maintained by SearchService, not the database.
+ */
+@Controller
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * This method finds the Trades and BidLists whose deal name, security, account or commentary holds every word
+     * of the query, whole or partial.
+     *
+     * @param query Words searched
+     * @param limit Greatest number of results
+     * @return The matching Trades and BidLists, the most relevant first. Rendered as JSON
+     */
+    @GetMapping("/search")
+    @ResponseBody
+    public List<SearchHit> search(@RequestParam("q") String query,
+                                  @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return searchService.search(query, Math.min(limit, 100));
+    }
+}
@@ -0,0 +1,30 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.services.TradeArchiveReport;
+import com.nnk.springboot.services.TradeArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * This class serves as a controller layer for the archival of the aged Trades.
+ * It is restricted to the ADMIN users.
+ */
+@Controller
+public class TradeArchiveController {
+
+    @Autowired
+    private TradeArchiveService tradeArchiveService;
+
+    /**
+     * This method moves the Trades older than the configured horizon to the archive.
+     *
+     * @return Report of the archival. Rendered as JSON
+     */
+    @PostMapping("/admin/trade/archive")
+    @ResponseBody
+    public TradeArchiveReport archive() {
+        return tradeArchiveService.archiveAgedTrades();
+    }
+}
@@ -2,14 +2,33 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.CurvePoint;
 import com.nnk.springboot.domain.Trade;
-import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.domain.TradeSummary;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.TradingFilter;
+import com.nnk.springboot.services.DuplicateSourceListIdException;
+import com.nnk.springboot.services.ExportFormat;
+import com.nnk.springboot.services.ExportService;
+import com.nnk.springboot.services.TradeBlotterService;
+import com.nnk.springboot.services.TradeCaptureService;
+import com.nnk.springboot.services.TradeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This class serves as a controller layer for the Trade entity.
@@ -21,22 +40,75 @@ import javax.validation.Valid;
 public class TradeController {
     // TODO: Inject Trade service --> DONE
     @Autowired
-    private TradeRepository tradeRepository;
+    private TradeService tradeService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private TradeBlotterService tradeBlotterService;
+
+    @Autowired
+    private TradeCaptureService tradeCaptureService;
 
     /**
-     * This methods retrieves all Trades from database and list them for the user.
+     * This methods retrieves one page of Trades from database and list them for the user.
+     * The page is located with the id of the last (or first) Trade already displayed, so its cost doesn't
+     * depend on the number of Trades stored in the database.
      *
-     * @param model Web UI container. Contains all the Trades
-     * @return URI trade/list. Show table with all Trades
+     * @param model Web UI container. Contains the Trades of the page and the page cursors
+     * @param filter Filters on account, type, status, trader, book, security and date range. Unset filters are ignored
+     * @param after Id of the last Trade of the previous page. Absent for the first page
+     * @param before Id of the first Trade of the next page. Used to go back to the previous page
+     * @param size Number of Trades displayed in the page
+     * @param archive Whether the archived Trades are listed as well
+     * @return URI trade/list. Show table with one page of Trades
      */
     @RequestMapping("/trade/list")
-    public String home(Model model)
+    public String home(Model model,
+                       @ModelAttribute("filter") TradingFilter filter,
+                       @RequestParam(value = "after", required = false) Integer after,
+                       @RequestParam(value = "before", required = false) Integer before,
+                       @RequestParam(value = "size", defaultValue = KeysetPage.DEFAULT_SIZE) int size,
+                       @RequestParam(value = "archive", defaultValue = "false") boolean archive)
     {
         // TODO: find all Trade, add to model --> DONE
-        model.addAttribute("trades", tradeRepository.findAll());
+        KeysetPage<TradeSummary> page = tradeService.findPage(filter, after, before, size, archive);
+        model.addAttribute("trades", page.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("archive", archive);
         return "trade/list";
     }
 
+    /**
+     * This method exports all the Trades as a CSV or JSON file.
+     * The Trades are streamed from the database straight to the response, so the export starts at once and
+     * doesn't load the whole table in memory.
+     *
+     * @param format Format of the exported file : "csv" (default) or "json"
+     * @return Response streaming the file trades.csv or trades.json. 400 if the format is unknown
+     */
+    @GetMapping("/trade/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromExtension(format);
+        StreamingResponseBody body = out -> exportService.exportTrades(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trades." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * This method opens a live blotter for the list page: the Trades inserted, updated and deleted from now on are
+     * streamed to it as Server-Sent Events named "trade", so the page patches its rows instead of being reloaded.
+     *
+     * @return Emitter of the blotter's events
+     */
+    @GetMapping(value = "/trade/blotter", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter blotter() {
+        return tradeBlotterService.subscribe();
+    }
+
     /**
      * This method returns a form to add a Trade.
      *
@@ -51,27 +123,67 @@ public class TradeController {
     /**
      * This method checks if the data from the form are consistent and valid for a new Trade.
      * If the checks pass then add the new Trade to the database.
-     *      It then retrieves all Trades from database and list them in the UI for the user.
+     *      The user is then redirected to the list of Trades.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
-     *      explaining why the request failed.
+     *      explaining why the request failed. So is he if the sourceListId of the Trade was already ingested.
      *
      * @param trade Entity constructed from the form. It will be added to the database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the Trades
      * @return URI trade/list. Show table with updated Trades
      * @return In case of error : URI trade/add. Returns to the form for a second attempt
      */
     @PostMapping("/trade/validate")
-    public String validate(@Valid Trade trade, BindingResult result, Model model) {
+    public String validate(@Valid Trade trade, BindingResult result) {
         // TODO: check data valid and save to db, after saving return Trade list --> DONE
         if (!result.hasErrors()) {
-            tradeRepository.save(trade);
-            model.addAttribute("trades", tradeRepository.findAll());
-            return "redirect:/trade/list";
+            try {
+                tradeService.save(trade);
+                return "redirect:/trade/list";
+            } catch (IllegalArgumentException e) {
+                result.rejectValue("sourceListId", "duplicate", e.getMessage());
+            }
         }
         return "trade/add";
     }
 
+    /**
+     * This method captures a Trade sent as JSON by another application.
+     * The Trade is checked, then committed with the other Trades captured at the same time in one transaction.
+     * The response is sent once the Trade is committed, without holding a request thread meanwhile.
+     *
+     * @param trade Trade to add
+     * @return 201 with the id of the Trade once it is committed. 409 if a Trade with the same sourceListId was
+     * already captured : the Trade isn't added again. 503 if too many Trades are waiting to be committed : the Trade
+     * isn't added and may be sent again
+     */
+    @PostMapping(value = "/trade/capture", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> capture(@Valid @RequestBody Trade trade) {
+        trade.setId(0);
+        CompletableFuture<Trade> acknowledgement;
+        try {
+            acknowledgement = tradeCaptureService.capture(trade);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(error(HttpStatus.CONFLICT, e));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(error(HttpStatus.SERVICE_UNAVAILABLE, e));
+        }
+        return acknowledgement.handle((captured, failure) -> {
+            if (failure instanceof IllegalArgumentException) {
+                return error(HttpStatus.CONFLICT, failure);
+            }
+            if (failure != null) {
+                throw new CompletionException(failure);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(Collections.singletonMap("id", captured.getId()));
+        });
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, Throwable failure) {
+        return ResponseEntity.status(status).body(Collections.singletonMap("error", failure.getMessage()));
+    }
+
     /**
      * This method retrieves the data of the Trade from the database.
      * It then generates a form filled with the data for modification.
@@ -83,7 +195,7 @@ public class TradeController {
     @GetMapping("/trade/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
         // TODO: get Trade by Id and to model then show to the form --> DONE
-        Trade trade = tradeRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid trade Id:" + id));
+        Trade trade = tradeService.findById(id);
         model.addAttribute("trade", trade);
         return "trade/update";
     }
@@ -91,14 +203,14 @@ public class TradeController {
     /**
      * This method checks if the data from the form are consistent and valid to update the Trade.
      * If the checks pass then it updates the Trade into the Database using the updated data from the form.
-     *      It then retrieves all Trades from database and list them in the UI for the user.
+     *      The user is then redirected to the list of Trades.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
-     *      explaining why the request failed.
+     *      explaining why the request failed. So is he if the new sourceListId of the Trade is that of another one.
      *
      * @param id Id of the Trade the user wants to update
      * @param trade Entity constructed from the form. It will update the existing Trade in the Database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the Trades
+     * @param model Web UI container. Contains the Trade to correct when the form has errors
      * @return URI trade/list. Show table with updated Trades
      * @return In case of error : URI trade/update. Returns to the form for a second attempt
      */
@@ -110,25 +222,27 @@ public class TradeController {
             model.addAttribute("trade", trade);
             return "trade/update";
         }
-        tradeRepository.save(trade);
-        model.addAttribute("trades", tradeRepository.findAll());
+        try {
+            tradeService.update(id, trade);
+        } catch (DuplicateSourceListIdException e) {
+            result.rejectValue("sourceListId", "duplicate", e.getMessage());
+            model.addAttribute("trade", trade);
+            return "trade/update";
+        }
         return "redirect:/trade/list";
     }
 
     /**
      * This method deletes a Trade from the Database.
-     * It then retrieves all Trades from database and list them in the UI for the user.
+     * The user is then redirected to the list of Trades.
      *
      * @param id Id of the Trade the user wants to delete
-     * @param model Web UI container. Contains all the remaining Trades
      * @return URI trade/list. Show table with updated Trades
      */
     @GetMapping("/trade/delete/{id}")
-    public String deleteTrade(@PathVariable("id") Integer id, Model model) {
+    public String deleteTrade(@PathVariable("id") Integer id) {
         // TODO: Find Trade by Id and delete the Trade, return to Trade list --> DONE
-        Trade trade = tradeRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid trade Id:" + id));
-        tradeRepository.delete(trade);
-        model.addAttribute("trades", tradeRepository.findAll());
+        tradeService.delete(id);
         return "redirect:/trade/list";
     }
 }
@@ -0,0 +1,30 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.services.TradeDashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * This class serves as a controller layer for the dashboard of the Trades.
+ * The totals are read pre-aggregated, so the page costs a few rows whatever the number of Trades.
+ */
+@Controller
+public class TradeDashboardController {
+
+    @Autowired
+    private TradeDashboardService tradeDashboardService;
+
+    /**
+     * This method shows the number of Trades and their summed quantities by status, by trader and by book.
+     *
+     * @param model Web UI container. Contains the totals of the Trades
+     * @return URI trade/dashboard. Show the tables of totals
+     */
+    @GetMapping("/trade/dashboard")
+    public String dashboard(Model model) {
+        model.addAttribute("dashboard", tradeDashboardService.getDashboard());
+        return "trade/dashboard";
+    }
+}
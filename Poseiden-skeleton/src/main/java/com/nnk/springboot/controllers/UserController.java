@@ -1,9 +1,11 @@
 package com.nnk.springboot.controllers;
 
+import com.nnk.springboot.config.PasswordHashingRejectedException;
 import com.nnk.springboot.domain.User;
-import com.nnk.springboot.repositories.UserRepository;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -20,18 +22,31 @@ import javax.validation.Valid;
 @Controller
 public class UserController {
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
 
     /**
-     * This methods retrieves all Users from database and list them for the user.
+     * This methods retrieves one page of Users from database and list them for the user.
+     * The page is located with the id of the last (or first) User already displayed, so its cost doesn't
+     * depend on the number of Users stored in the database.
      *
-     * @param model Web UI container. Contains all the Users
-     * @return URI user/list. Show table with all Users
+     * @param model Web UI container. Contains the Users of the page and the page cursors
+     * @param after Id of the last User of the previous page. Absent for the first page
+     * @param before Id of the first User of the next page. Used to go back to the previous page
+     * @param size Number of Users displayed in the page
+     * @return URI user/list. Show table with one page of Users
      */
     @RequestMapping("/user/list")
-    public String home(Model model)
+    public String home(Model model,
+                       @RequestParam(value = "after", required = false) Integer after,
+                       @RequestParam(value = "before", required = false) Integer before,
+                       @RequestParam(value = "size", defaultValue = KeysetPage.DEFAULT_SIZE) int size)
     {
-        model.addAttribute("users", userRepository.findAll());
+        KeysetPage<User> page = userService.findPage(after, before, size);
+        model.addAttribute("users", page.getContent());
+        model.addAttribute("page", page);
         return "user/list";
     }
 
@@ -49,23 +64,19 @@ public class UserController {
     /**
      * This method checks if the data from the form are consistent and valid for a new User.
      * If the checks pass then add the new User to the database.
-     *      It then retrieves all Users from database and list them in the UI for the user.
+     *      The user is then redirected to the list of Users.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
-     *      explaining why the request failed.
+     *      explaining why the request failed. So is he when too many passwords are being hashed.
      *
      * @param user Entity constructed from the form. It will be added to the database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the Users
      * @return URI user/list. Show table with updated Users
      * @return In case of error : URI user/add. Returns to the form for a second attempt
      */
     @PostMapping("/user/validate")
-    public String validate(@Valid User user, BindingResult result, Model model) {
-        if (!result.hasErrors()) {
-            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-            user.setPassword(encoder.encode(user.getPassword()));
-            userRepository.save(user);
-            model.addAttribute("users", userRepository.findAll());
+    public String validate(@Valid User user, BindingResult result) {
+        if (!result.hasErrors() && encodePassword(user, result)) {
+            userService.save(user);
             return "redirect:/user/list";
         }
         return "user/add";
@@ -81,7 +92,7 @@ public class UserController {
      */
     @GetMapping("/user/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
-        User user = userRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid user Id:" + id));
+        User user = userService.findById(id);
         user.setPassword("");
         model.addAttribute("user", user);
         return "user/update";
@@ -90,45 +101,57 @@ public class UserController {
     /**
      * This method checks if the data from the form are consistent and valid to update the User.
      * If the checks pass then it updates the User into the Database using the updated data from the form.
-     *      It then retrieves all Users from database and list them in the UI for the user.
+     *      The user is then redirected to the list of Users.
      * If the checks fail, the user is redirected to the form for a second attempt with an error message
-     *      explaining why the request failed.
+     *      explaining why the request failed. So is he when too many passwords are being hashed.
      *
      * @param id Id of the User the user wants to update
      * @param user Entity constructed from the form. It will update the existing User in the Database
      * @param result Form result. May contain errors if data don't comply
-     * @param model Web UI container. Contains all the Users
+     * @param model Web UI container. Contains the User to correct when the form has errors
      * @return URI user/list. Show table with updated Users
      * @return In case of error : URI user/update. Returns to the form for a second attempt
      */
     @PostMapping("/user/update/{id}")
     public String updateUser(@PathVariable("id") Integer id, @Valid User user,
                              BindingResult result, Model model) {
-        if (result.hasErrors()) {
+        if (result.hasErrors() || !encodePassword(user, result)) {
             return "user/update";
         }
 
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        user.setPassword(encoder.encode(user.getPassword()));
         user.setId(id);
-        userRepository.save(user);
-        model.addAttribute("users", userRepository.findAll());
+        userService.update(id, user);
         return "redirect:/user/list";
     }
 
     /**
      * This method deletes a User from the Database.
-     * It then retrieves all Users from database and list them in the UI for the user.
+     * The user is then redirected to the list of Users.
      *
      * @param id Id of the User the user wants to delete
-     * @param model Web UI container. Contains all the remaining Users
      * @return URI user/list. Show table with updated Users
      */
     @GetMapping("/user/delete/{id}")
-    public String deleteUser(@PathVariable("id") Integer id, Model model) {
-        User user = userRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid user Id:" + id));
-        userRepository.delete(user);
-        model.addAttribute("users", userRepository.findAll());
+    public String deleteUser(@PathVariable("id") Integer id) {
+        userService.delete(id);
         return "redirect:/user/list";
     }
+
+    /**
+     * This method replaces the password typed in the form by its hash.
+     * When too many passwords are being hashed, the password is left unchanged and an error is added to the form.
+     *
+     * @param user Entity constructed from the form
+     * @param result Form result. Receives the error when the password can't be hashed
+     * @return true if the password was hashed
+     */
+    private boolean encodePassword(User user, BindingResult result) {
+        try {
+            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            return true;
+        } catch (PasswordHashingRejectedException e) {
+            result.rejectValue("password", "hashing.rejected", e.getMessage());
+            return false;
+        }
+    }
 }
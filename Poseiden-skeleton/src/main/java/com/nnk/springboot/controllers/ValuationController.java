@@ -0,0 +1,67 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.services.PnlSummary;
+import com.nnk.springboot.services.TradeValuation;
+import com.nnk.springboot.services.ValuationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class serves as a controller layer for the mark-to-market valuation of the Trades.
+ * The valuations are maintained in memory by ValuationService; only their full revaluation is restricted to the
+ * ADMIN users.
+ */
+@Controller
+public class ValuationController {
+
+    @Autowired
+    private ValuationService valuationService;
+
+    /**
+     * This method lists the P&L of all the traders and books having at least one Trade.
+     *
+     * @return The P&L summaries, by trader and book. Rendered as JSON
+     */
+    @GetMapping("/valuation/pnl")
+    @ResponseBody
+    public List<PnlSummary> pnl() {
+        return valuationService.getSummaries();
+    }
+
+    /**
+     * This method retrieves the valuation of a Trade.
+     *
+     * @param id Id of the Trade
+     * @return The valuation of the Trade, with its mark and P&L. Rendered as JSON
+     * @throws IllegalArgumentException if no Trade has this id
+     */
+    @GetMapping("/valuation/trade/{id}")
+    @ResponseBody
+    public TradeValuation trade(@PathVariable("id") Integer id) {
+        return valuationService.getValuation(id);
+    }
+
+    /**
+     * This method values all the Trades again from the database.
+     *
+     * @return Number of Trades valued and duration of the revaluation. Rendered as JSON
+     */
+    @PostMapping("/admin/valuation/revalue")
+    @ResponseBody
+    public Map<String, Object> revalue() {
+        long start = System.nanoTime();
+        int trades = valuationService.revalueAll();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("trades", trades);
+        result.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+}
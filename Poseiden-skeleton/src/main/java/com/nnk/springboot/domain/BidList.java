@@ -9,7 +9,16 @@ import java.sql.Date;
 import java.sql.Timestamp;
 
 @Entity
-@Table(name = "BidList")
+@Table(name = "BidList", indexes = {
+        @Index(name = "bid_list_account_status_idx", columnList = "account, status"),
+        @Index(name = "bid_list_book_status_idx", columnList = "book, status"),
+        @Index(name = "bid_list_trader_status_idx", columnList = "trader, status"),
+        @Index(name = "bid_list_security_idx", columnList = "security"),
+        @Index(name = "bid_list_bid_list_date_idx", columnList = "bidListDate")
+}, uniqueConstraints = {
+        // a message replayed by the upstream system is refused by the database rather than inserted twice
+        @UniqueConstraint(name = "bid_list_source_list_id_uk", columnNames = "sourceListId")
+})
 public class BidList {
     // TODO: Map columns in data table BIDLIST with corresponding java fields --> DONE
 
@@ -42,7 +51,7 @@ public class BidList {
     private String benchmark;
 
     @Column(name ="bidListDate")
-    private String bidListDate;
+    private Timestamp bidListDate;
 
     @Column(name ="commentary")
     private String commentary;
@@ -156,11 +165,11 @@ public class BidList {
         this.benchmark = benchmark;
     }
 
-    public String getBidListDate() {
+    public Timestamp getBidListDate() {
         return bidListDate;
     }
 
-    public void setBidListDate(String bidListDate) {
+    public void setBidListDate(Timestamp bidListDate) {
         this.bidListDate = bidListDate;
     }
 
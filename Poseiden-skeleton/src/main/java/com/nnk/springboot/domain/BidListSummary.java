@@ -0,0 +1,45 @@
+package com.nnk.springboot.domain;
+
+/**
+ * This class holds the columns of a BidList shown in the list page bidList/list.html.
+ * It is built by the repository queries with a constructor expression: only these columns are read from the
+ * database and the rows aren't managed by the persistence context, so they cost no dirty-checking snapshot.
+ */
+public class BidListSummary {
+
+    /**
+     * Attributes of BidList selected for the summary, in the order of the constructor parameters.
+     */
+    public static final String[] ATTRIBUTES = {"id", "account", "type", "bidQuantity"};
+
+    private final int id;
+
+    private final String account;
+
+    private final String type;
+
+    private final Double bidQuantity;
+
+    public BidListSummary(int id, String account, String type, Double bidQuantity) {
+        this.id = id;
+        this.account = account;
+        this.type = type;
+        this.bidQuantity = bidQuantity;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Double getBidQuantity() {
+        return bidQuantity;
+    }
+}
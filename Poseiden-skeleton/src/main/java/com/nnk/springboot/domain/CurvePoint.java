@@ -2,10 +2,13 @@ package com.nnk.springboot.domain;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
+import java.sql.Timestamp;
 
 
 @Entity
-@Table(name = "CurvePoint")
+@Table(name = "CurvePoint", indexes = {
+        @Index(name = "curve_point_curve_as_of_term_idx", columnList = "curve_id, as_of_date, term")
+})
 public class CurvePoint {
     // TODO: Map columns in data table CURVEPOINT with corresponding java fields --> DONE
     @Id
@@ -17,8 +20,8 @@ public class CurvePoint {
     @NotNull(message = "The Curve Id must not be null")
     private Integer curveId;
 
-    @Column (name = "as_Of_date")
-    private String asOfDate;
+    @Column (name = "as_of_date")
+    private Timestamp asOfDate;
 
     @Column (name = "term")
     private Double term;
@@ -27,7 +30,7 @@ public class CurvePoint {
     private Double value;
 
     @Column (name = "creation_date")
-    private String creationDate;
+    private Timestamp creationDate;
 
     public CurvePoint() {}
 
@@ -53,11 +56,11 @@ public class CurvePoint {
         this.curveId = curveId;
     }
 
-    public String getAsOfDate() {
+    public Timestamp getAsOfDate() {
         return asOfDate;
     }
 
-    public void setAsOfDate(String asOfDate) {
+    public void setAsOfDate(Timestamp asOfDate) {
         this.asOfDate = asOfDate;
     }
 
@@ -77,11 +80,11 @@ public class CurvePoint {
         this.value = value;
     }
 
-    public String getCreationDate() {
+    public Timestamp getCreationDate() {
         return creationDate;
     }
 
-    public void setCreationDate(String creationDate) {
+    public void setCreationDate(Timestamp creationDate) {
         this.creationDate = creationDate;
     }
 }
@@ -0,0 +1,43 @@
+package com.nnk.springboot.domain;
+
+import java.util.Date;
+
+/**
+ * This class holds the columns of a dated CurvePoint copied into the curve history store.
+ * It is built by the repository queries with a constructor expression: only these columns are read from the
+ * database and the rows aren't managed by the persistence context, so streaming years of curves doesn't grow it.
+ * The as-of date is kept as milliseconds since the epoch, as stored by the history store.
+ */
+public class CurvePointValue {
+
+    private final int curveId;
+
+    private final long asOfDate;
+
+    private final double term;
+
+    private final double value;
+
+    public CurvePointValue(int curveId, Date asOfDate, double term, double value) {
+        this.curveId = curveId;
+        this.asOfDate = asOfDate.getTime();
+        this.term = term;
+        this.value = value;
+    }
+
+    public int getCurveId() {
+        return curveId;
+    }
+
+    public long getAsOfDate() {
+        return asOfDate;
+    }
+
+    public double getTerm() {
+        return term;
+    }
+
+    public double getValue() {
+        return value;
+    }
+}
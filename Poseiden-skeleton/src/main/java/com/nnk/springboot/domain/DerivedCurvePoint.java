@@ -0,0 +1,83 @@
+package com.nnk.springboot.domain;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * This class holds the value of a curve at one of the standard tenors, as derived from its CurvePoints by the
+ * recompute job. Derived points are never entered by the users: they are replaced each time the curve is recomputed.
+ */
+@Entity
+@Table(name = "DerivedCurvePoint", indexes = {
+        @Index(name = "derived_curve_point_curve_as_of_tenor_idx", columnList = "curve_id, as_of_date, tenor")
+})
+public class DerivedCurvePoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column (name = "id")
+    private int id;
+
+    @Column (name = "curve_id")
+    private Integer curveId;
+
+    @Column (name = "as_of_date")
+    private Timestamp asOfDate;
+
+    @Column (name = "tenor")
+    private Double tenor;
+
+    @Column (name = "value")
+    private Double value;
+
+    @Column (name = "computed_date")
+    private Timestamp computedDate;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public Integer getCurveId() {
+        return curveId;
+    }
+
+    public void setCurveId(Integer curveId) {
+        this.curveId = curveId;
+    }
+
+    public Timestamp getAsOfDate() {
+        return asOfDate;
+    }
+
+    public void setAsOfDate(Timestamp asOfDate) {
+        this.asOfDate = asOfDate;
+    }
+
+    public Double getTenor() {
+        return tenor;
+    }
+
+    public void setTenor(Double tenor) {
+        this.tenor = tenor;
+    }
+
+    public Double getValue() {
+        return value;
+    }
+
+    public void setValue(Double value) {
+        this.value = value;
+    }
+
+    public Timestamp getComputedDate() {
+        return computedDate;
+    }
+
+    public void setComputedDate(Timestamp computedDate) {
+        this.computedDate = computedDate;
+    }
+}
@@ -0,0 +1,116 @@
+package com.nnk.springboot.domain;
+
+/**
+ * This class holds the text columns of a Trade or a BidList searched by the full-text index: deal name, security,
+ * account and commentary (BidLists only). It is built by the repository queries with a constructor expression,
+ * so rebuilding the index doesn't load the entities.
+ */
+public class SearchDocument {
+
+    /**
+     * Entity a document comes from, with the page showing it.
+     */
+    public enum Type {
+        TRADE("/trade/update/"),
+        BID_LIST("/bidList/update/");
+
+        private final String path;
+
+        Type(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+
+    private final Type type;
+
+    private final int id;
+
+    private final String dealName;
+
+    private final String security;
+
+    private final String account;
+
+    private final String commentary;
+
+    /**
+     * Builds the document of a Trade, which has no commentary.
+     */
+    public SearchDocument(int id, String dealName, String security, String account) {
+        this(Type.TRADE, id, dealName, security, account, null);
+    }
+
+    /**
+     * Builds the document of a BidList.
+     */
+    public SearchDocument(int id, String dealName, String security, String account, String commentary) {
+        this(Type.BID_LIST, id, dealName, security, account, commentary);
+    }
+
+    private SearchDocument(Type type, int id, String dealName, String security, String account, String commentary) {
+        this.type = type;
+        this.id = id;
+        this.dealName = dealName;
+        this.security = security;
+        this.account = account;
+        this.commentary = commentary;
+    }
+
+    public static SearchDocument of(Trade trade) {
+        return new SearchDocument(trade.getId(), trade.getDealName(), trade.getSecurity(), trade.getAccount());
+    }
+
+    public static SearchDocument of(BidList bidList) {
+        return new SearchDocument(bidList.getId(), bidList.getDealName(), bidList.getSecurity(),
+                bidList.getAccount(), bidList.getCommentary());
+    }
+
+    /**
+     * @return Key of the document in the index, unique across the Trades and the BidLists
+     */
+    public long getKey() {
+        return keyOf(type, id);
+    }
+
+    /**
+     * @return Key of the document of the given entity
+     */
+    public static long keyOf(Type type, int id) {
+        return ((long) type.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getDealName() {
+        return dealName;
+    }
+
+    public String getSecurity() {
+        return security;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getCommentary() {
+        return commentary;
+    }
+
+    /**
+     * @return Page showing the entity
+     */
+    public String getUrl() {
+        return type.getPath() + id;
+    }
+}
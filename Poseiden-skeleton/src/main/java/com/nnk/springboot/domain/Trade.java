@@ -6,7 +6,16 @@ import java.sql.Timestamp;
 
 
 @Entity
-@Table(name = "Trade")
+@Table(name = "Trade", indexes = {
+        @Index(name = "trade_account_status_idx", columnList = "account, status"),
+        @Index(name = "trade_book_status_idx", columnList = "book, status"),
+        @Index(name = "trade_trader_status_idx", columnList = "trader, status"),
+        @Index(name = "trade_security_idx", columnList = "security"),
+        @Index(name = "trade_trade_date_idx", columnList = "tradeDate")
+}, uniqueConstraints = {
+        // a message replayed by the upstream system is refused by the database rather than inserted twice
+        @UniqueConstraint(name = "trade_source_list_id_uk", columnNames = "sourceListId")
+})
 public class Trade {
     // TODO: Map columns in data table TRADE with corresponding java fields
 
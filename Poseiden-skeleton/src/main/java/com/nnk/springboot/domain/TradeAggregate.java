@@ -0,0 +1,55 @@
+package com.nnk.springboot.domain;
+
+/**
+ * This class holds the number of Trades and their summed quantities for one status, trader and book.
+ * It is built by the GROUP BY queries of the repository with a constructor expression, so the totals are computed
+ * by the database and only one row per group is read. A null status, trader or book groups the Trades without one.
+ */
+public class TradeAggregate {
+
+    private final String status;
+
+    private final String trader;
+
+    private final String book;
+
+    private final long tradeCount;
+
+    private final double buyQuantity;
+
+    private final double sellQuantity;
+
+    public TradeAggregate(String status, String trader, String book, Long tradeCount, Double buyQuantity,
+                          Double sellQuantity) {
+        this.status = status;
+        this.trader = trader;
+        this.book = book;
+        this.tradeCount = tradeCount == null ? 0 : tradeCount;
+        this.buyQuantity = buyQuantity == null ? 0 : buyQuantity;
+        this.sellQuantity = sellQuantity == null ? 0 : sellQuantity;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getTrader() {
+        return trader;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    public double getBuyQuantity() {
+        return buyQuantity;
+    }
+
+    public double getSellQuantity() {
+        return sellQuantity;
+    }
+}
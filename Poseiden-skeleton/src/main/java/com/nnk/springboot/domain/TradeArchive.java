@@ -0,0 +1,175 @@
+package com.nnk.springboot.domain;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * This class holds a Trade moved out of the Trade table by the archive job, with the same columns and the same id.
+ * Archived Trades are read only: they are inserted and never changed by the application.
+ */
+@Entity
+@Table(name = "TradeArchive", indexes = {
+        @Index(name = "trade_archive_account_status_idx", columnList = "account, status"),
+        @Index(name = "trade_archive_trade_date_idx", columnList = "tradeDate"),
+        @Index(name = "trade_archive_source_list_id_idx", columnList = "sourceListId")
+})
+public class TradeArchive {
+
+    @Id
+    @Column (name = "Id")
+    private int id;
+
+    @Column(name = "account")
+    private String account;
+
+    @Column(name = "type")
+    private String type;
+
+    @Column(name = "buyQuantity")
+    private Double buyQuantity;
+
+    @Column(name = "sellQuantity")
+    private Double sellQuantity;
+
+    @Column(name = "buyPrice")
+    private Double buyPrice;
+
+    @Column(name = "sellPrice")
+    private Double sellPrice;
+
+    @Column(name = "tradeDate")
+    private Timestamp tradeDate;
+
+    @Column(name = "security")
+    private String security;
+
+    @Column(name = "status")
+    private String status;
+
+    @Column(name = "trader")
+    private String trader;
+
+    @Column(name = "benchmark")
+    private String benchmark;
+
+    @Column(name = "book")
+    private String book;
+
+    @Column(name = "creationName")
+    private String creationName;
+
+    @Column(name = "creationDate")
+    private Timestamp creationDate;
+
+    @Column(name = "revisionName")
+    private String revisionName;
+
+    @Column(name = "revisionDate")
+    private Timestamp revisionDate;
+
+    @Column(name = "dealName")
+    private String dealName;
+
+    @Column(name = "dealType")
+    private String dealType;
+
+    @Column(name = "sourceListId")
+    private String sourceListId;
+
+    @Column(name = "side")
+    private String side;
+
+    /**
+     * Date the Trade was moved to the archive.
+     */
+    @Column(name = "archivedDate")
+    private Timestamp archivedDate;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Double getBuyQuantity() {
+        return buyQuantity;
+    }
+
+    public Double getSellQuantity() {
+        return sellQuantity;
+    }
+
+    public Double getBuyPrice() {
+        return buyPrice;
+    }
+
+    public Double getSellPrice() {
+        return sellPrice;
+    }
+
+    public Timestamp getTradeDate() {
+        return tradeDate;
+    }
+
+    public String getSecurity() {
+        return security;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getTrader() {
+        return trader;
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    public String getCreationName() {
+        return creationName;
+    }
+
+    public Timestamp getCreationDate() {
+        return creationDate;
+    }
+
+    public String getRevisionName() {
+        return revisionName;
+    }
+
+    public Timestamp getRevisionDate() {
+        return revisionDate;
+    }
+
+    public String getDealName() {
+        return dealName;
+    }
+
+    public String getDealType() {
+        return dealType;
+    }
+
+    public String getSourceListId() {
+        return sourceListId;
+    }
+
+    public String getSide() {
+        return side;
+    }
+
+    public Timestamp getArchivedDate() {
+        return archivedDate;
+    }
+}
@@ -0,0 +1,55 @@
+package com.nnk.springboot.domain;
+
+/**
+ * This class holds the columns of a Trade that make up the positions: its position key and its quantities.
+ * It is built by the repository queries with a constructor expression, so rebuilding the positions from the
+ * whole table doesn't load the Trade entities.
+ */
+public class TradeQuantities {
+
+    private final int id;
+
+    private final String account;
+
+    private final String security;
+
+    private final String book;
+
+    private final Double buyQuantity;
+
+    private final Double sellQuantity;
+
+    public TradeQuantities(int id, String account, String security, String book, Double buyQuantity,
+                           Double sellQuantity) {
+        this.id = id;
+        this.account = account;
+        this.security = security;
+        this.book = book;
+        this.buyQuantity = buyQuantity;
+        this.sellQuantity = sellQuantity;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getSecurity() {
+        return security;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    public Double getBuyQuantity() {
+        return buyQuantity;
+    }
+
+    public Double getSellQuantity() {
+        return sellQuantity;
+    }
+}
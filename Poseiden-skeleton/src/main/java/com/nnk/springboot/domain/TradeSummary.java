@@ -0,0 +1,45 @@
+package com.nnk.springboot.domain;
+
+/**
+ * This class holds the columns of a Trade shown in the list page trade/list.html.
+ * It is built by the repository queries with a constructor expression: only these columns are read from the
+ * database and the rows aren't managed by the persistence context, so they cost no dirty-checking snapshot.
+ */
+public class TradeSummary {
+
+    /**
+     * Attributes of Trade selected for the summary, in the order of the constructor parameters.
+     */
+    public static final String[] ATTRIBUTES = {"id", "account", "type", "buyQuantity"};
+
+    private final int id;
+
+    private final String account;
+
+    private final String type;
+
+    private final Double buyQuantity;
+
+    public TradeSummary(int id, String account, String type, Double buyQuantity) {
+        this.id = id;
+        this.account = account;
+        this.type = type;
+        this.buyQuantity = buyQuantity;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Double getBuyQuantity() {
+        return buyQuantity;
+    }
+}
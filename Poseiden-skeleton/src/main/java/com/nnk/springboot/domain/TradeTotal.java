@@ -0,0 +1,95 @@
+package com.nnk.springboot.domain;
+
+import javax.persistence.*;
+
+/**
+ * This class holds the number of Trades and their summed quantities for one status, trader and book, as kept
+ * current by each Trade write when the summary table is enabled. Totals are never entered by the users.
+ * The Trades without status, trader or book are grouped under an empty string, so that the unique constraint
+ * holds one row per group.
+ */
+@Entity
+@Table(name = "TradeTotal", uniqueConstraints = {
+        @UniqueConstraint(name = "trade_total_status_trader_book_uk", columnNames = {"status", "trader", "book"})
+})
+public class TradeTotal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column (name = "id")
+    private int id;
+
+    @Column (name = "status", nullable = false)
+    private String status;
+
+    @Column (name = "trader", nullable = false)
+    private String trader;
+
+    @Column (name = "book", nullable = false)
+    private String book;
+
+    @Column (name = "trade_count", nullable = false)
+    private long tradeCount;
+
+    @Column (name = "buy_quantity", nullable = false)
+    private double buyQuantity;
+
+    @Column (name = "sell_quantity", nullable = false)
+    private double sellQuantity;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getTrader() {
+        return trader;
+    }
+
+    public void setTrader(String trader) {
+        this.trader = trader;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    public void setBook(String book) {
+        this.book = book;
+    }
+
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    public void setTradeCount(long tradeCount) {
+        this.tradeCount = tradeCount;
+    }
+
+    public double getBuyQuantity() {
+        return buyQuantity;
+    }
+
+    public void setBuyQuantity(double buyQuantity) {
+        this.buyQuantity = buyQuantity;
+    }
+
+    public double getSellQuantity() {
+        return sellQuantity;
+    }
+
+    public void setSellQuantity(double sellQuantity) {
+        this.sellQuantity = sellQuantity;
+    }
+}
@@ -0,0 +1,78 @@
+package com.nnk.springboot.domain;
+
+/**
+ * This class holds the columns of a Trade the valuation depends on: its trader, book and benchmark, its
+ * quantities and its prices.
+ * It is built by the repository queries with a constructor expression, so revaluing the whole table doesn't load
+ * the Trade entities.
+ */
+public class TradeValuationInput {
+
+    private final int id;
+
+    private final String trader;
+
+    private final String book;
+
+    private final String benchmark;
+
+    private final Double buyQuantity;
+
+    private final Double sellQuantity;
+
+    private final Double buyPrice;
+
+    private final Double sellPrice;
+
+    public TradeValuationInput(int id, String trader, String book, String benchmark, Double buyQuantity,
+                               Double sellQuantity, Double buyPrice, Double sellPrice) {
+        this.id = id;
+        this.trader = trader;
+        this.book = book;
+        this.benchmark = benchmark;
+        this.buyQuantity = buyQuantity;
+        this.sellQuantity = sellQuantity;
+        this.buyPrice = buyPrice;
+        this.sellPrice = sellPrice;
+    }
+
+    /**
+     * @return The valuation input of a Trade entity
+     */
+    public static TradeValuationInput of(int id, Trade trade) {
+        return new TradeValuationInput(id, trade.getTrader(), trade.getBook(), trade.getBenchmark(),
+                trade.getBuyQuantity(), trade.getSellQuantity(), trade.getBuyPrice(), trade.getSellPrice());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTrader() {
+        return trader;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    public Double getBuyQuantity() {
+        return buyQuantity;
+    }
+
+    public Double getSellQuantity() {
+        return sellQuantity;
+    }
+
+    public Double getBuyPrice() {
+        return buyPrice;
+    }
+
+    public Double getSellPrice() {
+        return sellPrice;
+    }
+}
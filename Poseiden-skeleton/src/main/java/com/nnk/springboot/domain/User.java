@@ -6,7 +6,7 @@ import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
 @Entity
-@Table(name = "Users")
+@Table(name = "Users", indexes = @Index(name = "users_username_idx", columnList = "username"))
 public class User {
     @Id
     @GeneratedValue(strategy= GenerationType.IDENTITY)
@@ -0,0 +1,33 @@
+package com.nnk.springboot.domain;
+
+/**
+ * This class holds the columns of a User needed to authenticate him: his username, the hash of his password and
+ * his role. It is built by UserRepository with a constructor expression, so a login reads these three columns in
+ * one query and the row isn't managed by the persistence context.
+ */
+public class UserCredentials {
+
+    private final String username;
+
+    private final String password;
+
+    private final String role;
+
+    public UserCredentials(String username, String password, String role) {
+        this.username = username;
+        this.password = password;
+        this.role = role;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
@@ -1,10 +1,132 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.BidList;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.nnk.springboot.domain.BidListSummary;
+import com.nnk.springboot.domain.SearchDocument;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface BidListRepository extends JpaRepository<BidList, Integer> {
+public interface BidListRepository extends KeysetPagingRepository<BidList, Integer>, JpaSpecificationExecutor<BidList>,
+        KeysetSpecificationExecutor<BidList> {
+
+    /**
+     * Number of rows fetched per JDBC round trip when the table is streamed.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Retrieves the summaries of the BidLists following the given id, in ascending id order.
+     * Only the columns shown in the list page are read.
+     *
+     * @param id Id of the last BidList of the previous page (0 for the first page)
+     * @param pageable Size of the page to retrieve
+     * @return The summaries of the next BidLists
+     */
+    @Query("select new com.nnk.springboot.domain.BidListSummary(b.id, b.account, b.type, b.bidQuantity) "
+            + "from BidList b where b.id > :id order by b.id asc")
+    List<BidListSummary> findSummariesByIdGreaterThan(@Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Retrieves the summaries of the BidLists preceding the given id, in descending id order.
+     * Only the columns shown in the list page are read.
+     *
+     * @param id Id of the first BidList of the next page
+     * @param pageable Size of the page to retrieve
+     * @return The summaries of the previous BidLists, closest first
+     */
+    @Query("select new com.nnk.springboot.domain.BidListSummary(b.id, b.account, b.type, b.bidQuantity) "
+            + "from BidList b where b.id < :id order by b.id desc")
+    List<BidListSummary> findSummariesByIdLessThan(@Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Streams all the BidLists in id order. The rows are fetched from the database by chunks of STREAM_FETCH_SIZE
+     * and are read-only, so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @return Stream of all the BidLists
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select b from BidList b order by b.id")
+    Stream<BidList> streamAll();
+
+    /**
+     * Streams the text columns of all the BidLists searched by the full-text index. Only these columns are read, by
+     * chunks of STREAM_FETCH_SIZE, so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @return Stream of the search documents of all the BidLists
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select new com.nnk.springboot.domain.SearchDocument(b.id, b.dealName, b.security, b.account, b.commentary) from BidList b")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    /**
+     * Tells whether a BidList has the given sourceListId, by a lookup of its unique index.
+     *
+     * @param sourceListId sourceListId to look for
+     * @return Whether a BidList has it
+     */
+    boolean existsBySourceListId(String sourceListId);
+
+    /**
+     * Tells whether a BidList other than the given one has the given sourceListId, by a lookup of its unique index.
+     *
+     * @param sourceListId sourceListId to look for
+     * @param id Id of the BidList to leave out
+     * @return Whether another BidList has it
+     */
+    boolean existsBySourceListIdAndIdNot(String sourceListId, Integer id);
+
+    /**
+     * Updates all the columns of the BidList having the same id, in one statement and without reading it first.
+     * Its sourceListId is only set when it has none: once ingested, a BidList keeps the key of its upstream message.
+     *
+     * @param bidList BidList holding the id and the new values
+     * @return Number of updated rows, 0 if no BidList has this id
+     */
+    @Modifying
+    @Query("update BidList b set "
+            + "b.account = :#{#bidList.account}, b.type = :#{#bidList.type}, "
+            + "b.bidQuantity = :#{#bidList.bidQuantity}, "
+            + "b.askQuantity = :#{#bidList.askQuantity}, b.bid = :#{#bidList.bid}, "
+            + "b.ask = :#{#bidList.ask}, b.benchmark = :#{#bidList.benchmark}, "
+            + "b.bidListDate = :#{#bidList.bidListDate}, "
+            + "b.commentary = :#{#bidList.commentary}, "
+            + "b.security = :#{#bidList.security}, b.status = :#{#bidList.status}, "
+            + "b.trader = :#{#bidList.trader}, b.book = :#{#bidList.book}, "
+            + "b.creationName = :#{#bidList.creationName}, "
+            + "b.creationDate = :#{#bidList.creationDate}, "
+            + "b.revisionName = :#{#bidList.revisionName}, "
+            + "b.revisionDate = :#{#bidList.revisionDate}, "
+            + "b.dealName = :#{#bidList.dealName}, "
+            + "b.dealType = :#{#bidList.dealType}, "
+            + "b.sourceListId = coalesce(b.sourceListId, :#{#bidList.sourceListId}), "
+            + "b.side = :#{#bidList.side} "
+            + "where b.id = :#{#bidList.id}")
+    int updateBidList(@Param("bidList") BidList bidList);
 
+    /**
+     * Deletes the BidList having the given id, in one statement and without reading it first.
+     *
+     * @param id Id of the BidList to delete
+     * @return Number of deleted rows, 0 if no BidList has this id
+     */
+    @Modifying
+    @Query("delete from BidList b where b.id = :id")
+    int deleteBidListById(@Param("id") Integer id);
 }
@@ -0,0 +1,13 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.BidList;
+
+/**
+ * Custom part of BidListRepository: reading a limited number of BidLists matching a filter.
+ */
+public class BidListRepositoryImpl extends KeysetSpecificationExecutorSupport<BidList> {
+
+    public BidListRepositoryImpl() {
+        super(BidList.class);
+    }
+}
@@ -1,10 +1,183 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.CurvePoint;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.nnk.springboot.domain.CurvePointValue;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface CurvePointRepository extends JpaRepository<CurvePoint, Integer> {
+public interface CurvePointRepository extends KeysetPagingRepository<CurvePoint, Integer> {
+
+    /**
+     * Number of rows fetched per JDBC round trip when the table is streamed.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Reads the points of a curve, sorted by term.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve. When null, the points without as-of date are read
+     * @return The CurvePoints of the curve, by ascending term then id
+     */
+    List<CurvePoint> findByCurveIdAndAsOfDateOrderByTermAscIdAsc(Integer curveId, Timestamp asOfDate);
+
+    /**
+     * Reads the points of a curve as it was known at the given date: the points of its latest as-of date not after
+     * that date. Both the as-of date and the points are found by a range scan of the (curve_id, as_of_date, term)
+     * index.
+     *
+     * @param curveId Id of the curve
+     * @param date Date of the curve
+     * @return The CurvePoints of the curve at that date, by ascending term then id. Empty if the curve has no point
+     * dated on or before it
+     */
+    @Query("select c from CurvePoint c where c.curveId = :curveId and c.asOfDate = "
+            + "(select max(l.asOfDate) from CurvePoint l where l.curveId = :curveId and l.asOfDate <= :date) "
+            + "order by c.term asc, c.id asc")
+    List<CurvePoint> findCurveAsOf(@Param("curveId") Integer curveId, @Param("date") Timestamp date);
+
+    /**
+     * Reads the latest as-of date of a curve.
+     *
+     * @param curveId Id of the curve
+     * @return The greatest as-of date of the CurvePoints of the curve, null if none of them is dated
+     */
+    @Query("select max(c.asOfDate) from CurvePoint c where c.curveId = :curveId")
+    Timestamp findLatestAsOfDate(@Param("curveId") Integer curveId);
+
+    /**
+     * Reads the successive values of one term of a curve between two dates, by range scan of the
+     * (curve_id, as_of_date, term) index.
+     *
+     * @param curveId Id of the curve
+     * @param term Term of the values
+     * @param from First as-of date, included
+     * @param to Last as-of date, excluded
+     * @return The CurvePoints of the term, by ascending as-of date
+     */
+    @Query("select c from CurvePoint c where c.curveId = :curveId and c.asOfDate >= :from and c.asOfDate < :to "
+            + "and c.term = :term order by c.asOfDate asc, c.id asc")
+    List<CurvePoint> findTermHistory(@Param("curveId") Integer curveId, @Param("term") Double term,
+                                     @Param("from") Timestamp from, @Param("to") Timestamp to);
+
+    /**
+     * Counts the points of a curve streamed by streamCurve.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve
+     * @return Number of points of the curve having a term and a value
+     */
+    @Query("select count(c) from CurvePoint c where c.curveId = :curveId and c.asOfDate = :asOfDate "
+            + "and c.term is not null and c.value is not null")
+    long countCurve(@Param("curveId") Integer curveId, @Param("asOfDate") Timestamp asOfDate);
+
+    /**
+     * Counts the CurvePoints streamed by streamHistory.
+     *
+     * @return Number of CurvePoints having an as-of date, a term and a value
+     */
+    @Query("select count(c) from CurvePoint c "
+            + "where c.asOfDate is not null and c.term is not null and c.value is not null")
+    long countHistory();
+
+    /**
+     * Streams the dated CurvePoints grouped by curve, in ascending as-of date then term order within a curve.
+     * Only the columns of CurvePointValue are read, by chunks of STREAM_FETCH_SIZE, so the stream must be consumed
+     * inside a transaction and closed after use.
+     *
+     * @return Stream of the CurvePoints having an as-of date, a term and a value
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select new com.nnk.springboot.domain.CurvePointValue(c.curveId, c.asOfDate, c.term, c.value) "
+            + "from CurvePoint c where c.asOfDate is not null and c.term is not null and c.value is not null "
+            + "order by c.curveId asc, c.asOfDate asc, c.term asc, c.id asc")
+    Stream<CurvePointValue> streamHistory();
+
+    /**
+     * Streams the points of a curve at one as-of date, by ascending term. Only the columns of CurvePointValue are
+     * read, by chunks of STREAM_FETCH_SIZE, so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve
+     * @return Stream of the points of the curve having a term and a value, by ascending term then id
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select new com.nnk.springboot.domain.CurvePointValue(c.curveId, c.asOfDate, c.term, c.value) "
+            + "from CurvePoint c where c.curveId = :curveId and c.asOfDate = :asOfDate "
+            + "and c.term is not null and c.value is not null order by c.term asc, c.id asc")
+    Stream<CurvePointValue> streamCurve(@Param("curveId") Integer curveId, @Param("asOfDate") Timestamp asOfDate);
+
+    /**
+     * Reads the ids of all the curves.
+     *
+     * @return The distinct curve ids of the CurvePoints, in ascending order
+     */
+    @Query("select distinct c.curveId from CurvePoint c order by c.curveId")
+    List<Integer> findCurveIds();
+
+    /**
+     * Streams the points of a curve grouped by as-of date, by ascending as-of date then term. The rows are fetched
+     * by chunks of STREAM_FETCH_SIZE and are read-only, so the stream must be consumed inside a transaction and
+     * closed after use.
+     *
+     * @param curveId Id of the curve
+     * @return Stream of the CurvePoints of the curve, for all its as-of dates
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select c from CurvePoint c where c.curveId = :curveId order by c.asOfDate asc, c.term asc, c.id asc")
+    Stream<CurvePoint> streamByCurveId(@Param("curveId") Integer curveId);
+
+    /**
+     * Updates all the columns of the CurvePoint having the same id but its creation date and its as-of date, in one
+     * statement and without reading it first. The as-of date is set when the CurvePoint is inserted: the update form
+     * doesn't carry it.
+     *
+     * @param curvePoint CurvePoint holding the id and the new values
+     * @return Number of updated rows, 0 if no CurvePoint has this id
+     */
+    @Modifying
+    @Query("update CurvePoint c set "
+            + "c.curveId = :#{#curvePoint.curveId}, "
+            + "c.term = :#{#curvePoint.term}, "
+            + "c.value = :#{#curvePoint.value} "
+            + "where c.id = :#{#curvePoint.id}")
+    int updateCurvePoint(@Param("curvePoint") CurvePoint curvePoint);
+
+    /**
+     * Deletes the CurvePoint having the given id, in one statement and without reading it first.
+     *
+     * @param id Id of the CurvePoint to delete
+     * @return Number of deleted rows, 0 if no CurvePoint has this id
+     */
+    @Modifying
+    @Query("delete from CurvePoint c where c.id = :id")
+    int deleteCurvePointById(@Param("id") Integer id);
 
+    /**
+     * Deletes the CurvePoints having the given ids, in one statement and without reading them first.
+     *
+     * @param ids Ids of the CurvePoints to delete. Must not be empty
+     * @return Number of deleted rows
+     */
+    @Modifying
+    @Query("delete from CurvePoint c where c.id in :ids")
+    int deleteCurvePointsByIdIn(@Param("ids") Collection<Integer> ids);
 }
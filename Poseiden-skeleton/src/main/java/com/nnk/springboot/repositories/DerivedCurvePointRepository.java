@@ -0,0 +1,19 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.DerivedCurvePoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DerivedCurvePointRepository extends JpaRepository<DerivedCurvePoint, Integer> {
+
+    /**
+     * Reads the derived points of a curve, for all its as-of dates.
+     *
+     * @param curveId Id of the curve
+     * @return The DerivedCurvePoints of the curve, by ascending as-of date then tenor
+     */
+    List<DerivedCurvePoint> findByCurveIdOrderByAsOfDateAscTenorAsc(Integer curveId);
+}
@@ -0,0 +1,155 @@
+package com.nnk.springboot.repositories;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * This class holds one page of rows read with seek (keyset) pagination.
+ * Besides the rows, it keeps the cursors used by the list pages to go to the previous and next pages.
+ *
+ * One more row than the page size is read so that we know if another page exists without a count query.
+ *
+ * @param <T> Type of the rows of the page
+ */
+public class KeysetPage<T> {
+
+    public static final String DEFAULT_SIZE = "50";
+
+    public static final int MAX_SIZE = 500;
+
+    private final List<T> content;
+
+    private final int size;
+
+    private final Integer previousCursor;
+
+    private final Integer nextCursor;
+
+    private KeysetPage(List<T> content, int size, Integer previousCursor, Integer nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * This method reads one page of rows.
+     * When a "before" cursor is given (and no "after" cursor), the page preceding that id is read,
+     * otherwise the page following the "after" cursor (or the first page) is read.
+     *
+     * @param following Query returning, in ascending id order, at most "limit" rows following an id
+     * @param preceding Query returning, in descending id order, at most "limit" rows preceding an id
+     * @param after Id of the last row of the previous page. May be null
+     * @param before Id of the first row of the next page. May be null
+     * @param size Requested page size. It is bounded between 1 and MAX_SIZE
+     * @param idOf Function returning the id of a row
+     * @return The page of rows with its cursors
+     */
+    public static <T> KeysetPage<T> seek(BiFunction<Integer, Integer, List<T>> following,
+                                         BiFunction<Integer, Integer, List<T>> preceding,
+                                         Integer after, Integer before, int size, ToIntFunction<T> idOf) {
+        int pageSize = boundedSize(size);
+
+        if (after == null && before != null) {
+            return backward(preceding.apply(before, pageSize + 1), pageSize, idOf);
+        }
+        int from = after == null ? 0 : after;
+        return forward(following.apply(from, pageSize + 1), from, pageSize, idOf);
+    }
+
+    /**
+     * This method reads one page of entities from the repository.
+     *
+     * @param repository Repository of the listed entity
+     * @param after Id of the last row of the previous page. May be null
+     * @param before Id of the first row of the next page. May be null
+     * @param size Requested page size. It is bounded between 1 and MAX_SIZE
+     * @param idOf Function returning the id of a row
+     * @return The page of entities with its cursors
+     */
+    public static <T> KeysetPage<T> seek(KeysetPagingRepository<T, Integer> repository, Integer after, Integer before,
+                                         int size, ToIntFunction<T> idOf) {
+        return seek((id, limit) -> repository.findByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, limit)),
+                (id, limit) -> repository.findByIdLessThanOrderByIdDesc(id, PageRequest.of(0, limit)),
+                after, before, size, idOf);
+    }
+
+    /**
+     * This method reads one page of the rows matching a Specification, projected on a few attributes.
+     * The id condition is added to the Specification so that the database only reads the rows of the page.
+     *
+     * @param repository Repository of the listed entity
+     * @param spec Conditions the rows must match
+     * @param projection Class built from the selected attributes
+     * @param attributes Attributes of the entity to select, in the order of the projection constructor
+     * @param after Id of the last row of the previous page. May be null
+     * @param before Id of the first row of the next page. May be null
+     * @param size Requested page size. It is bounded between 1 and MAX_SIZE
+     * @param idOf Function returning the id of a row
+     * @return The page of matching rows with its cursors
+     */
+    public static <T, P> KeysetPage<P> seek(KeysetSpecificationExecutor<T> repository, Specification<T> spec,
+                                            Class<P> projection, String[] attributes,
+                                            Integer after, Integer before, int size, ToIntFunction<P> idOf) {
+        return seek((id, limit) -> repository.findAll(
+                        Specification.where(spec).and(TradingSpecifications.idGreaterThan(id)),
+                        Sort.by(Sort.Direction.ASC, "id"), limit, projection, attributes),
+                (id, limit) -> repository.findAll(
+                        Specification.where(spec).and(TradingSpecifications.idLessThan(id)),
+                        Sort.by(Sort.Direction.DESC, "id"), limit, projection, attributes),
+                after, before, size, idOf);
+    }
+
+    private static int boundedSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    private static <T> KeysetPage<T> forward(List<T> rows, int from, int pageSize, ToIntFunction<T> idOf) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = rows.subList(0, Math.min(rows.size(), pageSize));
+        Integer previousCursor = from > 0 && !content.isEmpty() ? idOf.applyAsInt(content.get(0)) : null;
+        Integer nextCursor = hasNext ? idOf.applyAsInt(content.get(content.size() - 1)) : null;
+        return new KeysetPage<>(content, pageSize, previousCursor, nextCursor);
+    }
+
+    private static <T> KeysetPage<T> backward(List<T> descendingRows, int pageSize, ToIntFunction<T> idOf) {
+        List<T> rows = new ArrayList<>(descendingRows);
+        boolean hasPrevious = rows.size() > pageSize;
+        List<T> content = rows.subList(0, Math.min(rows.size(), pageSize));
+        Collections.reverse(content);
+        Integer previousCursor = hasPrevious ? idOf.applyAsInt(content.get(0)) : null;
+        Integer nextCursor = content.isEmpty() ? null : idOf.applyAsInt(content.get(content.size() - 1));
+        return new KeysetPage<>(content, pageSize, previousCursor, nextCursor);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Integer getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
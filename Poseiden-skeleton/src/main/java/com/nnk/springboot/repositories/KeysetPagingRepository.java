@@ -0,0 +1,40 @@
+package com.nnk.springboot.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+
+/**
+ * Base repository for the entities listed in the UI.
+ * It adds seek (keyset) pagination on the primary key so that a list page costs an index range scan
+ * of one page, whatever the size of the table.
+ *
+ * The Pageable given to these methods is only used for its page size, the position in the table is
+ * given by the id of the last (or first) row already displayed.
+ *
+ * @param <T> Entity managed by the repository
+ * @param <ID> Type of the entity primary key
+ */
+@NoRepositoryBean
+public interface KeysetPagingRepository<T, ID> extends JpaRepository<T, ID> {
+
+    /**
+     * Retrieves the rows following the given id, in ascending id order.
+     *
+     * @param id Id of the last row of the previous page (0 for the first page)
+     * @param pageable Size of the page to retrieve
+     * @return The next rows of the table
+     */
+    List<T> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+    /**
+     * Retrieves the rows preceding the given id, in descending id order.
+     *
+     * @param id Id of the first row of the next page
+     * @param pageable Size of the page to retrieve
+     * @return The previous rows of the table, closest first
+     */
+    List<T> findByIdLessThanOrderByIdDesc(Integer id, Pageable pageable);
+}
@@ -0,0 +1,39 @@
+package com.nnk.springboot.repositories;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Repository fragment reading a limited number of rows matching a Specification.
+ * Unlike JpaSpecificationExecutor.findAll(Specification, Pageable), no count query is issued:
+ * the filtered list pages are read with seek (keyset) pagination and only need the rows of one page.
+ *
+ * @param <T> Entity managed by the repository
+ */
+public interface KeysetSpecificationExecutor<T> {
+
+    /**
+     * Retrieves at most "limit" rows matching the given Specification, in the given order.
+     *
+     * @param spec Conditions the rows must match
+     * @param sort Order of the rows
+     * @param limit Maximum number of rows to retrieve
+     * @return The first rows matching the Specification
+     */
+    List<T> findAll(Specification<T> spec, Sort sort, int limit);
+
+    /**
+     * Retrieves at most "limit" rows matching the given Specification, in the given order, with only the given
+     * attributes selected. The rows are built with the constructor of the projection and aren't managed entities.
+     *
+     * @param spec Conditions the rows must match
+     * @param sort Order of the rows
+     * @param limit Maximum number of rows to retrieve
+     * @param projection Class built from the selected attributes
+     * @param attributes Attributes to select, in the order of the projection constructor
+     * @return The first rows matching the Specification
+     */
+    <P> List<P> findAll(Specification<T> spec, Sort sort, int limit, Class<P> projection, String... attributes);
+}
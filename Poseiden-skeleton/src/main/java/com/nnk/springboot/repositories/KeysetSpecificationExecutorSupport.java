@@ -0,0 +1,80 @@
+package com.nnk.springboot.repositories;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base implementation of KeysetSpecificationExecutor for one entity.
+ * The Specification is translated into a criteria query limited with setMaxResults, i.e. a LIMIT clause in SQL.
+ * Projected queries use a constructor expression, so only the selected columns are read and nothing is added to
+ * the persistence context.
+ *
+ * @param <T> Entity managed by the repository
+ */
+public abstract class KeysetSpecificationExecutorSupport<T> implements KeysetSpecificationExecutor<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Class<T> domainClass;
+
+    protected KeysetSpecificationExecutorSupport(Class<T> domainClass) {
+        this.domainClass = domainClass;
+    }
+
+    @Override
+    public List<T> findAll(Specification<T> spec, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(domainClass);
+        Root<T> root = restrict(query, spec, sort, builder);
+        query.select(root);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public <P> List<P> findAll(Specification<T> spec, Sort sort, int limit, Class<P> projection, String... attributes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = builder.createQuery(projection);
+        Root<T> root = restrict(query, spec, sort, builder);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute));
+        }
+        query.select(builder.construct(projection, selections.toArray(new Selection<?>[0])));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private Root<T> restrict(CriteriaQuery<?> query, Specification<T> spec, Sort sort, CriteriaBuilder builder) {
+        Root<T> root = query.from(domainClass);
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending()
+                    ? builder.asc(root.get(order.getProperty()))
+                    : builder.desc(root.get(order.getProperty())));
+        }
+        query.orderBy(orders);
+        return root;
+    }
+}
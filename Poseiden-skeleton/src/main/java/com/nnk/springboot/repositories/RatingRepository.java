@@ -1,11 +1,37 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.Rating;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 
-public interface RatingRepository extends JpaRepository<Rating, Integer> {
+public interface RatingRepository extends KeysetPagingRepository<Rating, Integer> {
 
+    /**
+     * Updates all the columns of the Rating having the same id, in one statement and without reading it first.
+     *
+     * @param rating Rating holding the id and the new values
+     * @return Number of updated rows, 0 if no Rating has this id
+     */
+    @Modifying
+    @Query("update Rating r set "
+            + "r.moodysRating = :#{#rating.moodysRating}, "
+            + "r.sandPRating = :#{#rating.sandPRating}, "
+            + "r.fitchRating = :#{#rating.fitchRating}, "
+            + "r.orderNumber = :#{#rating.orderNumber} "
+            + "where r.id = :#{#rating.id}")
+    int updateRating(@Param("rating") Rating rating);
+
+    /**
+     * Deletes the Rating having the given id, in one statement and without reading it first.
+     *
+     * @param id Id of the Rating to delete
+     * @return Number of deleted rows, 0 if no Rating has this id
+     */
+    @Modifying
+    @Query("delete from Rating r where r.id = :id")
+    int deleteRatingById(@Param("id") Integer id);
 }
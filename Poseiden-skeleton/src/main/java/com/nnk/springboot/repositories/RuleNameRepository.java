@@ -1,10 +1,37 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.RuleName;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 
-public interface RuleNameRepository extends JpaRepository<RuleName, Integer> {
+public interface RuleNameRepository extends KeysetPagingRepository<RuleName, Integer> {
+
+    /**
+     * Updates all the columns of the RuleName having the same id, in one statement and without reading it first.
+     *
+     * @param ruleName RuleName holding the id and the new values
+     * @return Number of updated rows, 0 if no RuleName has this id
+     */
+    @Modifying
+    @Query("update RuleName r set "
+            + "r.name = :#{#ruleName.name}, "
+            + "r.description = :#{#ruleName.description}, "
+            + "r.json = :#{#ruleName.json}, r.template = :#{#ruleName.template}, "
+            + "r.sqlStr = :#{#ruleName.sqlStr}, r.sqlPart = :#{#ruleName.sqlPart} "
+            + "where r.id = :#{#ruleName.id}")
+    int updateRuleName(@Param("ruleName") RuleName ruleName);
+
+    /**
+     * Deletes the RuleName having the given id, in one statement and without reading it first.
+     *
+     * @param id Id of the RuleName to delete
+     * @return Number of deleted rows, 0 if no RuleName has this id
+     */
+    @Modifying
+    @Query("delete from RuleName r where r.id = :id")
+    int deleteRuleNameById(@Param("id") Integer id);
 }
@@ -0,0 +1,104 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.TradeArchive;
+import com.nnk.springboot.domain.TradeQuantities;
+import com.nnk.springboot.domain.TradeSummary;
+import com.nnk.springboot.domain.TradeValuationInput;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface TradeArchiveRepository extends KeysetPagingRepository<TradeArchive, Integer>,
+        JpaSpecificationExecutor<TradeArchive>, KeysetSpecificationExecutor<TradeArchive> {
+
+    /**
+     * Retrieves the summaries of the archived Trades following the given id, in ascending id order.
+     *
+     * @param id Id of the last Trade of the previous page (0 for the first page)
+     * @param pageable Size of the page to retrieve
+     * @return The summaries of the next archived Trades
+     */
+    @Query("select new com.nnk.springboot.domain.TradeSummary(t.id, t.account, t.type, t.buyQuantity) "
+            + "from TradeArchive t where t.id > :id order by t.id asc")
+    List<TradeSummary> findSummariesByIdGreaterThan(@Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Retrieves the summaries of the archived Trades preceding the given id, in descending id order.
+     *
+     * @param id Id of the first Trade of the next page
+     * @param pageable Size of the page to retrieve
+     * @return The summaries of the previous archived Trades, closest first
+     */
+    @Query("select new com.nnk.springboot.domain.TradeSummary(t.id, t.account, t.type, t.buyQuantity) "
+            + "from TradeArchive t where t.id < :id order by t.id desc")
+    List<TradeSummary> findSummariesByIdLessThan(@Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Streams the position key and the quantities of all the archived Trades. Only these columns are read, by chunks
+     * of STREAM_FETCH_SIZE, so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @return Stream of the quantities of all the archived Trades
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = TradeRepository.STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select new com.nnk.springboot.domain.TradeQuantities(t.id, t.account, t.security, t.book, "
+            + "t.buyQuantity, t.sellQuantity) from TradeArchive t")
+    Stream<TradeQuantities> streamQuantities();
+
+    /**
+     * Streams the valuation inputs of all the archived Trades. Only these columns are read, by chunks of
+     * STREAM_FETCH_SIZE, so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @return Stream of the valuation inputs of all the archived Trades
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = TradeRepository.STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select new com.nnk.springboot.domain.TradeValuationInput(t.id, t.trader, t.book, t.benchmark, "
+            + "t.buyQuantity, t.sellQuantity, t.buyPrice, t.sellPrice) from TradeArchive t")
+    Stream<TradeValuationInput> streamValuationInputs();
+
+    /**
+     * Tells whether an archived Trade has the given sourceListId, by a lookup of its index.
+     *
+     * @param sourceListId sourceListId to look for
+     * @return Whether an archived Trade has it
+     */
+    boolean existsBySourceListId(String sourceListId);
+
+    /**
+     * Retrieves the latest trade date of the archived Trades, from the end of its index.
+     *
+     * @return The latest trade date, null if no Trade is archived
+     */
+    @Query("select max(t.tradeDate) from TradeArchive t")
+    Timestamp findLatestTradeDate();
+
+    /**
+     * Copies Trades to the archive, with the same ids, in one INSERT ... SELECT statement.
+     *
+     * @param ids Ids of the Trades to copy
+     * @return Number of Trades copied
+     */
+    @Modifying
+    @Query("insert into TradeArchive (id, account, type, buyQuantity, sellQuantity, buyPrice, sellPrice, tradeDate, "
+            + "security, status, trader, benchmark, book, creationName, creationDate, revisionName, revisionDate, "
+            + "dealName, dealType, sourceListId, side, archivedDate) "
+            + "select t.id, t.account, t.type, t.buyQuantity, t.sellQuantity, t.buyPrice, t.sellPrice, t.tradeDate, "
+            + "t.security, t.status, t.trader, t.benchmark, t.book, t.creationName, t.creationDate, t.revisionName, "
+            + "t.revisionDate, t.dealName, t.dealType, t.sourceListId, t.side, current_timestamp "
+            + "from Trade t where t.id in :ids")
+    int copyFromTrades(@Param("ids") List<Integer> ids);
+}
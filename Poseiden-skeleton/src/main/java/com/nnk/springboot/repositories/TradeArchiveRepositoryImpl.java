@@ -0,0 +1,13 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.TradeArchive;
+
+/**
+ * Custom part of TradeArchiveRepository: reading a limited number of archived Trades matching a filter.
+ */
+public class TradeArchiveRepositoryImpl extends KeysetSpecificationExecutorSupport<TradeArchive> {
+
+    public TradeArchiveRepositoryImpl() {
+        super(TradeArchive.class);
+    }
+}
@@ -1,10 +1,216 @@
 package com.nnk.springboot.repositories;
 
+import com.nnk.springboot.domain.SearchDocument;
 import com.nnk.springboot.domain.Trade;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.nnk.springboot.domain.TradeAggregate;
+import com.nnk.springboot.domain.TradeQuantities;
+import com.nnk.springboot.domain.TradeValuationInput;
+import com.nnk.springboot.domain.TradeSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 
-public interface TradeRepository extends JpaRepository<Trade, Integer> {
+public interface TradeRepository extends KeysetPagingRepository<Trade, Integer>, JpaSpecificationExecutor<Trade>,
+        KeysetSpecificationExecutor<Trade> {
+
+    /**
+     * Number of rows fetched per JDBC round trip when the table is streamed.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Retrieves the summaries of the Trades following the given id, in ascending id order.
+     * Only the columns shown in the list page are read.
+     *
+     * @param id Id of the last Trade of the previous page (0 for the first page)
+     * @param pageable Size of the page to retrieve
+     * @return The summaries of the next Trades
+     */
+    @Query("select new com.nnk.springboot.domain.TradeSummary(t.id, t.account, t.type, t.buyQuantity) "
+            + "from Trade t where t.id > :id order by t.id asc")
+    List<TradeSummary> findSummariesByIdGreaterThan(@Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Retrieves the summaries of the Trades preceding the given id, in descending id order.
+     * Only the columns shown in the list page are read.
+     *
+     * @param id Id of the first Trade of the next page
+     * @param pageable Size of the page to retrieve
+     * @return The summaries of the previous Trades, closest first
+     */
+    @Query("select new com.nnk.springboot.domain.TradeSummary(t.id, t.account, t.type, t.buyQuantity) "
+            + "from Trade t where t.id < :id order by t.id desc")
+    List<TradeSummary> findSummariesByIdLessThan(@Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Streams all the Trades in id order. The rows are fetched from the database by chunks of STREAM_FETCH_SIZE
+     * and are read-only, so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @return Stream of all the Trades
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select t from Trade t order by t.id")
+    Stream<Trade> streamAll();
+
+    /**
+     * Streams the text columns of all the Trades searched by the full-text index. Only these columns are read, by
+     * chunks of STREAM_FETCH_SIZE, so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @return Stream of the search documents of all the Trades
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select new com.nnk.springboot.domain.SearchDocument(t.id, t.dealName, t.security, t.account) from Trade t")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    /**
+     * Streams the position key and the quantities of all the Trades. Only these columns are read, by chunks of
+     * STREAM_FETCH_SIZE, so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @return Stream of the quantities of all the Trades
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select new com.nnk.springboot.domain.TradeQuantities(t.id, t.account, t.security, t.book, "
+            + "t.buyQuantity, t.sellQuantity) from Trade t")
+    Stream<TradeQuantities> streamQuantities();
+
+    /**
+     * Streams the valuation inputs of all the Trades. Only these columns are read, by chunks of STREAM_FETCH_SIZE,
+     * so the stream must be consumed inside a transaction and closed after use.
+     *
+     * @return Stream of the valuation inputs of all the Trades
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select new com.nnk.springboot.domain.TradeValuationInput(t.id, t.trader, t.book, t.benchmark, "
+            + "t.buyQuantity, t.sellQuantity, t.buyPrice, t.sellPrice) from Trade t")
+    Stream<TradeValuationInput> streamValuationInputs();
+
+    /**
+     * Counts the Trades and sums their quantities by status, trader and book. The groups are computed by the
+     * database, so only one row per group is read whatever the number of Trades.
+     *
+     * @return The totals of each status, trader and book having at least one Trade
+     */
+    @Query("select new com.nnk.springboot.domain.TradeAggregate(t.status, t.trader, t.book, count(t), "
+            + "sum(t.buyQuantity), sum(t.sellQuantity)) from Trade t group by t.status, t.trader, t.book")
+    List<TradeAggregate> aggregateByStatusTraderBook();
+
+    /**
+     * Reads the status, trader, book and quantities of a Trade, and locks its row until the end of the transaction,
+     * so that no other write changes them before the current one is committed.
+     *
+     * @param id Id of the Trade
+     * @return The contribution of the Trade to the totals, empty if no Trade has this id
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.nnk.springboot.domain.TradeAggregate(t.status, t.trader, t.book, 1L, "
+            + "t.buyQuantity, t.sellQuantity) from Trade t where t.id = :id")
+    Optional<TradeAggregate> lockAggregateById(@Param("id") Integer id);
+
+    /**
+     * Reads the ids of the first Trades traded before a date, and locks their rows until the end of the transaction,
+     * so that they aren't changed while they are archived. The Trades without trade date are never returned.
+     *
+     * @param horizon Date before which the Trades are returned
+     * @param pageable Number of ids to read
+     * @return The ids of the Trades, in ascending order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Trade t where t.tradeDate < :horizon order by t.id")
+    List<Integer> lockIdsTradedBefore(@Param("horizon") Timestamp horizon, Pageable pageable);
+
+    /**
+     * Counts the Trades and sums their quantities by status, trader and book, among the given Trades.
+     *
+     * @param ids Ids of the Trades
+     * @return The totals of each status, trader and book of these Trades
+     */
+    @Query("select new com.nnk.springboot.domain.TradeAggregate(t.status, t.trader, t.book, count(t), "
+            + "sum(t.buyQuantity), sum(t.sellQuantity)) from Trade t where t.id in :ids "
+            + "group by t.status, t.trader, t.book")
+    List<TradeAggregate> aggregateByIdIn(@Param("ids") List<Integer> ids);
+
+    /**
+     * Tells whether a Trade has the given sourceListId, by a lookup of its unique index.
+     *
+     * @param sourceListId sourceListId to look for
+     * @return Whether a Trade has it
+     */
+    boolean existsBySourceListId(String sourceListId);
+
+    /**
+     * Tells whether a Trade other than the given one has the given sourceListId, by a lookup of its unique index.
+     *
+     * @param sourceListId sourceListId to look for
+     * @param id Id of the Trade to leave out
+     * @return Whether another Trade has it
+     */
+    boolean existsBySourceListIdAndIdNot(String sourceListId, Integer id);
+
+    /**
+     * Updates all the columns of the Trade having the same id, in one statement and without reading it first.
+     * Its sourceListId is only set when it has none: once ingested, a Trade keeps the key of its upstream message.
+     *
+     * @param trade Trade holding the id and the new values
+     * @return Number of updated rows, 0 if no Trade has this id
+     */
+    @Modifying
+    @Query("update Trade t set "
+            + "t.account = :#{#trade.account}, t.type = :#{#trade.type}, "
+            + "t.buyQuantity = :#{#trade.buyQuantity}, "
+            + "t.sellQuantity = :#{#trade.sellQuantity}, "
+            + "t.buyPrice = :#{#trade.buyPrice}, t.sellPrice = :#{#trade.sellPrice}, "
+            + "t.tradeDate = :#{#trade.tradeDate}, t.security = :#{#trade.security}, "
+            + "t.status = :#{#trade.status}, t.trader = :#{#trade.trader}, "
+            + "t.benchmark = :#{#trade.benchmark}, t.book = :#{#trade.book}, "
+            + "t.creationName = :#{#trade.creationName}, "
+            + "t.creationDate = :#{#trade.creationDate}, "
+            + "t.revisionName = :#{#trade.revisionName}, "
+            + "t.revisionDate = :#{#trade.revisionDate}, "
+            + "t.dealName = :#{#trade.dealName}, t.dealType = :#{#trade.dealType}, "
+            + "t.sourceListId = coalesce(t.sourceListId, :#{#trade.sourceListId}), t.side = :#{#trade.side} "
+            + "where t.id = :#{#trade.id}")
+    int updateTrade(@Param("trade") Trade trade);
+
+    /**
+     * Deletes the Trade having the given id, in one statement and without reading it first.
+     *
+     * @param id Id of the Trade to delete
+     * @return Number of deleted rows, 0 if no Trade has this id
+     */
+    @Modifying
+    @Query("delete from Trade t where t.id = :id")
+    int deleteTradeById(@Param("id") Integer id);
+
+    /**
+     * Deletes the Trades having the given ids, in one statement and without reading them first.
+     *
+     * @param ids Ids of the Trades to delete
+     * @return Number of deleted rows
+     */
+    @Modifying
+    @Query("delete from Trade t where t.id in :ids")
+    int deleteTradesByIdIn(@Param("ids") List<Integer> ids);
 }
@@ -0,0 +1,13 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.Trade;
+
+/**
+ * Custom part of TradeRepository: reading a limited number of Trades matching a filter.
+ */
+public class TradeRepositoryImpl extends KeysetSpecificationExecutorSupport<Trade> {
+
+    public TradeRepositoryImpl() {
+        super(Trade.class);
+    }
+}
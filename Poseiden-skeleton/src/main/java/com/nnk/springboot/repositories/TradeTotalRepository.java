@@ -0,0 +1,45 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.TradeAggregate;
+import com.nnk.springboot.domain.TradeTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TradeTotalRepository extends JpaRepository<TradeTotal, Integer> {
+
+    /**
+     * Reads the totals having at least one Trade. The empty strings standing for a missing status, trader or book
+     * are read as null.
+     *
+     * @return The totals of each status, trader and book
+     */
+    @Query("select new com.nnk.springboot.domain.TradeAggregate(nullif(t.status, ''), nullif(t.trader, ''), "
+            + "nullif(t.book, ''), t.tradeCount, t.buyQuantity, t.sellQuantity) from TradeTotal t "
+            + "where t.tradeCount > 0")
+    List<TradeAggregate> findAggregates();
+
+    /**
+     * Adds a difference to the total of a status, trader and book, in one statement and without reading it first.
+     *
+     * @param status Status of the total, empty for the Trades without status
+     * @param trader Trader of the total, empty for the Trades without trader
+     * @param book Book of the total, empty for the Trades without book
+     * @param tradeCount Number of Trades to add (negative to remove)
+     * @param buyQuantity Buy quantity to add
+     * @param sellQuantity Sell quantity to add
+     * @return Number of updated rows, 0 if the total doesn't exist yet
+     */
+    @Modifying
+    @Query("update TradeTotal t set t.tradeCount = t.tradeCount + :tradeCount, "
+            + "t.buyQuantity = t.buyQuantity + :buyQuantity, t.sellQuantity = t.sellQuantity + :sellQuantity "
+            + "where t.status = :status and t.trader = :trader and t.book = :book")
+    int addToTotal(@Param("status") String status, @Param("trader") String trader, @Param("book") String book,
+                   @Param("tradeCount") long tradeCount, @Param("buyQuantity") double buyQuantity,
+                   @Param("sellQuantity") double sellQuantity);
+}
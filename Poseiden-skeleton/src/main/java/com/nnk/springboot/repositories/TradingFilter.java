@@ -0,0 +1,110 @@
+package com.nnk.springboot.repositories;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+
+/**
+ * This class holds the filters a user can apply to the Trade and BidList lists.
+ * It is bound from the request parameters of the list pages. Every filter is optional:
+ * a blank text or a missing date doesn't restrict the list.
+ */
+public class TradingFilter {
+
+    private String account;
+
+    private String type;
+
+    private String status;
+
+    private String trader;
+
+    private String book;
+
+    private String security;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    public TradingFilter() {
+    }
+
+    /**
+     * This method tells if at least one filter is set.
+     *
+     * @return true if the list must be filtered
+     */
+    public boolean isActive() {
+        return StringUtils.hasText(account) || StringUtils.hasText(type) || StringUtils.hasText(status)
+                || StringUtils.hasText(trader) || StringUtils.hasText(book) || StringUtils.hasText(security)
+                || from != null || to != null;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getTrader() {
+        return trader;
+    }
+
+    public void setTrader(String trader) {
+        this.trader = trader;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    public void setBook(String book) {
+        this.book = book;
+    }
+
+    public String getSecurity() {
+        return security;
+    }
+
+    public void setSecurity(String security) {
+        this.security = security;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+}
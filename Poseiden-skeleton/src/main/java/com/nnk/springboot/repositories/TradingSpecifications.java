@@ -0,0 +1,93 @@
+package com.nnk.springboot.repositories;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * This class builds the Specifications used to filter the Trades and the BidLists.
+ * Both entities share the filtered attributes (account, type, status, trader, book and security),
+ * only the attribute holding their date differs.
+ *
+ * Each filter becomes a condition of the SQL where clause, so the database can match the equality conditions
+ * with the composite indexes declared on the entities; the id condition gives the page position.
+ */
+public final class TradingSpecifications {
+
+    private TradingSpecifications() {
+    }
+
+    /**
+     * This method builds the Specification matching all the filters that are set.
+     *
+     * @param filter Filters chosen by the user
+     * @param dateAttribute Name of the date attribute of the entity, compared to the "from" and "to" dates
+     * @return Specification combining the filters
+     */
+    public static <T> Specification<T> matching(TradingFilter filter, String dateAttribute) {
+        return Specification.<T>where(attributeEquals("account", filter.getAccount()))
+                .and(attributeEquals("type", filter.getType()))
+                .and(attributeEquals("status", filter.getStatus()))
+                .and(attributeEquals("trader", filter.getTrader()))
+                .and(attributeEquals("book", filter.getBook()))
+                .and(attributeEquals("security", filter.getSecurity()))
+                .and(onOrAfter(dateAttribute, filter.getFrom()))
+                .and(before(dateAttribute, filter.getTo() == null ? null : filter.getTo().plusDays(1)));
+    }
+
+    /**
+     * @param attribute Name of the attribute
+     * @param value Expected value. The condition is ignored when it is blank
+     * @return Specification matching the rows whose attribute equals the value
+     */
+    public static <T> Specification<T> attributeEquals(String attribute, String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get(attribute), value.trim());
+    }
+
+    /**
+     * @param attribute Name of the date attribute
+     * @param day First day of the range. The condition is ignored when it is null
+     * @return Specification matching the rows dated on or after the start of the day
+     */
+    public static <T> Specification<T> onOrAfter(String attribute, LocalDate day) {
+        if (day == null) {
+            return null;
+        }
+        return (root, query, builder) ->
+                builder.greaterThanOrEqualTo(root.<Timestamp>get(attribute), Timestamp.valueOf(day.atStartOfDay()));
+    }
+
+    /**
+     * @param attribute Name of the date attribute
+     * @param day Day ending the range, excluded. The condition is ignored when it is null
+     * @return Specification matching the rows dated before the start of the day
+     */
+    public static <T> Specification<T> before(String attribute, LocalDate day) {
+        if (day == null) {
+            return null;
+        }
+        return (root, query, builder) ->
+                builder.lessThan(root.<Timestamp>get(attribute), Timestamp.valueOf(day.atStartOfDay()));
+    }
+
+    /**
+     * @param id Id of the last row of the previous page
+     * @return Specification matching the rows following this id
+     */
+    public static <T> Specification<T> idGreaterThan(Integer id) {
+        return (root, query, builder) -> builder.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * @param id Id of the first row of the next page
+     * @return Specification matching the rows preceding this id
+     */
+    public static <T> Specification<T> idLessThan(Integer id) {
+        return (root, query, builder) -> builder.lessThan(root.get("id"), id);
+    }
+}
@@ -1,13 +1,51 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.User;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.nnk.springboot.domain.UserCredentials;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends KeysetPagingRepository<User, Integer>, JpaSpecificationExecutor<User> {
+
+    /**
+     * Reads the username, password hash and role of the Users having the given username, in one query using the
+     * username index.
+     *
+     * @param username Username typed in the login form
+     * @param pageable Limit of the query. The first User is the one authenticated
+     * @return Credentials of the matching Users, by ascending id
+     */
+    @Query("select new com.nnk.springboot.domain.UserCredentials(u.username, u.password, u.role) "
+            + "from User u where u.username = :username order by u.id asc")
+    List<UserCredentials> findCredentialsByUsername(@Param("username") String username, Pageable pageable);
+
+    /**
+     * Updates all the columns of the User having the same id, in one statement and without reading it first.
+     *
+     * @param user User holding the id and the new values
+     * @return Number of updated rows, 0 if no User has this id
+     */
+    @Modifying
+    @Query("update User u set "
+            + "u.username = :#{#user.username}, u.password = :#{#user.password}, "
+            + "u.fullname = :#{#user.fullname}, u.role = :#{#user.role} "
+            + "where u.id = :#{#user.id}")
+    int updateUser(@Param("user") User user);
 
+    /**
+     * Deletes the User having the given id, in one statement and without reading it first.
+     *
+     * @param id Id of the User to delete
+     * @return Number of deleted rows, 0 if no User has this id
+     */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Integer id);
 }
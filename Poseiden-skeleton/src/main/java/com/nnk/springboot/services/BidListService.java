@@ -0,0 +1,143 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.BidListSummary;
+import com.nnk.springboot.domain.SearchDocument;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.TradingFilter;
+import com.nnk.springboot.repositories.TradingSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class serves as a service layer for the BidList entity.
+ * Each write operation issues a single SQL statement (insert, update or delete by id): the BidList isn't read
+ * before being changed and the list of BidLists isn't reloaded afterwards.
+ * The write operations report the number of statements they issued, and index the BidList for the search once
+ * committed.
+ */
+@Service
+public class BidListService {
+
+    @Autowired
+    private BidListRepository bidListRepository;
+
+    @Autowired
+    private SourceListIdService sourceListIdService;
+
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * This method retrieves one page of BidList summaries, located with the id of the last (or first) BidList
+     * already displayed.
+     * Only the columns shown in the list page are read. When filters are set, only the matching BidLists are read,
+     * the filters being applied by the database.
+     *
+     * @param filter Filters chosen by the user. May be null
+     * @param after Id of the last BidList of the previous page. May be null
+     * @param before Id of the first BidList of the next page. May be null
+     * @param size Number of BidLists of the page
+     * @return The page of BidList summaries with its cursors
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BidListSummary> findPage(TradingFilter filter, Integer after, Integer before, int size) {
+        if (filter == null || !filter.isActive()) {
+            return KeysetPage.seek(
+                    (id, limit) -> bidListRepository.findSummariesByIdGreaterThan(id, PageRequest.of(0, limit)),
+                    (id, limit) -> bidListRepository.findSummariesByIdLessThan(id, PageRequest.of(0, limit)),
+                    after, before, size, BidListSummary::getId);
+        }
+        Specification<BidList> spec = TradingSpecifications.matching(filter, "bidListDate");
+        return KeysetPage.seek(bidListRepository, spec, BidListSummary.class, BidListSummary.ATTRIBUTES,
+                after, before, size, BidListSummary::getId);
+    }
+
+    /**
+     * This method retrieves a BidList from its id.
+     *
+     * @param id Id of the BidList
+     * @return The BidList
+     * @throws IllegalArgumentException if no BidList has this id
+     */
+    @Transactional(readOnly = true)
+    public BidList findById(Integer id) {
+        return bidListRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid bidList Id:" + id));
+    }
+
+    /**
+     * This method adds a new BidList to the database.
+     *
+     * @param bidList BidList to add
+     * @return Result of the insert
+     * @throws IllegalArgumentException if a BidList with the same sourceListId was already added
+     */
+    @Transactional
+    public WriteResult save(BidList bidList) {
+        sourceListIdService.checkBidList(bidList);
+        WriteResult result;
+        try {
+            result = WriteResult.measure(() -> {
+                bidListRepository.save(bidList);
+                if (bidList.getSourceListId() != null) {
+                    // the unique index is checked now rather than at the commit
+                    bidListRepository.flush();
+                }
+                return 1;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw sourceListIdService.bidListInsertFailed(bidList, e);
+        }
+        sourceListIdService.bidListInserted(bidList);
+        searchService.indexBidListAfterCommit(bidList);
+        return result;
+    }
+
+    /**
+     * This method overwrites the BidList having the given id with the values of the given BidList. Its sourceListId
+     * is only set if it had none.
+     *
+     * @param id Id of the BidList to update
+     * @param bidList BidList holding the new values
+     * @return Result of the update
+     * @throws IllegalArgumentException if no BidList has this id, or if another BidList has its new sourceListId
+     */
+    @Transactional
+    public WriteResult update(Integer id, BidList bidList) {
+        bidList.setId(id);
+        sourceListIdService.checkBidListUpdate(bidList);
+        WriteResult result;
+        try {
+            result = WriteResult.measure(() -> bidListRepository.updateBidList(bidList));
+        } catch (DataIntegrityViolationException e) {
+            throw sourceListIdService.bidListInsertFailed(bidList, e);
+        }
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid bidList Id:" + id);
+        }
+        searchService.indexBidListAfterCommit(bidList);
+        return result;
+    }
+
+    /**
+     * This method deletes the BidList having the given id.
+     *
+     * @param id Id of the BidList to delete
+     * @return Result of the delete
+     * @throws IllegalArgumentException if no BidList has this id
+     */
+    @Transactional
+    public WriteResult delete(Integer id) {
+        WriteResult result = WriteResult.measure(() -> bidListRepository.deleteBidListById(id));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid bidList Id:" + id);
+        }
+        searchService.removeAfterCommit(SearchDocument.Type.BID_LIST, id);
+        return result;
+    }
+}
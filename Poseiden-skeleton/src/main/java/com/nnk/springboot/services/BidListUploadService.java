@@ -0,0 +1,266 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.repositories.BidListRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * This class loads BidLists from a CSV file, as exported by ExportService.
+ * The first record of the file is the header naming the columns; the "account" and "type" columns are mandatory,
+ * the "id" column and unknown columns are ignored.
+ *
+ * The file is read record by record and only one chunk of valid BidLists is held in memory. Each chunk is inserted
+ * in its own transaction. A row that can't be parsed or doesn't pass the BidList constraints is reported and
+ * skipped. If a chunk fails in the database, its rows are inserted one by one so that only the faulty rows are lost.
+ * The BidLists of a chunk are indexed for the search once it is committed.
+ * A row whose sourceListId was already loaded is reported as a duplicate: at once when it was loaded lately,
+ * otherwise by the unique index of the table.
+ */
+@Service
+public class BidListUploadService {
+
+    private static final Map<String, BiConsumer<BidList, String>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("account", BidList::setAccount);
+        COLUMNS.put("type", BidList::setType);
+        COLUMNS.put("bidQuantity", (bidList, value) -> bidList.setBidQuantity(toDouble(value)));
+        COLUMNS.put("askQuantity", (bidList, value) -> bidList.setAskQuantity(toDouble(value)));
+        COLUMNS.put("bid", (bidList, value) -> bidList.setBid(toDouble(value)));
+        COLUMNS.put("ask", (bidList, value) -> bidList.setAsk(toDouble(value)));
+        COLUMNS.put("benchmark", BidList::setBenchmark);
+        COLUMNS.put("bidListDate", (bidList, value) -> bidList.setBidListDate(toTimestamp(value)));
+        COLUMNS.put("commentary", BidList::setCommentary);
+        COLUMNS.put("security", BidList::setSecurity);
+        COLUMNS.put("status", BidList::setStatus);
+        COLUMNS.put("trader", BidList::setTrader);
+        COLUMNS.put("book", BidList::setBook);
+        COLUMNS.put("creationName", BidList::setCreationName);
+        COLUMNS.put("creationDate", BidList::setCreationDate);
+        COLUMNS.put("revisionName", BidList::setRevisionName);
+        COLUMNS.put("revisionDate", BidList::setRevisionDate);
+        COLUMNS.put("dealName", BidList::setDealName);
+        COLUMNS.put("dealType", BidList::setDealType);
+        COLUMNS.put("sourceListId", BidList::setSourceListId);
+        COLUMNS.put("side", BidList::setSide);
+    }
+
+    @Autowired
+    private BidListRepository bidListRepository;
+
+    @Autowired
+    private SourceListIdService sourceListIdService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Number of BidLists inserted per transaction.
+     */
+    @Value("${poseidon.upload.chunk-size:500}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * This method reads the BidLists of a CSV file and inserts the valid ones by chunks.
+     *
+     * @param in Content of the CSV file, in UTF-8. It is read until its end but not closed
+     * @return Report of the upload, with the rejected rows. When a record can't be read, such as a quoted field
+     * never closed, it is rejected and the reading stops: the rows read before it are still inserted and reported
+     * @throws IOException if the header can't be read
+     * @throws IllegalArgumentException if the header lacks a mandatory column
+     */
+    public UploadReport upload(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        UploadReport report = new UploadReport();
+
+        List<String> header = CsvSupport.readRecord(reader);
+        if (header == null) {
+            throw new IllegalArgumentException("Invalid upload file: it is empty");
+        }
+        List<BiConsumer<BidList, String>> setters = settersOf(header);
+
+        List<BidList> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkRows = new ArrayList<>(chunkSize);
+        int row = 0;
+        List<String> record;
+        while ((record = readRecord(reader, row + 1, report)) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            row++;
+            report.rowRead();
+            String error = null;
+            BidList bidList = new BidList();
+            try {
+                for (int i = 0; i < setters.size() && i < record.size(); i++) {
+                    String value = record.get(i).trim();
+                    if (setters.get(i) != null && !value.isEmpty()) {
+                        setters.get(i).accept(bidList, value);
+                    }
+                }
+                error = validate(bidList);
+                if (error == null) {
+                    sourceListIdService.checkBidList(bidList);
+                }
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+            if (error != null) {
+                report.rowRejected(row, error);
+                continue;
+            }
+            chunk.add(bidList);
+            chunkRows.add(row);
+            if (chunk.size() >= chunkSize) {
+                insert(chunk, chunkRows, report);
+            }
+        }
+        insert(chunk, chunkRows, report);
+        return report;
+    }
+
+    /**
+     * Reads the next record, or returns null at the end of the file or when the record can't be read, after
+     * rejecting its row: the rest of the file can't be split into records any more.
+     */
+    private static List<String> readRecord(BufferedReader reader, int row, UploadReport report) {
+        try {
+            return CsvSupport.readRecord(reader);
+        } catch (IOException e) {
+            report.rowRead();
+            report.rowRejected(row, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<BiConsumer<BidList, String>> settersOf(List<String> header) {
+        List<BiConsumer<BidList, String>> setters = new ArrayList<>();
+        Set<String> columns = new HashSet<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).replace("\uFEFF", "").trim();
+            setters.add(COLUMNS.get(column));
+            columns.add(column);
+        }
+        for (String mandatory : new String[]{"account", "type"}) {
+            if (!columns.contains(mandatory)) {
+                throw new IllegalArgumentException("Invalid upload file: missing column " + mandatory);
+            }
+        }
+        return setters;
+    }
+
+    private String validate(BidList bidList) {
+        Set<ConstraintViolation<BidList>> violations = validator.validate(bidList);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void insert(List<BidList> chunk, List<Integer> chunkRows, UploadReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> save(chunk));
+            report.rowsInserted(chunk.size());
+        } catch (RuntimeException chunkFailure) {
+            entityManager.clear();
+            for (int i = 0; i < chunk.size(); i++) {
+                BidList bidList = chunk.get(i);
+                bidList.setId(0);
+                try {
+                    transactionTemplate.execute(status -> save(List.of(bidList)));
+                    report.rowsInserted(1);
+                } catch (RuntimeException rowFailure) {
+                    entityManager.clear();
+                    RuntimeException failure = sourceListIdService.bidListInsertFailed(bidList, rowFailure);
+                    report.rowRejected(chunkRows.get(i),
+                            failure instanceof IllegalArgumentException ? failure.getMessage() : rootMessage(failure));
+                }
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private int save(List<BidList> bidLists) {
+        bidListRepository.saveAll(bidLists);
+        bidLists.forEach(sourceListIdService::bidListInserted);
+        bidLists.forEach(searchService::indexBidListAfterCommit);
+        entityManager.flush();
+        entityManager.clear();
+        return bidLists.size();
+    }
+
+    private static String rootMessage(Throwable throwable) {
+        Throwable root = throwable;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static Double toDouble(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    private static Timestamp toTimestamp(String value) {
+        try {
+            if (value.length() == 10) {
+                return Timestamp.valueOf(LocalDate.parse(value).atStartOfDay());
+            }
+            return Timestamp.valueOf(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.nnk.springboot.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class gathers the helpers used to read and write CSV records (RFC 4180, comma separated).
+ */
+public final class CsvSupport {
+
+    /**
+     * Greatest number of characters of a record, separators included. A longer record, such as one opening a quote
+     * that is never closed, is rejected as soon as the limit is crossed rather than read until the end of the input.
+     */
+    public static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private CsvSupport() {
+    }
+
+    /**
+     * This method formats the values as one CSV line, without the line separator.
+     * Null values are written as empty fields. Fields containing a comma, a quote or a line break are quoted.
+     *
+     * @param values Values of the line
+     * @return The CSV line
+     */
+    public static String formatLine(List<?> values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                line.append(escape(value.toString()));
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * This method reads the next CSV record from the reader. Only this record is held in memory, up to
+     * MAX_RECORD_LENGTH characters.
+     * Quoted fields may contain commas, doubled quotes and line breaks. Both LF and CRLF line endings are accepted.
+     *
+     * @param reader Reader positioned at the start of a record. It should be buffered
+     * @return The fields of the record, or null at the end of the input
+     * @throws IOException if the reader fails, a quoted field isn't closed or the record is longer than
+     * MAX_RECORD_LENGTH
+     */
+    public static List<String> readRecord(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IOException("Record longer than " + MAX_RECORD_LENGTH + " characters at record field "
+                        + (fields.size() + 1));
+            }
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unclosed quoted field at record field " + (fields.size() + 1));
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c < 0) {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String escape(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,187 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.CurvePoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class holds the points of one curve as sorted arrays of terms and values, ready to be interpolated.
+ * It is immutable: the logarithms of the values and the second derivatives of the cubic spline are computed once,
+ * when the curve is built, so that a value is computed without allocation in O(log n).
+ */
+public final class Curve {
+
+    private final int curveId;
+
+    private final double[] terms;
+
+    private final double[] values;
+
+    /**
+     * Logarithms of the values, null when a value isn't positive.
+     */
+    private final double[] logValues;
+
+    /**
+     * Second derivatives of the natural cubic spline at each term.
+     */
+    private final double[] secondDerivatives;
+
+    private Curve(int curveId, double[] terms, double[] values) {
+        this.curveId = curveId;
+        this.terms = terms;
+        this.values = values;
+        this.logValues = logarithms(values);
+        this.secondDerivatives = splineSecondDerivatives(terms, values);
+    }
+
+    /**
+     * This method builds a curve from its points. The points without term or value are ignored; when several
+     * points have the same term, the last one of the list is kept.
+     *
+     * @param curveId Id of the curve
+     * @param points Points of the curve, sorted by term
+     * @return The curve
+     * @throws IllegalArgumentException if the curve has no point with a term and a value
+     */
+    public static Curve of(int curveId, List<CurvePoint> points) {
+        double[] terms = new double[points.size()];
+        double[] values = new double[points.size()];
+        int size = 0;
+        for (CurvePoint point : points) {
+            if (point.getTerm() == null || point.getValue() == null) {
+                continue;
+            }
+            if (size > 0 && terms[size - 1] == point.getTerm()) {
+                size--;
+            }
+            terms[size] = point.getTerm();
+            values[size] = point.getValue();
+            size++;
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException("Invalid curve Id:" + curveId);
+        }
+        return new Curve(curveId, Arrays.copyOf(terms, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * This method computes the value of the curve at the given term.
+     *
+     * @param term Term of the value
+     * @param interpolation Method used between and beyond the points of the curve
+     * @return The value of the curve at this term
+     * @throws IllegalArgumentException if the log-linear method is asked for a curve having a value that isn't positive
+     */
+    public double valueAt(double term, CurveInterpolation interpolation) {
+        if (terms.length == 1) {
+            return values[0];
+        }
+        int segment = segmentOf(term);
+        switch (interpolation) {
+            case LOG_LINEAR:
+                if (logValues == null) {
+                    throw new IllegalArgumentException("Invalid interpolation:log-linear needs positive values");
+                }
+                return Math.exp(linear(logValues, segment, term));
+            case CUBIC_SPLINE:
+                return spline(segment, term);
+            default:
+                return linear(values, segment, term);
+        }
+    }
+
+    /**
+     * Index of the first point of the segment used for the term: the segment holding it, or the first (last)
+     * segment when the term is before (after) the curve.
+     */
+    private int segmentOf(double term) {
+        int index = Arrays.binarySearch(terms, term);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return Math.max(0, Math.min(index, terms.length - 2));
+    }
+
+    private double linear(double[] y, int segment, double term) {
+        double x0 = terms[segment];
+        double x1 = terms[segment + 1];
+        return y[segment] + (y[segment + 1] - y[segment]) * (term - x0) / (x1 - x0);
+    }
+
+    private double spline(int segment, double term) {
+        double x0 = terms[segment];
+        double x1 = terms[segment + 1];
+        double y0 = values[segment];
+        double y1 = values[segment + 1];
+        double m0 = secondDerivatives[segment];
+        double m1 = secondDerivatives[segment + 1];
+        double h = x1 - x0;
+        if (term < x0) {
+            double slope = (y1 - y0) / h - h * m0 / 3 - h * m1 / 6;
+            return y0 + slope * (term - x0);
+        }
+        if (term > x1) {
+            double slope = (y1 - y0) / h + h * m0 / 6 + h * m1 / 3;
+            return y1 + slope * (term - x1);
+        }
+        double a = (x1 - term) / h;
+        double b = (term - x0) / h;
+        return a * y0 + b * y1 + ((a * a * a - a) * m0 + (b * b * b - b) * m1) * h * h / 6;
+    }
+
+    private static double[] logarithms(double[] values) {
+        double[] logValues = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] <= 0) {
+                return null;
+            }
+            logValues[i] = Math.log(values[i]);
+        }
+        return logValues;
+    }
+
+    /**
+     * Solves the tridiagonal system of the natural cubic spline (second derivatives null at both ends).
+     */
+    private static double[] splineSecondDerivatives(double[] x, double[] y) {
+        int n = x.length;
+        double[] m = new double[n];
+        if (n < 3) {
+            return m;
+        }
+        double[] c = new double[n];
+        double[] d = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            double h0 = x[i] - x[i - 1];
+            double h1 = x[i + 1] - x[i];
+            double diagonal = 2 * (h0 + h1) - h0 * c[i - 1];
+            double rightSide = 6 * ((y[i + 1] - y[i]) / h1 - (y[i] - y[i - 1]) / h0) - h0 * d[i - 1];
+            c[i] = h1 / diagonal;
+            d[i] = rightSide / diagonal;
+        }
+        for (int i = n - 2; i > 0; i--) {
+            m[i] = d[i] - c[i] * m[i + 1];
+        }
+        return m;
+    }
+
+    public int getCurveId() {
+        return curveId;
+    }
+
+    /**
+     * @return Copy of the sorted terms of the curve
+     */
+    public double[] getTerms() {
+        return terms.clone();
+    }
+
+    /**
+     * @return Copy of the values of the curve, in the order of the terms
+     */
+    public double[] getValues() {
+        return values.clone();
+    }
+}
@@ -0,0 +1,258 @@
+package com.nnk.springboot.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.CurvePointValue;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * This class compares a curve at two as-of dates, term by term, as CSV or JSON files.
+ *
+ * Both curves are streamed from the database by ascending term and merged in a single pass: a row is written for
+ * each term of either curve, with the value of both curves and the shift (to value minus from value). At a term
+ * missing from one curve, its value is interpolated linearly between its surrounding points, or extended from its
+ * first or last segment beyond its ends, as CurveInterpolation.LINEAR does. Only a few points of each curve are
+ * held in memory, whatever their size.
+ */
+@Service
+public class CurveDiffService {
+
+    private static final List<String> COLUMNS = List.of("term", "fromValue", "toValue", "shift");
+
+    /**
+     * Number of rows written between two flushes of the output.
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    @Autowired
+    private CurvePointRepository curvePointRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * This method checks that a curve has points at both as-of dates, so that a diff can be refused before its
+     * response is started.
+     *
+     * @param curveId Id of the curve
+     * @param from As-of date the curve is compared from
+     * @param to As-of date the curve is compared to
+     * @throws IllegalArgumentException if the curve has no point at one of the dates
+     */
+    @Transactional(readOnly = true)
+    public void checkDiff(Integer curveId, Timestamp from, Timestamp to) {
+        if (curvePointRepository.countCurve(curveId, from) == 0 || curvePointRepository.countCurve(curveId, to) == 0) {
+            throw new IllegalArgumentException("Invalid curve Id:" + curveId);
+        }
+    }
+
+    /**
+     * This method writes the shift of a curve between two as-of dates, for each term of either date.
+     *
+     * @param curveId Id of the curve
+     * @param from As-of date the curve is compared from
+     * @param to As-of date the curve is compared to
+     * @param format Format of the file
+     * @param out Output the rows are written to. It is flushed but not closed
+     * @throws IOException if the output can't be written
+     * @throws IllegalArgumentException if the curve has no point at one of the dates
+     */
+    @Transactional(readOnly = true)
+    public void writeDiff(Integer curveId, Timestamp from, Timestamp to, ExportFormat format, OutputStream out)
+            throws IOException {
+        try (Stream<CurvePointValue> fromPoints = curvePointRepository.streamCurve(curveId, from);
+             Stream<CurvePointValue> toPoints = curvePointRepository.streamCurve(curveId, to)) {
+            Side fromSide = new Side(fromPoints.iterator());
+            Side toSide = new Side(toPoints.iterator());
+            if (!fromSide.hasNext() || !toSide.hasNext()) {
+                throw new IllegalArgumentException("Invalid curve Id:" + curveId);
+            }
+            RowWriter writer = format == ExportFormat.JSON ? new JsonRowWriter(out) : new CsvRowWriter(out);
+            int count = 0;
+            while (fromSide.hasNext() || toSide.hasNext()) {
+                double term = !fromSide.hasNext() ? toSide.nextTerm()
+                        : !toSide.hasNext() ? fromSide.nextTerm()
+                        : Math.min(fromSide.nextTerm(), toSide.nextTerm());
+                double fromValue = fromSide.valueAt(term);
+                double toValue = toSide.valueAt(term);
+                writer.write(term, fromValue, toValue, toValue - fromValue);
+                fromSide.skip(term);
+                toSide.skip(term);
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+            writer.close();
+        }
+    }
+
+    /**
+     * One of the merged curves: the next two points not merged yet and the last two merged, which are enough to
+     * interpolate or extend the curve at the term being merged. Points having the same term are read as one,
+     * the last one being kept as in Curve.of.
+     */
+    private static final class Side {
+
+        private final Iterator<CurvePointValue> points;
+
+        private CurvePointValue pending;
+
+        private CurvePointValue beforeLast;
+
+        private CurvePointValue last;
+
+        private CurvePointValue next;
+
+        private CurvePointValue afterNext;
+
+        Side(Iterator<CurvePointValue> points) {
+            this.points = points;
+            next = pull();
+            afterNext = pull();
+        }
+
+        boolean hasNext() {
+            return next != null;
+        }
+
+        double nextTerm() {
+            return next.getTerm();
+        }
+
+        /**
+         * @return Value of the curve at the term, which is not after the next point
+         */
+        double valueAt(double term) {
+            if (next != null && next.getTerm() == term) {
+                return next.getValue();
+            }
+            if (last != null && next != null) {
+                return linear(last, next, term);
+            }
+            if (last == null) {
+                return afterNext == null ? next.getValue() : linear(next, afterNext, term);
+            }
+            return beforeLast == null ? last.getValue() : linear(beforeLast, last, term);
+        }
+
+        /**
+         * Merges the next point if it is at the term.
+         */
+        void skip(double term) {
+            if (next != null && next.getTerm() == term) {
+                beforeLast = last;
+                last = next;
+                next = afterNext;
+                afterNext = pull();
+            }
+        }
+
+        private CurvePointValue pull() {
+            CurvePointValue point = pending;
+            pending = null;
+            if (point == null) {
+                if (!points.hasNext()) {
+                    return null;
+                }
+                point = points.next();
+            }
+            while (points.hasNext()) {
+                CurvePointValue following = points.next();
+                if (following.getTerm() != point.getTerm()) {
+                    pending = following;
+                    break;
+                }
+                point = following;
+            }
+            return point;
+        }
+
+        private static double linear(CurvePointValue p0, CurvePointValue p1, double term) {
+            return p0.getValue() + (p1.getValue() - p0.getValue()) * (term - p0.getTerm()) / (p1.getTerm() - p0.getTerm());
+        }
+    }
+
+    private interface RowWriter {
+
+        void write(double term, double fromValue, double toValue, double shift) throws IOException;
+
+        void flush() throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(CsvSupport.formatLine(COLUMNS));
+            writer.write("\r\n");
+            writer.flush();
+        }
+
+        @Override
+        public void write(double term, double fromValue, double toValue, double shift) throws IOException {
+            writer.write(CsvSupport.formatLine(Arrays.asList(term, fromValue, toValue, shift)));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class JsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        JsonRowWriter(OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(double term, double fromValue, double toValue, double shift) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(COLUMNS.get(0), term);
+            generator.writeNumberField(COLUMNS.get(1), fromValue);
+            generator.writeNumberField(COLUMNS.get(2), toValue);
+            generator.writeNumberField(COLUMNS.get(3), shift);
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.CurvePointValue;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * This class holds a read-only copy of the dated CurvePoints for the historical analytics, outside of the Java heap.
+ * The points are stored in three primitive columns (as-of date, term and value), memory-mapped to a file of the
+ * configured directory and grouped by curve: the points of a curve are contiguous, by ascending as-of date then
+ * term. Only the index of the curves (the id and first point of each curve) is kept on the heap.
+ *
+ * A scan reads the columns sequentially without creating any object, so it runs at memory bandwidth and puts no
+ * pressure on the garbage collector. The columns are mapped by the operating system and paged in on demand, which
+ * lets the history exceed the heap.
+ *
+ * The store is loaded when the application is ready, then on demand by reload: a new file is written and swapped in
+ * one step, the scans in progress finish on the previous columns. The file of the current columns is deleted when
+ * the application stops. The store is enabled by the property poseidon.curve.history-store.enabled.
+ */
+@Service
+@ConditionalOnProperty(name = "poseidon.curve.history-store.enabled", havingValue = "true")
+public class CurveHistoryStore {
+
+    /**
+     * Greatest number of points, so that each column can be mapped by one buffer.
+     */
+    static final int MAX_POINTS = Integer.MAX_VALUE / Long.BYTES;
+
+    @Autowired
+    private CurvePointRepository curvePointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Directory of the files the columns are mapped to.
+     */
+    @Value("${poseidon.curve.history-store.directory:${java.io.tmpdir}}")
+    private String directory;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile Columns columns = Columns.EMPTY;
+
+    /**
+     * Consumer of the points read by a scan, as primitive values.
+     */
+    @FunctionalInterface
+    public interface PointConsumer {
+
+        /**
+         * @param asOfDate As-of date of the point, in milliseconds since the epoch
+         * @param term Term of the point
+         * @param value Value of the point
+         */
+        void accept(long asOfDate, double term, double value);
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        Columns previous = columns;
+        columns = Columns.EMPTY;
+        previous.delete();
+    }
+
+    /**
+     * This method loads the store when the application is ready, once the database is initialized.
+     *
+     * @throws IOException if the file of the columns can't be written
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() throws IOException {
+        reload();
+    }
+
+    /**
+     * This method copies the dated CurvePoints of the database into new columns, then swaps them with the current
+     * ones. The points are streamed from the database and written straight to the mapped file.
+     *
+     * @return Number of points loaded
+     * @throws IOException if the file of the columns can't be written
+     * @throws IllegalStateException if there are more than MAX_POINTS dated CurvePoints
+     */
+    public synchronized int reload() throws IOException {
+        Path file = Files.createTempFile(Paths.get(directory), "curve-history-", ".bin");
+        Columns loaded;
+        try {
+            loaded = transactionTemplate.execute(status -> load(file));
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(file);
+            if (e instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e).getCause();
+            }
+            throw e;
+        }
+        Columns previous = columns;
+        columns = loaded;
+        previous.delete();
+        return loaded.size;
+    }
+
+    /**
+     * @return Number of points held by the store
+     */
+    public int size() {
+        return columns.size;
+    }
+
+    /**
+     * @return Number of curves held by the store
+     */
+    public int curveCount() {
+        return columns.curveIds.length;
+    }
+
+    /**
+     * This method reads the points of a curve whose as-of date is in the given range, by ascending as-of date then
+     * term. The range is found by binary search in the dates of the curve.
+     *
+     * @param curveId Id of the curve
+     * @param from First as-of date, included
+     * @param to Last as-of date, excluded
+     * @param consumer Consumer of the points
+     * @return Number of points read
+     */
+    public int scan(int curveId, Timestamp from, Timestamp to, PointConsumer consumer) {
+        Columns current = columns;
+        int curve = Arrays.binarySearch(current.curveIds, curveId);
+        if (curve < 0) {
+            return 0;
+        }
+        int start = current.lowerBound(current.curveStarts[curve], current.curveStarts[curve + 1], from.getTime());
+        int end = current.lowerBound(start, current.curveStarts[curve + 1], to.getTime());
+        for (int i = start; i < end; i++) {
+            consumer.accept(current.dates.get(i), current.terms.get(i), current.values.get(i));
+        }
+        return end - start;
+    }
+
+    /**
+     * This method computes the statistics of the values of one term of a curve between two dates.
+     *
+     * @param curveId Id of the curve
+     * @param term Term of the values
+     * @param from First as-of date, included
+     * @param to Last as-of date, excluded
+     * @return Statistics of the values. Their count is 0 if the term has no value in the range
+     */
+    public TermStatistics termStatistics(int curveId, double term, Timestamp from, Timestamp to) {
+        TermStatistics statistics = new TermStatistics();
+        scan(curveId, from, to, (asOfDate, pointTerm, value) -> {
+            if (Double.compare(pointTerm, term) == 0) {
+                statistics.add(value);
+            }
+        });
+        return statistics;
+    }
+
+    private Columns load(Path file) {
+        long count = curvePointRepository.countHistory();
+        if (count > MAX_POINTS) {
+            throw new IllegalStateException("Too many curve points for the history store: " + count);
+        }
+        int capacity = (int) count;
+        long columnBytes = (long) capacity * Long.BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            LongBuffer dates = map(channel, 0, columnBytes).asLongBuffer();
+            DoubleBuffer terms = map(channel, columnBytes, columnBytes).asDoubleBuffer();
+            DoubleBuffer values = map(channel, 2 * columnBytes, columnBytes).asDoubleBuffer();
+            int[] curveIds = new int[16];
+            int[] curveStarts = new int[17];
+            int curves = 0;
+            int size = 0;
+            if (capacity > 0) {
+                try (Stream<CurvePointValue> rows = curvePointRepository.streamHistory()) {
+                    // points committed after the count are left to the next reload
+                    Iterator<CurvePointValue> iterator = rows.iterator();
+                    while (size < capacity && iterator.hasNext()) {
+                        CurvePointValue row = iterator.next();
+                        if (curves == 0 || curveIds[curves - 1] != row.getCurveId()) {
+                            if (curves == curveIds.length) {
+                                curveIds = Arrays.copyOf(curveIds, curves * 2);
+                                curveStarts = Arrays.copyOf(curveStarts, curves * 2 + 1);
+                            }
+                            curveIds[curves] = row.getCurveId();
+                            curveStarts[curves] = size;
+                            curves++;
+                        }
+                        dates.put(size, row.getAsOfDate());
+                        terms.put(size, row.getTerm());
+                        values.put(size, row.getValue());
+                        size++;
+                    }
+                }
+            }
+            curveStarts[curves] = size;
+            return new Columns(file, size, Arrays.copyOf(curveIds, curves), Arrays.copyOf(curveStarts, curves + 1),
+                    dates, terms, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        buffer.order(ByteOrder.nativeOrder());
+        return buffer;
+    }
+
+    /**
+     * Columns of one load of the store. They are not modified once built.
+     */
+    private static final class Columns {
+
+        static final Columns EMPTY = new Columns(null, 0, new int[0], new int[]{0},
+                LongBuffer.allocate(0), DoubleBuffer.allocate(0), DoubleBuffer.allocate(0));
+
+        final Path file;
+
+        final int size;
+
+        /**
+         * Ids of the curves, in ascending order.
+         */
+        final int[] curveIds;
+
+        /**
+         * Index of the first point of each curve, followed by the number of points.
+         */
+        final int[] curveStarts;
+
+        final LongBuffer dates;
+
+        final DoubleBuffer terms;
+
+        final DoubleBuffer values;
+
+        Columns(Path file, int size, int[] curveIds, int[] curveStarts, LongBuffer dates, DoubleBuffer terms,
+                DoubleBuffer values) {
+            this.file = file;
+            this.size = size;
+            this.curveIds = curveIds;
+            this.curveStarts = curveStarts;
+            this.dates = dates;
+            this.terms = terms;
+            this.values = values;
+        }
+
+        /**
+         * @return Index of the first point between start and end dated on or after the date, end if there is none
+         */
+        int lowerBound(int start, int end, long date) {
+            int low = start;
+            int high = end;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (dates.get(middle) < date) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Deletes the file of the columns. The mapping stays readable by the scans in progress until it is
+         * garbage collected; where a mapped file can't be deleted, it is deleted when the JVM exits.
+         */
+        void delete() {
+            if (file == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.nnk.springboot.services;
+
+/**
+ * This enum lists the methods available to compute the value of a curve between (and beyond) its points.
+ */
+public enum CurveInterpolation {
+    /**
+     * Straight line between two points. Beyond the ends, the first and last segments are extended.
+     */
+    LINEAR("linear"),
+    /**
+     * Straight line between the logarithms of the values of two points, such as discount factors.
+     * All the values of the curve must be positive.
+     */
+    LOG_LINEAR("log-linear"),
+    /**
+     * Natural cubic spline through all the points. Beyond the ends, the curve is extended by its tangent.
+     */
+    CUBIC_SPLINE("cubic-spline");
+
+    private final String name;
+
+    CurveInterpolation(String name) {
+        this.name = name;
+    }
+
+    /**
+     * This method finds the interpolation method requested by the user.
+     *
+     * @param name Name of the method, "linear", "log-linear" or "cubic-spline"
+     * @return The matching interpolation method
+     * @throws IllegalArgumentException if no method matches the name
+     */
+    public static CurveInterpolation fromName(String name) {
+        for (CurveInterpolation interpolation : values()) {
+            if (interpolation.name.equalsIgnoreCase(name)) {
+                return interpolation;
+            }
+        }
+        throw new IllegalArgumentException("Invalid interpolation:" + name);
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,50 @@
+package com.nnk.springboot.services;
+
+import java.sql.Timestamp;
+import java.util.Objects;
+
+/**
+ * This class identifies one curve: the CurvePoints sharing a curve id and an as-of date.
+ * The as-of date may be null, for the points entered without date.
+ */
+public final class CurveKey {
+
+    private final Integer curveId;
+
+    private final Timestamp asOfDate;
+
+    public CurveKey(Integer curveId, Timestamp asOfDate) {
+        this.curveId = curveId;
+        this.asOfDate = asOfDate;
+    }
+
+    public Integer getCurveId() {
+        return curveId;
+    }
+
+    public Timestamp getAsOfDate() {
+        return asOfDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CurveKey)) {
+            return false;
+        }
+        CurveKey other = (CurveKey) o;
+        return Objects.equals(curveId, other.curveId) && Objects.equals(asOfDate, other.asOfDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(curveId, asOfDate);
+    }
+
+    @Override
+    public String toString() {
+        return curveId + "@" + asOfDate;
+    }
+}
@@ -0,0 +1,250 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.KeysetPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class serves as a service layer for the CurvePoint entity.
+ * Each write operation issues a single SQL statement (insert, update or delete by id): the CurvePoint isn't read
+ * before being changed and the list of CurvePoints isn't reloaded afterwards.
+ * The write operations report the number of statements they issued.
+ * Once committed, they have CurveService rebuild the snapshots of the curves they touched.
+ */
+@Service
+public class CurvePointService {
+
+    @Autowired
+    private CurvePointRepository curvePointRepository;
+
+    @Autowired
+    private CurveService curveService;
+
+    /**
+     * This method retrieves one page of CurvePoints, located with the id of the last (or first) CurvePoint already displayed.
+     *
+     * @param after Id of the last CurvePoint of the previous page. May be null
+     * @param before Id of the first CurvePoint of the next page. May be null
+     * @param size Number of CurvePoints of the page
+     * @return The page of CurvePoints with its cursors
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<CurvePoint> findPage(Integer after, Integer before, int size) {
+        return KeysetPage.seek(curvePointRepository, after, before, size, CurvePoint::getId);
+    }
+
+    /**
+     * This method retrieves a CurvePoint from its id.
+     *
+     * @param id Id of the CurvePoint
+     * @return The CurvePoint
+     * @throws IllegalArgumentException if no CurvePoint has this id
+     */
+    @Transactional(readOnly = true)
+    public CurvePoint findById(Integer id) {
+        return curvePointRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid curvePoint Id:" + id));
+    }
+
+    /**
+     * This method retrieves the points of a curve as it was known at the given date: the points of its latest
+     * as-of date not after that date.
+     *
+     * @param curveId Id of the curve
+     * @param date Date of the curve
+     * @return The CurvePoints of the curve at that date, by ascending term. Empty if the curve isn't dated so early
+     */
+    @Transactional(readOnly = true)
+    public List<CurvePoint> findCurveAsOf(Integer curveId, Timestamp date) {
+        return curvePointRepository.findCurveAsOf(curveId, date);
+    }
+
+    /**
+     * This method retrieves the successive values of one term of a curve between two dates.
+     *
+     * @param curveId Id of the curve
+     * @param term Term of the values
+     * @param from First as-of date, included
+     * @param to Last as-of date, excluded
+     * @return The CurvePoints of the term, by ascending as-of date
+     */
+    @Transactional(readOnly = true)
+    public List<CurvePoint> findTermHistory(Integer curveId, Double term, Timestamp from, Timestamp to) {
+        return curvePointRepository.findTermHistory(curveId, term, from, to);
+    }
+
+    /**
+     * This method adds a new CurvePoint to the database. Its creation date is set to now if it has none.
+     *
+     * @param curvePoint CurvePoint to add
+     * @return Result of the insert
+     */
+    @Transactional
+    public WriteResult save(CurvePoint curvePoint) {
+        if (curvePoint.getCreationDate() == null) {
+            curvePoint.setCreationDate(new Timestamp(System.currentTimeMillis()));
+        }
+        WriteResult result = WriteResult.measure(() -> {
+            curvePointRepository.save(curvePoint);
+            return 1;
+        });
+        curveService.refreshAfterCommit(curvePoint.getId(), new CurveKey(curvePoint.getCurveId(), curvePoint.getAsOfDate()));
+        return result;
+    }
+
+    /**
+     * This method overwrites the CurvePoint having the given id with the values of the given CurvePoint, but its
+     * as-of date, which is kept.
+     *
+     * @param id Id of the CurvePoint to update
+     * @param curvePoint CurvePoint holding the new values
+     * @return Result of the update
+     * @throws IllegalArgumentException if no CurvePoint has this id
+     */
+    @Transactional
+    public WriteResult update(Integer id, CurvePoint curvePoint) {
+        curvePoint.setId(id);
+        WriteResult result = WriteResult.measure(() -> curvePointRepository.updateCurvePoint(curvePoint));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid curvePoint Id:" + id);
+        }
+        curveService.refreshUpdateAfterCommit(id, curvePoint.getCurveId());
+        return result;
+    }
+
+    /**
+     * This method deletes the CurvePoint having the given id.
+     *
+     * @param id Id of the CurvePoint to delete
+     * @return Result of the delete
+     * @throws IllegalArgumentException if no CurvePoint has this id
+     */
+    @Transactional
+    public WriteResult delete(Integer id) {
+        WriteResult result = WriteResult.measure(() -> curvePointRepository.deleteCurvePointById(id));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid curvePoint Id:" + id);
+        }
+        curveService.refreshAfterCommit(id, null);
+        return result;
+    }
+
+    /**
+     * This method replaces all the points of a curve with the given ones, in one transaction.
+     * The given points are compared by term with the stored ones: a point with a new term is inserted, a point
+     * with a new value is updated, and the stored points whose term is no longer given are deleted in one
+     * statement. The unchanged points aren't written.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve. May be null for the points without date
+     * @param points New points of the curve. Only their term and value are used
+     * @return Numbers of points inserted, updated, deleted and unchanged
+     * @throws IllegalArgumentException if a point lacks its term or value, or if two points have the same term
+     */
+    @Transactional
+    public CurveUpsertResult replaceCurve(Integer curveId, Timestamp asOfDate, List<CurvePoint> points) {
+        Map<Double, Double> values = new HashMap<>();
+        for (CurvePoint point : points) {
+            if (point.getTerm() == null || point.getValue() == null) {
+                throw new IllegalArgumentException("Invalid curve point: term and value are mandatory");
+            }
+            if (values.put(point.getTerm(), point.getValue()) != null) {
+                throw new IllegalArgumentException("Invalid curve point: term " + point.getTerm() + " is given twice");
+            }
+        }
+
+        CurveUpsertResult result = new CurveUpsertResult();
+        List<Integer> deletedIds = new ArrayList<>();
+        for (CurvePoint stored : curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAscIdAsc(curveId, asOfDate)) {
+            Double value = values.remove(stored.getTerm());
+            if (value == null) {
+                deletedIds.add(stored.getId());
+            } else if (value.equals(stored.getValue())) {
+                result.pointUnchanged();
+            } else {
+                stored.setValue(value);
+                result.pointUpdated();
+            }
+        }
+        List<CurvePoint> inserted = new ArrayList<>();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (CurvePoint point : points) {
+            if (values.containsKey(point.getTerm())) {
+                CurvePoint curvePoint = new CurvePoint(curveId, point.getTerm(), point.getValue());
+                curvePoint.setAsOfDate(asOfDate);
+                curvePoint.setCreationDate(now);
+                inserted.add(curvePoint);
+                result.pointInserted();
+            }
+        }
+        curvePointRepository.saveAll(inserted);
+        if (!deletedIds.isEmpty()) {
+            curvePointRepository.flush();
+            result.pointsDeleted(curvePointRepository.deleteCurvePointsByIdIn(deletedIds));
+        }
+        curveService.refreshAfterCommit(new CurveKey(curveId, asOfDate));
+        return result;
+    }
+
+    /**
+     * This method replaces all the points of a curve with the points of a CSV file.
+     * The first record of the file is the header naming the columns; the "term" and "value" columns are mandatory
+     * and the other columns are ignored.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve. May be null for the points without date
+     * @param in Content of the CSV file, in UTF-8. It is read until its end but not closed
+     * @return Numbers of points inserted, updated, deleted and unchanged
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file lacks a mandatory column or holds an invalid point
+     */
+    @Transactional
+    public CurveUpsertResult replaceCurve(Integer curveId, Timestamp asOfDate, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = CsvSupport.readRecord(reader);
+        int termColumn = header == null ? -1 : columnOf(header, "term");
+        int valueColumn = header == null ? -1 : columnOf(header, "value");
+        if (termColumn < 0 || valueColumn < 0) {
+            throw new IllegalArgumentException("Invalid curve file: the term and value columns are mandatory");
+        }
+        List<CurvePoint> points = new ArrayList<>();
+        List<String> record;
+        while ((record = CsvSupport.readRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            if (record.size() <= Math.max(termColumn, valueColumn)) {
+                throw new IllegalArgumentException("Invalid curve point: " + String.join(",", record));
+            }
+            try {
+                points.add(new CurvePoint(curveId, Double.valueOf(record.get(termColumn).trim()),
+                        Double.valueOf(record.get(valueColumn).trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid curve point: " + String.join(",", record));
+            }
+        }
+        return replaceCurve(curveId, asOfDate, points);
+    }
+
+    private static int columnOf(List<String> header, String column) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).replace("\uFEFF", "").trim().equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,53 @@
+package com.nnk.springboot.services;
+
+import java.util.List;
+
+/**
+ * This class reports a recomputation of all the curves: the totals, the parallelism used and the timing of each
+ * curve.
+ */
+public class CurveRecomputeReport {
+
+    private final int parallelism;
+
+    private final long elapsedMillis;
+
+    private final List<CurveRecomputeTiming> curves;
+
+    CurveRecomputeReport(int parallelism, long elapsedMillis, List<CurveRecomputeTiming> curves) {
+        this.parallelism = parallelism;
+        this.elapsedMillis = elapsedMillis;
+        this.curves = curves;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getCurveCount() {
+        return curves.size();
+    }
+
+    public long getFailedCount() {
+        return curves.stream().filter(curve -> curve.getError() != null).count();
+    }
+
+    public long getPointsRead() {
+        return curves.stream().mapToLong(CurveRecomputeTiming::getPointsRead).sum();
+    }
+
+    public long getPointsWritten() {
+        return curves.stream().mapToLong(CurveRecomputeTiming::getPointsWritten).sum();
+    }
+
+    /**
+     * @return Timing of each curve, by ascending curve id
+     */
+    public List<CurveRecomputeTiming> getCurves() {
+        return curves;
+    }
+}
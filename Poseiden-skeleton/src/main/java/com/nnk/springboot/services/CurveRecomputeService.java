@@ -0,0 +1,237 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class recomputes the derived points of all the curves: the value of each curve, for each of its as-of dates,
+ * at the standard tenors.
+ *
+ * The curves are split between the threads of a ForkJoinPool of the configured parallelism. Each curve is recomputed
+ * in its own transaction: its CurvePoints are streamed and held one as-of date at a time, and its derived points are
+ * replaced by JDBC batches. A curve that fails keeps its previous derived points and doesn't stop the others.
+ * Each thread holds a database connection while it recomputes a curve, so the parallelism must stay below the size
+ * of the connection pool.
+ */
+@Service
+public class CurveRecomputeService {
+
+    private static final String DELETE_SQL = "delete from derived_curve_point where curve_id = ?";
+
+    private static final String INSERT_SQL = "insert into derived_curve_point "
+            + "(curve_id, as_of_date, tenor, value, computed_date) values (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private CurvePointRepository curvePointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Number of curves recomputed at once.
+     */
+    @Value("${poseidon.curve.recompute.parallelism:4}")
+    private int parallelism;
+
+    /**
+     * Terms the curves are derived at.
+     */
+    @Value("${poseidon.curve.recompute.tenors:0.25,0.5,1,2,3,5,7,10,20,30}")
+    private double[] tenors;
+
+    /**
+     * Method used between and beyond the points of the curves.
+     */
+    @Value("${poseidon.curve.recompute.interpolation:linear}")
+    private String interpolationName;
+
+    /**
+     * Number of derived points inserted per JDBC batch.
+     */
+    @Value("${poseidon.curve.recompute.batch-size:500}")
+    private int batchSize;
+
+    private CurveInterpolation interpolation;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ForkJoinPool pool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        interpolation = CurveInterpolation.fromName(interpolationName);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * This method recomputes the derived points of all the curves, in parallel.
+     *
+     * @return Report of the recomputation, with the timing of each curve
+     * @throws IllegalStateException if a recomputation is already running
+     */
+    public CurveRecomputeReport recomputeAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Invalid recompute: one is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            List<Integer> curveIds = curvePointRepository.findCurveIds();
+            Queue<CurveRecomputeTiming> timings = new ConcurrentLinkedQueue<>();
+            // several leaves per thread, so that a thread done with cheap curves steals from the others
+            int leafSize = Math.max(1, curveIds.size() / (parallelism * 4));
+            pool.invoke(new RecomputeTask(curveIds, 0, curveIds.size(), leafSize, timings));
+            List<CurveRecomputeTiming> curves = timings.stream()
+                    .sorted(Comparator.comparingInt(CurveRecomputeTiming::getCurveId))
+                    .collect(Collectors.toList());
+            return new CurveRecomputeReport(parallelism, (System.nanoTime() - start) / 1_000_000, curves);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * This method recomputes the derived points of one curve, in its own transaction.
+     *
+     * @param curveId Id of the curve
+     * @return Timing of the curve. Its error is set if the curve couldn't be derived
+     */
+    public CurveRecomputeTiming recompute(int curveId) {
+        long start = System.nanoTime();
+        int[] counts = new int[3];
+        try {
+            transactionTemplate.execute(status -> derive(curveId, counts));
+            return new CurveRecomputeTiming(curveId, counts[0], counts[1], counts[2],
+                    (System.nanoTime() - start) / 1_000_000, null);
+        } catch (RuntimeException e) {
+            return new CurveRecomputeTiming(curveId, counts[0], counts[1], 0,
+                    (System.nanoTime() - start) / 1_000_000, e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the derived points of the curve. Counts the as-of dates, the points read and the points written.
+     */
+    private int[] derive(int curveId, int[] counts) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.update(DELETE_SQL, curveId);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        List<CurvePoint> asOfDatePoints = new ArrayList<>();
+        try (Stream<CurvePoint> points = curvePointRepository.streamByCurveId(curveId)) {
+            Iterator<CurvePoint> iterator = points.iterator();
+            while (iterator.hasNext()) {
+                CurvePoint point = iterator.next();
+                if (!asOfDatePoints.isEmpty()
+                        && !Objects.equals(asOfDatePoints.get(0).getAsOfDate(), point.getAsOfDate())) {
+                    derive(curveId, asOfDatePoints, now, batch, counts);
+                }
+                asOfDatePoints.add(point);
+                counts[1]++;
+            }
+        }
+        if (!asOfDatePoints.isEmpty()) {
+            derive(curveId, asOfDatePoints, now, batch, counts);
+        }
+        insert(batch, counts);
+        return counts;
+    }
+
+    private void derive(int curveId, List<CurvePoint> asOfDatePoints, Timestamp now, List<Object[]> batch,
+                        int[] counts) {
+        Curve curve = Curve.of(curveId, asOfDatePoints);
+        Timestamp asOfDate = asOfDatePoints.get(0).getAsOfDate();
+        for (double tenor : tenors) {
+            batch.add(new Object[]{curveId, asOfDate, tenor, curve.valueAt(tenor, interpolation), now});
+            if (batch.size() >= batchSize) {
+                insert(batch, counts);
+            }
+        }
+        asOfDatePoints.clear();
+        // the points already read are no longer needed: only one as-of date is held in memory
+        entityManager.clear();
+        counts[0]++;
+    }
+
+    private void insert(List<Object[]> batch, int[] counts) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        counts[2] += batch.size();
+        batch.clear();
+    }
+
+    /**
+     * Recomputes a range of the curves: splits it in two halves run in parallel until it is small enough.
+     */
+    private class RecomputeTask extends RecursiveAction {
+
+        private final List<Integer> curveIds;
+
+        private final int from;
+
+        private final int to;
+
+        private final int leafSize;
+
+        private final Queue<CurveRecomputeTiming> timings;
+
+        RecomputeTask(List<Integer> curveIds, int from, int to, int leafSize, Queue<CurveRecomputeTiming> timings) {
+            this.curveIds = curveIds;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.timings = timings;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                for (int i = from; i < to; i++) {
+                    timings.add(recompute(curveIds.get(i)));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RecomputeTask(curveIds, from, middle, leafSize, timings),
+                    new RecomputeTask(curveIds, middle, to, leafSize, timings));
+        }
+    }
+}
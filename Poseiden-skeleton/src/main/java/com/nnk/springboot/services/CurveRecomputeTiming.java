@@ -0,0 +1,57 @@
+package com.nnk.springboot.services;
+
+/**
+ * This class reports the recomputation of one curve: the points read and derived, and the time it took.
+ * When the curve fails, its previous derived points are kept and the error is reported.
+ */
+public class CurveRecomputeTiming {
+
+    private final int curveId;
+
+    private final int asOfDates;
+
+    private final int pointsRead;
+
+    private final int pointsWritten;
+
+    private final long elapsedMillis;
+
+    private final String error;
+
+    CurveRecomputeTiming(int curveId, int asOfDates, int pointsRead, int pointsWritten, long elapsedMillis,
+                         String error) {
+        this.curveId = curveId;
+        this.asOfDates = asOfDates;
+        this.pointsRead = pointsRead;
+        this.pointsWritten = pointsWritten;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+    }
+
+    public int getCurveId() {
+        return curveId;
+    }
+
+    public int getAsOfDates() {
+        return asOfDates;
+    }
+
+    public int getPointsRead() {
+        return pointsRead;
+    }
+
+    public int getPointsWritten() {
+        return pointsWritten;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return Message of the error that failed the curve, null if it succeeded
+     */
+    public String getError() {
+        return error;
+    }
+}
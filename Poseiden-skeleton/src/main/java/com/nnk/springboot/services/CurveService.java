@@ -0,0 +1,221 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.repositories.CurvePointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * This class computes the values of the curves at any term.
+ * Each curve is read once from the CurvePoints, then shared by all the readers as an immutable CurveSnapshot,
+ * keyed by curve id and as-of date: a value is computed without querying the database, and a reader never waits
+ * for a lock.
+ *
+ * When a CurvePoint is written, the snapshots of the curves it belonged to and belongs to are rebuilt once the
+ * write is committed, and swapped in one step: the readers see either the old or the new curve, never a mix.
+ * The other curves are left untouched. A CurvesChangedEvent then tells the other services which curves were written.
+ */
+@Service
+public class CurveService {
+
+    @Autowired
+    private CurvePointRepository curvePointRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<CurveKey, CurveSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Curve of each CurvePoint held in a snapshot, so that a write by id finds the curve to rebuild without
+     * reading the CurvePoint.
+     */
+    private final Map<Integer, CurveKey> pointKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Source of the snapshot versions. A version is taken before the points are read, so a snapshot with a greater
+     * version holds points at least as recent.
+     */
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Version taken by the last committed write.
+     */
+    private final AtomicLong lastWriteVersion = new AtomicLong();
+
+    /**
+     * This method retrieves the snapshot of a curve, from memory or else from its CurvePoints.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve. May be null for the points entered without date
+     * @return The snapshot of the curve
+     * @throws IllegalArgumentException if the curve has no point with a term and a value
+     */
+    public CurveSnapshot getCurve(Integer curveId, Timestamp asOfDate) {
+        CurveKey key = new CurveKey(curveId, asOfDate);
+        CurveSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        snapshot = load(key, versions.incrementAndGet());
+        install(snapshot);
+        if (lastWriteVersion.get() > snapshot.getVersion()) {
+            // a write was committed while the points were read: they may be stale, the next reader reads them again
+            snapshots.remove(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * This method computes the value of a curve at the given term.
+     *
+     * @param curveId Id of the curve
+     * @param asOfDate As-of date of the curve. May be null for the points entered without date
+     * @param term Term of the value
+     * @param interpolation Method used between and beyond the points of the curve
+     * @return The value of the curve at this term
+     * @throws IllegalArgumentException if the curve has no point, or if its values don't suit the interpolation
+     */
+    public double valueAt(Integer curveId, Timestamp asOfDate, double term, CurveInterpolation interpolation) {
+        return getCurve(curveId, asOfDate).getCurve().valueAt(term, interpolation);
+    }
+
+    /**
+     * This method rebuilds the snapshots touched by a write, once the current transaction is committed (at once
+     * if there is no transaction): the snapshot the CurvePoint belonged to and the one it belongs to now.
+     * It is called by the services writing CurvePoints.
+     *
+     * @param pointId Id of the CurvePoint written
+     * @param newKey Curve the CurvePoint belongs to after the write. Null when it is deleted
+     */
+    public void refreshAfterCommit(Integer pointId, CurveKey newKey) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(pointId, newKey);
+                }
+            });
+        } else {
+            refresh(pointId, newKey);
+        }
+    }
+
+    /**
+     * This method rebuilds the snapshots touched by the update of a CurvePoint once the current transaction is
+     * committed (at once if there is no transaction). An update keeps the as-of date of the CurvePoint, so it moves
+     * from the snapshot it belonged to to the one of its new curve at the same as-of date. When the CurvePoint is in
+     * no loaded snapshot, its as-of date is unknown here and every loaded snapshot of its new curve is rebuilt.
+     *
+     * @param pointId Id of the CurvePoint updated
+     * @param newCurveId Curve id of the CurvePoint after the update
+     */
+    public void refreshUpdateAfterCommit(Integer pointId, Integer newCurveId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshUpdate(pointId, newCurveId);
+                }
+            });
+        } else {
+            refreshUpdate(pointId, newCurveId);
+        }
+    }
+
+    /**
+     * This method rebuilds the snapshot of a whole curve once the current transaction is committed (at once if
+     * there is no transaction). It is called by the services replacing all the points of a curve.
+     *
+     * @param key Curve written
+     */
+    public void refreshAfterCommit(CurveKey key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(Set.of(key));
+                }
+            });
+        } else {
+            refresh(Set.of(key));
+        }
+    }
+
+    private void refresh(Integer pointId, CurveKey newKey) {
+        Set<CurveKey> keys = new LinkedHashSet<>();
+        CurveKey oldKey = newKey == null ? pointKeys.remove(pointId) : pointKeys.get(pointId);
+        if (oldKey != null) {
+            keys.add(oldKey);
+        }
+        if (newKey != null) {
+            keys.add(newKey);
+        }
+        refresh(keys);
+    }
+
+    private void refreshUpdate(Integer pointId, Integer newCurveId) {
+        Set<CurveKey> keys = new LinkedHashSet<>();
+        CurveKey oldKey = pointKeys.get(pointId);
+        if (oldKey != null) {
+            keys.add(oldKey);
+            keys.add(new CurveKey(newCurveId, oldKey.getAsOfDate()));
+        } else {
+            snapshots.keySet().stream()
+                    .filter(key -> key.getCurveId().equals(newCurveId))
+                    .forEach(keys::add);
+        }
+        refresh(keys, Set.of(newCurveId));
+    }
+
+    private void refresh(Set<CurveKey> keys) {
+        refresh(keys, Set.of());
+    }
+
+    private void refresh(Set<CurveKey> keys, Set<Integer> changedCurveIds) {
+        long version = versions.incrementAndGet();
+        lastWriteVersion.accumulateAndGet(version, Math::max);
+        for (CurveKey key : keys) {
+            if (!snapshots.containsKey(key)) {
+                continue;
+            }
+            try {
+                install(load(key, version));
+            } catch (IllegalArgumentException e) {
+                // the curve has no point left
+                snapshots.computeIfPresent(key, (k, current) -> current.getVersion() < version ? null : current);
+            }
+        }
+        Set<Integer> curveIds = keys.stream().map(CurveKey::getCurveId).collect(Collectors.toSet());
+        curveIds.addAll(changedCurveIds);
+        eventPublisher.publishEvent(new CurvesChangedEvent(curveIds));
+    }
+
+    private CurveSnapshot load(CurveKey key, long version) {
+        return new CurveSnapshot(key, version,
+                curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAscIdAsc(key.getCurveId(), key.getAsOfDate()));
+    }
+
+    /**
+     * Swaps the snapshot in, unless a newer snapshot of the curve is already there.
+     */
+    private void install(CurveSnapshot snapshot) {
+        CurveSnapshot installed = snapshots.merge(snapshot.getKey(), snapshot,
+                (current, candidate) -> current.getVersion() < candidate.getVersion() ? candidate : current);
+        if (installed == snapshot) {
+            for (int pointId : snapshot.getPointIds()) {
+                pointKeys.put(pointId, snapshot.getKey());
+            }
+        }
+    }
+}
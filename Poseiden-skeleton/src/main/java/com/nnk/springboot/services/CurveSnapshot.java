@@ -0,0 +1,52 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.CurvePoint;
+
+import java.util.List;
+
+/**
+ * This class is an immutable copy of one curve, shared by all the readers of the curve.
+ * It is never changed: a write to the curve builds a new snapshot, which replaces this one.
+ */
+public final class CurveSnapshot {
+
+    private final CurveKey key;
+
+    private final long version;
+
+    private final int[] pointIds;
+
+    private final Curve curve;
+
+    /**
+     * @param key Curve id and as-of date of the points
+     * @param version Version of the snapshot: the newest snapshot of a curve has the greatest version
+     * @param points Points of the curve, sorted by term
+     * @throws IllegalArgumentException if the curve has no point with a term and a value
+     */
+    public CurveSnapshot(CurveKey key, long version, List<CurvePoint> points) {
+        this.key = key;
+        this.version = version;
+        this.pointIds = points.stream().mapToInt(CurvePoint::getId).toArray();
+        this.curve = Curve.of(key.getCurveId(), points);
+    }
+
+    public CurveKey getKey() {
+        return key;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Copy of the ids of the CurvePoints the snapshot was built from
+     */
+    public int[] getPointIds() {
+        return pointIds.clone();
+    }
+
+    public Curve getCurve() {
+        return curve;
+    }
+}
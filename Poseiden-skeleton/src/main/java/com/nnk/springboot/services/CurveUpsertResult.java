@@ -0,0 +1,48 @@
+package com.nnk.springboot.services;
+
+/**
+ * This class reports the result of the replacement of a whole curve: the number of CurvePoints inserted, updated,
+ * deleted and left unchanged.
+ */
+public class CurveUpsertResult {
+
+    private int inserted;
+
+    private int updated;
+
+    private int deleted;
+
+    private int unchanged;
+
+    void pointInserted() {
+        inserted++;
+    }
+
+    void pointUpdated() {
+        updated++;
+    }
+
+    void pointsDeleted(int count) {
+        deleted += count;
+    }
+
+    void pointUnchanged() {
+        unchanged++;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+}
@@ -0,0 +1,23 @@
+package com.nnk.springboot.services;
+
+import java.util.Set;
+
+/**
+ * This event is published by CurveService once the writes to some curves are committed and their snapshots
+ * rebuilt. It lets the services deriving values from the curves refresh them, for the written curves only.
+ */
+public class CurvesChangedEvent {
+
+    private final Set<Integer> curveIds;
+
+    public CurvesChangedEvent(Set<Integer> curveIds) {
+        this.curveIds = Set.copyOf(curveIds);
+    }
+
+    /**
+     * @return Ids of the curves written
+     */
+    public Set<Integer> getCurveIds() {
+        return curveIds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.nnk.springboot.services;
+
+/**
+ * This exception is thrown by SourceListIdService when a Trade or a BidList has the sourceListId of another one.
+ * It is an IllegalArgumentException, like the other invalid inputs of the services, so that the callers may tell it
+ * from an invalid id, such as the update forms which show it next to the sourceListId field.
+ */
+public class DuplicateSourceListIdException extends IllegalArgumentException {
+
+    public DuplicateSourceListIdException(String sourceListId) {
+        super("Invalid sourceListId:" + sourceListId + " was already ingested");
+    }
+}
@@ -0,0 +1,44 @@
+package com.nnk.springboot.services;
+
+import org.springframework.http.MediaType;
+
+/**
+ * This enum lists the file formats available to export the entities.
+ */
+public enum ExportFormat {
+    CSV("csv", new MediaType("text", "csv")),
+    JSON("json", MediaType.APPLICATION_JSON);
+
+    private final String extension;
+
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * This method finds the export format matching the file extension requested by the user.
+     *
+     * @param extension File extension, "csv" or "json"
+     * @return The matching export format
+     * @throws UnknownExportFormatException if no format matches the extension
+     */
+    public static ExportFormat fromExtension(String extension) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(extension)) {
+                return format;
+            }
+        }
+        throw new UnknownExportFormatException(extension);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,204 @@
+package com.nnk.springboot.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * This class exports the Trades and the BidLists as CSV or JSON files.
+ * The rows are streamed from the database and written one by one to the output, each row being detached from
+ * the persistence context once written. The memory used by an export doesn't depend on the size of the table
+ * and the first bytes are sent before the whole table is read.
+ */
+@Service
+public class ExportService {
+
+    /**
+     * Number of rows written between two flushes of the output.
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private static final Map<String, Function<Trade, Object>> TRADE_COLUMNS = new LinkedHashMap<>();
+
+    private static final Map<String, Function<BidList, Object>> BID_LIST_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        TRADE_COLUMNS.put("id", Trade::getId);
+        TRADE_COLUMNS.put("account", Trade::getAccount);
+        TRADE_COLUMNS.put("type", Trade::getType);
+        TRADE_COLUMNS.put("buyQuantity", Trade::getBuyQuantity);
+        TRADE_COLUMNS.put("sellQuantity", Trade::getSellQuantity);
+        TRADE_COLUMNS.put("buyPrice", Trade::getBuyPrice);
+        TRADE_COLUMNS.put("sellPrice", Trade::getSellPrice);
+        TRADE_COLUMNS.put("tradeDate", Trade::getTradeDate);
+        TRADE_COLUMNS.put("security", Trade::getSecurity);
+        TRADE_COLUMNS.put("status", Trade::getStatus);
+        TRADE_COLUMNS.put("trader", Trade::getTrader);
+        TRADE_COLUMNS.put("benchmark", Trade::getBenchmark);
+        TRADE_COLUMNS.put("book", Trade::getBook);
+        TRADE_COLUMNS.put("creationName", Trade::getCreationName);
+        TRADE_COLUMNS.put("creationDate", Trade::getCreationDate);
+        TRADE_COLUMNS.put("revisionName", Trade::getRevisionName);
+        TRADE_COLUMNS.put("revisionDate", Trade::getRevisionDate);
+        TRADE_COLUMNS.put("dealName", Trade::getDealName);
+        TRADE_COLUMNS.put("dealType", Trade::getDealType);
+        TRADE_COLUMNS.put("sourceListId", Trade::getSourceListId);
+        TRADE_COLUMNS.put("side", Trade::getSide);
+
+        BID_LIST_COLUMNS.put("id", BidList::getId);
+        BID_LIST_COLUMNS.put("account", BidList::getAccount);
+        BID_LIST_COLUMNS.put("type", BidList::getType);
+        BID_LIST_COLUMNS.put("bidQuantity", BidList::getBidQuantity);
+        BID_LIST_COLUMNS.put("askQuantity", BidList::getAskQuantity);
+        BID_LIST_COLUMNS.put("bid", BidList::getBid);
+        BID_LIST_COLUMNS.put("ask", BidList::getAsk);
+        BID_LIST_COLUMNS.put("benchmark", BidList::getBenchmark);
+        BID_LIST_COLUMNS.put("bidListDate", BidList::getBidListDate);
+        BID_LIST_COLUMNS.put("commentary", BidList::getCommentary);
+        BID_LIST_COLUMNS.put("security", BidList::getSecurity);
+        BID_LIST_COLUMNS.put("status", BidList::getStatus);
+        BID_LIST_COLUMNS.put("trader", BidList::getTrader);
+        BID_LIST_COLUMNS.put("book", BidList::getBook);
+        BID_LIST_COLUMNS.put("creationName", BidList::getCreationName);
+        BID_LIST_COLUMNS.put("creationDate", BidList::getCreationDate);
+        BID_LIST_COLUMNS.put("revisionName", BidList::getRevisionName);
+        BID_LIST_COLUMNS.put("revisionDate", BidList::getRevisionDate);
+        BID_LIST_COLUMNS.put("dealName", BidList::getDealName);
+        BID_LIST_COLUMNS.put("dealType", BidList::getDealType);
+        BID_LIST_COLUMNS.put("sourceListId", BidList::getSourceListId);
+        BID_LIST_COLUMNS.put("side", BidList::getSide);
+    }
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private BidListRepository bidListRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method writes all the Trades to the output in the requested format.
+     *
+     * @param format Format of the exported file
+     * @param out Output the Trades are written to. It is flushed but not closed
+     * @throws IOException if the output can't be written
+     */
+    @Transactional(readOnly = true)
+    public void exportTrades(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Trade> trades = tradeRepository.streamAll()) {
+            export(format, trades, TRADE_COLUMNS, out);
+        }
+    }
+
+    /**
+     * This method writes all the BidLists to the output in the requested format.
+     *
+     * @param format Format of the exported file
+     * @param out Output the BidLists are written to. It is flushed but not closed
+     * @throws IOException if the output can't be written
+     */
+    @Transactional(readOnly = true)
+    public void exportBidLists(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<BidList> bidLists = bidListRepository.streamAll()) {
+            export(format, bidLists, BID_LIST_COLUMNS, out);
+        }
+    }
+
+    private <T> void export(ExportFormat format, Stream<T> rows, Map<String, Function<T, Object>> columns,
+                            OutputStream out) throws IOException {
+        if (format == ExportFormat.JSON) {
+            writeJson(rows.iterator(), columns, out);
+        } else {
+            writeCsv(rows.iterator(), columns, out);
+        }
+    }
+
+    private <T> void writeCsv(Iterator<T> rows, Map<String, Function<T, Object>> columns, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns.keySet()));
+        writer.write("\r\n");
+        writer.flush();
+
+        int count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            Object[] values = columns.values().stream().map(column -> column.apply(row)).toArray();
+            writer.write(CsvSupport.formatLine(Arrays.asList(values)));
+            writer.write("\r\n");
+            entityManager.detach(row);
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private <T> void writeJson(Iterator<T> rows, Map<String, Function<T, Object>> columns, OutputStream out)
+            throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartArray();
+
+        int count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            generator.writeStartObject();
+            for (Map.Entry<String, Function<T, Object>> column : columns.entrySet()) {
+                Object value = column.getValue().apply(row);
+                generator.writeFieldName(column.getKey());
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number) {
+                    writeNumber(generator, (Number) value);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            entityManager.detach(row);
+            if (++count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+        generator.writeEndArray();
+        generator.flush();
+    }
+
+    /**
+     * Writes the number as it is, but NaN and the infinities, which JSON can't represent: they are written as null.
+     */
+    private static void writeNumber(JsonGenerator generator, Number value) throws IOException {
+        if ((value instanceof Double || value instanceof Float) && !Double.isFinite(value.doubleValue())) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.toString());
+        }
+    }
+}
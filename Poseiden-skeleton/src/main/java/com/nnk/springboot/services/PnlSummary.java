@@ -0,0 +1,65 @@
+package com.nnk.springboot.services;
+
+/**
+ * This class holds the P&L of the Trades of one trader in one book. It is immutable: each change of a Trade
+ * valuation replaces it with a new one.
+ */
+public final class PnlSummary {
+
+    private final TraderBookKey key;
+
+    private final double pnl;
+
+    private final int tradeCount;
+
+    private final int unmarkedCount;
+
+    private PnlSummary(TraderBookKey key, double pnl, int tradeCount, int unmarkedCount) {
+        this.key = key;
+        this.pnl = pnl;
+        this.tradeCount = tradeCount;
+        this.unmarkedCount = unmarkedCount;
+    }
+
+    /**
+     * @return The summary of a trader and book without Trade
+     */
+    static PnlSummary empty(TraderBookKey key) {
+        return new PnlSummary(key, 0, 0, 0);
+    }
+
+    /**
+     * @return The summary with the valuation of a Trade added, or removed when the sign is -1
+     */
+    PnlSummary plus(TradeValuation valuation, int sign) {
+        Double tradePnl = valuation.getPnl();
+        return new PnlSummary(key, tradePnl == null ? pnl : pnl + sign * tradePnl, tradeCount + sign,
+                tradePnl == null ? unmarkedCount + sign : unmarkedCount);
+    }
+
+    public String getTrader() {
+        return key.getTrader();
+    }
+
+    public String getBook() {
+        return key.getBook();
+    }
+
+    /**
+     * @return Sum of the P&L of the Trades having one
+     */
+    public double getPnl() {
+        return pnl;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    /**
+     * @return Number of open Trades left out of the P&L for lack of mark
+     */
+    public int getUnmarkedCount() {
+        return unmarkedCount;
+    }
+}
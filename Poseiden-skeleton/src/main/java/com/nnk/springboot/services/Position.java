@@ -0,0 +1,69 @@
+package com.nnk.springboot.services;
+
+/**
+ * This class holds the net position of an account on a security in a book: the quantities bought and sold by its
+ * Trades. It is immutable: each change of a Trade replaces the position with a new one.
+ */
+public final class Position {
+
+    private final PositionKey key;
+
+    private final double buyQuantity;
+
+    private final double sellQuantity;
+
+    private final int tradeCount;
+
+    Position(PositionKey key, double buyQuantity, double sellQuantity, int tradeCount) {
+        this.key = key;
+        this.buyQuantity = buyQuantity;
+        this.sellQuantity = sellQuantity;
+        this.tradeCount = tradeCount;
+    }
+
+    /**
+     * @return The empty position of the key, for a key without Trade
+     */
+    static Position empty(PositionKey key) {
+        return new Position(key, 0, 0, 0);
+    }
+
+    /**
+     * @return The position with the quantities of a Trade added, or removed when the sign is -1
+     */
+    Position plus(TradeContribution contribution, int sign) {
+        return new Position(key, buyQuantity + sign * contribution.getBuyQuantity(),
+                sellQuantity + sign * contribution.getSellQuantity(), tradeCount + sign);
+    }
+
+    public String getAccount() {
+        return key.getAccount();
+    }
+
+    public String getSecurity() {
+        return key.getSecurity();
+    }
+
+    public String getBook() {
+        return key.getBook();
+    }
+
+    public double getBuyQuantity() {
+        return buyQuantity;
+    }
+
+    public double getSellQuantity() {
+        return sellQuantity;
+    }
+
+    /**
+     * @return Quantity bought minus quantity sold
+     */
+    public double getNetQuantity() {
+        return buyQuantity - sellQuantity;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+}
@@ -0,0 +1,57 @@
+package com.nnk.springboot.services;
+
+import java.util.Objects;
+
+/**
+ * This class identifies one position: the Trades sharing an account, a security and a book.
+ * Each part may be null, for the Trades entered without it.
+ */
+public final class PositionKey {
+
+    private final String account;
+
+    private final String security;
+
+    private final String book;
+
+    public PositionKey(String account, String security, String book) {
+        this.account = account;
+        this.security = security;
+        this.book = book;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getSecurity() {
+        return security;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PositionKey)) {
+            return false;
+        }
+        PositionKey other = (PositionKey) o;
+        return Objects.equals(account, other.account) && Objects.equals(security, other.security)
+                && Objects.equals(book, other.book);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(account, security, book);
+    }
+
+    @Override
+    public String toString() {
+        return account + "/" + security + "/" + book;
+    }
+}
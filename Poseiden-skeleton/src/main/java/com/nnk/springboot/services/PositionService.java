@@ -0,0 +1,212 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeQuantities;
+import com.nnk.springboot.repositories.TradeArchiveRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class maintains the net positions of the Trades, by account, security and book.
+ * The positions are built from the Trade table when the application is ready, then updated by each Trade written
+ * through TradeService, once the write is committed: only the difference between the old and the new quantities of
+ * the Trade is applied. A position is read from memory in O(1), without querying the database.
+ * The Trades moved to the TradeArchive table still count in their positions: the archive only moves rows.
+ *
+ * The quantities each Trade adds to its position are kept by Trade id: setting them again is harmless, so a write
+ * seen both by the rebuild and by its own update is counted once. Each position is replaced under the lock of its
+ * bin of the map, so concurrent writes to different positions don't wait for each other.
+ *
+ * The writes of a Trade are versioned once their statement has run: the row stays locked until the commit, so the
+ * versions of a Trade follow the order of its commits, even when their updates are applied in another order. An
+ * update older than the contribution kept is ignored, and a deleted Trade keeps the version of its delete.
+ */
+@Service
+public class PositionService {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeArchiveRepository tradeArchiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<PositionKey, Position> positions = new ConcurrentHashMap<>();
+
+    private final Map<Integer, TradeContribution> contributions = new ConcurrentHashMap<>();
+
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Held for reading by the updates, and for writing by the rebuild: the updates committed while the table is
+     * read are applied once it is read.
+     */
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * This method retrieves the position of an account on a security in a book.
+     *
+     * @param account Account of the Trades
+     * @param security Security of the Trades
+     * @param book Book of the Trades
+     * @return The position, with no quantity if no Trade matches
+     */
+    public Position getPosition(String account, String security, String book) {
+        PositionKey key = new PositionKey(account, security, book);
+        return positions.getOrDefault(key, Position.empty(key));
+    }
+
+    /**
+     * This method retrieves all the positions having at least one Trade.
+     *
+     * @return The positions, by account, security and book
+     */
+    public List<Position> getPositions() {
+        Comparator<String> nullsFirst = Comparator.nullsFirst(Comparator.naturalOrder());
+        return positions.values().stream()
+                .sorted(Comparator.comparing(Position::getAccount, nullsFirst)
+                        .thenComparing(Position::getSecurity, nullsFirst)
+                        .thenComparing(Position::getBook, nullsFirst))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method rebuilds the positions from the Trade and TradeArchive tables when the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * This method rebuilds all the positions from the Trade and TradeArchive tables, in one streamed read of each.
+     * A Trade read keeps the version of the last write applied to it, and a deleted Trade its delete, so that a
+     * write committed before the read but applied after it is still ignored when it is older.
+     *
+     * @return Number of Trades read
+     */
+    public int rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            Map<Integer, TradeContribution> applied = Map.copyOf(contributions);
+            positions.clear();
+            contributions.clear();
+            applied.forEach((id, contribution) -> {
+                if (contribution.isDeleted()) {
+                    contributions.put(id, contribution);
+                }
+            });
+            Integer count = transactionTemplate.execute(status -> {
+                int trades = 0;
+                try (Stream<TradeQuantities> rows = Stream.concat(tradeRepository.streamQuantities(),
+                        tradeArchiveRepository.streamQuantities())) {
+                    for (TradeQuantities row : (Iterable<TradeQuantities>) rows::iterator) {
+                        TradeContribution last = applied.get(row.getId());
+                        apply(row.getId(), new TradeContribution(last == null ? 0 : last.getVersion(),
+                                row.getAccount(), row.getSecurity(), row.getBook(),
+                                row.getBuyQuantity(), row.getSellQuantity()));
+                        trades++;
+                    }
+                }
+                return trades;
+            });
+            return Objects.requireNonNull(count);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method moves the quantities of a Trade to its new position once the current transaction is committed
+     * (at once if there is no transaction). It is called by the services writing Trades, once the write statement
+     * has run.
+     *
+     * @param id Id of the Trade written
+     * @param trade Values of the Trade after the write. Null when it is deleted
+     */
+    public void applyAfterCommit(Integer id, Trade trade) {
+        long version = versions.incrementAndGet();
+        TradeContribution contribution = trade == null ? TradeContribution.deleted(version)
+                : new TradeContribution(version, trade.getAccount(), trade.getSecurity(), trade.getBook(),
+                trade.getBuyQuantity(), trade.getSellQuantity());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyLocked(id, contribution);
+                }
+            });
+        } else {
+            applyLocked(id, contribution);
+        }
+    }
+
+    private void applyLocked(Integer id, TradeContribution contribution) {
+        rebuildLock.readLock().lock();
+        try {
+            apply(id, contribution);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contribution of the Trade, unless the one kept is newer: removes its old quantities from their
+     * position and adds the new ones.
+     */
+    private void apply(Integer id, TradeContribution contribution) {
+        TradeContribution[] replaced = new TradeContribution[1];
+        TradeContribution kept = contributions.compute(id, (k, current) -> {
+            if (current != null && current.getVersion() > contribution.getVersion()) {
+                return current;
+            }
+            replaced[0] = current;
+            return contribution;
+        });
+        if (kept != contribution) {
+            return;
+        }
+        TradeContribution old = replaced[0];
+        if (old != null && !old.isDeleted()) {
+            positions.compute(old.getKey(), (key, position) -> {
+                Position updated = (position == null ? Position.empty(key) : position).plus(old, -1);
+                return updated.getTradeCount() == 0 ? null : updated;
+            });
+        }
+        if (!contribution.isDeleted()) {
+            positions.compute(contribution.getKey(), (key, position) -> {
+                Position updated = (position == null ? Position.empty(key) : position).plus(contribution, 1);
+                return updated.getTradeCount() == 0 ? null : updated;
+            });
+        }
+    }
+}
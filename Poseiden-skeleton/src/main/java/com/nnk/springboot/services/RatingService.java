@@ -0,0 +1,107 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.config.CachingConfig;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.RatingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class serves as a service layer for the Rating entity.
+ * Each write operation issues a single SQL statement (insert, update or delete by id): the Rating isn't read
+ * before being changed and the list of Ratings isn't reloaded afterwards.
+ * The write operations report the number of statements they issued.
+ *
+ * The Ratings are reference data, read far more often than written: the pages and the Ratings read are
+ * cached, and the whole cache is evicted by any write.
+ */
+@Service
+@CacheConfig(cacheNames = CachingConfig.RATINGS)
+public class RatingService {
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    /**
+     * This method retrieves one page of Ratings, located with the id of the last (or first) Rating already displayed.
+     *
+     * @param after Id of the last Rating of the previous page. May be null
+     * @param before Id of the first Rating of the next page. May be null
+     * @param size Number of Ratings of the page
+     * @return The page of Ratings with its cursors
+     */
+    @Cacheable(key = "'page:' + #after + ':' + #before + ':' + #size")
+    @Transactional(readOnly = true)
+    public KeysetPage<Rating> findPage(Integer after, Integer before, int size) {
+        return KeysetPage.seek(ratingRepository, after, before, size, Rating::getId);
+    }
+
+    /**
+     * This method retrieves a Rating from its id.
+     *
+     * @param id Id of the Rating
+     * @return The Rating
+     * @throws IllegalArgumentException if no Rating has this id
+     */
+    @Cacheable(key = "'id:' + #id")
+    @Transactional(readOnly = true)
+    public Rating findById(Integer id) {
+        return ratingRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid rating Id:" + id));
+    }
+
+    /**
+     * This method adds a new Rating to the database.
+     *
+     * @param rating Rating to add
+     * @return Result of the insert
+     */
+    @CacheEvict(allEntries = true)
+    @Transactional
+    public WriteResult save(Rating rating) {
+        return WriteResult.measure(() -> {
+            ratingRepository.save(rating);
+            return 1;
+        });
+    }
+
+    /**
+     * This method overwrites the Rating having the given id with the values of the given Rating.
+     *
+     * @param id Id of the Rating to update
+     * @param rating Rating holding the new values
+     * @return Result of the update
+     * @throws IllegalArgumentException if no Rating has this id
+     */
+    @CacheEvict(allEntries = true)
+    @Transactional
+    public WriteResult update(Integer id, Rating rating) {
+        rating.setId(id);
+        WriteResult result = WriteResult.measure(() -> ratingRepository.updateRating(rating));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid rating Id:" + id);
+        }
+        return result;
+    }
+
+    /**
+     * This method deletes the Rating having the given id.
+     *
+     * @param id Id of the Rating to delete
+     * @return Result of the delete
+     * @throws IllegalArgumentException if no Rating has this id
+     */
+    @CacheEvict(allEntries = true)
+    @Transactional
+    public WriteResult delete(Integer id) {
+        WriteResult result = WriteResult.measure(() -> ratingRepository.deleteRatingById(id));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid rating Id:" + id);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package com.nnk.springboot.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class remembers the most recently used keys, up to a capacity: adding a key beyond it forgets the least
+ * recently used one. It is thread-safe.
+ *
+ * Unlike a Bloom filter, it never answers that a key is known when it wasn't added; an unknown key may still be a
+ * forgotten one, which the database has to tell.
+ */
+public class RecentKeyCache {
+
+    private final Map<String, Boolean> keys;
+
+    public RecentKeyCache(int capacity) {
+        this.keys = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * This method tells whether a key is remembered, and makes it the most recently used one if so.
+     *
+     * @param key Key to look for
+     * @return Whether the key was added and not forgotten since
+     */
+    public synchronized boolean contains(String key) {
+        return keys.get(key) != null;
+    }
+
+    /**
+     * This method remembers a key as the most recently used one.
+     *
+     * @param key Key to remember
+     */
+    public synchronized void add(String key) {
+        keys.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * @return Number of keys remembered
+     */
+    public synchronized int size() {
+        return keys.size();
+    }
+}
@@ -0,0 +1,107 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.config.CachingConfig;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.RuleNameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class serves as a service layer for the RuleName entity.
+ * Each write operation issues a single SQL statement (insert, update or delete by id): the RuleName isn't read
+ * before being changed and the list of RuleNames isn't reloaded afterwards.
+ * The write operations report the number of statements they issued.
+ *
+ * The RuleNames are reference data, read far more often than written: the pages and the RuleNames read are
+ * cached, and the whole cache is evicted by any write.
+ */
+@Service
+@CacheConfig(cacheNames = CachingConfig.RULE_NAMES)
+public class RuleNameService {
+
+    @Autowired
+    private RuleNameRepository ruleNameRepository;
+
+    /**
+     * This method retrieves one page of RuleNames, located with the id of the last (or first) RuleName already displayed.
+     *
+     * @param after Id of the last RuleName of the previous page. May be null
+     * @param before Id of the first RuleName of the next page. May be null
+     * @param size Number of RuleNames of the page
+     * @return The page of RuleNames with its cursors
+     */
+    @Cacheable(key = "'page:' + #after + ':' + #before + ':' + #size")
+    @Transactional(readOnly = true)
+    public KeysetPage<RuleName> findPage(Integer after, Integer before, int size) {
+        return KeysetPage.seek(ruleNameRepository, after, before, size, RuleName::getId);
+    }
+
+    /**
+     * This method retrieves a RuleName from its id.
+     *
+     * @param id Id of the RuleName
+     * @return The RuleName
+     * @throws IllegalArgumentException if no RuleName has this id
+     */
+    @Cacheable(key = "'id:' + #id")
+    @Transactional(readOnly = true)
+    public RuleName findById(Integer id) {
+        return ruleNameRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid ruleName Id:" + id));
+    }
+
+    /**
+     * This method adds a new RuleName to the database.
+     *
+     * @param ruleName RuleName to add
+     * @return Result of the insert
+     */
+    @CacheEvict(allEntries = true)
+    @Transactional
+    public WriteResult save(RuleName ruleName) {
+        return WriteResult.measure(() -> {
+            ruleNameRepository.save(ruleName);
+            return 1;
+        });
+    }
+
+    /**
+     * This method overwrites the RuleName having the given id with the values of the given RuleName.
+     *
+     * @param id Id of the RuleName to update
+     * @param ruleName RuleName holding the new values
+     * @return Result of the update
+     * @throws IllegalArgumentException if no RuleName has this id
+     */
+    @CacheEvict(allEntries = true)
+    @Transactional
+    public WriteResult update(Integer id, RuleName ruleName) {
+        ruleName.setId(id);
+        WriteResult result = WriteResult.measure(() -> ruleNameRepository.updateRuleName(ruleName));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid ruleName Id:" + id);
+        }
+        return result;
+    }
+
+    /**
+     * This method deletes the RuleName having the given id.
+     *
+     * @param id Id of the RuleName to delete
+     * @return Result of the delete
+     * @throws IllegalArgumentException if no RuleName has this id
+     */
+    @CacheEvict(allEntries = true)
+    @Transactional
+    public WriteResult delete(Integer id) {
+        WriteResult result = WriteResult.measure(() -> ruleNameRepository.deleteRuleNameById(id));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid ruleName Id:" + id);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.SearchDocument;
+
+/**
+ * This class holds a document found by the full-text search, with its relevance to the query.
+ */
+public class SearchHit {
+
+    private final SearchDocument document;
+
+    private final double score;
+
+    public SearchHit(SearchDocument document, double score) {
+        this.document = document;
+        this.score = score;
+    }
+
+    public SearchDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * @return Relevance of the document: the greater the more relevant
+     */
+    public double getScore() {
+        return score;
+    }
+}
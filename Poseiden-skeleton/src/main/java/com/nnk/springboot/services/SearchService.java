@@ -0,0 +1,195 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.SearchDocument;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * This class searches the Trades and BidLists by their deal name, security, account and commentary, whole words or
+ * parts of words, with an in-memory TextIndex: a search reads no row from the database.
+ *
+ * The index is built from the repositories when the application is ready, then updated by the services writing
+ * Trades and BidLists once each write is committed, so a write is found by the next search. A rebuild reads the
+ * tables into a new index while the current one still answers; the writes made meanwhile are applied to both, then
+ * the new index replaces the current one.
+ */
+@Service
+public class SearchService {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private BidListRepository bidListRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TextIndex index = new TextIndex();
+
+    /**
+     * Writes made while a rebuild reads the tables, replayed on the new index. Null when no rebuild runs.
+     */
+    private List<Consumer<TextIndex>> pendingWrites;
+
+    /**
+     * Held for reading by the searches, and for writing by the index updates.
+     */
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    private final Object rebuildLock = new Object();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * This method finds the Trades and BidLists matching every word of a query, the most relevant first.
+     *
+     * @param query Words searched, whole or partial
+     * @param limit Greatest number of results
+     * @return The matching Trades and BidLists with their score, by descending score
+     */
+    public List<SearchHit> search(String query, int limit) {
+        indexLock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method indexes a Trade inserted or updated once the current transaction is committed (at once if there
+     * is no transaction). It is called by the services writing Trades.
+     *
+     * @param trade Trade written, with its id
+     */
+    public void indexTradeAfterCommit(Trade trade) {
+        SearchDocument document = SearchDocument.of(trade);
+        writeAfterCommit(target -> target.put(document));
+    }
+
+    /**
+     * This method indexes a BidList inserted or updated once the current transaction is committed (at once if
+     * there is no transaction). It is called by the services writing BidLists.
+     *
+     * @param bidList BidList written, with its id
+     */
+    public void indexBidListAfterCommit(BidList bidList) {
+        SearchDocument document = SearchDocument.of(bidList);
+        writeAfterCommit(target -> target.put(document));
+    }
+
+    /**
+     * This method removes a deleted Trade or BidList from the index once the current transaction is committed (at
+     * once if there is no transaction).
+     *
+     * @param type Entity deleted
+     * @param id Id of the entity deleted
+     */
+    public void removeAfterCommit(SearchDocument.Type type, int id) {
+        long key = SearchDocument.keyOf(type, id);
+        writeAfterCommit(target -> target.remove(key));
+    }
+
+    /**
+     * This method builds the index when the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * This method rebuilds the index from the Trade and BidList tables, in one streamed read of each.
+     *
+     * @return Number of documents indexed
+     */
+    public int rebuild() {
+        synchronized (rebuildLock) {
+            indexLock.writeLock().lock();
+            try {
+                pendingWrites = new ArrayList<>();
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            TextIndex rebuilt = new TextIndex();
+            boolean read = false;
+            try {
+                transactionTemplate.execute(status -> {
+                    try (Stream<SearchDocument> documents = tradeRepository.streamSearchDocuments()) {
+                        documents.forEach(rebuilt::put);
+                    }
+                    try (Stream<SearchDocument> documents = bidListRepository.streamSearchDocuments()) {
+                        documents.forEach(rebuilt::put);
+                    }
+                    return null;
+                });
+                read = true;
+            } finally {
+                indexLock.writeLock().lock();
+                try {
+                    List<Consumer<TextIndex>> writes = Objects.requireNonNull(pendingWrites);
+                    pendingWrites = null;
+                    // if the tables couldn't be read, the current index is kept
+                    if (read) {
+                        writes.forEach(write -> write.accept(rebuilt));
+                        index = rebuilt;
+                    }
+                } finally {
+                    indexLock.writeLock().unlock();
+                }
+            }
+            return rebuilt.size();
+        }
+    }
+
+    private void writeAfterCommit(Consumer<TextIndex> write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(write);
+                }
+            });
+        } else {
+            write(write);
+        }
+    }
+
+    private void write(Consumer<TextIndex> write) {
+        indexLock.writeLock().lock();
+        try {
+            write.accept(index);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+}
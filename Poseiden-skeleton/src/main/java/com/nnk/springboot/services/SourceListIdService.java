@@ -0,0 +1,236 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.TradeArchiveRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class makes the ingestion of Trades and BidLists idempotent on their sourceListId, the id given by the
+ * upstream system: a message replayed by that system is refused instead of inserted twice.
+ *
+ * The database holds the rule, with a unique index on the sourceListId of each table, so a new Trade or BidList is
+ * inserted without being looked for first. The keys inserted lately are kept in a RecentKeyCache, as a hint only: a
+ * replay of one of them is confirmed by a lookup of the unique index, then refused before its insert, which would
+ * fail the whole transaction. An older key is refused by the unique index, and then remembered too. The cache isn't
+ * kept exact when a row is deleted, so a key hit whose row is gone is inserted again. The Trades and BidLists without
+ * sourceListId are never checked, and a sourceListId never changes once set.
+ * The unique index of the Trade table doesn't cover the Trades moved to the archive, whose keys are looked for in
+ * the archive instead. Only the Trades whose trade date is not after the latest one archived may be there, so the
+ * recent Trades, the common case, are inserted without this lookup.
+ */
+@Service
+public class SourceListIdService {
+
+    private static final String TRADE_CONSTRAINT = "trade_source_list_id_uk";
+
+    private static final String BID_LIST_CONSTRAINT = "bid_list_source_list_id_uk";
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private BidListRepository bidListRepository;
+
+    @Autowired
+    private TradeArchiveRepository tradeArchiveRepository;
+
+    /**
+     * Number of sourceListIds remembered for each table.
+     */
+    @Value("${poseidon.ingestion.recent-keys:100000}")
+    private int recentKeys;
+
+    private RecentKeyCache tradeKeys;
+
+    private RecentKeyCache bidListKeys;
+
+    /**
+     * Latest trade date, in milliseconds, that an archived Trade may have.
+     */
+    private final AtomicLong archivedUntil = new AtomicLong(Long.MIN_VALUE);
+
+    @PostConstruct
+    public void init() {
+        tradeKeys = new RecentKeyCache(recentKeys);
+        bidListKeys = new RecentKeyCache(recentKeys);
+        Timestamp latest = tradeArchiveRepository.findLatestTradeDate();
+        if (latest != null) {
+            archivedUntil.set(latest.getTime());
+        }
+    }
+
+    /**
+     * This method refuses a Trade whose sourceListId was inserted lately and is still in the table, or was
+     * archived. Only a key remembered by the cache, or that of a Trade as old as the archived ones, is looked for in
+     * the database.
+     *
+     * @param trade Trade about to be inserted
+     * @throws IllegalArgumentException if its sourceListId is known
+     */
+    public void checkTrade(Trade trade) {
+        String sourceListId = trade.getSourceListId();
+        if (sourceListId != null && ((tradeKeys.contains(sourceListId)
+                && tradeRepository.existsBySourceListId(sourceListId)) || isArchived(trade))) {
+            throw duplicate(sourceListId);
+        }
+    }
+
+    /**
+     * This method refuses, like checkTrade, a Trade about to be updated with the sourceListId of another Trade.
+     *
+     * @param trade Trade about to be updated, holding its id
+     * @throws IllegalArgumentException if another Trade has its sourceListId
+     */
+    public void checkTradeUpdate(Trade trade) {
+        String sourceListId = trade.getSourceListId();
+        if (sourceListId != null && ((tradeKeys.contains(sourceListId)
+                && tradeRepository.existsBySourceListIdAndIdNot(sourceListId, trade.getId())) || isArchived(trade))) {
+            throw duplicate(sourceListId);
+        }
+    }
+
+    /**
+     * This method remembers the sourceListId of a Trade once the current transaction is committed (at once if there
+     * is no transaction).
+     *
+     * @param trade Trade inserted
+     */
+    public void tradeInserted(Trade trade) {
+        addAfterCommit(tradeKeys, trade.getSourceListId());
+    }
+
+    /**
+     * This method tells why the insert or the update of a Trade failed. When its sourceListId is already in the
+     * table, the key is remembered and the failure is reported as a duplicate.
+     *
+     * @param trade Trade that couldn't be written
+     * @param failure Failure of the write
+     * @return An IllegalArgumentException if the Trade is a duplicate, else the failure itself
+     */
+    public RuntimeException tradeInsertFailed(Trade trade, RuntimeException failure) {
+        return insertFailed(tradeKeys, TRADE_CONSTRAINT, trade.getSourceListId(), failure);
+    }
+
+    /**
+     * This method tells that the Trades traded before the given date are about to be archived, so that their keys
+     * are looked for in the archive from now on.
+     *
+     * @param horizon Trade date before which the Trades are archived
+     */
+    public void tradesArchivedBefore(Timestamp horizon) {
+        archivedUntil.accumulateAndGet(horizon.getTime(), Math::max);
+    }
+
+    /**
+     * This method refuses a BidList whose sourceListId was inserted lately and is still in the table. Only a key
+     * remembered by the cache is looked for in the database.
+     *
+     * @param bidList BidList about to be inserted
+     * @throws IllegalArgumentException if its sourceListId is known
+     */
+    public void checkBidList(BidList bidList) {
+        String sourceListId = bidList.getSourceListId();
+        if (sourceListId != null && bidListKeys.contains(sourceListId)
+                && bidListRepository.existsBySourceListId(sourceListId)) {
+            throw duplicate(sourceListId);
+        }
+    }
+
+    /**
+     * This method refuses, like checkBidList, a BidList about to be updated with the sourceListId of another BidList.
+     *
+     * @param bidList BidList about to be updated, holding its id
+     * @throws IllegalArgumentException if another BidList has its sourceListId
+     */
+    public void checkBidListUpdate(BidList bidList) {
+        String sourceListId = bidList.getSourceListId();
+        if (sourceListId != null && bidListKeys.contains(sourceListId)
+                && bidListRepository.existsBySourceListIdAndIdNot(sourceListId, bidList.getId())) {
+            throw duplicate(sourceListId);
+        }
+    }
+
+    /**
+     * This method remembers the sourceListId of a BidList once the current transaction is committed (at once if
+     * there is no transaction).
+     *
+     * @param bidList BidList inserted
+     */
+    public void bidListInserted(BidList bidList) {
+        addAfterCommit(bidListKeys, bidList.getSourceListId());
+    }
+
+    /**
+     * This method tells why the insert or the update of a BidList failed. When its sourceListId is already in the
+     * table, the key is remembered and the failure is reported as a duplicate.
+     *
+     * @param bidList BidList that couldn't be written
+     * @param failure Failure of the write
+     * @return An IllegalArgumentException if the BidList is a duplicate, else the failure itself
+     */
+    public RuntimeException bidListInsertFailed(BidList bidList, RuntimeException failure) {
+        return insertFailed(bidListKeys, BID_LIST_CONSTRAINT, bidList.getSourceListId(), failure);
+    }
+
+    private boolean isArchived(Trade trade) {
+        return trade.getTradeDate() != null && trade.getTradeDate().getTime() <= archivedUntil.get()
+                && tradeArchiveRepository.existsBySourceListId(trade.getSourceListId());
+    }
+
+    private static void addAfterCommit(RecentKeyCache keys, String sourceListId) {
+        if (sourceListId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.add(sourceListId);
+                }
+            });
+        } else {
+            keys.add(sourceListId);
+        }
+    }
+
+    private static RuntimeException insertFailed(RecentKeyCache keys, String constraint, String sourceListId,
+                                                 RuntimeException failure) {
+        if (sourceListId == null || !violates(failure, constraint)) {
+            return failure;
+        }
+        keys.add(sourceListId);
+        return duplicate(sourceListId);
+    }
+
+    /**
+     * Tells whether a failure comes from the violation of the given constraint, as named by the database in the
+     * failure or one of its causes.
+     */
+    private static boolean violates(Throwable failure, String constraint) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            String name = cause instanceof ConstraintViolationException
+                    ? ((ConstraintViolationException) cause).getConstraintName() : cause.getMessage();
+            if (name != null && name.toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DuplicateSourceListIdException duplicate(String sourceListId) {
+        return new DuplicateSourceListIdException(sourceListId);
+    }
+}
@@ -0,0 +1,56 @@
+package com.nnk.springboot.services;
+
+/**
+ * This class holds the statistics of the successive values of one term of a curve, as computed by
+ * CurveHistoryStore. The mean and the standard deviation are accumulated in one pass (Welford's method).
+ */
+public class TermStatistics {
+
+    private int count;
+
+    private double min = Double.NaN;
+
+    private double max = Double.NaN;
+
+    private double mean = Double.NaN;
+
+    private double sumOfSquares;
+
+    void add(double value) {
+        count++;
+        if (count == 1) {
+            min = value;
+            max = value;
+            mean = value;
+            return;
+        }
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        double delta = value - mean;
+        mean += delta / count;
+        sumOfSquares += delta * (value - mean);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return Population standard deviation of the values, NaN if there is none
+     */
+    public double getStandardDeviation() {
+        return count == 0 ? Double.NaN : Math.sqrt(sumOfSquares / count);
+    }
+}
@@ -0,0 +1,248 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.SearchDocument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * This class is an inverted index over the text columns of the SearchDocuments. It isn't thread-safe: SearchService
+ * guards it.
+ *
+ * The texts are split into lowercase words. Each word maps to the documents holding it, with the weight of the word
+ * in each document: the number of times it occurs, times the boost of its column (the deal name counts most). A word
+ * of the query matches the indexed words equal to it, starting with it, or containing it (from 3 characters), found
+ * in the sorted dictionary of the words and in a trigram index of the dictionary, so no document is scanned.
+ * A document must match every word of the query. Its score is the sum, for each word of the query, of the best
+ * weight of the words it matches, times their rarity (idf), and times 1 for an equal word, PREFIX_FACTOR for a word
+ * starting with it, INFIX_FACTOR for a word containing it.
+ */
+public class TextIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    static final float DEAL_NAME_BOOST = 2.0f;
+
+    static final float SECURITY_BOOST = 1.5f;
+
+    static final float ACCOUNT_BOOST = 1.5f;
+
+    static final float COMMENTARY_BOOST = 1.0f;
+
+    static final double PREFIX_FACTOR = 0.6;
+
+    static final double INFIX_FACTOR = 0.4;
+
+    /**
+     * Greatest number of indexed words a word of the query is expanded to, so that a query of one letter stays fast.
+     */
+    static final int MAX_EXPANSIONS = 1000;
+
+    /**
+     * Documents holding each word, with the weight of the word in the document.
+     */
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    /**
+     * Indexed words holding each sequence of 3 characters.
+     */
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    private final Map<Long, SearchDocument> documents = new HashMap<>();
+
+    /**
+     * Words of each document, to remove it from their postings.
+     */
+    private final Map<Long, Set<String>> documentWords = new HashMap<>();
+
+    /**
+     * This method indexes a document, replacing its previous version if any.
+     *
+     * @param document Document to index
+     */
+    public void put(SearchDocument document) {
+        remove(document.getKey());
+        Map<String, Float> weights = new HashMap<>();
+        addWords(weights, document.getDealName(), DEAL_NAME_BOOST);
+        addWords(weights, document.getSecurity(), SECURITY_BOOST);
+        addWords(weights, document.getAccount(), ACCOUNT_BOOST);
+        addWords(weights, document.getCommentary(), COMMENTARY_BOOST);
+        long key = document.getKey();
+        documents.put(key, document);
+        documentWords.put(key, weights.keySet());
+        weights.forEach((word, weight) -> postings.computeIfAbsent(word, w -> {
+            for (String trigram : trigramsOf(w)) {
+                trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(w);
+            }
+            return new HashMap<>();
+        }).put(key, weight));
+    }
+
+    /**
+     * This method removes a document from the index.
+     *
+     * @param key Key of the document
+     */
+    public void remove(long key) {
+        documents.remove(key);
+        Set<String> words = documentWords.remove(key);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Map<Long, Float> posting = postings.get(word);
+            posting.remove(key);
+            if (posting.isEmpty()) {
+                postings.remove(word);
+                for (String trigram : trigramsOf(word)) {
+                    Set<String> trigramWords = trigrams.get(trigram);
+                    trigramWords.remove(word);
+                    if (trigramWords.isEmpty()) {
+                        trigrams.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Number of documents indexed
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * This method finds the documents matching every word of a query, the most relevant first.
+     *
+     * @param query Words searched, whole or partial
+     * @param limit Greatest number of documents returned
+     * @return The matching documents with their score, by descending score
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> words = new ArrayList<>(wordsOf(query));
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Map<Long, Double> scores = null;
+        for (String word : words) {
+            Map<Long, Double> wordScores = score(word);
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                Map<Long, Double> matched = new HashMap<>();
+                for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                    Double wordScore = wordScores.get(score.getKey());
+                    if (wordScore != null) {
+                        matched.put(score.getKey(), score.getValue() + wordScore);
+                    }
+                }
+                scores = matched;
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        Comparator<SearchHit> byScore = Comparator.comparingDouble(SearchHit::getScore);
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, byScore);
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            best.add(new SearchHit(documents.get(score.getKey()), score.getValue()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(byScore.reversed().thenComparing(hit -> hit.getDocument().getKey()));
+        return hits;
+    }
+
+    /**
+     * Scores the documents holding a word of the query, or an indexed word starting with it or containing it.
+     */
+    private Map<Long, Double> score(String word) {
+        Map<Long, Double> scores = new HashMap<>();
+        addScores(scores, word, 1.0);
+        int expansions = 0;
+        for (String prefixed : postings.subMap(word, false, word + Character.MAX_VALUE, false).keySet()) {
+            if (++expansions > MAX_EXPANSIONS) {
+                return scores;
+            }
+            addScores(scores, prefixed, PREFIX_FACTOR);
+        }
+        for (String containing : wordsContaining(word)) {
+            if (++expansions > MAX_EXPANSIONS) {
+                return scores;
+            }
+            addScores(scores, containing, INFIX_FACTOR);
+        }
+        return scores;
+    }
+
+    private void addScores(Map<Long, Double> scores, String word, double factor) {
+        Map<Long, Float> posting = postings.get(word);
+        if (posting == null) {
+            return;
+        }
+        double idf = Math.log(1 + (double) documents.size() / posting.size());
+        posting.forEach((key, weight) -> scores.merge(key, factor * idf * weight, Math::max));
+    }
+
+    /**
+     * Finds the indexed words containing the word, not at their start, from the trigrams they share with it.
+     */
+    private Set<String> wordsContaining(String word) {
+        if (word.length() < 3) {
+            return Collections.emptySet();
+        }
+        Set<String> candidates = null;
+        for (String trigram : trigramsOf(word)) {
+            Set<String> trigramWords = trigrams.getOrDefault(trigram, Collections.emptySet());
+            if (candidates == null) {
+                candidates = new HashSet<>(trigramWords);
+            } else {
+                candidates.retainAll(trigramWords);
+            }
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
+        }
+        candidates.removeIf(candidate -> candidate.startsWith(word) || !candidate.contains(word));
+        return candidates;
+    }
+
+    private static void addWords(Map<String, Float> weights, String text, float boost) {
+        if (text == null) {
+            return;
+        }
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                weights.merge(word, boost, Float::sum);
+            }
+        }
+    }
+
+    private static Set<String> wordsOf(String text) {
+        Map<String, Float> words = new HashMap<>();
+        addWords(words, text, 1);
+        return words.keySet();
+    }
+
+    private static Set<String> trigramsOf(String word) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            result.add(word.substring(i, i + 3));
+        }
+        return result;
+    }
+}
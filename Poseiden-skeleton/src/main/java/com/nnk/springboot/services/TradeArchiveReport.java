@@ -0,0 +1,44 @@
+package com.nnk.springboot.services;
+
+import java.sql.Timestamp;
+
+/**
+ * This class reports an archival of the aged Trades: the horizon used, the number of Trades moved and the number
+ * of transactions they were moved in.
+ */
+public class TradeArchiveReport {
+
+    private final Timestamp horizon;
+
+    private final int archivedCount;
+
+    private final int chunkCount;
+
+    private final long elapsedMillis;
+
+    TradeArchiveReport(Timestamp horizon, int archivedCount, int chunkCount, long elapsedMillis) {
+        this.horizon = horizon;
+        this.archivedCount = archivedCount;
+        this.chunkCount = chunkCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return Trade date before which the Trades were archived
+     */
+    public Timestamp getHorizon() {
+        return horizon;
+    }
+
+    public int getArchivedCount() {
+        return archivedCount;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
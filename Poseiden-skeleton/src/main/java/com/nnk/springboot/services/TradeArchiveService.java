@@ -0,0 +1,131 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.repositories.TradeArchiveRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class moves the aged Trades from the Trade table to the TradeArchive table, so that the Trade table only
+ * holds the Trades still worked on and its queries and indexes stay small.
+ *
+ * A Trade is aged when its trade date is older than the horizon. The Trades are moved by chunks, each in a
+ * transaction of its own: the rows of the chunk are locked, copied to the archive by one INSERT ... SELECT statement,
+ * then deleted by one DELETE statement. A chunk is thus moved whole or not at all, and a long archival neither holds
+ * its locks until the end nor loses the chunks already moved if it fails. The Trades are deleted through
+ * TradeService, so they leave the views of the Trade table (dashboard totals, search index and live blotters) but
+ * stay in the positions and the P&L, which cover the archived Trades too. Their sourceListIds stay refused, being
+ * looked for in the archive.
+ */
+@Service
+public class TradeArchiveService {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeArchiveRepository tradeArchiveRepository;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private SourceListIdService sourceListIdService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Age, in days from now, beyond which the Trades are archived.
+     */
+    @Value("${poseidon.trade.archive.horizon-days:730}")
+    private int horizonDays;
+
+    /**
+     * Number of Trades moved per transaction.
+     */
+    @Value("${poseidon.trade.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * This method archives the Trades whose trade date is older than the configured horizon.
+     *
+     * @return Report of the archival
+     * @throws IllegalStateException if an archival is already running
+     */
+    public TradeArchiveReport archiveAgedTrades() {
+        return archiveTradedBefore(new Timestamp(System.currentTimeMillis() - Duration.ofDays(horizonDays).toMillis()));
+    }
+
+    /**
+     * This method archives the Trades whose trade date is before the given date, chunk by chunk. The Trades without
+     * trade date are never archived.
+     *
+     * @param horizon Trade date before which the Trades are archived
+     * @return Report of the archival
+     * @throws IllegalStateException if an archival is already running
+     */
+    public TradeArchiveReport archiveTradedBefore(Timestamp horizon) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Invalid archive: one is already running");
+        }
+        try {
+            // before any Trade leaves the unique index of the Trade table
+            sourceListIdService.tradesArchivedBefore(horizon);
+            long start = System.nanoTime();
+            int archived = 0;
+            int chunks = 0;
+            int moved;
+            while ((moved = archiveChunk(horizon)) > 0) {
+                archived += moved;
+                chunks++;
+            }
+            return new TradeArchiveReport(horizon, archived, chunks, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Moves the first Trades traded before the horizon in one transaction.
+     *
+     * @return Number of Trades moved. 0 when none is left
+     */
+    private int archiveChunk(Timestamp horizon) {
+        List<Integer> ids = transactionTemplate.execute(status -> {
+            List<Integer> locked = tradeRepository.lockIdsTradedBefore(horizon, PageRequest.of(0, chunkSize));
+            if (locked.isEmpty()) {
+                return Collections.<Integer>emptyList();
+            }
+            int copied = tradeArchiveRepository.copyFromTrades(locked);
+            int deleted = tradeService.deleteArchived(locked).getAffectedRows();
+            if (copied != locked.size() || deleted != locked.size()) {
+                throw new IllegalStateException("Invalid archive: " + copied + " Trades copied and " + deleted
+                        + " deleted out of " + locked.size());
+            }
+            return locked;
+        });
+        return Objects.requireNonNull(ids).size();
+    }
+}
@@ -0,0 +1,293 @@
+package com.nnk.springboot.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class streams the Trades written to the live blotters of the list page, as Server-Sent Events.
+ *
+ * Each blotter has its own bounded buffer: publishing a write only adds it to the buffers, and a blotter too slow
+ * to keep up loses its oldest writes rather than holding the memory or the writer. The buffers are sent by a small
+ * pool of threads, one blotter at a time per thread, so an idle blotter costs no thread. A blotter that lost writes
+ * receives a "dropped" event with their number before the next ones, to know that it should reload the page.
+ *
+ * A client that stops reading fills its TCP window, and then a send to it blocks its sender thread. A watchdog
+ * closes the blotters stuck in a send for longer than the send timeout: they leave the subscribers, and a thread is
+ * added to the pool until their send returns, so the other blotters always keep the configured number of sender
+ * threads. The stuck send returns when the server's write timeout closes the connection, at the latest.
+ */
+@Service
+public class TradeBlotterService {
+
+    /**
+     * Writes kept for a blotter not sent yet, beyond which the oldest ones are dropped.
+     */
+    @Value("${poseidon.trade.blotter.buffer-size:256}")
+    private int bufferSize;
+
+    /**
+     * Threads sending the buffered writes to the blotters.
+     */
+    @Value("${poseidon.trade.blotter.sender-threads:2}")
+    private int senderThreads;
+
+    /**
+     * Time a send to a blotter may block before the blotter is closed.
+     */
+    @Value("${poseidon.trade.blotter.send-timeout-millis:5000}")
+    private long sendTimeoutMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ThreadPoolExecutor senders;
+
+    private ScheduledExecutorService watchdog;
+
+    @PostConstruct
+    public void init() {
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trade-blotter-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(sendTimeoutMillis / 2, 10);
+        watchdog.scheduleWithFixedDelay(this::closeStuckBlotters, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * This method opens a live blotter, which receives the writes published from now on.
+     *
+     * @return Emitter of the blotter's events, completed when the client disconnects or the request times out
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter());
+    }
+
+    /**
+     * This method registers an emitter as a live blotter.
+     *
+     * @param emitter Emitter of the blotter's events
+     * @return The same emitter
+     */
+    public SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * This method publishes a Trade written to all the live blotters, without waiting for them.
+     * It is called once the write is committed, by publishAfterCommit.
+     *
+     * @param event Trade written
+     */
+    public void publish(TradeEvent event) {
+        long id = sequence.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(id, event)) {
+                try {
+                    senders.execute(subscriber::drain);
+                } catch (RejectedExecutionException e) {
+                    // shutting down
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method publishes a Trade written to all the live blotters once the current transaction is committed (at
+     * once if there is no transaction). It is called by the services writing Trades.
+     *
+     * @param event Trade written
+     */
+    public void publishAfterCommit(TradeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    /**
+     * Closes the blotters whose send has been blocked for longer than the send timeout.
+     */
+    private void closeStuckBlotters() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendStart = subscriber.sendStart;
+            if (sendStart != 0 && now - sendStart > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis)) {
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * Adds a thread to the pool (or removes it when the delta is -1), for the thread held by a stuck send.
+     */
+    private synchronized void resizeSenders(int delta) {
+        if (delta > 0) {
+            senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+            senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+        } else {
+            senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+            senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+        }
+    }
+
+    /**
+     * @return Number of live blotters
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * A live blotter and the writes not sent to it yet.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final ArrayDeque<Map.Entry<Long, TradeEvent>> buffer = new ArrayDeque<>();
+
+        private long dropped;
+
+        /**
+         * Whether a sender thread is draining the buffer: at most one at a time, so the events stay in order.
+         */
+        private boolean draining;
+
+        /**
+         * Whether the blotter was closed by the watchdog while a send was blocked.
+         */
+        private boolean closed;
+
+        /**
+         * System.nanoTime() when the current send started. 0 when no send is running.
+         */
+        private volatile long sendStart;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Buffers the event, dropping the oldest one when full.
+         *
+         * @return Whether a sender thread must be started to drain the buffer
+         */
+        synchronized boolean offer(long id, TradeEvent event) {
+            if (closed) {
+                return false;
+            }
+            if (buffer.size() >= bufferSize) {
+                buffer.pollFirst();
+                dropped++;
+            }
+            buffer.addLast(Map.entry(id, event));
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        /**
+         * Called by the watchdog: the blotter stops receiving writes, and a thread replaces the one stuck sending
+         * to it until the send returns. The emitter isn't completed here, as it is locked by the stuck send.
+         */
+        synchronized void close() {
+            if (closed || sendStart == 0) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            buffer.clear();
+            resizeSenders(1);
+        }
+
+        void drain() {
+            while (true) {
+                Map.Entry<Long, TradeEvent> next;
+                long lost;
+                synchronized (this) {
+                    if (closed) {
+                        // the stuck send returned: its thread is given back
+                        draining = false;
+                        resizeSenders(-1);
+                        emitter.complete();
+                        return;
+                    }
+                    next = buffer.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                    lost = dropped;
+                    dropped = 0;
+                }
+                sendStart = System.nanoTime();
+                try {
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name("dropped").data(lost));
+                    }
+                    emitter.send(SseEmitter.event().id(String.valueOf(next.getKey())).name("trade")
+                            .data(next.getValue(), MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    // the client is gone
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    synchronized (this) {
+                        sendStart = 0;
+                        buffer.clear();
+                        draining = false;
+                        if (closed) {
+                            resizeSenders(-1);
+                        }
+                    }
+                    return;
+                }
+                sendStart = 0;
+            }
+        }
+    }
+}
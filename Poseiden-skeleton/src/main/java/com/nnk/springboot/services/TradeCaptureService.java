@@ -0,0 +1,203 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Trade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class captures Trades at a high rate by committing them in groups rather than one transaction per Trade.
+ *
+ * A captured Trade is put in a bounded buffer and the caller gets an acknowledgement completed later. A single
+ * writer thread takes the Trades waiting in the buffer, up to the batch size, and inserts them in one transaction:
+ * the cost of a commit is shared by the whole batch, and the more Trades wait, the larger the next batch. Each
+ * acknowledgement is completed once the transaction of its Trade is committed, or completed exceptionally if the
+ * Trade couldn't be inserted. When the buffer is full the capture is refused at once, so that callers faster than
+ * the database are pushed back instead of piling up in memory.
+ *
+ * The Trades are inserted through TradeService, which also moves them to the other views of the Trades. If the
+ * transaction of a batch fails, its Trades are inserted again one by one, so that one bad Trade only fails its own
+ * caller. Once the transaction is committed, the Trades are acknowledged even if a view then fails to be updated:
+ * they must not be inserted twice.
+ * A Trade whose sourceListId was already captured is refused, at once when it was captured lately.
+ */
+@Service
+public class TradeCaptureService {
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private SourceListIdService sourceListIdService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Trades waiting for the writer, beyond which the captures are refused.
+     */
+    @Value("${poseidon.trade.capture.buffer-size:4096}")
+    private int bufferSize;
+
+    /**
+     * Greatest number of Trades inserted in one transaction.
+     */
+    @Value("${poseidon.trade.capture.batch-size:256}")
+    private int batchSize;
+
+    private BlockingQueue<PendingTrade> buffer;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread writer;
+
+    private volatile boolean stopped;
+
+    private final AtomicLong capturedCount = new AtomicLong();
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        writer = new Thread(this::drain, "trade-capture-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopped = true;
+        writer.interrupt();
+        writer.join();
+        List<PendingTrade> left = new ArrayList<>();
+        buffer.drainTo(left);
+        left.forEach(pending -> pending.acknowledgement.completeExceptionally(
+                new RejectedExecutionException("Invalid capture: the application is stopping")));
+    }
+
+    /**
+     * This method puts a validated Trade in the buffer of the writer.
+     *
+     * @param trade Trade to insert
+     * @return Acknowledgement completed with the Trade, its id set, once it is committed
+     * @throws RejectedExecutionException if the buffer is full or the application is stopping
+     * @throws IllegalArgumentException if a Trade with the same sourceListId was captured lately
+     */
+    public CompletableFuture<Trade> capture(Trade trade) {
+        sourceListIdService.checkTrade(trade);
+        PendingTrade pending = new PendingTrade(trade);
+        if (stopped || !buffer.offer(pending)) {
+            throw new RejectedExecutionException("Too many Trades are being captured, please try again");
+        }
+        return pending.acknowledgement;
+    }
+
+    /**
+     * @return Number of Trades committed by the writer
+     */
+    public long getCapturedCount() {
+        return capturedCount.get();
+    }
+
+    /**
+     * @return Number of transactions committed by the writer
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Loop of the writer thread: waits for a Trade, then inserts it with the ones waiting behind it.
+     */
+    private void drain() {
+        List<PendingTrade> batch = new ArrayList<>(batchSize);
+        while (!stopped) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, batchSize - 1);
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                // the transaction was rolled back: each Trade alone, so that only the bad ones are refused. The ids
+                // given by the rolled back inserts are cleared, so that the Trades are inserted as new ones
+                for (PendingTrade pending : batch) {
+                    pending.trade.setId(0);
+                    try {
+                        write(Collections.singletonList(pending));
+                    } catch (RuntimeException single) {
+                        pending.acknowledgement.completeExceptionally(
+                                sourceListIdService.tradeInsertFailed(pending.trade, single));
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts the Trades of a batch in one transaction, then acknowledges them.
+     *
+     * @throws RuntimeException if the transaction failed: none of the Trades is inserted
+     */
+    private void write(List<PendingTrade> batch) {
+        List<Trade> trades = new ArrayList<>(batch.size());
+        batch.forEach(pending -> trades.add(pending.trade));
+        AtomicBoolean committed = new AtomicBoolean();
+        try {
+            transactionTemplate.execute(status -> {
+                // registered before the updates of the views by TradeService, so it runs first after the commit
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        committed.set(true);
+                    }
+                });
+                return tradeService.saveAll(trades);
+            });
+        } catch (RuntimeException e) {
+            if (!committed.get()) {
+                throw e;
+            }
+            // the Trades are committed, only a view failed to be updated after the commit: its next rebuild
+            // repairs it
+        }
+        capturedCount.addAndGet(batch.size());
+        batchCount.incrementAndGet();
+        batch.forEach(pending -> pending.acknowledgement.complete(pending.trade));
+    }
+
+    /**
+     * A Trade waiting in the buffer, with the acknowledgement of its caller.
+     */
+    private static class PendingTrade {
+
+        private final Trade trade;
+
+        private final CompletableFuture<Trade> acknowledgement = new CompletableFuture<>();
+
+        private PendingTrade(Trade trade) {
+            this.trade = trade;
+        }
+    }
+}
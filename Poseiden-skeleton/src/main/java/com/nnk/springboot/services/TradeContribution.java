@@ -0,0 +1,63 @@
+package com.nnk.springboot.services;
+
+/**
+ * This class holds what one Trade adds to its position: the position key and the quantities, a missing quantity
+ * counting as 0. The position service keeps the contribution of each Trade, so that an update or a delete by id
+ * removes the old quantities without reading the Trade.
+ *
+ * The version orders the writes of a Trade, so that a contribution applied late never replaces a newer one. A
+ * deleted Trade keeps a contribution without position key, which only holds the version of its delete.
+ */
+final class TradeContribution {
+
+    private final long version;
+
+    private final PositionKey key;
+
+    private final double buyQuantity;
+
+    private final double sellQuantity;
+
+    TradeContribution(long version, String account, String security, String book, Double buyQuantity,
+                      Double sellQuantity) {
+        this.version = version;
+        this.key = new PositionKey(account, security, book);
+        this.buyQuantity = buyQuantity == null ? 0 : buyQuantity;
+        this.sellQuantity = sellQuantity == null ? 0 : sellQuantity;
+    }
+
+    private TradeContribution(long version) {
+        this.version = version;
+        this.key = null;
+        this.buyQuantity = 0;
+        this.sellQuantity = 0;
+    }
+
+    /**
+     * @param version Version of the delete
+     * @return The contribution of a deleted Trade
+     */
+    static TradeContribution deleted(long version) {
+        return new TradeContribution(version);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    boolean isDeleted() {
+        return key == null;
+    }
+
+    PositionKey getKey() {
+        return key;
+    }
+
+    double getBuyQuantity() {
+        return buyQuantity;
+    }
+
+    double getSellQuantity() {
+        return sellQuantity;
+    }
+}
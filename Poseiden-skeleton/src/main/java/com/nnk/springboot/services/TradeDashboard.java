@@ -0,0 +1,117 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.TradeAggregate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * This class holds the totals of the Trades shown in the dashboard: by status, by trader, by book and overall.
+ * It is rolled up in memory from the totals by status, trader and book, which are few whatever the number of
+ * Trades.
+ */
+public class TradeDashboard {
+
+    private final List<Line> byStatus;
+
+    private final List<Line> byTrader;
+
+    private final List<Line> byBook;
+
+    private final Line total;
+
+    private TradeDashboard(List<Line> byStatus, List<Line> byTrader, List<Line> byBook, Line total) {
+        this.byStatus = byStatus;
+        this.byTrader = byTrader;
+        this.byBook = byBook;
+        this.total = total;
+    }
+
+    /**
+     * This method rolls up the totals by status, trader and book.
+     *
+     * @param aggregates Totals by status, trader and book
+     * @return The dashboard
+     */
+    public static TradeDashboard of(List<TradeAggregate> aggregates) {
+        Line total = new Line(null);
+        for (TradeAggregate aggregate : aggregates) {
+            total.add(aggregate);
+        }
+        return new TradeDashboard(rollUp(aggregates, TradeAggregate::getStatus),
+                rollUp(aggregates, TradeAggregate::getTrader), rollUp(aggregates, TradeAggregate::getBook), total);
+    }
+
+    private static List<Line> rollUp(List<TradeAggregate> aggregates, Function<TradeAggregate, String> label) {
+        Map<String, Line> lines = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        for (TradeAggregate aggregate : aggregates) {
+            String key = label.apply(aggregate);
+            // the forms send an empty field for a missing value
+            lines.computeIfAbsent(key == null || key.isEmpty() ? null : key, Line::new).add(aggregate);
+        }
+        return new ArrayList<>(lines.values());
+    }
+
+    public List<Line> getByStatus() {
+        return byStatus;
+    }
+
+    public List<Line> getByTrader() {
+        return byTrader;
+    }
+
+    public List<Line> getByBook() {
+        return byBook;
+    }
+
+    public Line getTotal() {
+        return total;
+    }
+
+    /**
+     * The number of Trades and their summed quantities for one status, trader or book.
+     */
+    public static class Line {
+
+        private final String label;
+
+        private long tradeCount;
+
+        private double buyQuantity;
+
+        private double sellQuantity;
+
+        Line(String label) {
+            this.label = label;
+        }
+
+        private void add(TradeAggregate aggregate) {
+            tradeCount += aggregate.getTradeCount();
+            buyQuantity += aggregate.getBuyQuantity();
+            sellQuantity += aggregate.getSellQuantity();
+        }
+
+        /**
+         * @return Status, trader or book of the line, null for the Trades without one
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        public long getTradeCount() {
+            return tradeCount;
+        }
+
+        public double getBuyQuantity() {
+            return buyQuantity;
+        }
+
+        public double getSellQuantity() {
+            return sellQuantity;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeAggregate;
+import com.nnk.springboot.domain.TradeTotal;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.TradeTotalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * This class computes the totals of the Trades by status, trader and book shown in the dashboard.
+ *
+ * By default the totals are computed by a GROUP BY query on the Trade table, which reads one row per group.
+ * When the summary table is enabled, they are read from the TradeTotal table instead, which holds these rows
+ * ready: it is rebuilt when the application is ready, then each Trade write adds its difference to the totals in
+ * its own transaction, so the totals are committed or rolled back with the Trade. The old values of a Trade updated
+ * or deleted are read with a lock on its row, so that two writes of the same Trade apply their differences one
+ * after the other. The first Trade of a group creates its total, empty, in a transaction of its own, so that two
+ * writers creating the same total don't fail each other's Trade write.
+ */
+@Service
+public class TradeDashboardService {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeTotalRepository tradeTotalRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Whether the totals are kept in the TradeTotal table rather than computed on each read.
+     */
+    @Value("${poseidon.trade.summary-table.enabled:false}")
+    private boolean summaryTableEnabled;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // the rebuild and the creation of the totals don't depend on the transaction writing the Trade
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * This method retrieves the totals of the Trades by status, by trader, by book and overall.
+     *
+     * @return The dashboard
+     */
+    @Transactional(readOnly = true)
+    public TradeDashboard getDashboard() {
+        List<TradeAggregate> aggregates = summaryTableEnabled ? tradeTotalRepository.findAggregates()
+                : tradeRepository.aggregateByStatusTraderBook();
+        return TradeDashboard.of(aggregates);
+    }
+
+    /**
+     * This method reads the values of a Trade about to be updated or deleted, and locks its row until the end of
+     * the current transaction. It is called by the services writing Trades, before the write.
+     *
+     * @param id Id of the Trade
+     * @return The contribution of the Trade to the totals. Null if the summary table is disabled or no Trade has
+     * this id
+     */
+    public TradeAggregate lockContribution(Integer id) {
+        if (!summaryTableEnabled) {
+            return null;
+        }
+        return tradeRepository.lockAggregateById(id).orElse(null);
+    }
+
+    /**
+     * This method moves the contribution of a Trade to its new total, in the transaction writing the Trade.
+     * It does nothing if the summary table is disabled. It is called by the services writing Trades.
+     *
+     * @param old Contribution of the Trade before the write, as returned by lockContribution. Null when it is
+     *            inserted
+     * @param trade Values of the Trade after the write. Null when it is deleted
+     */
+    @Transactional
+    public void apply(TradeAggregate old, Trade trade) {
+        if (!summaryTableEnabled) {
+            return;
+        }
+        TradeAggregate updated = trade == null ? null : new TradeAggregate(trade.getStatus(), trade.getTrader(),
+                trade.getBook(), 1L, trade.getBuyQuantity(), trade.getSellQuantity());
+        apply(old, updated);
+    }
+
+    /**
+     * This method rebuilds the summary table when the application is ready, if it is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (summaryTableEnabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * This method replaces the content of the summary table by the totals computed from the Trade table.
+     *
+     * @return Number of totals written
+     */
+    public int rebuild() {
+        Integer count = transactionTemplate.execute(status -> {
+            tradeTotalRepository.deleteAllInBatch();
+            List<TradeTotal> totals = tradeRepository.aggregateByStatusTraderBook().stream()
+                    .map(TradeDashboardService::toTotal)
+                    .collect(Collectors.toList());
+            tradeTotalRepository.saveAll(totals);
+            return totals.size();
+        });
+        return Objects.requireNonNull(count);
+    }
+
+    private void apply(TradeAggregate old, TradeAggregate updated) {
+        if (old != null) {
+            add(old, -1);
+        }
+        if (updated != null) {
+            add(updated, 1);
+        }
+    }
+
+    /**
+     * Adds the contribution of Trades to their total, or removes it when the sign is -1. The total is created,
+     * empty, by the first Trade of its group.
+     */
+    private void add(TradeAggregate contribution, int sign) {
+        TradeTotal total = toTotal(contribution);
+        if (addToTotal(total, sign) == 0) {
+            createEmptyTotal(total);
+            addToTotal(total, sign);
+        }
+    }
+
+    private int addToTotal(TradeTotal total, int sign) {
+        return tradeTotalRepository.addToTotal(total.getStatus(), total.getTrader(), total.getBook(),
+                sign * total.getTradeCount(), sign * total.getBuyQuantity(), sign * total.getSellQuantity());
+    }
+
+    /**
+     * Inserts a total with no Trade, committed at once, unless another writer inserted it first.
+     */
+    private void createEmptyTotal(TradeTotal total) {
+        TradeTotal empty = new TradeTotal();
+        empty.setStatus(total.getStatus());
+        empty.setTrader(total.getTrader());
+        empty.setBook(total.getBook());
+        try {
+            transactionTemplate.execute(status -> tradeTotalRepository.saveAndFlush(empty));
+        } catch (DataIntegrityViolationException e) {
+            // another writer created it first: it exists now
+        }
+    }
+
+    private static TradeTotal toTotal(TradeAggregate aggregate) {
+        TradeTotal total = new TradeTotal();
+        total.setStatus(aggregate.getStatus() == null ? "" : aggregate.getStatus());
+        total.setTrader(aggregate.getTrader() == null ? "" : aggregate.getTrader());
+        total.setBook(aggregate.getBook() == null ? "" : aggregate.getBook());
+        total.setTradeCount(aggregate.getTradeCount());
+        total.setBuyQuantity(aggregate.getBuyQuantity());
+        total.setSellQuantity(aggregate.getSellQuantity());
+        return total;
+    }
+}
@@ -0,0 +1,73 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Trade;
+
+/**
+ * This class describes a Trade written, as sent to the live blotters: the kind of write and the columns of the
+ * Trade shown in the list page. The columns are null when the Trade is deleted.
+ */
+public class TradeEvent {
+
+    public enum Kind {
+        INSERT, UPDATE, DELETE
+    }
+
+    private final Kind kind;
+
+    private final int id;
+
+    private final String account;
+
+    private final String type;
+
+    private final Double buyQuantity;
+
+    public TradeEvent(Kind kind, int id, String account, String type, Double buyQuantity) {
+        this.kind = kind;
+        this.id = id;
+        this.account = account;
+        this.type = type;
+        this.buyQuantity = buyQuantity;
+    }
+
+    /**
+     * This method describes a Trade inserted or updated.
+     *
+     * @param kind INSERT or UPDATE
+     * @param trade Trade written, with its id
+     * @return The event of the write
+     */
+    public static TradeEvent of(Kind kind, Trade trade) {
+        return new TradeEvent(kind, trade.getId(), trade.getAccount(), trade.getType(), trade.getBuyQuantity());
+    }
+
+    /**
+     * This method describes a Trade deleted.
+     *
+     * @param id Id of the Trade deleted
+     * @return The event of the delete
+     */
+    public static TradeEvent deleted(int id) {
+        return new TradeEvent(Kind.DELETE, id, null, null, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Double getBuyQuantity() {
+        return buyQuantity;
+    }
+}
@@ -0,0 +1,307 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.SearchDocument;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeAggregate;
+import com.nnk.springboot.domain.TradeArchive;
+import com.nnk.springboot.domain.TradeSummary;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.TradeArchiveRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.TradingFilter;
+import com.nnk.springboot.repositories.TradingSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * This class serves as a service layer for the Trade entity.
+ * Each write operation issues a single SQL statement (insert, update or delete by id): the Trade isn't read
+ * before being changed and the list of Trades isn't reloaded afterwards. Only when the dashboard summary table is
+ * enabled are its old values read first, with a lock on its row.
+ * The write operations report the number of statements they issued, and move the quantities of the Trade to
+ * its totals in the same transaction, then to its position, revalue it, index it for the search and publish it to
+ * the live blotters once committed. The callers writing Trades go through these operations, so that each write
+ * updates all the views of the Trades.
+ * The Trades read and written are those of the Trade table: the aged Trades moved to the archive are only listed
+ * when asked for.
+ */
+@Service
+public class TradeService {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeArchiveRepository tradeArchiveRepository;
+
+    @Autowired
+    private PositionService positionService;
+
+    @Autowired
+    private ValuationService valuationService;
+
+    @Autowired
+    private TradeDashboardService tradeDashboardService;
+
+    @Autowired
+    private SourceListIdService sourceListIdService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TradeBlotterService tradeBlotterService;
+
+    /**
+     * This method retrieves one page of Trade summaries, located with the id of the last (or first) Trade
+     * already displayed.
+     * Only the columns shown in the list page are read. When filters are set, only the matching Trades are read,
+     * the filters being applied by the database.
+     *
+     * @param filter Filters chosen by the user. May be null
+     * @param after Id of the last Trade of the previous page. May be null
+     * @param before Id of the first Trade of the next page. May be null
+     * @param size Number of Trades of the page
+     * @return The page of Trade summaries with its cursors
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TradeSummary> findPage(TradingFilter filter, Integer after, Integer before, int size) {
+        if (filter == null || !filter.isActive()) {
+            return KeysetPage.seek(
+                    (id, limit) -> tradeRepository.findSummariesByIdGreaterThan(id, PageRequest.of(0, limit)),
+                    (id, limit) -> tradeRepository.findSummariesByIdLessThan(id, PageRequest.of(0, limit)),
+                    after, before, size, TradeSummary::getId);
+        }
+        Specification<Trade> spec = TradingSpecifications.matching(filter, "tradeDate");
+        return KeysetPage.seek(tradeRepository, spec, TradeSummary.class, TradeSummary.ATTRIBUTES,
+                after, before, size, TradeSummary::getId);
+    }
+
+    /**
+     * This method retrieves one page of Trade summaries, like findPage, optionally among the archived Trades too.
+     * Each of the two tables is read with the same cursor and limit, then the two lists, both sorted by id, are
+     * merged and cut to the page size. An archived Trade keeps its id, so the cursors work across both tables.
+     *
+     * @param filter Filters chosen by the user. May be null
+     * @param after Id of the last Trade of the previous page. May be null
+     * @param before Id of the first Trade of the next page. May be null
+     * @param size Number of Trades of the page
+     * @param includeArchive Whether the archived Trades are listed as well
+     * @return The page of Trade summaries with its cursors
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TradeSummary> findPage(TradingFilter filter, Integer after, Integer before, int size,
+                                             boolean includeArchive) {
+        if (!includeArchive) {
+            return findPage(filter, after, before, size);
+        }
+        BiFunction<Integer, Integer, List<TradeSummary>> hotFollowing;
+        BiFunction<Integer, Integer, List<TradeSummary>> hotPreceding;
+        BiFunction<Integer, Integer, List<TradeSummary>> archivedFollowing;
+        BiFunction<Integer, Integer, List<TradeSummary>> archivedPreceding;
+        if (filter == null || !filter.isActive()) {
+            hotFollowing = (id, limit) -> tradeRepository.findSummariesByIdGreaterThan(id, PageRequest.of(0, limit));
+            hotPreceding = (id, limit) -> tradeRepository.findSummariesByIdLessThan(id, PageRequest.of(0, limit));
+            archivedFollowing = (id, limit) ->
+                    tradeArchiveRepository.findSummariesByIdGreaterThan(id, PageRequest.of(0, limit));
+            archivedPreceding = (id, limit) ->
+                    tradeArchiveRepository.findSummariesByIdLessThan(id, PageRequest.of(0, limit));
+        } else {
+            Specification<Trade> spec = TradingSpecifications.matching(filter, "tradeDate");
+            Specification<TradeArchive> archivedSpec = TradingSpecifications.matching(filter, "tradeDate");
+            hotFollowing = (id, limit) -> tradeRepository.findAll(
+                    Specification.where(spec).and(TradingSpecifications.idGreaterThan(id)),
+                    Sort.by(Sort.Direction.ASC, "id"), limit, TradeSummary.class, TradeSummary.ATTRIBUTES);
+            hotPreceding = (id, limit) -> tradeRepository.findAll(
+                    Specification.where(spec).and(TradingSpecifications.idLessThan(id)),
+                    Sort.by(Sort.Direction.DESC, "id"), limit, TradeSummary.class, TradeSummary.ATTRIBUTES);
+            archivedFollowing = (id, limit) -> tradeArchiveRepository.findAll(
+                    Specification.where(archivedSpec).and(TradingSpecifications.idGreaterThan(id)),
+                    Sort.by(Sort.Direction.ASC, "id"), limit, TradeSummary.class, TradeSummary.ATTRIBUTES);
+            archivedPreceding = (id, limit) -> tradeArchiveRepository.findAll(
+                    Specification.where(archivedSpec).and(TradingSpecifications.idLessThan(id)),
+                    Sort.by(Sort.Direction.DESC, "id"), limit, TradeSummary.class, TradeSummary.ATTRIBUTES);
+        }
+        return KeysetPage.seek(
+                (id, limit) -> merge(hotFollowing.apply(id, limit), archivedFollowing.apply(id, limit), limit, 1),
+                (id, limit) -> merge(hotPreceding.apply(id, limit), archivedPreceding.apply(id, limit), limit, -1),
+                after, before, size, TradeSummary::getId);
+    }
+
+    /**
+     * This method retrieves a Trade from its id.
+     *
+     * @param id Id of the Trade
+     * @return The Trade
+     * @throws IllegalArgumentException if no Trade has this id
+     */
+    @Transactional(readOnly = true)
+    public Trade findById(Integer id) {
+        return tradeRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid trade Id:" + id));
+    }
+
+    /**
+     * This method adds a new Trade to the database.
+     *
+     * @param trade Trade to add
+     * @return Result of the insert
+     * @throws IllegalArgumentException if a Trade with the same sourceListId was already added
+     */
+    @Transactional
+    public WriteResult save(Trade trade) {
+        sourceListIdService.checkTrade(trade);
+        WriteResult result;
+        try {
+            result = WriteResult.measure(() -> {
+                tradeRepository.save(trade);
+                if (trade.getSourceListId() != null) {
+                    // the unique index is checked now rather than at the commit
+                    tradeRepository.flush();
+                }
+                return 1;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw sourceListIdService.tradeInsertFailed(trade, e);
+        }
+        inserted(trade);
+        return result;
+    }
+
+    /**
+     * This method adds several new Trades to the database, in one transaction with a JDBC batch of inserts.
+     *
+     * @param trades Trades to add
+     * @return Result of the inserts
+     * @throws IllegalArgumentException if one of the Trades has a sourceListId added lately
+     * @throws org.springframework.dao.DataIntegrityViolationException if one of the Trades can't be inserted, such
+     * as a sourceListId already in the table: none of them is then added
+     */
+    @Transactional
+    public WriteResult saveAll(List<Trade> trades) {
+        trades.forEach(sourceListIdService::checkTrade);
+        WriteResult result = WriteResult.measure(() -> {
+            tradeRepository.saveAll(trades);
+            return trades.size();
+        });
+        trades.forEach(this::inserted);
+        return result;
+    }
+
+    /**
+     * This method overwrites the Trade having the given id with the values of the given Trade. Its sourceListId is
+     * only set if it had none.
+     *
+     * @param id Id of the Trade to update
+     * @param trade Trade holding the new values
+     * @return Result of the update
+     * @throws IllegalArgumentException if no Trade has this id, or if another Trade has its new sourceListId
+     */
+    @Transactional
+    public WriteResult update(Integer id, Trade trade) {
+        trade.setId(id);
+        TradeAggregate old = tradeDashboardService.lockContribution(id);
+        sourceListIdService.checkTradeUpdate(trade);
+        WriteResult result;
+        try {
+            result = WriteResult.measure(() -> tradeRepository.updateTrade(trade));
+        } catch (DataIntegrityViolationException e) {
+            throw sourceListIdService.tradeInsertFailed(trade, e);
+        }
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid trade Id:" + id);
+        }
+        positionService.applyAfterCommit(id, trade);
+        valuationService.applyAfterCommit(id, trade);
+        tradeDashboardService.apply(old, trade);
+        searchService.indexTradeAfterCommit(trade);
+        tradeBlotterService.publishAfterCommit(TradeEvent.of(TradeEvent.Kind.UPDATE, trade));
+        return result;
+    }
+
+    /**
+     * This method deletes the Trade having the given id.
+     *
+     * @param id Id of the Trade to delete
+     * @return Result of the delete
+     * @throws IllegalArgumentException if no Trade has this id
+     */
+    @Transactional
+    public WriteResult delete(Integer id) {
+        TradeAggregate old = tradeDashboardService.lockContribution(id);
+        WriteResult result = WriteResult.measure(() -> tradeRepository.deleteTradeById(id));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid trade Id:" + id);
+        }
+        positionService.applyAfterCommit(id, null);
+        valuationService.applyAfterCommit(id, null);
+        tradeDashboardService.apply(old, null);
+        searchService.removeAfterCommit(SearchDocument.Type.TRADE, id);
+        tradeBlotterService.publishAfterCommit(TradeEvent.deleted(id));
+        return result;
+    }
+
+    /**
+     * This method deletes Trades already copied to the archive, in one statement. They leave the dashboard totals
+     * in the same transaction, then the search index and the live blotters once committed, but they stay in the
+     * positions and the P&L, which cover the archived Trades too.
+     * It is called by TradeArchiveService, in the transaction moving the Trades, once their rows are locked.
+     *
+     * @param ids Ids of the Trades archived
+     * @return Result of the delete
+     */
+    @Transactional
+    public WriteResult deleteArchived(List<Integer> ids) {
+        List<TradeAggregate> contributions = tradeRepository.aggregateByIdIn(ids);
+        WriteResult result = WriteResult.measure(() -> tradeRepository.deleteTradesByIdIn(ids));
+        for (TradeAggregate contribution : contributions) {
+            tradeDashboardService.apply(contribution, (Trade) null);
+        }
+        for (Integer id : ids) {
+            searchService.removeAfterCommit(SearchDocument.Type.TRADE, id);
+            tradeBlotterService.publishAfterCommit(TradeEvent.deleted(id));
+        }
+        return result;
+    }
+
+    /**
+     * Moves a Trade inserted to its totals, then to its position, its valuation, the search index and the live
+     * blotters once committed.
+     */
+    private void inserted(Trade trade) {
+        sourceListIdService.tradeInserted(trade);
+        positionService.applyAfterCommit(trade.getId(), trade);
+        valuationService.applyAfterCommit(trade.getId(), trade);
+        tradeDashboardService.apply(null, trade);
+        searchService.indexTradeAfterCommit(trade);
+        tradeBlotterService.publishAfterCommit(TradeEvent.of(TradeEvent.Kind.INSERT, trade));
+    }
+
+    /**
+     * Merges two lists of summaries sorted by id, in ascending order when the direction is 1 and descending order
+     * when it is -1, and keeps the first ones.
+     */
+    private static List<TradeSummary> merge(List<TradeSummary> first, List<TradeSummary> second, int limit,
+                                            int direction) {
+        List<TradeSummary> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size() || (i < first.size()
+                    && direction * Integer.compare(first.get(i).getId(), second.get(j).getId()) < 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,141 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.TradeValuationInput;
+
+/**
+ * This class holds the mark-to-market valuation of one Trade. It is immutable: a new valuation replaces it when
+ * the Trade or the curve of its benchmark changes.
+ *
+ * The benchmark of a Trade refers to a curve as "curveId:term", the mark being the value of the latest curve at
+ * that term. The P&L is the value of the net quantity at the mark minus the cash paid:
+ * (buyQuantity - sellQuantity) * mark - (buyQuantity * buyPrice - sellQuantity * sellPrice), a missing number
+ * counting as 0. A Trade whose net quantity is 0 is closed and needs no mark; an open Trade without mark (no curve,
+ * or a benchmark that isn't a curve reference) has no P&L.
+ */
+public final class TradeValuation {
+
+    private final int tradeId;
+
+    private final TraderBookKey key;
+
+    private final Integer curveId;
+
+    private final double term;
+
+    private final double netQuantity;
+
+    private final double cost;
+
+    private final Double mark;
+
+    private TradeValuation(int tradeId, TraderBookKey key, Integer curveId, double term, double netQuantity,
+                           double cost, Double mark) {
+        this.tradeId = tradeId;
+        this.key = key;
+        this.curveId = curveId;
+        this.term = term;
+        this.netQuantity = netQuantity;
+        this.cost = cost;
+        this.mark = mark;
+    }
+
+    /**
+     * This method builds the valuation of a Trade, without mark yet.
+     *
+     * @param input Valuation input of the Trade
+     * @return The valuation of the Trade
+     */
+    static TradeValuation of(TradeValuationInput input) {
+        Integer curveId = null;
+        double term = 0;
+        String benchmark = input.getBenchmark();
+        int separator = benchmark == null ? -1 : benchmark.indexOf(':');
+        if (separator > 0) {
+            try {
+                curveId = Integer.valueOf(benchmark.substring(0, separator).trim());
+                term = Double.parseDouble(benchmark.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                // not a curve reference: the Trade can't be marked
+                curveId = null;
+            }
+        }
+        double buyQuantity = valueOf(input.getBuyQuantity());
+        double sellQuantity = valueOf(input.getSellQuantity());
+        double cost = buyQuantity * valueOf(input.getBuyPrice()) - sellQuantity * valueOf(input.getSellPrice());
+        return new TradeValuation(input.getId(), new TraderBookKey(input.getTrader(), input.getBook()), curveId, term,
+                buyQuantity - sellQuantity, cost, null);
+    }
+
+    /**
+     * @return The same valuation at a new mark
+     */
+    TradeValuation withMark(Double mark) {
+        return new TradeValuation(tradeId, key, curveId, term, netQuantity, cost, mark);
+    }
+
+    private static double valueOf(Double number) {
+        return number == null ? 0 : number;
+    }
+
+    TraderBookKey getKey() {
+        return key;
+    }
+
+    public int getTradeId() {
+        return tradeId;
+    }
+
+    public String getTrader() {
+        return key.getTrader();
+    }
+
+    public String getBook() {
+        return key.getBook();
+    }
+
+    /**
+     * @return Id of the curve of the benchmark, null if the benchmark isn't a curve reference
+     */
+    public Integer getCurveId() {
+        return curveId;
+    }
+
+    /**
+     * @return Term of the curve the Trade is marked at
+     */
+    public double getTerm() {
+        return term;
+    }
+
+    public double getNetQuantity() {
+        return netQuantity;
+    }
+
+    /**
+     * @return Cash paid for the Trade: bought amount minus sold amount
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * @return Value of the curve of the benchmark at its term, null if it has none
+     */
+    public Double getMark() {
+        return mark;
+    }
+
+    public boolean isOpen() {
+        return netQuantity != 0;
+    }
+
+    /**
+     * @return P&L of the Trade, null if it is open and has no mark
+     */
+    public Double getPnl() {
+        if (!isOpen()) {
+            return -cost;
+        }
+        return mark == null ? null : netQuantity * mark - cost;
+    }
+}
@@ -0,0 +1,49 @@
+package com.nnk.springboot.services;
+
+import java.util.Objects;
+
+/**
+ * This class identifies the Trades of one trader in one book, over which the P&L is aggregated.
+ * Each part may be null, for the Trades entered without it.
+ */
+public final class TraderBookKey {
+
+    private final String trader;
+
+    private final String book;
+
+    public TraderBookKey(String trader, String book) {
+        this.trader = trader;
+        this.book = book;
+    }
+
+    public String getTrader() {
+        return trader;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TraderBookKey)) {
+            return false;
+        }
+        TraderBookKey other = (TraderBookKey) o;
+        return Objects.equals(trader, other.trader) && Objects.equals(book, other.book);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(trader, book);
+    }
+
+    @Override
+    public String toString() {
+        return trader + "/" + book;
+    }
+}
@@ -0,0 +1,17 @@
+package com.nnk.springboot.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * This exception is thrown by ExportFormat when the user requests a file extension that no export format matches.
+ * It is an IllegalArgumentException, like the other invalid inputs of the services, answered with a 400 response
+ * since the request itself is wrong.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownExportFormatException extends IllegalArgumentException {
+
+    public UnknownExportFormatException(String extension) {
+        super("Invalid export format:" + extension);
+    }
+}
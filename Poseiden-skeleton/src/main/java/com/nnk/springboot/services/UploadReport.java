@@ -0,0 +1,80 @@
+package com.nnk.springboot.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class reports the result of a file upload: the number of rows read and inserted, and the rows rejected
+ * with the reason of their rejection.
+ * Only the first MAX_REPORTED_ERRORS rejected rows are kept, so the report stays small whatever the file size.
+ */
+public class UploadReport {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int rowsRead;
+
+    private int rowsInserted;
+
+    private int errorCount;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void rowsInserted(int count) {
+        rowsInserted += count;
+    }
+
+    void rowRejected(int row, String message) {
+        errorCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public int getRowsInserted() {
+        return rowsInserted;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * This class describes a rejected row.
+     */
+    public static class RowError {
+
+        private final int row;
+
+        private final String message;
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        /**
+         * @return Number of the row in the file, the header excluded (the first data row is 1)
+         */
+        public int getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.UserCredentials;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class loads the Users for Spring Security when they log in.
+ * The username, password hash and role are read in one query by UserService, which caches them; a new
+ * UserDetails is built for each login, so the credentials erased by Spring Security after the authentication
+ * are never the cached ones.
+ */
+@Service
+public class UserDetailsServiceImpl implements UserDetailsService {
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * This method retrieves the User having the given username, with his role as only authority.
+     *
+     * @param username Username typed in the login form
+     * @return The User to authenticate
+     * @throws UsernameNotFoundException if no User has this username
+     */
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        UserCredentials credentials = userService.findCredentials(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Invalid username:" + username));
+        return org.springframework.security.core.userdetails.User.withUsername(credentials.getUsername())
+                .password(credentials.getPassword())
+                .authorities(credentials.getRole())
+                .build();
+    }
+}
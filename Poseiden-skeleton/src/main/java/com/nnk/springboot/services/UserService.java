@@ -0,0 +1,120 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.config.CachingConfig;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.domain.UserCredentials;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * This class serves as a service layer for the User entity.
+ * Each write operation issues a single SQL statement (insert, update or delete by id): the User isn't read
+ * before being changed and the list of Users isn't reloaded afterwards.
+ * The write operations report the number of statements they issued.
+ *
+ * The credentials read at login are cached by username; any write evicts them all, since an update or a delete
+ * by id doesn't tell which username changed.
+ */
+@Service
+public class UserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * This method retrieves one page of Users, located with the id of the last (or first) User already displayed.
+     *
+     * @param after Id of the last User of the previous page. May be null
+     * @param before Id of the first User of the next page. May be null
+     * @param size Number of Users of the page
+     * @return The page of Users with its cursors
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<User> findPage(Integer after, Integer before, int size) {
+        return KeysetPage.seek(userRepository, after, before, size, User::getId);
+    }
+
+    /**
+     * This method retrieves a User from its id.
+     *
+     * @param id Id of the User
+     * @return The User
+     * @throws IllegalArgumentException if no User has this id
+     */
+    @Transactional(readOnly = true)
+    public User findById(Integer id) {
+        return userRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid user Id:" + id));
+    }
+
+    /**
+     * This method retrieves the credentials of the User having the given username, to authenticate him.
+     * When several Users share the username, the oldest one is returned.
+     *
+     * @param username Username typed in the login form
+     * @return The credentials of the User, empty if no User has this username
+     */
+    @Cacheable(cacheNames = CachingConfig.USERS, key = "#username", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<UserCredentials> findCredentials(String username) {
+        return userRepository.findCredentialsByUsername(username, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    /**
+     * This method adds a new User to the database.
+     *
+     * @param user User to add
+     * @return Result of the insert
+     */
+    @CacheEvict(cacheNames = CachingConfig.USERS, allEntries = true)
+    @Transactional
+    public WriteResult save(User user) {
+        return WriteResult.measure(() -> {
+            userRepository.save(user);
+            return 1;
+        });
+    }
+
+    /**
+     * This method overwrites the User having the given id with the values of the given User.
+     *
+     * @param id Id of the User to update
+     * @param user User holding the new values
+     * @return Result of the update
+     * @throws IllegalArgumentException if no User has this id
+     */
+    @CacheEvict(cacheNames = CachingConfig.USERS, allEntries = true)
+    @Transactional
+    public WriteResult update(Integer id, User user) {
+        user.setId(id);
+        WriteResult result = WriteResult.measure(() -> userRepository.updateUser(user));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid user Id:" + id);
+        }
+        return result;
+    }
+
+    /**
+     * This method deletes the User having the given id.
+     *
+     * @param id Id of the User to delete
+     * @return Result of the delete
+     * @throws IllegalArgumentException if no User has this id
+     */
+    @CacheEvict(cacheNames = CachingConfig.USERS, allEntries = true)
+    @Transactional
+    public WriteResult delete(Integer id) {
+        WriteResult result = WriteResult.measure(() -> userRepository.deleteUserById(id));
+        if (result.getAffectedRows() == 0) {
+            throw new IllegalArgumentException("Invalid user Id:" + id);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,276 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeValuationInput;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.TradeArchiveRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class marks the Trades to market against the curves of their benchmarks, and aggregates their P&L by
+ * trader and book (see TradeValuation for the benchmark format and the P&L formula).
+ *
+ * All the Trades are valued when the application is ready, the valuations being computed in parallel on all the
+ * cores once the curves they need are read. Then only the affected Trades are revalued: a Trade written through
+ * TradeService once the write is committed, and the Trades marked on a curve when a CurvesChangedEvent reports it
+ * written. The P&L of a trader and book is updated by the difference between the old and the new valuations, so it
+ * is read from memory in O(1).
+ * The Trades moved to the TradeArchive table are still valued and still count in the P&L: the archive only moves
+ * rows.
+ */
+@Service
+public class ValuationService {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeArchiveRepository tradeArchiveRepository;
+
+    @Autowired
+    private CurvePointRepository curvePointRepository;
+
+    @Autowired
+    private CurveService curveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Integer, TradeValuation> valuations = new ConcurrentHashMap<>();
+
+    private final Map<TraderBookKey, PnlSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of the Trades marked on each curve, to find the Trades to revalue when a curve is written.
+     */
+    private final Map<Integer, Set<Integer>> tradesByCurve = new ConcurrentHashMap<>();
+
+    /**
+     * Latest curve of each curve id the Trades are marked on. Empty when the curve has no point.
+     */
+    private final Map<Integer, Optional<Curve>> curves = new ConcurrentHashMap<>();
+
+    /**
+     * Held for reading by the incremental revaluations, and for writing by the full revaluation.
+     */
+    private final ReadWriteLock revaluationLock = new ReentrantReadWriteLock();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * This method retrieves the valuation of a Trade.
+     *
+     * @param tradeId Id of the Trade
+     * @return The valuation of the Trade
+     * @throws IllegalArgumentException if no Trade has this id
+     */
+    public TradeValuation getValuation(Integer tradeId) {
+        TradeValuation valuation = valuations.get(tradeId);
+        if (valuation == null) {
+            throw new IllegalArgumentException("Invalid trade Id:" + tradeId);
+        }
+        return valuation;
+    }
+
+    /**
+     * This method retrieves the P&L of all the traders and books having at least one Trade.
+     *
+     * @return The P&L summaries, by trader and book
+     */
+    public List<PnlSummary> getSummaries() {
+        Comparator<String> nullsFirst = Comparator.nullsFirst(Comparator.naturalOrder());
+        return summaries.values().stream()
+                .sorted(Comparator.comparing(PnlSummary::getTrader, nullsFirst)
+                        .thenComparing(PnlSummary::getBook, nullsFirst))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method values all the Trades when the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void revalueOnStartup() {
+        revalueAll();
+    }
+
+    /**
+     * This method values all the Trades again, from the Trade and TradeArchive tables and the latest curves. The
+     * Trades are read in one streamed query of each table and the curves once each, then the valuations are computed
+     * in parallel.
+     *
+     * @return Number of Trades valued
+     */
+    public int revalueAll() {
+        revaluationLock.writeLock().lock();
+        try {
+            valuations.clear();
+            summaries.clear();
+            tradesByCurve.clear();
+            curves.clear();
+            List<TradeValuation> unmarked = transactionTemplate.execute(status -> {
+                try (Stream<TradeValuationInput> rows = Stream.concat(tradeRepository.streamValuationInputs(),
+                        tradeArchiveRepository.streamValuationInputs())) {
+                    return rows.map(TradeValuation::of).collect(Collectors.toList());
+                }
+            });
+            Objects.requireNonNull(unmarked).stream()
+                    .map(TradeValuation::getCurveId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .forEach(curveId -> curves.put(curveId, loadCurve(curveId)));
+            unmarked.parallelStream()
+                    .map(valuation -> valuation.withMark(markOf(valuation)))
+                    .forEach(valuation -> replace(valuation.getTradeId(), valuation));
+            return unmarked.size();
+        } finally {
+            revaluationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method revalues a Trade once the current transaction is committed (at once if there is no transaction).
+     * It is called by the services writing Trades.
+     *
+     * @param id Id of the Trade written
+     * @param trade Values of the Trade after the write. Null when it is deleted
+     */
+    public void applyAfterCommit(Integer id, Trade trade) {
+        TradeValuationInput input = trade == null ? null : TradeValuationInput.of(id, trade);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revalue(id, input);
+                }
+            });
+        } else {
+            revalue(id, input);
+        }
+    }
+
+    /**
+     * This method revalues the Trades marked on the curves written, with their new latest curve.
+     *
+     * @param event Curves written
+     */
+    @EventListener
+    public void onCurvesChanged(CurvesChangedEvent event) {
+        revaluationLock.readLock().lock();
+        try {
+            for (Integer curveId : event.getCurveIds()) {
+                if (!curves.containsKey(curveId)) {
+                    continue;
+                }
+                curves.put(curveId, loadCurve(curveId));
+                for (Integer tradeId : tradesByCurve.getOrDefault(curveId, Set.of())) {
+                    TradeValuation valuation = valuations.get(tradeId);
+                    if (valuation != null && curveId.equals(valuation.getCurveId())) {
+                        replace(tradeId, valuation.withMark(markOf(valuation)));
+                    }
+                }
+            }
+        } finally {
+            revaluationLock.readLock().unlock();
+        }
+    }
+
+    private void revalue(Integer id, TradeValuationInput input) {
+        revaluationLock.readLock().lock();
+        try {
+            TradeValuation valuation = null;
+            if (input != null) {
+                valuation = TradeValuation.of(input);
+                Integer curveId = valuation.getCurveId();
+                if (curveId != null && !curves.containsKey(curveId)) {
+                    curves.putIfAbsent(curveId, loadCurve(curveId));
+                }
+                valuation = valuation.withMark(markOf(valuation));
+            }
+            replace(id, valuation);
+        } finally {
+            revaluationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the valuation of the Trade, and moves the difference to the P&L summaries.
+     */
+    private void replace(Integer tradeId, TradeValuation valuation) {
+        TradeValuation old = valuation == null ? valuations.remove(tradeId) : valuations.put(tradeId, valuation);
+        if (old != null) {
+            summaries.compute(old.getKey(), (key, summary) -> {
+                PnlSummary updated = (summary == null ? PnlSummary.empty(key) : summary).plus(old, -1);
+                return updated.getTradeCount() == 0 ? null : updated;
+            });
+            if (old.getCurveId() != null && (valuation == null || !old.getCurveId().equals(valuation.getCurveId()))) {
+                tradesByCurve.computeIfPresent(old.getCurveId(), (curveId, tradeIds) -> {
+                    tradeIds.remove(tradeId);
+                    return tradeIds.isEmpty() ? null : tradeIds;
+                });
+            }
+        }
+        if (valuation != null) {
+            summaries.compute(valuation.getKey(), (key, summary) -> {
+                PnlSummary updated = (summary == null ? PnlSummary.empty(key) : summary).plus(valuation, 1);
+                return updated.getTradeCount() == 0 ? null : updated;
+            });
+            if (valuation.getCurveId() != null) {
+                // added under the lock of the entry, so that the removal of an emptied set can't drop it
+                tradesByCurve.compute(valuation.getCurveId(), (curveId, tradeIds) -> {
+                    Set<Integer> updated = tradeIds == null ? ConcurrentHashMap.newKeySet() : tradeIds;
+                    updated.add(tradeId);
+                    return updated;
+                });
+            }
+        }
+    }
+
+    private Double markOf(TradeValuation valuation) {
+        if (valuation.getCurveId() == null) {
+            return null;
+        }
+        return curves.getOrDefault(valuation.getCurveId(), Optional.empty())
+                .map(curve -> curve.valueAt(valuation.getTerm(), CurveInterpolation.LINEAR))
+                .orElse(null);
+    }
+
+    /**
+     * Reads the latest curve: the points of its latest as-of date, or its points without date if none is dated.
+     */
+    private Optional<Curve> loadCurve(Integer curveId) {
+        Timestamp latest = curvePointRepository.findLatestAsOfDate(curveId);
+        try {
+            return Optional.of(curveService.getCurve(curveId, latest).getCurve());
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
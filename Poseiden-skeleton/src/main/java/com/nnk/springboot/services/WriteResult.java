@@ -0,0 +1,41 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.config.StatementCounter;
+
+import java.util.function.IntSupplier;
+
+/**
+ * This class reports the cost of a write operation done by a service:
+ * the number of rows it changed and the number of SQL statements it issued.
+ */
+public class WriteResult {
+
+    private final int affectedRows;
+
+    private final long statementCount;
+
+    public WriteResult(int affectedRows, long statementCount) {
+        this.affectedRows = affectedRows;
+        this.statementCount = statementCount;
+    }
+
+    /**
+     * This method runs a write operation and counts the SQL statements it issued on the current thread.
+     *
+     * @param write Write operation returning the number of rows it changed
+     * @return The result of the write operation
+     */
+    public static WriteResult measure(IntSupplier write) {
+        long before = StatementCounter.current();
+        int affectedRows = write.getAsInt();
+        return new WriteResult(affectedRows, StatementCounter.current() - before);
+    }
+
+    public int getAffectedRows() {
+        return affectedRows;
+    }
+
+    public long getStatementCount() {
+        return statementCount;
+    }
+}
@@ -0,0 +1,10 @@
+package com.nnk.springboot.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * BulkInsertBenchmark with the "bulk" profile : pooled table ids and JDBC batches of inserts.
+ */
+@ActiveProfiles("bulk")
+public class BatchedBulkInsertBenchmark extends BulkInsertBenchmark {
+}
@@ -0,0 +1,84 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.config.PersistenceConfig;
+import com.nnk.springboot.config.StatementCounter;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.repositories.BidListRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the insertion of ROWS BidLists, saved by chunks of CHUNK_SIZE and flushed after each chunk.
+ * The subclasses run it with the default configuration (IDENTITY ids, one round trip per row) and with
+ * the "bulk" profile (pooled table ids and JDBC batches). SQL logging is disabled for both.
+ *
+ * Not part of the default build (only unit_test is run by surefire). Run both with:
+ *      mvn test -Dtest='*BulkInsertBenchmark'
+ */
+@DataJpaTest(showSql = false)
+@TestPropertySource(properties = "logging.level.org.hibernate.SQL=INFO")
+@Import(PersistenceConfig.class)
+public abstract class BulkInsertBenchmark {
+
+    private static final int ROWS = 20_000;
+
+    private static final int CHUNK_SIZE = 1_000;
+
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private BidListRepository bidListRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void emptyTable() {
+        // the rows of data.sql would collide with the first ids of the table generator
+        bidListRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Benchmark : insert BidLists by chunks")
+    public void insertBidLists() {
+        insert("warm-up");
+        for (int round = 0; round < ROUNDS; round++) {
+            insert("round " + (round + 1));
+        }
+    }
+
+    private void insert(String label) {
+        long countBefore = bidListRepository.count();
+        long statementsBefore = StatementCounter.current();
+        long start = System.nanoTime();
+        for (int chunk = 0; chunk < ROWS / CHUNK_SIZE; chunk++) {
+            List<BidList> bidLists = new ArrayList<>(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                BidList bidList = new BidList("account " + i % 50, "type " + i % 5, (double) i);
+                bidList.setCommentary("bulk load " + chunk);
+                bidLists.add(bidList);
+            }
+            bidListRepository.saveAll(bidLists);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        long elapsed = System.nanoTime() - start;
+        long statements = StatementCounter.current() - statementsBefore;
+
+        assertThat(bidListRepository.count() - countBefore).isEqualTo(ROWS);
+        System.out.printf("%-10s %-8s %d rows in %d ms: %d rows/s, %d statements prepared%n",
+                getClass().getSimpleName().replace("BulkInsertBenchmark", ""), label, ROWS,
+                elapsed / 1_000_000, ROWS * 1_000_000_000L / elapsed, statements);
+    }
+}
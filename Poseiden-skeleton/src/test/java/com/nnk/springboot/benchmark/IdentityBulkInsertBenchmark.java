@@ -0,0 +1,7 @@
+package com.nnk.springboot.benchmark;
+
+/**
+ * BulkInsertBenchmark with the default configuration : IDENTITY ids, each insert is sent on its own.
+ */
+public class IdentityBulkInsertBenchmark extends BulkInsertBenchmark {
+}
@@ -0,0 +1,120 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeSummary;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the trade list page read as full Trade entities and as TradeSummary projections.
+ * The Trade table is seeded with ROWS wide rows, then walked page by page with the keyset queries.
+ * A new persistence context is simulated for each page, as for each request of the list page.
+ *
+ * Not part of the default build (only unit_test is run by surefire). Run it with:
+ *      mvn test -Dtest=ListProjectionBenchmark
+ */
+@DataJpaTest
+public class ListProjectionBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private static final int PAGE_SIZE = 500;
+
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void seedTrades() {
+        String text = "x".repeat(120);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{"account " + i % 50, "type " + i % 5, (double) i, (double) i, 1.0, 2.0, now,
+                    text, "OPEN", text, text, text, text, now, text, now, text, text, text, text});
+        }
+        new JdbcTemplate(dataSource).batchUpdate("insert into trade(account, type, buy_quantity, sell_quantity, "
+                + "buy_price, sell_price, trade_date, security, status, trader, benchmark, book, creation_name, "
+                + "creation_date, revision_name, revision_date, deal_name, deal_type, source_list_id, side) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    @DisplayName("Benchmark : list pages read as entities and as summaries")
+    public void compareEntityAndSummaryPages() {
+        // warm up both paths once
+        walk(after -> tradeRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, PAGE_SIZE)),
+                "entities (warm-up)", Trade::getId);
+        walk(after -> tradeRepository.findSummariesByIdGreaterThan(after, PageRequest.of(0, PAGE_SIZE)),
+                "summaries (warm-up)", TradeSummary::getId);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            walk(after -> tradeRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, PAGE_SIZE)),
+                    "entities", Trade::getId);
+            walk(after -> tradeRepository.findSummariesByIdGreaterThan(after, PageRequest.of(0, PAGE_SIZE)),
+                    "summaries", TradeSummary::getId);
+        }
+
+        // ASSERT : the summaries are not kept in the persistence context, the entities are
+        tradeRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, PAGE_SIZE));
+        assertThat(managedEntities()).isEqualTo(PAGE_SIZE);
+        entityManager.clear();
+        tradeRepository.findSummariesByIdGreaterThan(0, PageRequest.of(0, PAGE_SIZE));
+        assertThat(managedEntities()).isZero();
+    }
+
+    private <T> void walk(IntFunction<List<T>> page, String label, ToIntFunction<T> idOf) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int rows = 0;
+        int pages = 0;
+        int after = 0;
+        List<T> content;
+        do {
+            content = page.apply(after);
+            pages++;
+            rows += content.size();
+            if (!content.isEmpty()) {
+                after = idOf.applyAsInt(content.get(content.size() - 1));
+            }
+            entityManager.clear();
+        } while (content.size() == PAGE_SIZE);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertThat(rows).isGreaterThanOrEqualTo(ROWS);
+        System.out.printf("%-20s %d rows in %d pages: %d ms, %d KB allocated per page%n",
+                label, rows, pages, elapsed / 1_000_000, allocated / pages / 1024);
+    }
+
+    private long managedEntities() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
@@ -0,0 +1,126 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.config.BoundedPasswordEncoder;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.TradeCaptureService;
+import com.nnk.springboot.services.TradeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the insertion of CALLERS * TRADES_PER_CALLER Trades by CALLERS concurrent callers, each waiting for its
+ * Trade to be committed before sending the next one: first with TradeService.save (one transaction per Trade), then
+ * with TradeCaptureService (Trades committed by batches by one writer), then through the HTTP endpoint of the
+ * capture, authenticated with HTTP Basic like the other applications, which also reports the BCrypt checks it cost.
+ * SQL logging is disabled for all of them.
+ *
+ * Not part of the default build (only unit_test is run by surefire). Run it with:
+ *      mvn test -Dtest=TradeCaptureBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=INFO"})
+public class TradeCaptureBenchmark {
+
+    private static final int CALLERS = 32;
+
+    private static final int TRADES_PER_CALLER = 500;
+
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeCaptureService tradeCaptureService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Benchmark : insert Trades one transaction each, then by group commit, then through HTTP")
+    public void insertTrades() throws Exception {
+        run("warm-up");
+        for (int round = 0; round < ROUNDS; round++) {
+            run("round " + (round + 1));
+        }
+    }
+
+    private void run(String label) throws Exception {
+        insert("save", label, trade -> {
+            tradeService.save(trade);
+            return trade;
+        });
+        long batchesBefore = tradeCaptureService.getBatchCount();
+        insert("capture", label, trade -> tradeCaptureService.capture(trade).get(30, TimeUnit.SECONDS));
+        System.out.printf("%-10s %-8s %d commits%n", "capture", label,
+                tradeCaptureService.getBatchCount() - batchesBefore);
+        long hashesBefore = passwordEncoder.getCompletedCount();
+        TestRestTemplate client = restTemplate.withBasicAuth("userTest1", "userMDP");
+        insert("http", label, trade -> {
+            Map<String, Object> body = new HashMap<>();
+            body.put("account", trade.getAccount());
+            body.put("type", trade.getType());
+            body.put("buyQuantity", trade.getBuyQuantity());
+            ResponseEntity<Map> response = client.postForEntity("/trade/capture", body, Map.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            return trade;
+        });
+        System.out.printf("%-10s %-8s %d BCrypt checks%n", "http", label,
+                passwordEncoder.getCompletedCount() - hashesBefore);
+    }
+
+    private void insert(String mode, String label, Insert insert) throws Exception {
+        long countBefore = tradeRepository.count();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<?>> done = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int caller = 0; caller < CALLERS; caller++) {
+            int callerId = caller;
+            done.add(callers.submit(() -> {
+                for (int i = 0; i < TRADES_PER_CALLER; i++) {
+                    insert.apply(new Trade("account " + callerId, "type " + i % 5, (double) i));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        callers.shutdown();
+
+        int rows = CALLERS * TRADES_PER_CALLER;
+        assertThat(tradeRepository.count() - countBefore).isEqualTo(rows);
+        System.out.printf("%-10s %-8s %d rows in %d ms: %d rows/s%n", mode, label, rows, elapsed / 1_000_000,
+                rows * 1_000_000_000L / elapsed);
+    }
+
+    @FunctionalInterface
+    private interface Insert {
+        Trade apply(Trade trade) throws Exception;
+    }
+}
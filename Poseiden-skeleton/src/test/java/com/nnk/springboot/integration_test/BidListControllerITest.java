@@ -3,31 +3,41 @@ package com.nnk.springboot.integration_test;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nnk.springboot.controllers.BidListController;
 import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.BidListSummary;
+import com.nnk.springboot.services.CsvSupport;
+import com.nnk.springboot.services.UploadReport;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ComponentScan("com.nnk.springboot.controllers")
+@TestPropertySource(properties = "poseidon.upload.chunk-size=2")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class BidListControllerITest {
 
@@ -51,7 +61,7 @@ public class BidListControllerITest {
         MvcResult result = mvc.perform(get("/bidList/list"))
                 .andReturn();
         ModelAndView resultModelAndView = result.getModelAndView();
-        List<BidList> expectedBidList = (List) resultModelAndView.getModel().get("bidLists");
+        List<BidListSummary> expectedBidList = (List) resultModelAndView.getModel().get("bidLists");
 
         //ASSERT
         assertThat(resultModelAndView.getViewName().equals("bidList/list"));
@@ -59,6 +69,153 @@ public class BidListControllerITest {
         assertThat(expectedBidList.get(2).getType()).isEqualTo("type_2");
     }
 
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void exportBidList_ShouldStreamAllBidListsAsCsv() throws Exception {
+        //ACT
+        MvcResult asyncResult = mvc.perform(get("/bidList/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //ASSERT
+        String[] lines = csv.split("\r\n");
+        assertThat(lines.length).isEqualTo(4);
+        assertThat(lines[0]).startsWith("id,account,type,bidQuantity");
+        assertThat(lines[2]).startsWith("2,acc_2,type_2,12.0");
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void uploadBidList_ShouldInsertValidRowsAndReportRejectedRows() throws Exception {
+        //ARRANGE
+        String longCommentary = "c".repeat(300);
+        String csv = "id,account,type,bidQuantity,commentary\n"
+                + ",acc_up_1,type_up,10.0,\"on two\nlines, with a comma\"\n"
+                + ",,type_up,11.0,missing account\n"
+                + ",acc_up_3,type_up,abc,bad number\n"
+                + ",acc_up_4,type_up,13.0,\n"
+                + ",acc_up_5,type_up,14.0," + longCommentary + "\n";
+        MockMultipartFile file = new MockMultipartFile("file", "bids.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        //ACT
+        MvcResult result = mvc.perform(multipart("/bidList/upload").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andReturn();
+        UploadReport report = (UploadReport) result.getModelAndView().getModel().get("report");
+        List<BidListSummary> bidLists = (List) mvc.perform(get("/bidList/list"))
+                .andReturn().getModelAndView().getModel().get("bidLists");
+
+        //ASSERT
+        assertThat(result.getModelAndView().getViewName()).isEqualTo("bidList/upload");
+        assertThat(report.getRowsRead()).isEqualTo(5);
+        assertThat(report.getRowsInserted()).isEqualTo(2);
+        assertThat(report.getErrorCount()).isEqualTo(3);
+        assertThat(report.getErrors().get(0).getRow()).isEqualTo(2);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("The Account is mandatory");
+        assertThat(report.getErrors().get(1).getRow()).isEqualTo(3);
+        assertThat(report.getErrors().get(1).getMessage()).isEqualTo("Invalid number: abc");
+        assertThat(report.getErrors().get(2).getRow()).isEqualTo(5);
+        assertThat(bidLists.size()).isEqualTo(5);
+        assertThat(bidLists.get(3).getAccount()).isEqualTo("acc_up_1");
+        assertThat(bidLists.get(4).getAccount()).isEqualTo("acc_up_4");
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void uploadBidList_ShouldKeepTheRowsReadBeforeAnUnclosedQuote() throws Exception {
+        //ARRANGE
+        String csv = "account,type,bidQuantity,commentary\n"
+                + "acc_up_1,type_up,10.0,first\n"
+                + "acc_up_2,type_up,11.0,second\n"
+                + "acc_up_3,type_up,12.0,third\n"
+                + "acc_up_4,type_up,13.0,\"never closed\n"
+                + "acc_up_5,type_up,14.0,lost\n";
+        MockMultipartFile file = new MockMultipartFile("file", "bids.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        //ACT
+        MvcResult result = mvc.perform(multipart("/bidList/upload").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andReturn();
+        UploadReport report = (UploadReport) result.getModelAndView().getModel().get("report");
+
+        //ASSERT : the first chunk of 2 rows was committed before the bad record, the third row after it
+        assertThat(report.getRowsInserted()).isEqualTo(3);
+        assertThat(report.getErrorCount()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getRow()).isEqualTo(4);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Unclosed quoted field");
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void uploadBidList_ShouldRejectARecordLongerThanTheLimit_WithoutReadingTheRestOfTheFile() throws Exception {
+        //ARRANGE
+        StringBuilder rest = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            rest.append("acc_up_").append(i).append(",type_up,14.0,lost\n");
+        }
+        String csv = "account,type,bidQuantity,commentary\n"
+                + "acc_up_1,type_up,10.0,first\n"
+                + "acc_up_2,type_up,11.0,\"stray quote\n"
+                + rest;
+        MockMultipartFile file = new MockMultipartFile("file", "bids.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        //ACT
+        MvcResult result = mvc.perform(multipart("/bidList/upload").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andReturn();
+        UploadReport report = (UploadReport) result.getModelAndView().getModel().get("report");
+
+        //ASSERT
+        assertThat(report.getRowsInserted()).isEqualTo(1);
+        assertThat(report.getErrorCount()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getRow()).isEqualTo(2);
+        assertThat(report.getErrors().get(0).getMessage())
+                .isEqualTo("Record longer than " + CsvSupport.MAX_RECORD_LENGTH + " characters at record field 4");
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void uploadBidList_ShouldIndexTheInsertedRowsForTheSearch() throws Exception {
+        //ARRANGE
+        String csv = "account,type,dealName\n"
+                + "acc_up_1,type_up,Brent crude swap\n"
+                + "acc_up_2,type_up,Brent crude option\n"
+                + "acc_up_3,type_up,Brent crude future\n";
+        MockMultipartFile file = new MockMultipartFile("file", "bids.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        //ACT
+        mvc.perform(multipart("/bidList/upload").file(file).with(csrf()))
+                .andExpect(status().isOk());
+        MvcResult searchResult = mvc.perform(get("/search").param("q", "brent crude"))
+                .andReturn();
+
+        //ASSERT : each of the 2 chunks was indexed once committed
+        List<Map<String, Map<String, Object>>> hits = MAPPER.readValue(searchResult.getResponse().getContentAsString(), List.class);
+        assertThat(hits).hasSize(3);
+        assertThat(hits).extracting(hit -> (String) hit.get("document").get("url")).allMatch(url -> url.startsWith("/bidList/update/"));
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void uploadBidList_ShouldShowErrorMessage_WhenMandatoryColumnIsMissing() throws Exception {
+        //ARRANGE
+        MockMultipartFile file = new MockMultipartFile("file", "bids.csv", "text/csv",
+                "account,bidQuantity\nacc_up_1,10.0\n".getBytes(StandardCharsets.UTF_8));
+
+        //ACT
+        MvcResult result = mvc.perform(multipart("/bidList/upload").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        //ASSERT
+        assertThat(result.getModelAndView().getModel().get("report")).isNull();
+        assertThat(result.getModelAndView().getModel().get("errorMessage"))
+                .isEqualTo("Invalid upload file: missing column type");
+    }
+
     @Test
     @WithMockUser(username = "j.d@hotmail.com", password = "1234", roles = "USER")
     public void bidListAdd_shouldReturnCorrectURI() throws Exception {
@@ -92,7 +249,7 @@ public class BidListControllerITest {
                 .andReturn();
 
         ModelAndView resultModelAndView = result.getModelAndView();
-        List<BidList> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
+        List<BidListSummary> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
 
         //ASSERT
         assertThat(result.getModelAndView().getViewName()).isEqualTo("bidList/list");
@@ -140,7 +297,7 @@ public class BidListControllerITest {
                 .andReturn();
 
         ModelAndView resultModelAndView = result.getModelAndView();
-        List<BidList> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
+        List<BidListSummary> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
 
         //ASSERT
         assertThat(result.getModelAndView().getViewName()).isEqualTo("bidList/list");
@@ -164,7 +321,7 @@ public class BidListControllerITest {
         MvcResult result = mvc.perform(get("/bidList/list"))
                 .andReturn();
         ModelAndView resultModelAndView = result.getModelAndView();
-        List<BidList> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
+        List<BidListSummary> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
 
         //ASSERT
         assertThat(result.getModelAndView().getViewName()).isEqualTo("bidList/list");
@@ -198,6 +355,68 @@ public class BidListControllerITest {
             assertThat(resultModelAndView.getViewName()).isEqualTo("bidList/add");
         }
 
+        @Test
+        @DisplayName("Given a BidList whose sourceListId was already ingested, when added, then user should be redirected to previous Form with the error")
+        @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+        public void bidListValidate_ShouldReturnCorrectURI_WhenSourceListIdAlreadyIngested() throws Exception {
+            //ARRANGE
+            BidList bidListToAdd = new BidList("account_test", "type_test", 20.0);
+            mvc.perform(post("/bidList/validate").with(csrf())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    .param("account", bidListToAdd.getAccount())
+                    .param("type", bidListToAdd.getType())
+                    .param("bidQuantity", String.valueOf(20.0))
+                    .param("sourceListId", "source_test"))
+                    .andExpect(redirectedUrl("/bidList/list"));
+
+            //ACT
+            MvcResult result = mvc.perform(post("/bidList/validate").with(csrf())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    .param("account", bidListToAdd.getAccount())
+                    .param("type", bidListToAdd.getType())
+                    .param("bidQuantity", String.valueOf(20.0))
+                    .param("sourceListId", "source_test"))
+                    .andExpect(model().attributeHasFieldErrors("bidList", "sourceListId"))
+                    .andReturn();
+
+            ModelAndView resultModelAndView = result.getModelAndView();
+
+            //ASSERT
+            assertThat(resultModelAndView).isNotNull();
+            assertThat(resultModelAndView.getViewName()).isEqualTo("bidList/add");
+        }
+
+        @Test
+        @DisplayName("Given a BidList updated with the sourceListId of another, when updated, then user should be redirected to previous Form with the error")
+        @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+        public void bidListUpdate_ShouldReturnToForm_WhenSourceListIdAlreadyIngested() throws Exception {
+            //ARRANGE
+            mvc.perform(post("/bidList/validate").with(csrf())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    .param("account", "account_test")
+                    .param("type", "type_test")
+                    .param("bidQuantity", "20.0")
+                    .param("sourceListId", "source_update_test"))
+                    .andExpect(redirectedUrl("/bidList/list"));
+
+            //ACT
+            MvcResult result = mvc.perform(post("/bidList/update/{id}", "1").with(csrf())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    .param("id", "1")
+                    .param("account", "account updated")
+                    .param("type", "type updated")
+                    .param("bidQuantity", "20.0")
+                    .param("sourceListId", "source_update_test"))
+                    .andExpect(model().attributeHasFieldErrors("bidList", "sourceListId"))
+                    .andReturn();
+
+            ModelAndView resultModelAndView = result.getModelAndView();
+
+            //ASSERT
+            assertThat(resultModelAndView).isNotNull();
+            assertThat(resultModelAndView.getViewName()).isEqualTo("bidList/update");
+        }
+
         @Test
         @DisplayName("Given a BidList Id that doesn't exist, when updated, then Exception should be emitted with correct message")
         @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
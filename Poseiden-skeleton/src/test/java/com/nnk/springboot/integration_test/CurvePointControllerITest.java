@@ -1,5 +1,6 @@
 package com.nnk.springboot.integration_test;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nnk.springboot.controllers.CurveController;
 import com.nnk.springboot.domain.CurvePoint;
@@ -19,9 +20,12 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @SpringBootTest
@@ -244,4 +248,185 @@ public class CurvePointControllerITest {
 
         }
     }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void curveValue_ShouldFollowTheCurvePointsAdded() throws Exception {
+        //ACT
+            //curve 1 has a single point (term 2.0, value 8.3): it is flat
+        MvcResult flatResult = mvc.perform(get("/curve/{curveId}/value", 1).param("term", "3"))
+                .andReturn();
+            //a second point is added to the curve, the curve held in memory must be dropped
+        mvc.perform(post("/curvePoint/validate").with(csrf())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .param("curveId", "1")
+                .param("term", "4.0")
+                .param("value", "10.3"))
+                .andExpect(redirectedUrl("/curvePoint/list"));
+        MvcResult slopedResult = mvc.perform(get("/curve/{curveId}/value", 1).param("term", "3"))
+                .andReturn();
+
+        //ASSERT
+        assertThat(MAPPER.readTree(flatResult.getResponse().getContentAsString()).get("value").asDouble()).isEqualTo(8.3);
+        assertThat(MAPPER.readTree(slopedResult.getResponse().getContentAsString()).get("value").asDouble())
+                .isCloseTo(9.3, within(1e-9));
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void replaceCurve_ShouldInsertUpdateAndDeleteChangedPointsOnly() throws Exception {
+        //ACT
+            //curve 5 holds one point (term 3.5, value 1.0): it is kept and a point is added
+        MvcResult jsonResult = mvc.perform(post("/curve/{curveId}/points", 5).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"term\": 3.5, \"value\": 1.0}, {\"term\": 5.0, \"value\": 2.0}]"))
+                .andReturn();
+            //then the term 3.5 is removed, the term 5.0 is changed and the term 7.0 is added
+        MvcResult csvResult = mvc.perform(post("/curve/{curveId}/points", 5).with(csrf())
+                .contentType("text/csv")
+                .content("term,value\n5.0,2.5\n7.0,3.5\n"))
+                .andReturn();
+        MvcResult valueResult = mvc.perform(get("/curve/{curveId}/value", 5).param("term", "6"))
+                .andReturn();
+
+        //ASSERT
+        JsonNode jsonReport = MAPPER.readTree(jsonResult.getResponse().getContentAsString());
+        assertThat(jsonReport.get("inserted").asInt()).isEqualTo(1);
+        assertThat(jsonReport.get("unchanged").asInt()).isEqualTo(1);
+        JsonNode csvReport = MAPPER.readTree(csvResult.getResponse().getContentAsString());
+        assertThat(csvReport.get("inserted").asInt()).isEqualTo(1);
+        assertThat(csvReport.get("updated").asInt()).isEqualTo(1);
+        assertThat(csvReport.get("deleted").asInt()).isEqualTo(1);
+        assertThat(csvReport.get("unchanged").asInt()).isEqualTo(0);
+        assertThat(MAPPER.readTree(valueResult.getResponse().getContentAsString()).get("value").asDouble())
+                .isCloseTo(3.0, within(1e-9));
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void replaceCurve_WithTwiceTheSameTerm_ShouldThrowException() {
+        //ACT & ASSERT
+        assertThatThrownBy(() -> mvc.perform(post("/curve/{curveId}/points", 5).with(csrf())
+                .contentType("text/csv")
+                .content("term,value\n5.0,2.5\n5.0,3.5\n")))
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("term 5.0 is given twice");
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void datedCurves_ShouldBeReadAsOfADateAndByTermHistory() throws Exception {
+        //ARRANGE
+        for (String asOfDate : new String[]{"2024-01-01", "2024-01-02"}) {
+            mvc.perform(post("/curve/{curveId}/points", 9).with(csrf())
+                    .param("asOfDate", asOfDate)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"term\": 1.0, \"value\": " + Integer.parseInt(asOfDate.substring(8)) + "}, {\"term\": 2.0, \"value\": 5.0}]"))
+                    .andReturn();
+        }
+
+        //ACT
+        MvcResult curveResult = mvc.perform(get("/curve/{curveId}", 9).param("asOf", "2024-01-03"))
+                .andReturn();
+        MvcResult historyResult = mvc.perform(get("/curve/{curveId}/history", 9)
+                .param("term", "1.0").param("from", "2024-01-01").param("to", "2024-01-02"))
+                .andReturn();
+        MvcResult valueResult = mvc.perform(get("/curve/{curveId}/value", 9)
+                .param("asOfDate", "2024-01-01").param("term", "1.5"))
+                .andReturn();
+
+        //ASSERT
+        JsonNode curve = MAPPER.readTree(curveResult.getResponse().getContentAsString());
+        assertThat(curve.size()).isEqualTo(2);
+        assertThat(curve.get(0).get("value").asDouble()).isEqualTo(2.0);
+        JsonNode history = MAPPER.readTree(historyResult.getResponse().getContentAsString());
+        assertThat(history.size()).isEqualTo(2);
+        assertThat(history.get(0).get("value").asDouble()).isEqualTo(1.0);
+        assertThat(history.get(1).get("value").asDouble()).isEqualTo(2.0);
+        assertThat(MAPPER.readTree(valueResult.getResponse().getContentAsString()).get("value").asDouble()).isEqualTo(3.0);
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void curvePointUpdate_ShouldKeepTheAsOfDate_AndRefreshTheDatedCurve() throws Exception {
+        //ARRANGE
+        mvc.perform(post("/curve/{curveId}/points", 9).with(csrf())
+                .param("asOfDate", "2024-01-01")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"term\": 1.0, \"value\": 1.0}, {\"term\": 2.0, \"value\": 5.0}]"))
+                .andReturn();
+        mvc.perform(get("/curve/{curveId}", 9).param("asOf", "2024-01-03")).andReturn();
+        List<CurvePoint> curvePoints = (List) mvc.perform(get("/curvePoint/list")).andReturn()
+                .getModelAndView().getModel().get("curvePoints");
+        CurvePoint curvePointToUpdate = curvePoints.stream()
+                .filter(curvePoint -> curvePoint.getCurveId() == 9 && curvePoint.getTerm() == 2.0)
+                .findFirst().orElseThrow();
+
+        //ACT : the update form carries no as-of date
+        mvc.perform(post("/curvePoint/update/{id}", curvePointToUpdate.getId()).with(csrf())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .param("id", String.valueOf(curvePointToUpdate.getId()))
+                .param("curveId", "9")
+                .param("term", "2.0")
+                .param("value", "7.0"))
+                .andExpect(redirectedUrl("/curvePoint/list"));
+        MvcResult curveResult = mvc.perform(get("/curve/{curveId}", 9).param("asOf", "2024-01-03"))
+                .andReturn();
+
+        //ASSERT
+        JsonNode curve = MAPPER.readTree(curveResult.getResponse().getContentAsString());
+        assertThat(curve.size()).isEqualTo(2);
+        assertThat(curve.get(1).get("value").asDouble()).isEqualTo(7.0);
+        List<CurvePoint> updatedCurvePoints = (List) mvc.perform(get("/curvePoint/list")).andReturn()
+                .getModelAndView().getModel().get("curvePoints");
+        assertThat(updatedCurvePoints).filteredOn(curvePoint -> curvePoint.getId() == curvePointToUpdate.getId())
+                .extracting(CurvePoint::getAsOfDate)
+                .containsExactly(curvePointToUpdate.getAsOfDate());
+        assertThat(curvePointToUpdate.getAsOfDate()).isNotNull();
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void curveDiff_ShouldStreamTheShiftAtEachTermOfEitherDate() throws Exception {
+        //ARRANGE
+        mvc.perform(post("/curve/{curveId}/points", 9).with(csrf())
+                .param("asOfDate", "2024-01-01")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"term\": 1.0, \"value\": 1.0}, {\"term\": 3.0, \"value\": 3.0}]"))
+                .andReturn();
+        mvc.perform(post("/curve/{curveId}/points", 9).with(csrf())
+                .param("asOfDate", "2024-01-02")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"term\": 1.0, \"value\": 2.0}, {\"term\": 2.0, \"value\": 3.0}, {\"term\": 4.0, \"value\": 6.0}]"))
+                .andReturn();
+
+        //ACT
+        MvcResult asyncResult = mvc.perform(get("/curve/{curveId}/diff", 9)
+                .param("from", "2024-01-01").param("to", "2024-01-02"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //ASSERT : the missing terms are interpolated, the term 4.0 extends the last segment of the first date
+        assertThat(csv.split("\r\n")).containsExactly("term,fromValue,toValue,shift",
+                "1.0,1.0,2.0,1.0", "2.0,2.0,3.0,1.0", "3.0,3.0,4.5,1.5", "4.0,4.0,6.0,2.0");
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void curveDiff_ShouldBeRefusedBeforeStreaming_WhenADateHasNoPoint() throws Exception {
+        //ARRANGE
+        mvc.perform(post("/curve/{curveId}/points", 9).with(csrf())
+                .param("asOfDate", "2024-01-01")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"term\": 1.0, \"value\": 1.0}]"))
+                .andReturn();
+
+        //ACT & ASSERT : no asynchronous response is started
+        assertThatThrownBy(() -> mvc.perform(get("/curve/{curveId}/diff", 9)
+                .param("from", "2024-01-01").param("to", "2024-01-03")))
+                .hasCauseInstanceOf(IllegalArgumentException.class).hasMessageContaining("Invalid curve Id:9");
+    }
 }
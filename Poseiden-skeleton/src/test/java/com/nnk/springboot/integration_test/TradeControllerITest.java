@@ -1,7 +1,14 @@
 package com.nnk.springboot.integration_test;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.config.BoundedPasswordEncoder;
+import com.nnk.springboot.config.CachingAuthenticationProvider;
 import com.nnk.springboot.controllers.TradeController;
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeSummary;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.TradeDashboard;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -15,13 +22,19 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.servlet.ModelAndView;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @SpringBootTest
@@ -36,6 +49,15 @@ public class TradeControllerITest {
     @Autowired
     private TradeController tradeController;
 
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CachingAuthenticationProvider captureAuthenticationProvider;
+
     @BeforeEach
     public void setup_data(){
 
@@ -51,13 +73,132 @@ public class TradeControllerITest {
 
         //ASSERT
         assertThat(resultModelAndView).isNotNull();
-        List<Trade> expectedTradeList = (List) resultModelAndView.getModel().get("trades");
+        List<TradeSummary> expectedTradeList = (List) resultModelAndView.getModel().get("trades");
 
         assertThat(resultModelAndView.getViewName()).isEqualTo("trade/list");
         assertThat(expectedTradeList.size()).isEqualTo(3);
         assertThat(expectedTradeList.get(2).getType()).isEqualTo("type_2");
     }
 
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void homeTrade_ShouldReturnPagesOfTrade_WhenPageSizeIsSmallerThanTable() throws Exception {
+        //ACT
+        MvcResult firstResult = mvc.perform(get("/trade/list").param("size", "2"))
+                .andReturn();
+        KeysetPage<TradeSummary> firstPage = (KeysetPage<TradeSummary>) firstResult.getModelAndView().getModel().get("page");
+        MvcResult secondResult = mvc.perform(get("/trade/list")
+                .param("after", String.valueOf(firstPage.getNextCursor()))
+                .param("size", "2"))
+                .andReturn();
+        KeysetPage<TradeSummary> secondPage = (KeysetPage<TradeSummary>) secondResult.getModelAndView().getModel().get("page");
+
+        //ASSERT
+        assertThat(firstPage.getContent().size()).isEqualTo(2);
+        assertThat(firstPage.hasPrevious()).isFalse();
+        assertThat(firstPage.getNextCursor()).isEqualTo(2);
+        assertThat(secondPage.getContent().size()).isEqualTo(1);
+        assertThat(secondPage.getContent().get(0).getId()).isEqualTo(3);
+        assertThat(secondPage.hasNext()).isFalse();
+        assertThat(secondPage.getPreviousCursor()).isEqualTo(3);
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void homeTrade_ShouldReturnPagesOfMatchingTrades_WhenFiltered() throws Exception {
+        //ACT
+        MvcResult firstResult = mvc.perform(get("/trade/list")
+                .param("account", "acc_1")
+                .param("size", "1"))
+                .andReturn();
+        KeysetPage<TradeSummary> firstPage = (KeysetPage<TradeSummary>) firstResult.getModelAndView().getModel().get("page");
+        MvcResult secondResult = mvc.perform(get("/trade/list")
+                .param("account", "acc_1")
+                .param("after", String.valueOf(firstPage.getNextCursor()))
+                .param("size", "1"))
+                .andReturn();
+        KeysetPage<TradeSummary> secondPage = (KeysetPage<TradeSummary>) secondResult.getModelAndView().getModel().get("page");
+        MvcResult noMatchResult = mvc.perform(get("/trade/list")
+                .param("account", "acc_1")
+                .param("type", "type_3"))
+                .andReturn();
+
+        //ASSERT
+        assertThat(firstPage.getContent().get(0).getId()).isEqualTo(1);
+        assertThat(firstPage.getNextCursor()).isEqualTo(1);
+        assertThat(secondPage.getContent().size()).isEqualTo(1);
+        assertThat(secondPage.getContent().get(0).getId()).isEqualTo(3);
+        assertThat(secondPage.hasNext()).isFalse();
+        assertThat((List) noMatchResult.getModelAndView().getModel().get("trades")).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void exportTrade_ShouldStreamAllTradesAsCsv() throws Exception {
+        //ACT
+        MvcResult asyncResult = mvc.perform(get("/trade/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //ASSERT
+        String[] lines = csv.split("\r\n");
+        assertThat(lines.length).isEqualTo(4);
+        assertThat(lines[0]).startsWith("id,account,type,buyQuantity");
+        assertThat(lines[3]).startsWith("3,acc_1,type_2,80.2");
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void exportTrade_ShouldStreamAllTradesAsJson() throws Exception {
+        //ACT
+        MvcResult asyncResult = mvc.perform(get("/trade/export").param("format", "json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String json = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //ASSERT
+        List<Map<String, Object>> trades = new ObjectMapper().readValue(json, List.class);
+        assertThat(trades.size()).isEqualTo(3);
+        assertThat(trades.get(1).get("account")).isEqualTo("acc_2");
+        assertThat(trades.get(1).get("buyQuantity")).isEqualTo(12.0);
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void exportTrade_ShouldWriteValidJson_WhenAQuantityIsNotFinite() throws Exception {
+        //ARRANGE
+        Trade trade = new Trade("acc_nan", "type_nan", Double.NaN);
+        trade.setSellQuantity(Double.POSITIVE_INFINITY);
+        tradeRepository.save(trade);
+
+        //ACT
+        MvcResult asyncResult = mvc.perform(get("/trade/export").param("format", "json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String json = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //ASSERT
+        List<Map<String, Object>> trades = new ObjectMapper().readValue(json, List.class);
+        assertThat(trades.size()).isEqualTo(4);
+        assertThat(trades.get(3).get("account")).isEqualTo("acc_nan");
+        assertThat(trades.get(3)).containsEntry("buyQuantity", null).containsEntry("sellQuantity", null);
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void exportTrade_ShouldAnswerBadRequest_WhenTheFormatIsUnknown() throws Exception {
+        //ACT & ASSERT
+        mvc.perform(get("/trade/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
     public void tradeAdd_shouldReturnCorrectURI() throws Exception {
@@ -94,7 +235,7 @@ public class TradeControllerITest {
 
         //ASSERT
         assertThat(resultModelAndView).isNotNull();
-        List<Trade> expectedUpdatedTradeList = (List) resultModelAndView.getModel().get("trades");
+        List<TradeSummary> expectedUpdatedTradeList = (List) resultModelAndView.getModel().get("trades");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("trade/list");
         assertThat(expectedUpdatedTradeList.size()).isEqualTo(4);
         assertThat(expectedUpdatedTradeList.get(3).getType()).isEqualTo(tradeToAdd.getType());
@@ -144,13 +285,52 @@ public class TradeControllerITest {
 
         //ASSERT
         assertThat(resultModelAndView).isNotNull();
-        List<Trade> expectedUpdatedTradeList = (List) resultModelAndView.getModel().get("trades");
+        List<TradeSummary> expectedUpdatedTradeList = (List) resultModelAndView.getModel().get("trades");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("trade/list");
         assertThat(expectedUpdatedTradeList.size()).isEqualTo(3);
         assertThat(expectedUpdatedTradeList.get(2).getType()).isEqualTo("type updated");
         assertThat(expectedUpdatedTradeList.get(2).getBuyQuantity()).isEqualTo(34.0);
     }
 
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void tradeUpdate_ShouldKeepSourceListId_SoThatItsReplayIsStillRefused() throws Exception {
+        //ARRANGE
+        mvc.perform(post("/trade/validate").with(csrf())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .param("account", "account_test")
+                .param("type", "type_test")
+                .param("buyQuantity", "34.0")
+                .param("sourceListId", "source_test"))
+                .andExpect(redirectedUrl("/trade/list"));
+        List<TradeSummary> trades = (List) mvc.perform(get("/trade/list")).andReturn()
+                .getModelAndView().getModel().get("trades");
+        Integer ingestedId = trades.get(3).getId();
+
+        //ACT
+            //an update without sourceListId
+        mvc.perform(post("/trade/update/{id}", ingestedId).with(csrf())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .param("id", String.valueOf(ingestedId))
+                .param("account", "account updated")
+                .param("type", "type updated")
+                .param("buyQuantity", "40.0"))
+                .andExpect(redirectedUrl("/trade/list"));
+            //replay of the upstream message
+        MvcResult result = mvc.perform(post("/trade/validate").with(csrf())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .param("account", "account_test")
+                .param("type", "type_test")
+                .param("buyQuantity", "34.0")
+                .param("sourceListId", "source_test"))
+                .andExpect(model().attributeHasFieldErrors("trade", "sourceListId"))
+                .andReturn();
+
+        //ASSERT
+        assertThat(result.getModelAndView()).isNotNull();
+        assertThat(result.getModelAndView().getViewName()).isEqualTo("trade/add");
+    }
+
     @Test
     @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
     public void tradeDelete_shouldReturnUpdatedListMinusDeletedTrade() throws Exception {
@@ -169,12 +349,69 @@ public class TradeControllerITest {
 
         //ASSERT
         assertThat(resultModelAndView).isNotNull();
-        List<Trade> expectedUpdatedTradeList = (List) resultModelAndView.getModel().get("trades");
+        List<TradeSummary> expectedUpdatedTradeList = (List) resultModelAndView.getModel().get("trades");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("trade/list");
         assertThat(expectedUpdatedTradeList.size()).isEqualTo(2);
         assertThat(expectedUpdatedTradeList.get(1).getType()).isEqualTo("type_2");
     }
 
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void positions_ShouldFollowTheTradesUpdatedAndDeleted() throws Exception {
+        //ARRANGE : trades 1 and 3 of acc_1, trade 2 of acc_2, without security nor book
+        MvcResult initialResult = mvc.perform(get("/position").param("account", "acc_1"))
+                .andReturn();
+
+        //ACT
+        mvc.perform(post("/trade/update/{id}", 3).with(csrf())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .param("account", "acc_2")
+                .param("type", "type_2")
+                .param("buyQuantity", "4.0")
+                .param("sellQuantity", "1.0"))
+                .andExpect(redirectedUrl("/trade/list"));
+        mvc.perform(get("/trade/delete/{id}", 1).with(csrf()))
+                .andExpect(redirectedUrl("/trade/list"));
+        MvcResult positionsResult = mvc.perform(get("/position/list"))
+                .andReturn();
+
+        //ASSERT
+        Map<String, Object> initialPosition = new ObjectMapper().readValue(initialResult.getResponse().getContentAsString(), Map.class);
+        assertThat(initialPosition.get("buyQuantity")).isEqualTo(85.7);
+        assertThat(initialPosition.get("tradeCount")).isEqualTo(2);
+        List<Map<String, Object>> positions = new ObjectMapper().readValue(positionsResult.getResponse().getContentAsString(), List.class);
+        assertThat(positions.size()).isEqualTo(1);
+        assertThat(positions.get(0).get("account")).isEqualTo("acc_2");
+        assertThat(positions.get(0).get("netQuantity")).isEqualTo(15.0);
+        assertThat(positions.get(0).get("tradeCount")).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void search_ShouldFindTheTradesWrittenByPartialWords() throws Exception {
+        //ACT
+        mvc.perform(post("/trade/validate").with(csrf())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .param("account", "acc_9")
+                .param("type", "type_9")
+                .param("dealName", "Brent crude swap")
+                .param("security", "BRN"))
+                .andExpect(redirectedUrl("/trade/list"));
+        MvcResult insertedResult = mvc.perform(get("/search").param("q", "rent SWA"))
+                .andReturn();
+        mvc.perform(get("/trade/delete/{id}", 4).with(csrf()))
+                .andExpect(redirectedUrl("/trade/list"));
+        MvcResult deletedResult = mvc.perform(get("/search").param("q", "rent SWA"))
+                .andReturn();
+
+        //ASSERT
+        List<Map<String, Map<String, Object>>> hits = new ObjectMapper().readValue(insertedResult.getResponse().getContentAsString(), List.class);
+        assertThat(hits.size()).isEqualTo(1);
+        assertThat(hits.get(0).get("document").get("id")).isEqualTo(4);
+        assertThat(hits.get(0).get("document").get("url")).isEqualTo("/trade/update/4");
+        assertThat(deletedResult.getResponse().getContentAsString()).isEqualTo("[]");
+    }
+
     @Nested
     @Tag("ErrorHandlingCasesTests")
     @DisplayName("Cover and handle borderline cases when user sends partial and wrong data")
@@ -203,6 +440,68 @@ public class TradeControllerITest {
             assertThat(resultModelAndView.getViewName()).isEqualTo("trade/add");
         }
 
+        @Test
+        @DisplayName("Given a Trade whose sourceListId was already ingested, when added, then user should be redirected to previous Form with the error")
+        @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+        public void tradeValidate_ShouldReturnCorrectURI_WhenSourceListIdAlreadyIngested() throws Exception {
+            //ARRANGE
+            Trade tradeToAdd = new Trade("account_test", "type_test", 34.0);
+            mvc.perform(post("/trade/validate").with(csrf())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    .param("account", tradeToAdd.getAccount())
+                    .param("type", tradeToAdd.getType())
+                    .param("buyQuantity", String.valueOf(34.0))
+                    .param("sourceListId", "source_test"))
+                    .andExpect(redirectedUrl("/trade/list"));
+
+            //ACT
+            MvcResult result = mvc.perform(post("/trade/validate").with(csrf())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    .param("account", tradeToAdd.getAccount())
+                    .param("type", tradeToAdd.getType())
+                    .param("buyQuantity", String.valueOf(34.0))
+                    .param("sourceListId", "source_test"))
+                    .andExpect(model().attributeHasFieldErrors("trade", "sourceListId"))
+                    .andReturn();
+
+            ModelAndView resultModelAndView = result.getModelAndView();
+
+            //ASSERT
+            assertThat(resultModelAndView).isNotNull();
+            assertThat(resultModelAndView.getViewName()).isEqualTo("trade/add");
+        }
+
+        @Test
+        @DisplayName("Given a Trade updated with the sourceListId of another, when updated, then user should be redirected to previous Form with the error")
+        @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+        public void tradeUpdate_ShouldReturnToForm_WhenSourceListIdAlreadyIngested() throws Exception {
+            //ARRANGE
+            mvc.perform(post("/trade/validate").with(csrf())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    .param("account", "account_test")
+                    .param("type", "type_test")
+                    .param("buyQuantity", "34.0")
+                    .param("sourceListId", "source_update_test"))
+                    .andExpect(redirectedUrl("/trade/list"));
+
+            //ACT
+            MvcResult result = mvc.perform(post("/trade/update/{id}", "1").with(csrf())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    .param("id", "1")
+                    .param("account", "account updated")
+                    .param("type", "type updated")
+                    .param("buyQuantity", "34.0")
+                    .param("sourceListId", "source_update_test"))
+                    .andExpect(model().attributeHasFieldErrors("trade", "sourceListId"))
+                    .andReturn();
+
+            ModelAndView resultModelAndView = result.getModelAndView();
+
+            //ASSERT
+            assertThat(resultModelAndView).isNotNull();
+            assertThat(resultModelAndView.getViewName()).isEqualTo("trade/update");
+        }
+
         @Test
         @DisplayName("Given a Trade Id that doesn't exist, when updated, then Exception should be emitted with correct message")
         @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
@@ -255,4 +554,103 @@ public class TradeControllerITest {
 
         }
     }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void dashboard_ShouldShowTheTotalsOfTheTrades() throws Exception {
+        //ACT
+        MvcResult result = mvc.perform(get("/trade/dashboard"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        //ASSERT
+        TradeDashboard dashboard = (TradeDashboard) result.getModelAndView().getModel().get("dashboard");
+        assertThat(result.getModelAndView().getViewName()).isEqualTo("trade/dashboard");
+        assertThat(dashboard.getTotal().getTradeCount()).isEqualTo(3);
+        assertThat(dashboard.getByStatus()).hasSize(1);
+        assertThat(result.getResponse().getContentAsString()).contains("(none)");
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void captureTrade_ShouldAnswerOnceTheTradeIsCommitted() throws Exception {
+        //ACT
+        MvcResult asyncResult = mvc.perform(post("/trade/capture").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"account\": \"acc_capture\", \"type\": \"type_1\", \"buyQuantity\": 7.5, "
+                        + "\"sourceListId\": \"SRC-7\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String created = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        MvcResult replayResult = mvc.perform(post("/trade/capture").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"account\": \"acc_replay\", \"type\": \"type_1\", \"sourceListId\": \"SRC-7\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(replayResult))
+                .andExpect(status().isConflict());
+        mvc.perform(post("/trade/capture").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"account\": \"\", \"type\": \"type_1\"}"))
+                .andExpect(status().isBadRequest());
+        MvcResult list = mvc.perform(get("/trade/list")).andReturn();
+
+        //ASSERT
+        assertThat(new ObjectMapper().readValue(created, Map.class).get("id")).isEqualTo(4);
+        List<TradeSummary> trades = (List) list.getModelAndView().getModel().get("trades");
+        assertThat(trades).extracting(TradeSummary::getAccount).containsExactly("acc_1", "acc_2", "acc_1", "acc_capture");
+    }
+
+    @Test
+    public void captureTrade_ShouldAuthenticateEachRequestWithHttpBasic_WithoutCsrfToken() throws Exception {
+        //ACT
+        MvcResult asyncResult = mvc.perform(post("/trade/capture").with(httpBasic("userTest1", "userMDP"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"account\": \"acc_basic\", \"type\": \"type_1\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isCreated());
+        MvcResult anonymous = mvc.perform(post("/trade/capture")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"account\": \"acc_anonymous\", \"type\": \"type_1\"}"))
+                .andReturn();
+        MvcResult wrongPassword = mvc.perform(post("/trade/capture").with(httpBasic("userTest1", "wrong"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"account\": \"acc_wrong\", \"type\": \"type_1\"}"))
+                .andReturn();
+
+        //ASSERT
+        assertThat(asyncResult.getResponse().getHeader("Set-Cookie")).isNull();
+        assertThat(anonymous.getResponse().getStatus()).isEqualTo(401);
+        assertThat(wrongPassword.getResponse().getStatus()).isEqualTo(401);
+    }
+
+    @Test
+    public void captureTrade_ShouldCheckTheBasicCredentialsOnce_ForConsecutiveRequests() throws Exception {
+        //ARRANGE
+        captureWithHttpBasic("acc_basic_0");
+        long hashesAfterFirstRequest = passwordEncoder.getCompletedCount();
+        long hitsAfterFirstRequest = captureAuthenticationProvider.getHitCount();
+
+        //ACT
+        captureWithHttpBasic("acc_basic_1");
+        captureWithHttpBasic("acc_basic_2");
+
+        //ASSERT
+        assertThat(passwordEncoder.getCompletedCount()).isEqualTo(hashesAfterFirstRequest);
+        assertThat(captureAuthenticationProvider.getHitCount() - hitsAfterFirstRequest).isEqualTo(2);
+    }
+
+    private void captureWithHttpBasic(String account) throws Exception {
+        MvcResult asyncResult = mvc.perform(post("/trade/capture").with(httpBasic("userTest2", "userMDP"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"account\": \"" + account + "\", \"type\": \"type_1\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isCreated());
+    }
 }
@@ -0,0 +1,96 @@
+package com.nnk.springboot.unit_test.config;
+
+import com.nnk.springboot.config.BoundedPasswordEncoder;
+import com.nnk.springboot.config.PasswordHashingRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedPasswordEncoderTests {
+
+	private BoundedPasswordEncoder encoder;
+
+	@AfterEach
+	public void shutdown() {
+		encoder.destroy();
+	}
+
+	@Test
+	@DisplayName("Test that passwords are hashed and checked by the pool and the hashes are counted")
+	public void givenPassword_whenEncodeAndMatch_thenHashOnThePool() {
+		// ARRANGE
+		encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1);
+
+		// ACT
+		String hash = encoder.encode("Password1!");
+
+		// ASSERT
+		assertThat(hash).startsWith("$2a$04$");
+		assertThat(encoder.matches("Password1!", hash)).isTrue();
+		assertThat(encoder.matches("Password2!", hash)).isFalse();
+		assertThat(encoder.getCompletedCount()).isEqualTo(3);
+		assertThat(encoder.getRejectedCount()).isZero();
+		assertThat(encoder.getMaxLatencyMillis()).isGreaterThan(0);
+	}
+
+	@Test
+	@DisplayName("Test that a hash is refused when the pool and its queue are busy")
+	public void givenBusyPool_whenEncode_thenRefuseAtOnce() throws Exception {
+		// ARRANGE
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		encoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(started, release), 1, 1);
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("running"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+		while (encoder.getQueueDepth() == 0) {
+			Thread.sleep(1);
+		}
+
+		// ACT & ASSERT
+		assertThatThrownBy(() -> encoder.encode("refused"))
+				.isInstanceOf(PasswordHashingRejectedException.class);
+		assertThat(encoder.getRejectedCount()).isEqualTo(1);
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash of running");
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash of queued");
+		assertThat(encoder.getCompletedCount()).isEqualTo(2);
+	}
+
+	private static class BlockingPasswordEncoder implements PasswordEncoder {
+
+		private final CountDownLatch started;
+
+		private final CountDownLatch release;
+
+		BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) {
+			this.started = started;
+			this.release = release;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "hash of " + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
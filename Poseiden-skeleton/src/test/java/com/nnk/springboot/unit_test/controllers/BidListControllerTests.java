@@ -4,6 +4,7 @@ package com.nnk.springboot.unit_test.controllers;
 import com.nnk.springboot.Application;
 import com.nnk.springboot.controllers.BidListController;
 import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.BidListSummary;
 import com.nnk.springboot.repositories.BidListRepository;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -22,6 +24,7 @@ import org.springframework.web.servlet.ModelAndView;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -59,7 +62,7 @@ public class BidListControllerTests {
     @WithMockUser()
     public void home_shouldReturnListOfBidList_andMockedMethodsShouldBeCalledTheRightAmountOfTime() throws Exception {
         //ARRANGE
-        when(bidListRepository.findAll()).thenReturn(bidListList);
+        when(bidListRepository.findSummariesByIdGreaterThan(anyInt(), any(Pageable.class))).thenReturn(summariesOf(bidListList));
         // ACT
         MvcResult result = mockMvc.perform(get("/bidList/list"))
                 .andExpect(status().isOk())
@@ -67,8 +70,8 @@ public class BidListControllerTests {
 
         //ASSERT
         assertThat(result.getModelAndView()).isNotNull();
-        verify(bidListRepository, times(1)).findAll();
-        List<BidList> expectedBidList = (List) result.getModelAndView().getModel().get("bidLists");
+        verify(bidListRepository, times(1)).findSummariesByIdGreaterThan(anyInt(), any(Pageable.class));
+        List<BidListSummary> expectedBidList = (List) result.getModelAndView().getModel().get("bidLists");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("bidList/list");
         assertThat(expectedBidList.size()).isEqualTo(2);
     }
@@ -94,8 +97,7 @@ public class BidListControllerTests {
         bidListList.add(bidListToAdd);
             //Mock called methods
         when(bidListRepository.save(any(BidList.class))).thenReturn(bidListToAdd);
-        when(bidListRepository.findAll())
-                .thenReturn(bidListList, bidListList);
+        when(bidListRepository.findSummariesByIdGreaterThan(anyInt(), any(Pageable.class))).thenReturn(summariesOf(bidListList));
         //ACT
         //first request that checks the redirect send the proper URI
         mockMvc.perform(post("/bidList/validate").with(csrf())
@@ -116,14 +118,15 @@ public class BidListControllerTests {
 
         //ASSERT
         assertThat(resultModelAndView).isNotNull();
-        List<BidList> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
+        List<BidListSummary> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
         assertThat(resultModelAndView.getViewName()).isEqualTo("bidList/list");
         assertThat(expectedUpdatedBidList.size()).isEqualTo(3);
         assertThat(expectedUpdatedBidList.get(2).getBidQuantity()).isEqualTo(bidListToAdd.getBidQuantity());
 
             // Mocked calls
         verify(bidListRepository, times(1)).save(any(BidList.class));
-        verify(bidListRepository, times(2)).findAll();
+        verify(bidListRepository, never()).findAll();
+        verify(bidListRepository, times(1)).findSummariesByIdGreaterThan(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -157,8 +160,8 @@ public class BidListControllerTests {
         bidListList.remove(0);
         bidListList.add(0,bidListToUpdate);
 
-        when(bidListRepository.save(any(BidList.class))).thenReturn(bidListToUpdate);
-        when(bidListRepository.findAll()).thenReturn(bidListList, bidListList);
+        when(bidListRepository.updateBidList(any(BidList.class))).thenReturn(1);
+        when(bidListRepository.findSummariesByIdGreaterThan(anyInt(), any(Pageable.class))).thenReturn(summariesOf(bidListList));
 
         //ACT
             //first request that checks the request was properly redirected
@@ -181,7 +184,7 @@ public class BidListControllerTests {
         //ASSERT
         assertThat(resultModelAndView).isNotNull();
 
-        List<BidList> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
+        List<BidListSummary> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
 
         assertThat(result.getModelAndView().getViewName()).isEqualTo("bidList/list");
         assertThat(expectedUpdatedBidList.size()).isEqualTo(2);
@@ -189,8 +192,9 @@ public class BidListControllerTests {
         assertThat(expectedUpdatedBidList.get(0).getBidQuantity()).isEqualTo(25.0);
 
             // Mocked calls
-        verify(bidListRepository, times(1)).save(any(BidList.class));
-        verify(bidListRepository, times(2)).findAll();
+        verify(bidListRepository, times(1)).updateBidList(any(BidList.class));
+        verify(bidListRepository, never()).findAll();
+        verify(bidListRepository, times(1)).findSummariesByIdGreaterThan(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -199,10 +203,9 @@ public class BidListControllerTests {
         //ARRANGE
         String userIdToDelete = "1";
 
-        when(bidListRepository.findById(1)).thenReturn(java.util.Optional.ofNullable(bidListList.get(0)));
-        doNothing().when(bidListRepository).delete(bidListList.get(0));
+        when(bidListRepository.deleteBidListById(1)).thenReturn(1);
         bidListList.remove(0);
-        when(bidListRepository.findAll()).thenReturn(bidListList, bidListList);
+        when(bidListRepository.findSummariesByIdGreaterThan(anyInt(), any(Pageable.class))).thenReturn(summariesOf(bidListList));
 
         //ACT
         //first request that checks the request was properly redirected
@@ -214,11 +217,17 @@ public class BidListControllerTests {
                 .andReturn();
         ModelAndView resultModelAndView = result.getModelAndView();
         assertThat(resultModelAndView).isNotNull();
-        List<BidList> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
+        List<BidListSummary> expectedUpdatedBidList = (List) resultModelAndView.getModel().get("bidLists");
 
         //ASSERT
         assertThat(result.getModelAndView().getViewName()).isEqualTo("bidList/list");
         assertThat(expectedUpdatedBidList.size()).isEqualTo(1);
         assertThat(expectedUpdatedBidList.get(0).getType()).isEqualTo("type2");
     }
+
+    private static List<BidListSummary> summariesOf(List<BidList> bidLists) {
+        return bidLists.stream()
+                .map(bidList -> new BidListSummary(bidList.getId(), bidList.getAccount(), bidList.getType(), bidList.getBidQuantity()))
+                .collect(Collectors.toList());
+    }
 }
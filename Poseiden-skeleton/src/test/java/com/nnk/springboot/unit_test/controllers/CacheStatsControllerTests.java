@@ -0,0 +1,64 @@
+package com.nnk.springboot.unit_test.controllers;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.repositories.RuleNameRepository;
+import com.nnk.springboot.services.RuleNameService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = Application.class, properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.cache-names=ratings,ruleNames",
+        "spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=10m,recordStats"})
+@AutoConfigureMockMvc
+public class CacheStatsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RuleNameService ruleNameService;
+
+    @MockBean
+    private RuleNameRepository ruleNameRepository;
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    public void stats_shouldReturnHitsAndMissesOfEachCache() throws Exception {
+        //ARRANGE
+        RuleName ruleName = new RuleName("name", "description", "template");
+        when(ruleNameRepository.findById(42)).thenReturn(Optional.of(ruleName));
+        ruleNameService.findById(42);
+        ruleNameService.findById(42);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/admin/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ratings.hitCount").exists())
+                .andExpect(jsonPath("$.ruleNames.hitCount").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.ruleNames.missCount").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.ruleNames.size").value(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    public void stats_shouldBeForbiddenToRegularUsers() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(get("/admin/cache/stats"))
+                .andExpect(status().isForbidden());
+    }
+}
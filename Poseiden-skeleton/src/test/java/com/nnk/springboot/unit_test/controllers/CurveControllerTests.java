@@ -12,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -22,11 +23,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -57,7 +60,7 @@ public class CurveControllerTests {
     @WithMockUser()
     public void home_shouldReturnListOfCurvePoint_andMockedMethodsShouldBeCalledTheRightAmountOfTime() throws Exception {
         //ARRANGE
-        when(curvePointRepository.findAll()).thenReturn(curvePointList);
+        when(curvePointRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(curvePointList);
         // ACT
         MvcResult result = mockMvc.perform(get("/curvePoint/list"))
                 .andExpect(status().isOk())
@@ -65,7 +68,7 @@ public class CurveControllerTests {
 
         //ASSERT
         assertThat(result.getModelAndView()).isNotNull();
-        verify(curvePointRepository, times(1)).findAll();
+        verify(curvePointRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
         List<CurvePoint> expectedCurvePoint = (List) result.getModelAndView().getModel().get("curvePoints");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("curvePoint/list");
         assertThat(expectedCurvePoint.size()).isEqualTo(2);
@@ -92,8 +95,7 @@ public class CurveControllerTests {
         curvePointList.add(curvePointToAdd);
             //Mock called methods
         when(curvePointRepository.save(any(CurvePoint.class))).thenReturn(curvePointToAdd);
-        when(curvePointRepository.findAll())
-                .thenReturn(curvePointList, curvePointList);
+        when(curvePointRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(curvePointList);
         //ACT
         //first request that checks the redirect send the proper URI
         mockMvc.perform(post("/curvePoint/validate").with(csrf())
@@ -121,7 +123,8 @@ public class CurveControllerTests {
 
             // Mocked calls
         verify(curvePointRepository, times(1)).save(any(CurvePoint.class));
-        verify(curvePointRepository, times(2)).findAll();
+        verify(curvePointRepository, never()).findAll();
+        verify(curvePointRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -155,8 +158,8 @@ public class CurveControllerTests {
         curvePointList.remove(0);
         curvePointList.add(0,curvePointToUpdate);
 
-        when(curvePointRepository.save(any(CurvePoint.class))).thenReturn(curvePointToUpdate);
-        when(curvePointRepository.findAll()).thenReturn(curvePointList, curvePointList);
+        when(curvePointRepository.updateCurvePoint(any(CurvePoint.class))).thenReturn(1);
+        when(curvePointRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(curvePointList);
 
         //ACT
             //first request that checks the request was properly redirected
@@ -187,8 +190,9 @@ public class CurveControllerTests {
         assertThat(expectedUpdatedCurvePoint.get(0).getValue()).isEqualTo(33.0);
 
             // Mocked calls
-        verify(curvePointRepository, times(1)).save(any(CurvePoint.class));
-        verify(curvePointRepository, times(2)).findAll();
+        verify(curvePointRepository, times(1)).updateCurvePoint(any(CurvePoint.class));
+        verify(curvePointRepository, never()).findAll();
+        verify(curvePointRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -197,10 +201,9 @@ public class CurveControllerTests {
         //ARRANGE
         String curvePointIdToDelete = "1";
 
-        when(curvePointRepository.findById(1)).thenReturn(java.util.Optional.ofNullable(curvePointList.get(0)));
-        doNothing().when(curvePointRepository).delete(curvePointList.get(0));
-        CurvePoint curvePointDelete = curvePointList.remove(0);
-        when(curvePointRepository.findAll()).thenReturn(curvePointList, curvePointList);
+        when(curvePointRepository.deleteCurvePointById(1)).thenReturn(1);
+        curvePointList.remove(0);
+        when(curvePointRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(curvePointList);
 
         //ACT
         //first request that checks the request was properly redirected
@@ -220,8 +223,29 @@ public class CurveControllerTests {
         assertThat(expectedUpdatedCurvePoint.get(0).getCurveId()).isEqualTo(2);
 
         // Mocked calls
-        verify(curvePointRepository, times(1)).findById(1);
-        verify(curvePointRepository, times(1)).delete(curvePointDelete);
-        verify(curvePointRepository, times(2)).findAll();
+        verify(curvePointRepository, times(1)).deleteCurvePointById(1);
+        verify(curvePointRepository, never()).findById(1);
+        verify(curvePointRepository, never()).findAll();
+        verify(curvePointRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(username = "Usertest", password = "userMDP", roles = "USER")
+    public void curveValue_shouldInterpolateTheCurveReadOnce() throws Exception {
+        //ARRANGE
+        when(curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAscIdAsc(7, null)).thenReturn(List.of(
+                new CurvePoint(7, 1.0, 10.0), new CurvePoint(7, 3.0, 20.0)));
+
+        //ACT & ASSERT
+        mockMvc.perform(get("/curve/{curveId}/value", 7).param("term", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.method").value("linear"))
+                .andExpect(jsonPath("$.value").value(15.0));
+        mockMvc.perform(get("/curve/{curveId}/value", 7).param("term", "4").param("method", "log-linear"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value(closeTo(28.2842712, 1e-6)));
+
+        // Mocked calls : the curve is read from the database by the first request only
+        verify(curvePointRepository, times(1)).findByCurveIdAndAsOfDateOrderByTermAscIdAsc(7, null);
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -58,7 +59,7 @@ public class RatingControllerTests {
     @WithMockUser()
     public void home_shouldReturnListOfRating_andMockedMethodsShouldBeCalledTheRightAmountOfTime() throws Exception {
         //ARRANGE
-        when(ratingRepository.findAll()).thenReturn(ratingList);
+        when(ratingRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(ratingList);
         // ACT
         MvcResult result = mockMvc.perform(get("/rating/list"))
                 .andExpect(status().isOk())
@@ -66,7 +67,7 @@ public class RatingControllerTests {
 
         //ASSERT
         assertThat(result.getModelAndView()).isNotNull();
-        verify(ratingRepository, times(1)).findAll();
+        verify(ratingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
         List<Rating> expectedRating = (List) result.getModelAndView().getModel().get("ratings");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("rating/list");
         assertThat(expectedRating.size()).isEqualTo(2);
@@ -93,8 +94,7 @@ public class RatingControllerTests {
         ratingList.add(ratingToAdd);
             //Mock called methods
         when(ratingRepository.save(any(Rating.class))).thenReturn(ratingToAdd);
-        when(ratingRepository.findAll())
-                .thenReturn(ratingList, ratingList);
+        when(ratingRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(ratingList);
         //ACT
         //first request that checks the redirect send the proper URI
         mockMvc.perform(post("/rating/validate").with(csrf())
@@ -123,7 +123,8 @@ public class RatingControllerTests {
 
             // Mocked calls
         verify(ratingRepository, times(1)).save(any(Rating.class));
-        verify(ratingRepository, times(2)).findAll();
+        verify(ratingRepository, never()).findAll();
+        verify(ratingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -157,8 +158,8 @@ public class RatingControllerTests {
         ratingList.remove(0);
         ratingList.add(0,ratingToUpdate);
 
-        when(ratingRepository.save(any(Rating.class))).thenReturn(ratingToUpdate);
-        when(ratingRepository.findAll()).thenReturn(ratingList, ratingList);
+        when(ratingRepository.updateRating(any(Rating.class))).thenReturn(1);
+        when(ratingRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(ratingList);
 
         //ACT
             //first request that checks the request was properly redirected
@@ -190,8 +191,9 @@ public class RatingControllerTests {
         assertThat(expectedUpdatedRating.get(0).getMoodysRating()).isEqualTo("moodys3");
 
             // Mocked calls
-        verify(ratingRepository, times(1)).save(any(Rating.class));
-        verify(ratingRepository, times(2)).findAll();
+        verify(ratingRepository, times(1)).updateRating(any(Rating.class));
+        verify(ratingRepository, never()).findAll();
+        verify(ratingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -200,10 +202,9 @@ public class RatingControllerTests {
         //ARRANGE
         String ratingIdToDelete = "1";
 
-        when(ratingRepository.findById(1)).thenReturn(java.util.Optional.ofNullable(ratingList.get(0)));
-        doNothing().when(ratingRepository).delete(ratingList.get(0));
-        Rating ratingDelete = ratingList.remove(0);
-        when(ratingRepository.findAll()).thenReturn(ratingList, ratingList);
+        when(ratingRepository.deleteRatingById(1)).thenReturn(1);
+        ratingList.remove(0);
+        when(ratingRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(ratingList);
 
         //ACT
         //first request that checks the request was properly redirected
@@ -223,8 +224,9 @@ public class RatingControllerTests {
         assertThat(expectedUpdatedRating.get(0).getMoodysRating()).isEqualTo("moodys2");
 
         // Mocked calls
-        verify(ratingRepository, times(1)).findById(1);
-        verify(ratingRepository, times(1)).delete(ratingDelete);
-        verify(ratingRepository, times(2)).findAll();
+        verify(ratingRepository, times(1)).deleteRatingById(1);
+        verify(ratingRepository, never()).findById(1);
+        verify(ratingRepository, never()).findAll();
+        verify(ratingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 }
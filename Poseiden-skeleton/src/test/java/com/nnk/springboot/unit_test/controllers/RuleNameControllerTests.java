@@ -12,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -57,7 +58,7 @@ public class RuleNameControllerTests {
     @WithMockUser()
     public void home_shouldReturnListOfRuleName_andMockedMethodsShouldBeCalledTheRightAmountOfTime() throws Exception {
         //ARRANGE
-        when(ruleNameRepository.findAll()).thenReturn(ruleNameList);
+        when(ruleNameRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(ruleNameList);
         // ACT
         MvcResult result = mockMvc.perform(get("/ruleName/list"))
                 .andExpect(status().isOk())
@@ -65,7 +66,7 @@ public class RuleNameControllerTests {
 
         //ASSERT
         assertThat(result.getModelAndView()).isNotNull();
-        verify(ruleNameRepository, times(1)).findAll();
+        verify(ruleNameRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
         List<RuleName> expectedRuleName = (List) result.getModelAndView().getModel().get("ruleNames");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("ruleName/list");
         assertThat(expectedRuleName.size()).isEqualTo(2);
@@ -92,8 +93,7 @@ public class RuleNameControllerTests {
         ruleNameList.add(ruleNameToAdd);
             //Mock called methods
         when(ruleNameRepository.save(any(RuleName.class))).thenReturn(ruleNameToAdd);
-        when(ruleNameRepository.findAll())
-                .thenReturn(ruleNameList, ruleNameList);
+        when(ruleNameRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(ruleNameList);
         //ACT
         //first request that checks the redirect send the proper URI
         mockMvc.perform(post("/ruleName/validate").with(csrf())
@@ -121,7 +121,8 @@ public class RuleNameControllerTests {
 
             // Mocked calls
         verify(ruleNameRepository, times(1)).save(any(RuleName.class));
-        verify(ruleNameRepository, times(2)).findAll();
+        verify(ruleNameRepository, never()).findAll();
+        verify(ruleNameRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -155,8 +156,8 @@ public class RuleNameControllerTests {
         ruleNameList.remove(0);
         ruleNameList.add(0,ruleNameToUpdate);
 
-        when(ruleNameRepository.save(any(RuleName.class))).thenReturn(ruleNameToUpdate);
-        when(ruleNameRepository.findAll()).thenReturn(ruleNameList, ruleNameList);
+        when(ruleNameRepository.updateRuleName(any(RuleName.class))).thenReturn(1);
+        when(ruleNameRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(ruleNameList);
 
         //ACT
             //first request that checks the request was properly redirected
@@ -187,8 +188,9 @@ public class RuleNameControllerTests {
         assertThat(expectedUpdatedRuleName.get(0).getName()).isEqualTo(ruleNameList.get(0).getName());
 
             // Mocked calls
-        verify(ruleNameRepository, times(1)).save(any(RuleName.class));
-        verify(ruleNameRepository, times(2)).findAll();
+        verify(ruleNameRepository, times(1)).updateRuleName(any(RuleName.class));
+        verify(ruleNameRepository, never()).findAll();
+        verify(ruleNameRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -197,10 +199,9 @@ public class RuleNameControllerTests {
         //ARRANGE
         String ruleNameIdToDelete = "1";
 
-        when(ruleNameRepository.findById(1)).thenReturn(java.util.Optional.ofNullable(ruleNameList.get(0)));
-        doNothing().when(ruleNameRepository).delete(ruleNameList.get(0));
-        RuleName ruleNameDelete = ruleNameList.remove(0);
-        when(ruleNameRepository.findAll()).thenReturn(ruleNameList, ruleNameList);
+        when(ruleNameRepository.deleteRuleNameById(1)).thenReturn(1);
+        ruleNameList.remove(0);
+        when(ruleNameRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(ruleNameList);
 
         //ACT
         //first request that checks the request was properly redirected
@@ -220,8 +221,9 @@ public class RuleNameControllerTests {
         assertThat(expectedUpdatedRuleName.get(0).getName()).isEqualTo("name2");
 
         // Mocked calls
-        verify(ruleNameRepository, times(1)).findById(1);
-        verify(ruleNameRepository, times(1)).delete(ruleNameDelete);
-        verify(ruleNameRepository, times(2)).findAll();
+        verify(ruleNameRepository, times(1)).deleteRuleNameById(1);
+        verify(ruleNameRepository, never()).findById(1);
+        verify(ruleNameRepository, never()).findAll();
+        verify(ruleNameRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 }
@@ -4,6 +4,7 @@ package com.nnk.springboot.unit_test.controllers;
 import com.nnk.springboot.Application;
 import com.nnk.springboot.controllers.TradeController;
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeSummary;
 import com.nnk.springboot.repositories.TradeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -20,6 +22,7 @@ import org.springframework.web.servlet.ModelAndView;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -57,7 +60,7 @@ public class TradeControllerTests {
     @WithMockUser()
     public void home_shouldReturnListOfTrade_andMockedMethodsShouldBeCalledTheRightAmountOfTime() throws Exception {
         //ARRANGE
-        when(tradeRepository.findAll()).thenReturn(tradeList);
+        when(tradeRepository.findSummariesByIdGreaterThan(anyInt(), any(Pageable.class))).thenReturn(summariesOf(tradeList));
         // ACT
         MvcResult result = mockMvc.perform(get("/trade/list"))
                 .andExpect(status().isOk())
@@ -65,8 +68,8 @@ public class TradeControllerTests {
 
         //ASSERT
         assertThat(result.getModelAndView()).isNotNull();
-        verify(tradeRepository, times(1)).findAll();
-        List<Trade> expectedTrade = (List) result.getModelAndView().getModel().get("trades");
+        verify(tradeRepository, times(1)).findSummariesByIdGreaterThan(anyInt(), any(Pageable.class));
+        List<TradeSummary> expectedTrade = (List) result.getModelAndView().getModel().get("trades");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("trade/list");
         assertThat(expectedTrade.size()).isEqualTo(2);
     }
@@ -92,8 +95,7 @@ public class TradeControllerTests {
         tradeList.add(tradeToAdd);
             //Mock called methods
         when(tradeRepository.save(any(Trade.class))).thenReturn(tradeToAdd);
-        when(tradeRepository.findAll())
-                .thenReturn(tradeList, tradeList);
+        when(tradeRepository.findSummariesByIdGreaterThan(anyInt(), any(Pageable.class))).thenReturn(summariesOf(tradeList));
         //ACT
         //first request that checks the redirect send the proper URI
         mockMvc.perform(post("/trade/validate").with(csrf())
@@ -114,14 +116,15 @@ public class TradeControllerTests {
 
         //ASSERT
         assertThat(resultModelAndView).isNotNull();
-        List<Trade> expectedUpdatedTrade = (List) resultModelAndView.getModel().get("trades");
+        List<TradeSummary> expectedUpdatedTrade = (List) resultModelAndView.getModel().get("trades");
         assertThat(resultModelAndView.getViewName()).isEqualTo("trade/list");
         assertThat(expectedUpdatedTrade.size()).isEqualTo(3);
         assertThat(expectedUpdatedTrade.get(2).getBuyQuantity()).isEqualTo(tradeToAdd.getBuyQuantity());
 
             // Mocked calls
         verify(tradeRepository, times(1)).save(any(Trade.class));
-        verify(tradeRepository, times(2)).findAll();
+        verify(tradeRepository, never()).findAll();
+        verify(tradeRepository, times(1)).findSummariesByIdGreaterThan(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -155,8 +158,8 @@ public class TradeControllerTests {
         tradeList.remove(0);
         tradeList.add(0,tradeToUpdate);
 
-        when(tradeRepository.save(any(Trade.class))).thenReturn(tradeToUpdate);
-        when(tradeRepository.findAll()).thenReturn(tradeList, tradeList);
+        when(tradeRepository.updateTrade(any(Trade.class))).thenReturn(1);
+        when(tradeRepository.findSummariesByIdGreaterThan(anyInt(), any(Pageable.class))).thenReturn(summariesOf(tradeList));
 
         //ACT
             //first request that checks the request was properly redirected
@@ -179,7 +182,7 @@ public class TradeControllerTests {
         //ASSERT
         assertThat(resultModelAndView).isNotNull();
 
-        List<Trade> expectedUpdatedTrade = (List) resultModelAndView.getModel().get("trades");
+        List<TradeSummary> expectedUpdatedTrade = (List) resultModelAndView.getModel().get("trades");
 
         assertThat(result.getModelAndView().getViewName()).isEqualTo("trade/list");
         assertThat(expectedUpdatedTrade.size()).isEqualTo(2);
@@ -187,8 +190,9 @@ public class TradeControllerTests {
         assertThat(expectedUpdatedTrade.get(0).getType()).isEqualTo(tradeList.get(0).getType());
 
             // Mocked calls
-        verify(tradeRepository, times(1)).save(any(Trade.class));
-        verify(tradeRepository, times(2)).findAll();
+        verify(tradeRepository, times(1)).updateTrade(any(Trade.class));
+        verify(tradeRepository, never()).findAll();
+        verify(tradeRepository, times(1)).findSummariesByIdGreaterThan(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -197,10 +201,9 @@ public class TradeControllerTests {
         //ARRANGE
         String tradeIdToDelete = "1";
 
-        when(tradeRepository.findById(1)).thenReturn(java.util.Optional.ofNullable(tradeList.get(0)));
-        doNothing().when(tradeRepository).delete(tradeList.get(0));
-        Trade tradeDelete = tradeList.remove(0);
-        when(tradeRepository.findAll()).thenReturn(tradeList, tradeList);
+        when(tradeRepository.deleteTradeById(1)).thenReturn(1);
+        tradeList.remove(0);
+        when(tradeRepository.findSummariesByIdGreaterThan(anyInt(), any(Pageable.class))).thenReturn(summariesOf(tradeList));
 
         //ACT
         //first request that checks the request was properly redirected
@@ -212,7 +215,7 @@ public class TradeControllerTests {
                 .andReturn();
         ModelAndView resultModelAndView = result.getModelAndView();
         assertThat(resultModelAndView).isNotNull();
-        List<Trade> expectedUpdatedTrade = (List) resultModelAndView.getModel().get("trades");
+        List<TradeSummary> expectedUpdatedTrade = (List) resultModelAndView.getModel().get("trades");
 
         //ASSERT
         assertThat(result.getModelAndView().getViewName()).isEqualTo("trade/list");
@@ -220,8 +223,15 @@ public class TradeControllerTests {
         assertThat(expectedUpdatedTrade.get(0).getType()).isEqualTo("type2");
 
         // Mocked calls
-        verify(tradeRepository, times(1)).findById(1);
-        verify(tradeRepository, times(1)).delete(tradeDelete);
-        verify(tradeRepository, times(2)).findAll();
+        verify(tradeRepository, times(1)).deleteTradeById(1);
+        verify(tradeRepository, never()).findById(1);
+        verify(tradeRepository, never()).findAll();
+        verify(tradeRepository, times(1)).findSummariesByIdGreaterThan(anyInt(), any(Pageable.class));
+    }
+
+    private static List<TradeSummary> summariesOf(List<Trade> trades) {
+        return trades.stream()
+                .map(trade -> new TradeSummary(trade.getId(), trade.getAccount(), trade.getType(), trade.getBuyQuantity()))
+                .collect(Collectors.toList());
     }
 }
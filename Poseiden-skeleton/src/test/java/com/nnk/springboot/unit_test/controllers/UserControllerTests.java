@@ -12,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -57,7 +58,7 @@ public class UserControllerTests {
     @WithMockUser()
     public void home_shouldReturnListOfUser_andMockedMethodsShouldBeCalledTheRightAmountOfTime() throws Exception {
         //ARRANGE
-        when(userRepository.findAll()).thenReturn(userList);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(userList);
         // ACT
         MvcResult result = mockMvc.perform(get("/user/list"))
                 .andExpect(status().isOk())
@@ -65,7 +66,7 @@ public class UserControllerTests {
 
         //ASSERT
         assertThat(result.getModelAndView()).isNotNull();
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
         List<User> expectedUser = (List) result.getModelAndView().getModel().get("users");
         assertThat(result.getModelAndView().getViewName()).isEqualTo("user/list");
         assertThat(expectedUser.size()).isEqualTo(2);
@@ -92,8 +93,7 @@ public class UserControllerTests {
         userList.add(userToAdd);
             //Mock called methods
         when(userRepository.save(any(User.class))).thenReturn(userToAdd);
-        when(userRepository.findAll())
-                .thenReturn(userList, userList);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(userList);
         //ACT
         //first request that checks the redirect send the proper URI
         mockMvc.perform(post("/user/validate").with(csrf())
@@ -122,7 +122,8 @@ public class UserControllerTests {
 
             // Mocked calls
         verify(userRepository, times(1)).save(any(User.class));
-        verify(userRepository, times(2)).findAll();
+        verify(userRepository, never()).findAll();
+        verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -156,8 +157,8 @@ public class UserControllerTests {
         userList.remove(0);
         userList.add(0,userToUpdate);
 
-        when(userRepository.save(any(User.class))).thenReturn(userToUpdate);
-        when(userRepository.findAll()).thenReturn(userList, userList);
+        when(userRepository.updateUser(any(User.class))).thenReturn(1);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(userList);
 
         //ACT
             //first request that checks the request was properly redirected
@@ -189,8 +190,9 @@ public class UserControllerTests {
         assertThat(expectedUpdatedUser.get(0).getFullname()).isEqualTo("User updated 1");
 
             // Mocked calls
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(userRepository, times(2)).findAll();
+        verify(userRepository, times(1)).updateUser(any(User.class));
+        verify(userRepository, never()).findAll();
+        verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 
     @Test
@@ -199,10 +201,9 @@ public class UserControllerTests {
         //ARRANGE
         String userIdToDelete = "1";
 
-        when(userRepository.findById(1)).thenReturn(java.util.Optional.ofNullable(userList.get(0)));
-        doNothing().when(userRepository).delete(userList.get(0));
-        User userDelete = userList.remove(0);
-        when(userRepository.findAll()).thenReturn(userList, userList);
+        when(userRepository.deleteUserById(1)).thenReturn(1);
+        userList.remove(0);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(userList);
 
         //ACT
         //first request that checks the request was properly redirected
@@ -222,8 +223,9 @@ public class UserControllerTests {
         assertThat(expectedUpdatedUser.get(0).getFullname()).isEqualTo("User 2");
 
         // Mocked calls
-        verify(userRepository, times(1)).findById(1);
-        verify(userRepository, times(1)).delete(userDelete);
-        verify(userRepository, times(2)).findAll();
+        verify(userRepository, times(1)).deleteUserById(1);
+        verify(userRepository, never()).findById(1);
+        verify(userRepository, never()).findAll();
+        verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
     }
 }
@@ -0,0 +1,58 @@
+package com.nnk.springboot.unit_test.repositories;
+
+import com.nnk.springboot.config.PersistenceConfig;
+import com.nnk.springboot.config.StatementCounter;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.repositories.BidListRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("bulk")
+@Import(PersistenceConfig.class)
+public class BidListBulkTests {
+
+	@Autowired
+	private BidListRepository bidListRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private List<BidList> bidListsTest;
+
+	@BeforeEach
+	public void setupTestData(){
+		// ARRANGE
+		bidListRepository.deleteAllInBatch();
+		bidListsTest = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			bidListsTest.add(new BidList("Account Test " + i, "Type Test", (double) i));
+		}
+	}
+
+	@Test
+	@DisplayName("Test that the bulk profile sends the inserts of BidList by JDBC batches")
+	public void givenBidLists_whenSaveAllWithBulkProfile_thenInsertByBatches() {
+		// ACT
+		long statementsBefore = StatementCounter.current();
+		bidListRepository.saveAll(bidListsTest);
+		entityManager.flush();
+		long statements = StatementCounter.current() - statementsBefore;
+
+		// ASSERT
+		assertThat(bidListRepository.count()).isEqualTo(120);
+		assertThat(bidListsTest).allMatch(bidList -> bidList.getId() > 0);
+		assertThat(statements).isLessThan(10);
+	}
+}
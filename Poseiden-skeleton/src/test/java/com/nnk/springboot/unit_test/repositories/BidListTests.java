@@ -1,12 +1,17 @@
 package com.nnk.springboot.unit_test.repositories;
 
 import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.BidListSummary;
 import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.TradingFilter;
+import com.nnk.springboot.repositories.TradingSpecifications;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -103,4 +108,28 @@ public class BidListTests {
 		// ASSERT
 		assertThat(deleteBidList).isEmpty();
 	}
+
+	@Test
+	@DisplayName("Test : get the summaries of the BidLists shown in the list page")
+	public void givenBidLists_whenFindSummaries_thenReturnListedColumnsOnly() {
+		// ARRANGE
+		TradingFilter filter = new TradingFilter();
+		filter.setAccount("acc_1");
+
+		// ACT
+		List<BidListSummary> nextSummaries = bidListRepository.findSummariesByIdGreaterThan(1, PageRequest.of(0, 5));
+		List<BidListSummary> previousSummaries = bidListRepository.findSummariesByIdLessThan(3, PageRequest.of(0, 1));
+		List<BidListSummary> matchingSummaries = bidListRepository.findAll(
+				TradingSpecifications.matching(filter, "bidListDate"), Sort.by("id"), 5,
+				BidListSummary.class, BidListSummary.ATTRIBUTES);
+
+		// ASSERT
+		assertThat(nextSummaries.size()).isEqualTo(2);
+		assertThat(nextSummaries.get(0).getId()).isEqualTo(2);
+		assertThat(nextSummaries.get(0).getBidQuantity()).isEqualTo(12.0);
+		assertThat(previousSummaries.size()).isEqualTo(1);
+		assertThat(previousSummaries.get(0).getId()).isEqualTo(2);
+		assertThat(matchingSummaries.size()).isEqualTo(2);
+		assertThat(matchingSummaries.get(1).getType()).isEqualTo("type_2");
+	}
 }
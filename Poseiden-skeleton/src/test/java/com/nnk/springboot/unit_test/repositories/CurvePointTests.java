@@ -1,6 +1,7 @@
 package com.nnk.springboot.unit_test.repositories;
 
 import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.CurvePointValue;
 import com.nnk.springboot.repositories.CurvePointRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,8 +9,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -99,4 +103,56 @@ public class CurvePointTests {
 		// ASSERT
 		assertThat(deleteCurvePoint).isEmpty();
 	}
+
+	@Test
+	@DisplayName("Test : get a curve as of a date and the history of one of its terms")
+	public void givenDatedCurves_whenFindCurveAsOfAndTermHistory_thenReturnPointsOfTheDates() {
+		// ARRANGE
+		for (String date : new String[]{"2024-01-01", "2024-01-02", "2024-01-04"}) {
+			for (double term : new double[]{1.0, 2.0}) {
+				CurvePoint curvePoint = new CurvePoint(10, term, term + Integer.parseInt(date.substring(8)));
+				curvePoint.setAsOfDate(Timestamp.valueOf(date + " 00:00:00"));
+				curvePointRepository.save(curvePoint);
+			}
+		}
+
+		// ACT
+		List<CurvePoint> curveOnThird = curvePointRepository.findCurveAsOf(10, Timestamp.valueOf("2024-01-03 00:00:00"));
+		List<CurvePoint> curveBeforeFirst = curvePointRepository.findCurveAsOf(10, Timestamp.valueOf("2023-12-31 00:00:00"));
+		List<CurvePoint> history = curvePointRepository.findTermHistory(10, 2.0,
+				Timestamp.valueOf("2024-01-02 00:00:00"), Timestamp.valueOf("2024-01-05 00:00:00"));
+
+		// ASSERT
+		assertThat(curveOnThird).extracting(CurvePoint::getValue).containsExactly(3.0, 4.0);
+		assertThat(curveOnThird).extracting(CurvePoint::getAsOfDate).containsOnly(Timestamp.valueOf("2024-01-02 00:00:00"));
+		assertThat(curveBeforeFirst).isEmpty();
+		assertThat(history).extracting(CurvePoint::getValue).containsExactly(4.0, 6.0);
+	}
+
+	@Test
+	@DisplayName("Test : stream the dated CurvePoints grouped by curve, by as-of date then term")
+	public void givenDatedCurves_whenStreamHistory_thenReturnDatedPointsInCurveOrder() {
+		// ARRANGE
+		for (int curveId : new int[]{21, 20}) {
+			for (String date : new String[]{"2024-01-02", "2024-01-01"}) {
+				CurvePoint curvePoint = new CurvePoint(curveId, 1.0, (double) curveId);
+				curvePoint.setAsOfDate(Timestamp.valueOf(date + " 00:00:00"));
+				curvePointRepository.save(curvePoint);
+			}
+		}
+
+		// ACT
+		long count = curvePointRepository.countHistory();
+		List<CurvePointValue> history;
+		try (Stream<CurvePointValue> rows = curvePointRepository.streamHistory()) {
+			history = rows.collect(Collectors.toList());
+		}
+
+		// ASSERT : the undated points of data.sql are left out
+		assertThat(count).isEqualTo(4);
+		assertThat(history).extracting(CurvePointValue::getCurveId).containsExactly(20, 20, 21, 21);
+		long first = Timestamp.valueOf("2024-01-01 00:00:00").getTime();
+		long second = Timestamp.valueOf("2024-01-02 00:00:00").getTime();
+		assertThat(history).extracting(CurvePointValue::getAsOfDate).containsExactly(first, second, first, second);
+	}
 }
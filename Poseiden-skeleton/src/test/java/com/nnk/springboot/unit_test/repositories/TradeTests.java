@@ -2,11 +2,16 @@ package com.nnk.springboot.unit_test.repositories;
 
 import com.nnk.springboot.domain.Trade;
 import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.TradingFilter;
+import com.nnk.springboot.repositories.TradingSpecifications;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
 import java.util.Optional;
@@ -99,4 +104,40 @@ public class TradeTests {
 		// ASSERT
 		assertThat(deleteTrade).isEmpty();
 	}
+
+	@Test
+	@DisplayName("Test : get the pages of Trade following and preceding an id")
+	public void givenTradeIds_whenSeekPages_thenReturnTradesInIdOrder() {
+		// ACT
+		List<Trade> nextTrades = tradeRepository.findByIdGreaterThanOrderByIdAsc(1, PageRequest.of(0, 1));
+		List<Trade> previousTrades = tradeRepository.findByIdLessThanOrderByIdDesc(3, PageRequest.of(0, 5));
+
+		// ASSERT
+		assertThat(nextTrades.size()).isEqualTo(1);
+		assertThat(nextTrades.get(0).getId()).isEqualTo(2);
+		assertThat(previousTrades.size()).isEqualTo(2);
+		assertThat(previousTrades.get(0).getId()).isEqualTo(2);
+		assertThat(previousTrades.get(1).getId()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Test : get the Trades matching a filter, following an id")
+	public void givenTradingFilter_whenFindAllMatching_thenReturnMatchingTradesInIdOrder() {
+		// ARRANGE
+		TradingFilter filter = new TradingFilter();
+		filter.setType("type_2");
+		Specification<Trade> spec = TradingSpecifications.matching(filter, "tradeDate");
+
+		// ACT
+		List<Trade> matchingTrades = tradeRepository.findAll(spec, Sort.by("id"), 5);
+		List<Trade> followingTrades = tradeRepository.findAll(
+				spec.and(TradingSpecifications.idGreaterThan(2)), Sort.by("id"), 5);
+
+		// ASSERT
+		assertThat(matchingTrades.size()).isEqualTo(2);
+		assertThat(matchingTrades.get(0).getId()).isEqualTo(2);
+		assertThat(matchingTrades.get(1).getId()).isEqualTo(3);
+		assertThat(followingTrades.size()).isEqualTo(1);
+		assertThat(followingTrades.get(0).getAccount()).isEqualTo("acc_1");
+	}
 }
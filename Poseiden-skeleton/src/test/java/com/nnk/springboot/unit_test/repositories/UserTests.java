@@ -1,12 +1,14 @@
 package com.nnk.springboot.unit_test.repositories;
 
 import com.nnk.springboot.domain.User;
+import com.nnk.springboot.domain.UserCredentials;
 import com.nnk.springboot.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -99,4 +101,19 @@ public class UserTests {
 		// ASSERT
 		assertThat(deleteUser).isEmpty();
 	}
+
+	@Test
+	@DisplayName("Test : get the credentials of a User from his username")
+	public void givenUsername_whenFindCredentials_thenReturnUsernamePasswordAndRole() {
+		// ACT
+		List<UserCredentials> credentials = userRepository.findCredentialsByUsername("adminTest", PageRequest.of(0, 1));
+		List<UserCredentials> unknownCredentials = userRepository.findCredentialsByUsername("unknown", PageRequest.of(0, 1));
+
+		// ASSERT
+		assertThat(credentials.size()).isEqualTo(1);
+		assertThat(credentials.get(0).getUsername()).isEqualTo("adminTest");
+		assertThat(credentials.get(0).getPassword()).startsWith("$2a$10$");
+		assertThat(credentials.get(0).getRole()).isEqualTo("ADMIN");
+		assertThat(unknownCredentials).isEmpty();
+	}
 }
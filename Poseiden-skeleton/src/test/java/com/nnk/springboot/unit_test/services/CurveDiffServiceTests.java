@@ -0,0 +1,79 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.CurvePointValue;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.services.CurveDiffService;
+import com.nnk.springboot.services.ExportFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = Application.class)
+public class CurveDiffServiceTests {
+
+	private static final Timestamp FROM = Timestamp.valueOf("2024-01-01 00:00:00");
+
+	private static final Timestamp TO = Timestamp.valueOf("2024-01-02 00:00:00");
+
+	@Autowired
+	private CurveDiffService curveDiffService;
+
+	@MockBean
+	private CurvePointRepository curvePointRepository;
+
+	private static CurvePointValue point(Timestamp asOfDate, double term, double value) {
+		return new CurvePointValue(4, asOfDate, term, value);
+	}
+
+	@Test
+	@DisplayName("Test that the diff extends a curve before its first point and keeps the last point of a duplicated term")
+	public void givenCurvesWithDifferentTerms_whenWriteDiff_thenMergeTermsOfBothDates() throws Exception {
+		// ARRANGE
+		when(curvePointRepository.streamCurve(4, FROM)).thenReturn(Stream.of(point(FROM, 2.0, 2.0), point(FROM, 3.0, 3.0)));
+		when(curvePointRepository.streamCurve(4, TO)).thenReturn(Stream.of(
+				point(TO, 1.0, 1.0), point(TO, 3.0, 4.0), point(TO, 3.0, 5.0)));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		// ACT
+		curveDiffService.writeDiff(4, FROM, TO, ExportFormat.JSON, out);
+
+		// ASSERT
+		JsonNode rows = new ObjectMapper().readTree(out.toByteArray());
+		assertThat(rows.size()).isEqualTo(3);
+		assertThat(rows.get(0).get("term").asDouble()).isEqualTo(1.0);
+		assertThat(rows.get(0).get("fromValue").asDouble()).isEqualTo(1.0);
+		assertThat(rows.get(0).get("shift").asDouble()).isEqualTo(0.0);
+		assertThat(rows.get(1).get("toValue").asDouble()).isEqualTo(3.0);
+		assertThat(rows.get(1).get("shift").asDouble()).isEqualTo(1.0);
+		assertThat(rows.get(2).get("toValue").asDouble()).isEqualTo(5.0);
+		assertThat(rows.get(2).get("shift").asDouble()).isEqualTo(2.0);
+	}
+
+	@Test
+	@DisplayName("Test that the diff of a curve missing at one date is refused before anything is written")
+	public void givenCurveMissingAtOneDate_whenWriteDiff_thenThrowException() {
+		// ARRANGE
+		when(curvePointRepository.streamCurve(4, FROM)).thenReturn(Stream.of(point(FROM, 2.0, 2.0)));
+		when(curvePointRepository.streamCurve(4, TO)).thenReturn(Stream.empty());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		// ACT & ASSERT
+		assertThatThrownBy(() -> curveDiffService.writeDiff(4, FROM, TO, ExportFormat.CSV, out))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid curve Id:4");
+		assertThat(out.size()).isZero();
+	}
+}
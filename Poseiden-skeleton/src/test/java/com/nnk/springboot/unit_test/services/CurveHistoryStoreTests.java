@@ -0,0 +1,118 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.CurvePointValue;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.services.CurveHistoryStore;
+import com.nnk.springboot.services.TermStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = Application.class, properties = "poseidon.curve.history-store.enabled=true")
+public class CurveHistoryStoreTests {
+
+	@Autowired
+	private CurveHistoryStore curveHistoryStore;
+
+	@MockBean
+	private CurvePointRepository curvePointRepository;
+
+	private static CurvePointValue point(int curveId, String date, double term, double value) {
+		return new CurvePointValue(curveId, Timestamp.valueOf(date + " 00:00:00"), term, value);
+	}
+
+	private static List<Path> historyFiles() throws IOException {
+		try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+			return files.filter(file -> file.getFileName().toString().startsWith("curve-history-"))
+					.collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	@DisplayName("Test that the store scans the points of a curve in a date range and computes term statistics")
+	public void givenLoadedHistory_whenScanAndTermStatistics_thenReadPointsOfTheCurveAndRange() throws Exception {
+		// ARRANGE
+		when(curvePointRepository.countHistory()).thenReturn(7L);
+		when(curvePointRepository.streamHistory()).thenReturn(Stream.of(
+				point(3, "2024-01-01", 1.0, 1.0), point(3, "2024-01-01", 2.0, 9.0),
+				point(3, "2024-01-02", 1.0, 3.0), point(3, "2024-01-02", 2.0, 9.0),
+				point(3, "2024-01-03", 1.0, 5.0),
+				point(7, "2024-01-01", 1.0, 100.0), point(7, "2024-01-02", 1.0, 200.0)));
+
+		// ACT
+		int loaded = curveHistoryStore.reload();
+		List<Double> values = new ArrayList<>();
+		int scanned = curveHistoryStore.scan(3, Timestamp.valueOf("2024-01-02 00:00:00"),
+				Timestamp.valueOf("2024-01-04 00:00:00"), (asOfDate, term, value) -> values.add(value));
+		TermStatistics statistics = curveHistoryStore.termStatistics(3, 1.0,
+				Timestamp.valueOf("2024-01-01 00:00:00"), Timestamp.valueOf("2024-01-04 00:00:00"));
+		TermStatistics unknownCurve = curveHistoryStore.termStatistics(5, 1.0,
+				Timestamp.valueOf("2024-01-01 00:00:00"), Timestamp.valueOf("2024-01-04 00:00:00"));
+
+		// ASSERT
+		assertThat(loaded).isEqualTo(7);
+		assertThat(curveHistoryStore.curveCount()).isEqualTo(2);
+		assertThat(scanned).isEqualTo(3);
+		assertThat(values).containsExactly(3.0, 9.0, 5.0);
+		assertThat(statistics.getCount()).isEqualTo(3);
+		assertThat(statistics.getMin()).isEqualTo(1.0);
+		assertThat(statistics.getMax()).isEqualTo(5.0);
+		assertThat(statistics.getMean()).isEqualTo(3.0);
+		assertThat(statistics.getStandardDeviation()).isCloseTo(Math.sqrt(8.0 / 3), within(1e-12));
+		assertThat(unknownCurve.getCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("Test that the points committed after the count are left to the next reload")
+	public void givenRowsAddedAfterCount_whenReload_thenLoadCountedPointsOnly() throws Exception {
+		// ARRANGE
+		when(curvePointRepository.countHistory()).thenReturn(2L);
+		when(curvePointRepository.streamHistory()).thenReturn(Stream.of(
+				point(1, "2024-01-01", 1.0, 1.0), point(1, "2024-01-02", 1.0, 2.0), point(2, "2024-01-01", 1.0, 3.0)));
+
+		// ACT
+		int loaded = curveHistoryStore.reload();
+
+		// ASSERT
+		assertThat(loaded).isEqualTo(2);
+		assertThat(curveHistoryStore.size()).isEqualTo(2);
+		assertThat(curveHistoryStore.curveCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Test that the file of the columns is deleted when the store is shut down")
+	public void givenLoadedHistory_whenShutdown_thenDeleteTheFileOfTheColumns() throws Exception {
+		// ARRANGE
+		when(curvePointRepository.countHistory()).thenReturn(1L);
+		when(curvePointRepository.streamHistory()).thenReturn(Stream.of(point(3, "2024-01-01", 1.0, 1.0)));
+		List<Path> filesBefore = historyFiles();
+		curveHistoryStore.reload();
+		List<Path> loadedFiles = historyFiles();
+		loadedFiles.removeAll(filesBefore);
+
+		// ACT
+		curveHistoryStore.shutdown();
+
+		// ASSERT
+		assertThat(loadedFiles).hasSize(1);
+		assertThat(loadedFiles.get(0)).doesNotExist();
+		assertThat(curveHistoryStore.size()).isZero();
+	}
+}
@@ -0,0 +1,80 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.DerivedCurvePoint;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.DerivedCurvePointRepository;
+import com.nnk.springboot.services.CurveRecomputeReport;
+import com.nnk.springboot.services.CurveRecomputeService;
+import com.nnk.springboot.services.CurveRecomputeTiming;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class, properties = {
+		"poseidon.curve.recompute.parallelism=2", "poseidon.curve.recompute.tenors=1,3"})
+public class CurveRecomputeServiceTests {
+
+	@Autowired
+	private CurveRecomputeService curveRecomputeService;
+
+	@Autowired
+	private CurvePointRepository curvePointRepository;
+
+	@Autowired
+	private DerivedCurvePointRepository derivedCurvePointRepository;
+
+	private final List<CurvePoint> addedPoints = new ArrayList<>();
+
+	private void addPoint(int curveId, String date, Double term, double value) {
+		CurvePoint curvePoint = new CurvePoint(curveId, term, value);
+		curvePoint.setAsOfDate(Timestamp.valueOf(date + " 00:00:00"));
+		addedPoints.add(curvePointRepository.save(curvePoint));
+	}
+
+	@AfterEach
+	public void removeAddedPoints() {
+		curvePointRepository.deleteAll(addedPoints);
+		derivedCurvePointRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Test that all the curves are derived at the tenors, a failing curve being reported without stopping the others")
+	public void givenCurves_whenRecomputeAllTwice_thenReplaceDerivedPointsOfEachCurve() {
+		// ARRANGE
+		addPoint(30, "2024-01-01", 1.0, 1.0);
+		addPoint(30, "2024-01-01", 2.0, 2.0);
+		addPoint(30, "2024-01-02", 1.0, 2.0);
+		addPoint(30, "2024-01-02", 2.0, 4.0);
+		addPoint(31, "2024-01-01", null, 1.0);
+
+		// ACT
+		curveRecomputeService.recomputeAll();
+		CurveRecomputeReport report = curveRecomputeService.recomputeAll();
+
+		// ASSERT : the curves 1, 2 and 5 of data.sql have one undated point
+		assertThat(report.getParallelism()).isEqualTo(2);
+		assertThat(report.getCurves()).extracting(CurveRecomputeTiming::getCurveId).containsExactly(1, 2, 5, 30, 31);
+		assertThat(report.getFailedCount()).isEqualTo(1);
+		assertThat(report.getCurves().get(4).getError()).isEqualTo("Invalid curve Id:31");
+		assertThat(report.getPointsRead()).isEqualTo(8);
+		assertThat(report.getPointsWritten()).isEqualTo(10);
+		CurveRecomputeTiming curve30 = report.getCurves().get(3);
+		assertThat(curve30.getAsOfDates()).isEqualTo(2);
+		assertThat(curve30.getPointsWritten()).isEqualTo(4);
+		List<DerivedCurvePoint> derived = derivedCurvePointRepository.findByCurveIdOrderByAsOfDateAscTenorAsc(30);
+		assertThat(derived).extracting(DerivedCurvePoint::getValue).containsExactly(1.0, 3.0, 2.0, 6.0);
+		assertThat(derivedCurvePointRepository.findByCurveIdOrderByAsOfDateAscTenorAsc(1))
+				.extracting(DerivedCurvePoint::getValue).containsExactly(8.3, 8.3);
+		assertThat(derivedCurvePointRepository.findByCurveIdOrderByAsOfDateAscTenorAsc(31)).isEmpty();
+	}
+}
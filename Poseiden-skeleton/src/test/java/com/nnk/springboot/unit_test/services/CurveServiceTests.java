@@ -0,0 +1,110 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.services.CurvePointService;
+import com.nnk.springboot.services.CurveService;
+import com.nnk.springboot.services.CurveSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = Application.class)
+public class CurveServiceTests {
+
+	@Autowired
+	private CurveService curveService;
+
+	@Autowired
+	private CurvePointService curvePointService;
+
+	@MockBean
+	private CurvePointRepository curvePointRepository;
+
+	private static CurvePoint point(int id, int curveId, double term, double value) {
+		CurvePoint curvePoint = new CurvePoint(curveId, term, value);
+		curvePoint.setId(id);
+		return curvePoint;
+	}
+
+	@Test
+	@DisplayName("Test that saving a CurvePoint rebuilds its curve only, without changing the snapshots already read")
+	public void givenLoadedCurves_whenSave_thenSwapTouchedCurveOnly() {
+		// ARRANGE
+		when(curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAscIdAsc(eq(11), isNull())).thenReturn(
+				List.of(point(101, 11, 1.0, 1.0), point(102, 11, 2.0, 2.0)),
+				List.of(point(101, 11, 1.0, 1.0), point(102, 11, 2.0, 2.0), point(103, 11, 3.0, 3.0)));
+		when(curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAscIdAsc(eq(12), isNull()))
+				.thenReturn(List.of(point(201, 12, 1.0, 5.0)));
+		CurveSnapshot oldSnapshot = curveService.getCurve(11, null);
+		CurveSnapshot otherSnapshot = curveService.getCurve(12, null);
+
+		// ACT
+		curvePointService.save(new CurvePoint(11, 3.0, 3.0));
+		CurveSnapshot newSnapshot = curveService.getCurve(11, null);
+
+		// ASSERT
+		assertThat(oldSnapshot.getCurve().getTerms()).containsExactly(1.0, 2.0);
+		assertThat(newSnapshot.getCurve().getTerms()).containsExactly(1.0, 2.0, 3.0);
+		assertThat(newSnapshot.getVersion()).isGreaterThan(oldSnapshot.getVersion());
+		assertThat(curveService.getCurve(12, null)).isSameAs(otherSnapshot);
+		verify(curvePointRepository, times(2)).findByCurveIdAndAsOfDateOrderByTermAscIdAsc(eq(11), isNull());
+		verify(curvePointRepository, times(1)).findByCurveIdAndAsOfDateOrderByTermAscIdAsc(eq(12), isNull());
+	}
+
+	@Test
+	@DisplayName("Test that moving a CurvePoint to another curve rebuilds the curve it left without reading it")
+	public void givenLoadedCurve_whenUpdatePointToOtherCurve_thenRebuildCurveItLeft() {
+		// ARRANGE
+		when(curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAscIdAsc(eq(21), isNull())).thenReturn(
+				List.of(point(301, 21, 1.0, 1.0), point(302, 21, 2.0, 2.0)),
+				List.of(point(301, 21, 1.0, 1.0)));
+		when(curvePointRepository.updateCurvePoint(any(CurvePoint.class))).thenReturn(1);
+		curveService.getCurve(21, null);
+		CurvePoint movedPoint = new CurvePoint(22, 2.0, 2.0);
+		movedPoint.setAsOfDate(Timestamp.valueOf("2024-01-02 00:00:00"));
+
+		// ACT
+		curvePointService.update(302, movedPoint);
+
+		// ASSERT
+		assertThat(curveService.getCurve(21, null).getCurve().getTerms()).containsExactly(1.0);
+		verify(curvePointRepository, never()).findById(302);
+		verify(curvePointRepository, never()).findByCurveIdAndAsOfDateOrderByTermAscIdAsc(eq(22), any(Timestamp.class));
+	}
+
+	@Test
+	@DisplayName("Test that deleting the last CurvePoint of a curve drops its snapshot")
+	public void givenLoadedCurve_whenDeleteLastPoint_thenCurveIsUnknown() {
+		// ARRANGE
+		when(curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAscIdAsc(eq(31), isNull())).thenReturn(
+				List.of(point(401, 31, 1.0, 1.0)),
+				List.of());
+		when(curvePointRepository.deleteCurvePointById(401)).thenReturn(1);
+		curveService.getCurve(31, null);
+
+		// ACT
+		curvePointService.delete(401);
+
+		// ASSERT
+		assertThatThrownBy(() -> curveService.getCurve(31, null))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid curve Id:31");
+	}
+}
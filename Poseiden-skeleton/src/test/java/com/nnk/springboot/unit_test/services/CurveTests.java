@@ -0,0 +1,87 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.services.Curve;
+import com.nnk.springboot.services.CurveInterpolation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class CurveTests {
+
+	private Curve curve;
+
+	@BeforeEach
+	public void setupTestData(){
+		// ARRANGE : points sorted by term, the second point of term 2.0 replaces the first one
+		curve = Curve.of(1, List.of(
+				new CurvePoint(1, 1.0, 1.0),
+				new CurvePoint(1, 2.0, 0.0),
+				new CurvePoint(1, 2.0, 4.0),
+				new CurvePoint(1, 3.0, 9.0),
+				new CurvePoint(1, 4.0, 16.0),
+				new CurvePoint(1, 5.0, null)));
+	}
+
+	@Test
+	@DisplayName("Test that a curve keeps one value per term, sorted by term")
+	public void givenPoints_whenBuildCurve_thenKeepLastValueOfEachTerm() {
+		// ASSERT
+		assertThat(curve.getTerms()).containsExactly(1.0, 2.0, 3.0, 4.0);
+		assertThat(curve.getValues()).containsExactly(1.0, 4.0, 9.0, 16.0);
+	}
+
+	@Test
+	@DisplayName("Test the linear interpolation and extrapolation")
+	public void givenCurve_whenLinearValue_thenFollowSegments() {
+		// ACT & ASSERT
+		assertThat(curve.valueAt(2.0, CurveInterpolation.LINEAR)).isEqualTo(4.0);
+		assertThat(curve.valueAt(2.5, CurveInterpolation.LINEAR)).isEqualTo(6.5);
+		assertThat(curve.valueAt(0.0, CurveInterpolation.LINEAR)).isEqualTo(-2.0);
+		assertThat(curve.valueAt(5.0, CurveInterpolation.LINEAR)).isEqualTo(23.0);
+	}
+
+	@Test
+	@DisplayName("Test the log-linear interpolation")
+	public void givenCurve_whenLogLinearValue_thenInterpolateLogarithms() {
+		// ACT & ASSERT
+		assertThat(curve.valueAt(1.5, CurveInterpolation.LOG_LINEAR)).isCloseTo(2.0, within(1e-12));
+		assertThat(curve.valueAt(3.0, CurveInterpolation.LOG_LINEAR)).isCloseTo(9.0, within(1e-12));
+		assertThatThrownBy(() -> Curve.of(2, List.of(new CurvePoint(2, 1.0, -1.0), new CurvePoint(2, 2.0, 1.0)))
+				.valueAt(1.5, CurveInterpolation.LOG_LINEAR))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("Test the cubic spline goes through the points and is smooth between them")
+	public void givenCurve_whenSplineValue_thenGoThroughPoints() {
+		// ACT & ASSERT
+		for (double term : new double[]{1.0, 2.0, 3.0, 4.0}) {
+			assertThat(curve.valueAt(term, CurveInterpolation.CUBIC_SPLINE)).isCloseTo(term * term, within(1e-12));
+		}
+		assertThat(curve.valueAt(2.5, CurveInterpolation.CUBIC_SPLINE)).isCloseTo(6.25, within(0.1));
+		double slope = (curve.valueAt(3.0 + 1e-6, CurveInterpolation.CUBIC_SPLINE)
+				- curve.valueAt(3.0 - 1e-6, CurveInterpolation.CUBIC_SPLINE)) / 2e-6;
+		assertThat(slope).isCloseTo(6.0, within(0.5));
+		double endSlope = curve.valueAt(5.0, CurveInterpolation.CUBIC_SPLINE) - curve.valueAt(4.0, CurveInterpolation.CUBIC_SPLINE);
+		assertThat(curve.valueAt(6.0, CurveInterpolation.CUBIC_SPLINE) - curve.valueAt(5.0, CurveInterpolation.CUBIC_SPLINE))
+				.isCloseTo(endSlope, within(1e-9));
+	}
+
+	@Test
+	@DisplayName("Test that a curve with one point is flat and a curve without point is refused")
+	public void givenOnePointOrNone_whenBuildCurve_thenFlatOrRefused() {
+		// ACT & ASSERT
+		Curve flatCurve = Curve.of(3, List.of(new CurvePoint(3, 2.0, 8.3)));
+		assertThat(flatCurve.valueAt(10.0, CurveInterpolation.CUBIC_SPLINE)).isEqualTo(8.3);
+		assertThatThrownBy(() -> Curve.of(4, List.of()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid curve Id:4");
+	}
+}
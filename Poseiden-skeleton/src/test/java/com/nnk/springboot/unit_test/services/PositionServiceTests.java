@@ -0,0 +1,104 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeQuantities;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.Position;
+import com.nnk.springboot.services.PositionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = Application.class)
+public class PositionServiceTests {
+
+	@Autowired
+	private PositionService positionService;
+
+	@MockBean
+	private TradeRepository tradeRepository;
+
+	private static Trade trade(String account, String security, String book, Double buyQuantity, Double sellQuantity) {
+		Trade trade = new Trade(account, "type", buyQuantity);
+		trade.setSecurity(security);
+		trade.setBook(book);
+		trade.setSellQuantity(sellQuantity);
+		return trade;
+	}
+
+	/**
+	 * Writes a Trade as in its own transaction, and returns what runs once it is committed.
+	 */
+	private TransactionSynchronization written(Integer id, Trade trade) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			positionService.applyAfterCommit(id, trade);
+			return TransactionSynchronizationManager.getSynchronizations().get(0);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	@DisplayName("Test that the positions rebuilt from the table move with the Trades written, by delta only")
+	public void givenRebuiltPositions_whenTradesWritten_thenApplyTheirDeltas() {
+		// ARRANGE
+		when(tradeRepository.streamQuantities()).thenReturn(Stream.of(
+				new TradeQuantities(1, "acc", "sec", "book", 10.0, null),
+				new TradeQuantities(2, "acc", "sec", "book", 5.0, 3.0),
+				new TradeQuantities(3, "other", "sec", "book", 7.0, null)));
+		int trades = positionService.rebuild();
+
+		// ACT : trade 2 moves to another book, trade 3 is deleted, trade 4 is added, trade 1 is written twice
+		positionService.applyAfterCommit(2, trade("acc", "sec", "book 2", 5.0, 4.0));
+		positionService.applyAfterCommit(3, null);
+		positionService.applyAfterCommit(4, trade("acc", "sec", "book", null, 2.0));
+		positionService.applyAfterCommit(1, trade("acc", "sec", "book", 10.0, null));
+
+		// ASSERT
+		assertThat(trades).isEqualTo(3);
+		Position position = positionService.getPosition("acc", "sec", "book");
+		assertThat(position.getBuyQuantity()).isEqualTo(10.0);
+		assertThat(position.getSellQuantity()).isEqualTo(2.0);
+		assertThat(position.getNetQuantity()).isEqualTo(8.0);
+		assertThat(position.getTradeCount()).isEqualTo(2);
+		assertThat(positionService.getPosition("acc", "sec", "book 2").getNetQuantity()).isEqualTo(1.0);
+		assertThat(positionService.getPosition("other", "sec", "book").getTradeCount()).isZero();
+		assertThat(positionService.getPositions()).extracting(Position::getBook).containsExactly("book", "book 2");
+	}
+
+	@Test
+	@DisplayName("Test that the commits of a Trade applied out of order leave its position with its last write")
+	public void givenCommitsOfATradeAppliedOutOfOrder_whenApplied_thenKeepTheLastWrite() {
+		// ARRANGE
+		when(tradeRepository.streamQuantities()).thenReturn(Stream.of(
+				new TradeQuantities(1, "acc", "sec", "book", 10.0, null),
+				new TradeQuantities(2, "acc", "sec", "book", 5.0, null)));
+		positionService.rebuild();
+		TransactionSynchronization firstUpdate = written(1, trade("acc", "sec", "book", 20.0, null));
+		TransactionSynchronization secondUpdate = written(1, trade("acc", "sec", "book", 30.0, null));
+		TransactionSynchronization update = written(2, trade("acc", "sec", "book", 50.0, null));
+		TransactionSynchronization delete = written(2, null);
+
+		// ACT
+		secondUpdate.afterCommit();
+		firstUpdate.afterCommit();
+		delete.afterCommit();
+		update.afterCommit();
+
+		// ASSERT
+		Position position = positionService.getPosition("acc", "sec", "book");
+		assertThat(position.getBuyQuantity()).isEqualTo(30.0);
+		assertThat(position.getTradeCount()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,93 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.config.CachingConfig;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.RatingRepository;
+import com.nnk.springboot.services.RatingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = Application.class, properties = {
+		"spring.cache.type=caffeine",
+		"spring.cache.cache-names=ratings,ruleNames",
+		"spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=10m,recordStats"})
+public class RatingServiceTests {
+
+	@Autowired
+	private RatingService ratingService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@MockBean
+	private RatingRepository ratingRepository;
+
+	private Rating ratingTest;
+
+	@BeforeEach
+	public void setupTestData(){
+		// ARRANGE
+		cacheManager.getCache(CachingConfig.RATINGS).clear();
+		ratingTest = new Rating("moodys Test", "sAndP Test", "fitch Test", 1);
+		ratingTest.setId(1);
+		when(ratingRepository.findById(1)).thenReturn(Optional.of(ratingTest));
+		when(ratingRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(List.of(ratingTest));
+	}
+
+	@Test
+	@DisplayName("Test that a Rating and a page of Ratings are read from the database once")
+	public void givenCachedRatings_whenReadAgain_thenDoNotQueryTheDatabase() {
+		// ACT
+		Rating firstRating = ratingService.findById(1);
+		Rating secondRating = ratingService.findById(1);
+		KeysetPage<Rating> firstPage = ratingService.findPage(null, null, 10);
+		KeysetPage<Rating> secondPage = ratingService.findPage(null, null, 10);
+
+		// ASSERT
+		assertThat(secondRating).isSameAs(firstRating);
+		assertThat(secondPage).isSameAs(firstPage);
+		verify(ratingRepository, times(1)).findById(1);
+		verify(ratingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("Test that writing a Rating evicts the cached Ratings")
+	public void givenCachedRatings_whenSaveUpdateOrDelete_thenQueryTheDatabaseAgain() {
+		// ARRANGE
+		when(ratingRepository.updateRating(any(Rating.class))).thenReturn(1);
+		when(ratingRepository.deleteRatingById(1)).thenReturn(1);
+
+		// ACT
+		ratingService.findById(1);
+		ratingService.findPage(null, null, 10);
+		ratingService.save(new Rating("moodys New", "sAndP New", "fitch New", 2));
+		ratingService.findById(1);
+		ratingService.findPage(null, null, 10);
+		ratingService.update(1, new Rating("moodys Updated", "sAndP Updated", "fitch Updated", 1));
+		ratingService.findById(1);
+		ratingService.delete(1);
+		ratingService.findById(1);
+
+		// ASSERT
+		verify(ratingRepository, times(4)).findById(1);
+		verify(ratingRepository, times(2)).findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class));
+	}
+}
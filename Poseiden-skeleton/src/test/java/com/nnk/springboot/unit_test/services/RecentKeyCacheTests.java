@@ -0,0 +1,30 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.services.RecentKeyCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecentKeyCacheTests {
+
+	@Test
+	@DisplayName("Test that the cache forgets the least recently used key beyond its capacity")
+	public void givenFullCache_whenAddKey_thenForgetLeastRecentlyUsedKey() {
+		// ARRANGE
+		RecentKeyCache cache = new RecentKeyCache(2);
+		cache.add("SRC-1");
+		cache.add("SRC-2");
+
+		// ACT : SRC-1 is used again, so SRC-2 is the least recently used one
+		boolean known = cache.contains("SRC-1");
+		cache.add("SRC-3");
+
+		// ASSERT
+		assertThat(known).isTrue();
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.contains("SRC-1")).isTrue();
+		assertThat(cache.contains("SRC-2")).isFalse();
+		assertThat(cache.contains("SRC-3")).isTrue();
+	}
+}
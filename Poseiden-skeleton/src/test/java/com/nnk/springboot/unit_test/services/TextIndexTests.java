@@ -0,0 +1,64 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.domain.SearchDocument;
+import com.nnk.springboot.services.SearchHit;
+import com.nnk.springboot.services.TextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TextIndexTests {
+
+	private TextIndex index;
+
+	@BeforeEach
+	public void setupTestData(){
+		// ARRANGE
+		index = new TextIndex();
+		index.put(new SearchDocument(1, "Gold Swap 2026", "XAU", "acc_gold"));
+		index.put(new SearchDocument(2, "Silver forward", "XAG", "acc_silver"));
+		index.put(new SearchDocument(1, "Goldman note", "GS 5Y", "acc_1", "Goldilocks rates"));
+		index.put(new SearchDocument(3, "Bond swap", "UST 10Y", "acc_swap"));
+	}
+
+	private static long keyOf(SearchHit hit) {
+		return hit.getDocument().getKey();
+	}
+
+	@Test
+	@DisplayName("Test that a word ranks the documents holding it before those holding it as a prefix or inside a word")
+	public void givenIndexedDocuments_whenSearchWord_thenRankExactThenPrefixThenInfix() {
+		// ACT
+		List<SearchHit> hits = index.search("gold", 10);
+
+		// ASSERT : the Trade's deal name holds "gold", the BidList "goldman" and "goldilocks", the account "acc_gold"
+		assertThat(hits).extracting(TextIndexTests::keyOf).containsExactly(
+				SearchDocument.keyOf(SearchDocument.Type.TRADE, 1),
+				SearchDocument.keyOf(SearchDocument.Type.BID_LIST, 1));
+		assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+		assertThat(index.search("ilver", 10)).extracting(hit -> hit.getDocument().getId()).containsExactly(2);
+	}
+
+	@Test
+	@DisplayName("Test that a document must match every word of the query, and is no longer found once removed")
+	public void givenIndexedDocuments_whenSearchWordsAndRemove_thenMatchAllWordsOfLiveDocuments() {
+		// ACT
+		List<SearchHit> swaps = index.search("swap", 10);
+		List<SearchHit> bondSwaps = index.search("SWAP bon", 10);
+		index.remove(SearchDocument.keyOf(SearchDocument.Type.TRADE, 3));
+		index.put(new SearchDocument(2, "Silver swap", "XAG", "acc_silver"));
+
+		// ASSERT
+		assertThat(swaps).extracting(hit -> hit.getDocument().getId()).containsExactlyInAnyOrder(1, 3);
+		assertThat(bondSwaps).extracting(hit -> hit.getDocument().getId()).containsExactly(3);
+		assertThat(index.search("bond", 10)).isEmpty();
+		assertThat(index.search("swap", 10)).extracting(hit -> hit.getDocument().getId())
+				.containsExactlyInAnyOrder(1, 2);
+		assertThat(index.search("forward", 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(3);
+	}
+}
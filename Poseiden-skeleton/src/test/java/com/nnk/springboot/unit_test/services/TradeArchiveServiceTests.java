@@ -0,0 +1,166 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.config.PersistenceConfig;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.TradeSummary;
+import com.nnk.springboot.repositories.KeysetPage;
+import com.nnk.springboot.repositories.TradeArchiveRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.TradingFilter;
+import com.nnk.springboot.services.CurveService;
+import com.nnk.springboot.services.PnlSummary;
+import com.nnk.springboot.services.PositionService;
+import com.nnk.springboot.services.SearchService;
+import com.nnk.springboot.services.SourceListIdService;
+import com.nnk.springboot.services.TradeArchiveReport;
+import com.nnk.springboot.services.TradeArchiveService;
+import com.nnk.springboot.services.TradeBlotterService;
+import com.nnk.springboot.services.TradeDashboard;
+import com.nnk.springboot.services.TradeDashboardService;
+import com.nnk.springboot.services.TradeEvent;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.ValuationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {"poseidon.trade.archive.chunk-size=1", "poseidon.trade.summary-table.enabled=true",
+		"poseidon.ingestion.recent-keys=1"})
+@Import({TradeArchiveService.class, TradeService.class, PositionService.class, ValuationService.class,
+		CurveService.class, TradeDashboardService.class, SearchService.class, SourceListIdService.class, PersistenceConfig.class})
+// each chunk is moved in a transaction of its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TradeArchiveServiceTests {
+
+	@Autowired
+	private TradeArchiveService tradeArchiveService;
+
+	@Autowired
+	private TradeService tradeService;
+
+	@Autowired
+	private TradeDashboardService tradeDashboardService;
+
+	@Autowired
+	private SearchService searchService;
+
+	@Autowired
+	private PositionService positionService;
+
+	@Autowired
+	private ValuationService valuationService;
+
+	@MockBean
+	private TradeBlotterService tradeBlotterService;
+
+	@Autowired
+	private TradeRepository tradeRepository;
+
+	@Autowired
+	private TradeArchiveRepository tradeArchiveRepository;
+
+	private int valuedTradeCount() {
+		return valuationService.getSummaries().stream().mapToInt(PnlSummary::getTradeCount).sum();
+	}
+
+	private static Trade trade(String account, String tradeDate) {
+		Trade trade = new Trade(account, "type", 10.0);
+		trade.setStatus("CLOSED");
+		trade.setDealName("deal of " + account);
+		trade.setTradeDate(Timestamp.valueOf(tradeDate));
+		return trade;
+	}
+
+	@Test
+	@DisplayName("Test that the aged Trades are moved to the archive by chunks and only listed when asked for")
+	public void givenAgedTrades_whenArchive_thenMovedToArchiveAndListedOnDemand() {
+		// ARRANGE : the 3 Trades of data.sql have no trade date, so they are never archived
+		tradeService.save(trade("acc_old", "2001-01-01 00:00:00"));
+		tradeService.save(trade("acc_recent", "2030-01-01 00:00:00"));
+		tradeService.save(trade("acc_old", "2002-01-01 00:00:00"));
+		tradeDashboardService.rebuild();
+		searchService.rebuild();
+		TradingFilter oldAccount = new TradingFilter();
+		oldAccount.setAccount("acc_old");
+		int valuedTrades = valuedTradeCount();
+
+		// ACT
+		TradeArchiveReport report = tradeArchiveService.archiveTradedBefore(Timestamp.valueOf("2010-01-01 00:00:00"));
+		KeysetPage<TradeSummary> hot = tradeService.findPage(null, null, null, 10);
+		KeysetPage<TradeSummary> firstPage = tradeService.findPage(null, null, null, 4, true);
+		KeysetPage<TradeSummary> secondPage = tradeService.findPage(null, firstPage.getNextCursor(), null, 4, true);
+		KeysetPage<TradeSummary> previousPage = tradeService.findPage(null, null, secondPage.getPreviousCursor(), 4,
+				true);
+		KeysetPage<TradeSummary> archivedOld = tradeService.findPage(oldAccount, null, null, 10, true);
+
+		// ASSERT
+		assertThat(report.getArchivedCount()).isEqualTo(2);
+		assertThat(report.getChunkCount()).isEqualTo(2);
+		assertThat(tradeRepository.count()).isEqualTo(4);
+		assertThat(tradeArchiveRepository.count()).isEqualTo(2);
+		assertThat(hot.getContent()).extracting(TradeSummary::getId).containsExactly(1, 2, 3, 5);
+		assertThat(firstPage.getContent()).extracting(TradeSummary::getId).containsExactly(1, 2, 3, 4);
+		assertThat(secondPage.getContent()).extracting(TradeSummary::getId).containsExactly(5, 6);
+		assertThat(previousPage.getContent()).extracting(TradeSummary::getId).containsExactly(1, 2, 3, 4);
+		assertThat(archivedOld.getContent()).extracting(TradeSummary::getAccount).containsExactly("acc_old", "acc_old");
+		assertThat(tradeService.findPage(oldAccount, null, null, 10).getContent()).isEmpty();
+		assertThat(searchService.search("deal acc_old", 10)).isEmpty();
+		assertThat(searchService.search("deal acc_recent", 10)).hasSize(1);
+		TradeDashboard dashboard = tradeDashboardService.getDashboard();
+		assertThat(dashboard.getTotal().getTradeCount()).isEqualTo(4L);
+		assertThat(dashboard.getByStatus()).extracting(TradeDashboard.Line::getTradeCount).containsExactly(3L, 1L);
+		// the archived Trades still count in the positions and the P&L, also once rebuilt from the tables
+		assertThat(positionService.getPosition("acc_old", null, null).getTradeCount()).isEqualTo(2);
+		assertThat(valuedTradeCount()).isEqualTo(valuedTrades);
+		assertThat(positionService.rebuild()).isEqualTo(6);
+		assertThat(positionService.getPosition("acc_old", null, null).getBuyQuantity()).isEqualTo(20.0);
+		assertThat(valuationService.revalueAll()).isEqualTo(6);
+		assertThat(valuedTradeCount()).isEqualTo(valuedTrades);
+		// the live blotters remove them from the list
+		ArgumentCaptor<TradeEvent> events = ArgumentCaptor.forClass(TradeEvent.class);
+		verify(tradeBlotterService, atLeastOnce()).publishAfterCommit(events.capture());
+		assertThat(events.getAllValues()).filteredOn(event -> event.getKind() == TradeEvent.Kind.DELETE)
+				.extracting(TradeEvent::getId).containsExactly(4, 6);
+	}
+
+	@Test
+	@DirtiesContext
+	@DisplayName("Test that the sourceListId of an archived Trade is still refused once out of the cache")
+	public void givenArchivedTrade_whenReplayed_thenThrowException() {
+		// ARRANGE
+		Trade archived = trade("acc_archived", "2001-01-01 00:00:00");
+		archived.setSourceListId("SRC-ARCHIVED");
+		tradeService.save(archived);
+		tradeArchiveService.archiveTradedBefore(Timestamp.valueOf("2010-01-01 00:00:00"));
+		// the cache holds a single key, so this one forgets the archived one
+		Trade recent = trade("acc_recent", "2030-01-01 00:00:00");
+		recent.setSourceListId("SRC-RECENT");
+		tradeService.save(recent);
+		Trade replay = trade("acc_archived", "2001-01-01 00:00:00");
+		replay.setSourceListId("SRC-ARCHIVED");
+
+		// ACT
+		Throwable refused = catchThrowable(() -> tradeService.save(replay));
+
+		// ASSERT
+		assertThat(refused).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid sourceListId:SRC-ARCHIVED was already ingested");
+		assertThat(tradeArchiveRepository.existsBySourceListId("SRC-ARCHIVED")).isTrue();
+		assertThat(tradeService.findPage(null, null, null, 10).getContent())
+				.extracting(TradeSummary::getAccount).doesNotContain("acc_archived");
+	}
+}
@@ -0,0 +1,114 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.services.TradeBlotterService;
+import com.nnk.springboot.services.TradeEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class, properties = {"poseidon.trade.blotter.buffer-size=4",
+		"poseidon.trade.blotter.send-timeout-millis=1000"})
+public class TradeBlotterServiceTests {
+
+	@Autowired
+	private TradeBlotterService tradeBlotterService;
+
+	/**
+	 * Emitter recording the data sent, whose first send blocks until released, as a slow client would.
+	 */
+	private static class SlowEmitter extends SseEmitter {
+
+		private final List<Object> sent = new CopyOnWriteArrayList<>();
+
+		private final CountDownLatch sending = new CountDownLatch(1);
+
+		private final CountDownLatch released = new CountDownLatch(1);
+
+		private final CountDownLatch done;
+
+		SlowEmitter(int expectedSends) {
+			done = new CountDownLatch(expectedSends);
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+				if (!(data.getData() instanceof String)) {
+					sent.add(data.getData());
+				}
+			}
+			sending.countDown();
+			try {
+				released.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			done.countDown();
+		}
+	}
+
+	@Test
+	@DisplayName("Test that a slow blotter keeps its latest writes only, told how many it lost, without blocking the writer")
+	public void givenSlowBlotter_whenManyWrites_thenDropOldestWrites() throws InterruptedException {
+		// ARRANGE : the blotter is stuck sending the first write
+		SlowEmitter emitter = new SlowEmitter(6);
+		tradeBlotterService.subscribe(emitter);
+		tradeBlotterService.publish(TradeEvent.deleted(1));
+		assertThat(emitter.sending.await(10, TimeUnit.SECONDS)).isTrue();
+
+		// ACT : 6 more writes for a buffer of 4
+		for (int id = 2; id <= 7; id++) {
+			tradeBlotterService.publish(TradeEvent.deleted(id));
+		}
+		emitter.released.countDown();
+
+		// ASSERT
+		assertThat(emitter.done.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(emitter.sent).hasSize(6);
+		assertThat(emitter.sent.get(0)).isInstanceOf(TradeEvent.class);
+		assertThat(((TradeEvent) emitter.sent.get(0)).getId()).isEqualTo(1);
+		assertThat(emitter.sent.get(1)).isEqualTo(2L);
+		assertThat(emitter.sent.subList(2, 6)).extracting(event -> ((TradeEvent) event).getId())
+				.containsExactly(4, 5, 6, 7);
+		emitter.complete();
+	}
+
+	@Test
+	@DisplayName("Test that blotters stuck in a send are closed, so the other blotters still receive the writes")
+	public void givenBlottersStuckOnEverySenderThread_whenWrite_thenOtherBlottersStillReceiveIt() throws InterruptedException {
+		// ARRANGE : one stuck blotter for each of the 2 sender threads
+		int subscribers = tradeBlotterService.getSubscriberCount();
+		SlowEmitter stuck1 = new SlowEmitter(1);
+		SlowEmitter stuck2 = new SlowEmitter(1);
+		tradeBlotterService.subscribe(stuck1);
+		tradeBlotterService.subscribe(stuck2);
+		tradeBlotterService.publish(TradeEvent.deleted(1));
+		assertThat(stuck1.sending.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(stuck2.sending.await(10, TimeUnit.SECONDS)).isTrue();
+		SlowEmitter live = new SlowEmitter(1);
+		live.released.countDown();
+		tradeBlotterService.subscribe(live);
+
+		// ACT
+		tradeBlotterService.publish(TradeEvent.deleted(2));
+
+		// ASSERT : received once the stuck blotters are closed, after the send timeout
+		assertThat(live.done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(live.sent).extracting(event -> ((TradeEvent) event).getId()).containsExactly(2);
+		assertThat(tradeBlotterService.getSubscriberCount()).isEqualTo(subscribers + 1);
+		stuck1.released.countDown();
+		stuck2.released.countDown();
+		live.complete();
+	}
+}
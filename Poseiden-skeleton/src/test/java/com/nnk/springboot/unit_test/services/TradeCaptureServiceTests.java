@@ -0,0 +1,121 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.config.PersistenceConfig;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.CurveService;
+import com.nnk.springboot.services.PositionService;
+import com.nnk.springboot.services.SearchService;
+import com.nnk.springboot.services.SourceListIdService;
+import com.nnk.springboot.services.TradeBlotterService;
+import com.nnk.springboot.services.TradeCaptureService;
+import com.nnk.springboot.services.TradeDashboardService;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.ValuationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@DataJpaTest(properties = "poseidon.trade.capture.batch-size=16")
+@Import({TradeCaptureService.class, TradeService.class, PositionService.class, ValuationService.class,
+		CurveService.class, TradeDashboardService.class, SearchService.class, SourceListIdService.class,
+		PersistenceConfig.class})
+// the Trades are committed by the writer thread
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TradeCaptureServiceTests {
+
+	private static final int CALLERS = 8;
+
+	private static final int TRADES_PER_CALLER = 50;
+
+	@Autowired
+	private TradeCaptureService tradeCaptureService;
+
+	@Autowired
+	private TradeRepository tradeRepository;
+
+	@MockBean
+	private TradeBlotterService tradeBlotterService;
+
+	@Test
+	@DisplayName("Test that concurrent captures are committed in batches and each caller is acknowledged")
+	public void givenConcurrentCallers_whenCapture_thenCommittedInBatchesAndAcknowledged() throws Exception {
+		// ARRANGE
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		List<CompletableFuture<Trade>> acknowledgements = Collections.synchronizedList(new ArrayList<>());
+		// too long for its column: its batch fails, then the other Trades of the batch are committed alone
+		Trade bad = new Trade("account", "type", 1.0);
+		bad.setStatus(String.join("", Collections.nCopies(300, "x")));
+
+		// ACT
+		for (int caller = 0; caller < CALLERS; caller++) {
+			int callerId = caller;
+			callers.execute(() -> {
+				for (int i = 0; i < TRADES_PER_CALLER; i++) {
+					acknowledgements.add(tradeCaptureService.capture(new Trade("caller " + callerId, "type", (double) i)));
+				}
+			});
+		}
+		CompletableFuture<Trade> refused = tradeCaptureService.capture(bad);
+		callers.shutdown();
+		assertThat(callers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+		List<Trade> captured = new ArrayList<>();
+		for (CompletableFuture<Trade> acknowledgement : acknowledgements) {
+			captured.add(acknowledgement.get(30, TimeUnit.SECONDS));
+		}
+
+		// ASSERT : the 3 Trades of data.sql come first
+		assertThat(refused).isCompletedExceptionally();
+		assertThat(captured).hasSize(CALLERS * TRADES_PER_CALLER);
+		assertThat(captured).extracting(Trade::getId).doesNotHaveDuplicates().allMatch(id -> id > 3);
+		assertThat(tradeRepository.count()).isEqualTo(3 + CALLERS * TRADES_PER_CALLER);
+		assertThat(tradeCaptureService.getCapturedCount()).isEqualTo(CALLERS * TRADES_PER_CALLER);
+		assertThat(tradeCaptureService.getBatchCount()).isLessThan(CALLERS * TRADES_PER_CALLER);
+	}
+
+	@Test
+	@DirtiesContext
+	@DisplayName("Test that a batch whose views fail to be updated after its commit is acknowledged, not inserted again")
+	public void givenViewFailingAfterCommit_whenCapture_thenInsertedOnceAndAcknowledged() throws Exception {
+		// ARRANGE : the live blotters fail once the Trades are committed
+		doAnswer(invocation -> {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					throw new IllegalStateException("blotter failure");
+				}
+			});
+			return null;
+		}).when(tradeBlotterService).publishAfterCommit(any());
+		long before = tradeRepository.count();
+		long capturedBefore = tradeCaptureService.getCapturedCount();
+
+		// ACT
+		Trade captured = tradeCaptureService.capture(new Trade("account", "type", 1.0)).get(30, TimeUnit.SECONDS);
+
+		// ASSERT
+		assertThat(captured.getId()).isGreaterThan(3);
+		assertThat(tradeRepository.count()).isEqualTo(before + 1);
+		assertThat(tradeCaptureService.getCapturedCount()).isEqualTo(capturedBefore + 1);
+	}
+}
@@ -0,0 +1,104 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.config.PersistenceConfig;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.CurveService;
+import com.nnk.springboot.services.PositionService;
+import com.nnk.springboot.services.SearchService;
+import com.nnk.springboot.services.SourceListIdService;
+import com.nnk.springboot.services.TradeBlotterService;
+import com.nnk.springboot.services.TradeDashboard;
+import com.nnk.springboot.services.TradeDashboardService;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.ValuationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest(properties = "poseidon.trade.summary-table.enabled=true")
+@Import({TradeService.class, PositionService.class, ValuationService.class, CurveService.class,
+		TradeDashboardService.class, SearchService.class, TradeBlotterService.class, SourceListIdService.class,
+		PersistenceConfig.class})
+// each Trade write is committed, as it would be by the controllers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TradeDashboardServiceTests {
+
+	@Autowired
+	private TradeService tradeService;
+
+	@Autowired
+	private TradeDashboardService tradeDashboardService;
+
+	@Autowired
+	private TradeRepository tradeRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private static Trade trade(String status, Double buyQuantity, Double sellQuantity) {
+		Trade trade = new Trade("account", "type", buyQuantity);
+		trade.setStatus(status);
+		trade.setTrader("trader");
+		trade.setBook("book");
+		trade.setSellQuantity(sellQuantity);
+		return trade;
+	}
+
+	@Test
+	@DisplayName("Test that the summary table follows the Trades written and matches the GROUP BY totals")
+	public void givenSummaryTable_whenTradesWritten_thenTotalsMatchGroupBy() {
+		// ARRANGE : the 3 Trades of data.sql have no status, trader nor book
+		int totals = tradeDashboardService.rebuild();
+
+		// ACT
+		tradeService.save(trade("OPEN", 10.0, 2.0));
+		tradeService.update(1, trade("OPEN", 5.0, null));
+		tradeService.delete(2);
+
+		// ASSERT
+		assertThat(totals).isEqualTo(1);
+		TradeDashboard dashboard = tradeDashboardService.getDashboard();
+		TradeDashboard groupBy = TradeDashboard.of(tradeRepository.aggregateByStatusTraderBook());
+		assertThat(dashboard.getByStatus()).extracting(TradeDashboard.Line::getLabel).containsExactly(null, "OPEN");
+		assertThat(dashboard.getByStatus()).extracting(TradeDashboard.Line::getTradeCount).containsExactly(1L, 2L);
+		assertThat(dashboard.getByStatus().get(0).getBuyQuantity()).isCloseTo(80.2, within(1e-9));
+		assertThat(dashboard.getByStatus().get(1).getBuyQuantity()).isCloseTo(15.0, within(1e-9));
+		assertThat(dashboard.getByStatus().get(1).getSellQuantity()).isCloseTo(2.0, within(1e-9));
+		assertThat(dashboard.getByTrader()).extracting(TradeDashboard.Line::getLabel).containsExactly(null, "trader");
+		assertThat(dashboard.getByBook()).extracting(TradeDashboard.Line::getTradeCount).containsExactly(1L, 2L);
+		assertThat(dashboard.getTotal().getTradeCount()).isEqualTo(3L);
+		assertThat(groupBy.getByBook()).extracting(TradeDashboard.Line::getTradeCount).containsExactly(1L, 2L);
+		assertThat(groupBy.getTotal().getBuyQuantity()).isCloseTo(dashboard.getTotal().getBuyQuantity(), within(1e-9));
+	}
+
+	@Test
+	@DisplayName("Test that the totals are rolled back with the Trade write")
+	public void givenSummaryTable_whenTradeWriteRolledBack_thenTotalsUnchanged() {
+		// ARRANGE
+		tradeDashboardService.rebuild();
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+		// ACT
+		transactionTemplate.execute(status -> {
+			tradeService.save(trade("CLOSED", 10.0, 2.0));
+			tradeService.delete(3);
+			status.setRollbackOnly();
+			return null;
+		});
+
+		// ASSERT
+		TradeDashboard dashboard = tradeDashboardService.getDashboard();
+		assertThat(dashboard.getByStatus()).extracting(TradeDashboard.Line::getLabel).doesNotContain("CLOSED");
+		assertThat(dashboard.getTotal().getTradeCount()).isEqualTo(tradeRepository.count());
+	}
+}
@@ -0,0 +1,186 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.config.PersistenceConfig;
+import com.nnk.springboot.config.StatementCounter;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.CurveService;
+import com.nnk.springboot.services.PositionService;
+import com.nnk.springboot.services.SearchService;
+import com.nnk.springboot.services.SourceListIdService;
+import com.nnk.springboot.services.TradeBlotterService;
+import com.nnk.springboot.services.TradeDashboardService;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.ValuationService;
+import com.nnk.springboot.services.WriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@DataJpaTest
+@Import({TradeService.class, PositionService.class, ValuationService.class, CurveService.class,
+		TradeDashboardService.class, SearchService.class, TradeBlotterService.class, SourceListIdService.class,
+		PersistenceConfig.class})
+public class TradeServiceTests {
+
+	@Autowired
+	private TradeService tradeService;
+
+	@Autowired
+	private TradeRepository tradeRepository;
+
+	private Trade tradeTest;
+
+	@BeforeEach
+	public void setupTestData(){
+		// ARRANGE
+		tradeTest = new Trade("account Test", "type Test", 32.0);
+	}
+
+	@Test
+	@DisplayName("Test that saving a Trade issues a single statement")
+	public void givenTrade_whenSave_thenIssueOneStatement() {
+		// ACT
+		WriteResult result = tradeService.save(tradeTest);
+
+		// ASSERT
+		assertThat(result.getAffectedRows()).isEqualTo(1);
+		assertThat(result.getStatementCount()).isEqualTo(1);
+		assertThat(tradeTest.getId()).isGreaterThan(0);
+	}
+
+	@Test
+	@DisplayName("Test that updating a Trade issues a single statement")
+	public void givenExistingTrade_whenUpdate_thenIssueOneStatement() {
+		// ACT
+		WriteResult result = tradeService.update(1, tradeTest);
+
+		// ASSERT
+		assertThat(result.getAffectedRows()).isEqualTo(1);
+		assertThat(result.getStatementCount()).isEqualTo(1);
+		assertThat(tradeRepository.findById(1).get().getAccount()).isEqualTo("account Test");
+	}
+
+	@Test
+	@DisplayName("Test that deleting a Trade issues a single statement")
+	public void givenExistingTrade_whenDelete_thenIssueOneStatement() {
+		// ACT
+		WriteResult result = tradeService.delete(1);
+
+		// ASSERT
+		assertThat(result.getAffectedRows()).isEqualTo(1);
+		assertThat(result.getStatementCount()).isEqualTo(1);
+		assertThat(tradeRepository.findById(1)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Test that updating or deleting an unknown Trade fails")
+	public void givenUnknownTradeId_whenUpdateOrDelete_thenThrowException() {
+		// ACT & ASSERT
+		assertThatThrownBy(() -> tradeService.update(999, tradeTest))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid trade Id:999");
+		assertThatThrownBy(() -> tradeService.delete(999))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid trade Id:999");
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	@DirtiesContext
+	@DisplayName("Test that a Trade replaying the sourceListId of a Trade inserted lately is refused before its insert")
+	public void givenIngestedSourceListId_whenSaveAgain_thenThrowExceptionWithoutInsert() {
+		// ARRANGE : the insert is committed, so the cache holds the key
+		tradeTest.setSourceListId("SRC-1");
+		Trade replay = new Trade("account Replay", "type Test", 32.0);
+		replay.setSourceListId("SRC-1");
+
+		// ACT
+		WriteResult result = tradeService.save(tradeTest);
+		long statementsBefore = StatementCounter.current();
+		Throwable refused = catchThrowable(() -> tradeService.save(replay));
+
+		// ASSERT
+		assertThat(result.getStatementCount()).isEqualTo(1);
+		assertThat(refused).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid sourceListId:SRC-1 was already ingested");
+		// only the lookup of the unique index
+		assertThat(StatementCounter.current()).isEqualTo(statementsBefore + 1);
+	}
+
+	@Test
+	@DisplayName("Test that a sourceListId unknown to the cache is refused by the unique index on insert")
+	public void givenSourceListIdInTableOnly_whenSave_thenThrowExceptionFromUniqueIndex() {
+		// ARRANGE : inserted by the repository, so the cache of the service doesn't know it
+		Trade ingested = new Trade("account Ingested", "type Test", 32.0);
+		ingested.setSourceListId("SRC-IDX");
+		tradeRepository.saveAndFlush(ingested);
+		tradeTest.setSourceListId("SRC-IDX");
+
+		// ACT
+		Throwable refusedInsert = catchThrowable(() -> tradeService.save(tradeTest));
+
+		// ASSERT
+		assertThat(refusedInsert).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid sourceListId:SRC-IDX was already ingested");
+	}
+
+	@Test
+	@DisplayName("Test that a sourceListId unknown to the cache is refused by the unique index on update")
+	public void givenSourceListIdInTableOnly_whenUpdate_thenThrowExceptionFromUniqueIndex() {
+		// ARRANGE : inserted by the repository, so the cache of the service doesn't know it
+		Trade ingested = new Trade("account Ingested", "type Test", 32.0);
+		ingested.setSourceListId("SRC-IDX");
+		tradeRepository.saveAndFlush(ingested);
+		Trade update = new Trade("account Update", "type Test", 32.0);
+		update.setSourceListId("SRC-IDX");
+
+		// ACT
+		Throwable refusedUpdate = catchThrowable(() -> tradeService.update(1, update));
+
+		// ASSERT
+		assertThat(refusedUpdate).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid sourceListId:SRC-IDX was already ingested");
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	@DirtiesContext
+	@DisplayName("Test that the sourceListId of a Trade deleted may be ingested again, and that of a Trade updated not")
+	public void givenSourceListIdDeletedOrUpdated_whenSaveAgain_thenInsertDeletedKeyAndRefuseUpdatedKey() {
+		// ARRANGE : each write is committed, so the cache holds the keys
+		tradeTest.setSourceListId("SRC-1");
+		tradeService.save(tradeTest);
+		Trade updated = new Trade("account Updated", "type Test", 32.0);
+		updated.setSourceListId("SRC-2");
+		tradeService.save(updated);
+		// as posted by the update form, without sourceListId
+		Trade update = new Trade("account Updated", "type Test", 40.0);
+
+		// ACT
+		tradeService.delete(tradeTest.getId());
+		tradeService.update(updated.getId(), update);
+		Trade firstAgain = new Trade("account Again", "type Test", 32.0);
+		firstAgain.setSourceListId("SRC-1");
+		tradeService.save(firstAgain);
+		Trade replay = new Trade("account Replay", "type Test", 32.0);
+		replay.setSourceListId("SRC-2");
+		Throwable refused = catchThrowable(() -> tradeService.save(replay));
+
+		// ASSERT
+		assertThat(firstAgain.getId()).isGreaterThan(0);
+		assertThat(tradeRepository.findById(updated.getId()).get().getSourceListId()).isEqualTo("SRC-2");
+		assertThat(refused).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid sourceListId:SRC-2 was already ingested");
+	}
+}
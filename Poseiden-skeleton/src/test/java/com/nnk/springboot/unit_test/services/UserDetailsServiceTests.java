@@ -0,0 +1,103 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.config.CachingConfig;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.domain.UserCredentials;
+import com.nnk.springboot.repositories.UserRepository;
+import com.nnk.springboot.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = Application.class, properties = {
+		"spring.cache.type=caffeine",
+		"spring.cache.cache-names=ratings,ruleNames,users",
+		"spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=10m,recordStats"})
+public class UserDetailsServiceTests {
+
+	@Autowired
+	private UserDetailsService userDetailsService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@MockBean
+	private UserRepository userRepository;
+
+	@BeforeEach
+	public void setupTestData(){
+		// ARRANGE
+		cacheManager.getCache(CachingConfig.USERS).clear();
+		when(userRepository.findCredentialsByUsername(anyString(), any(Pageable.class))).thenReturn(List.of());
+		when(userRepository.findCredentialsByUsername(eq("userTest1"), any(Pageable.class)))
+				.thenReturn(List.of(new UserCredentials("userTest1", "$2a$10$hash", "USER")));
+	}
+
+	@Test
+	@DisplayName("Test that a User is loaded with his role as authority and read from the database once")
+	public void givenExistingUsername_whenLoadTwice_thenQueryTheDatabaseOnce() {
+		// ACT
+		UserDetails firstUser = userDetailsService.loadUserByUsername("userTest1");
+		UserDetails secondUser = userDetailsService.loadUserByUsername("userTest1");
+
+		// ASSERT
+		assertThat(firstUser.getPassword()).isEqualTo("$2a$10$hash");
+		assertThat(firstUser.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("USER");
+		assertThat(secondUser).isNotSameAs(firstUser);
+		verify(userRepository, times(1)).findCredentialsByUsername(eq("userTest1"), any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("Test that updating or deleting a User evicts the cached credentials")
+	public void givenCachedUser_whenUpdateOrDelete_thenQueryTheDatabaseAgain() {
+		// ARRANGE
+		when(userRepository.updateUser(any(User.class))).thenReturn(1);
+		when(userRepository.deleteUserById(1)).thenReturn(1);
+
+		// ACT
+		userDetailsService.loadUserByUsername("userTest1");
+		userService.update(1, new User("userTest1", "Password1!", "User Test 1", "ADMIN"));
+		userDetailsService.loadUserByUsername("userTest1");
+		userService.delete(1);
+		userDetailsService.loadUserByUsername("userTest1");
+
+		// ASSERT
+		verify(userRepository, times(3)).findCredentialsByUsername(eq("userTest1"), any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("Test that an unknown username is rejected and not cached")
+	public void givenUnknownUsername_whenLoad_thenThrowException() {
+		// ACT & ASSERT
+		assertThatThrownBy(() -> userDetailsService.loadUserByUsername("unknown"))
+				.isInstanceOf(UsernameNotFoundException.class)
+				.hasMessage("Invalid username:unknown");
+		assertThatThrownBy(() -> userDetailsService.loadUserByUsername("unknown"))
+				.isInstanceOf(UsernameNotFoundException.class);
+		verify(userRepository, times(2)).findCredentialsByUsername(eq("unknown"), any(Pageable.class));
+	}
+}
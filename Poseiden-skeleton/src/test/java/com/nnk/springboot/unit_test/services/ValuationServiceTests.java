@@ -0,0 +1,84 @@
+package com.nnk.springboot.unit_test.services;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.TradeValuationInput;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.CurveKey;
+import com.nnk.springboot.services.CurveService;
+import com.nnk.springboot.services.PnlSummary;
+import com.nnk.springboot.services.ValuationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = Application.class)
+public class ValuationServiceTests {
+
+	@Autowired
+	private ValuationService valuationService;
+
+	@Autowired
+	private CurveService curveService;
+
+	@MockBean
+	private TradeRepository tradeRepository;
+
+	@MockBean
+	private CurvePointRepository curvePointRepository;
+
+	private static CurvePoint point(int id, Timestamp asOfDate, double term, double value) {
+		CurvePoint curvePoint = new CurvePoint(5, term, value);
+		curvePoint.setId(id);
+		curvePoint.setAsOfDate(asOfDate);
+		return curvePoint;
+	}
+
+	@Test
+	@DisplayName("Test that the P&L by trader and book follows the curves and the Trades written, for the affected Trades only")
+	public void givenValuedTrades_whenCurveAndTradeWritten_thenRevalueAffectedTrades() {
+		// ARRANGE : trade 1 is marked on curve 5 at term 2, trade 2 is closed, curve 9 of trade 3 has no point
+		Timestamp asOfDate = Timestamp.valueOf("2026-10-16 00:00:00");
+		when(tradeRepository.streamValuationInputs()).thenReturn(Stream.of(
+				new TradeValuationInput(1, "trader", "book", "5:2.0", 10.0, null, 100.0, null),
+				new TradeValuationInput(2, "trader", "book", null, 5.0, 5.0, 10.0, 12.0),
+				new TradeValuationInput(3, "trader", "book", "9:1.0", 1.0, null, null, null)));
+		when(curvePointRepository.findLatestAsOfDate(5)).thenReturn(asOfDate);
+		when(curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAscIdAsc(eq(5), eq(asOfDate))).thenReturn(
+				List.of(point(51, asOfDate, 1.0, 100.0), point(52, asOfDate, 3.0, 104.0)),
+				List.of(point(51, asOfDate, 1.0, 100.0), point(52, asOfDate, 3.0, 106.0)));
+		int trades = valuationService.revalueAll();
+		PnlSummary valued = valuationService.getSummaries().get(0);
+
+		// ACT : curve 5 is written, then trade 2 is deleted
+		curveService.refreshAfterCommit(new CurveKey(5, asOfDate));
+		PnlSummary remarked = valuationService.getSummaries().get(0);
+		valuationService.applyAfterCommit(2, null);
+		PnlSummary deleted = valuationService.getSummaries().get(0);
+
+		// ASSERT
+		assertThat(trades).isEqualTo(3);
+		assertThat(valued.getPnl()).isEqualTo(30.0);
+		assertThat(valued.getTradeCount()).isEqualTo(3);
+		assertThat(valued.getUnmarkedCount()).isEqualTo(1);
+		assertThat(remarked.getPnl()).isEqualTo(40.0);
+		assertThat(valuationService.getValuation(1).getMark()).isEqualTo(103.0);
+		assertThat(deleted.getPnl()).isEqualTo(30.0);
+		assertThat(deleted.getTradeCount()).isEqualTo(2);
+		assertThatThrownBy(() -> valuationService.getValuation(2))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid trade Id:2");
+	}
+}